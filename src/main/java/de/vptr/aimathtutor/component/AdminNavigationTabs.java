@@ -17,6 +17,7 @@ public class AdminNavigationTabs extends Tabs {
             this.add(new Tab(new RouterLink("Dashboard", AdminDashboardView.class)));
             this.add(new Tab(new RouterLink("Sessions", AdminSessionsView.class)));
             this.add(new Tab(new RouterLink("Progress", AdminProgressView.class)));
+            this.add(new Tab(new RouterLink("Classes", AdminCohortsView.class)));
         }
 
         if (userRank.hasAnyExercisePermission()) {
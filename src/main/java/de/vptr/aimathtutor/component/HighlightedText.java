@@ -0,0 +1,28 @@
+package de.vptr.aimathtutor.component;
+
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.dom.Element;
+
+import de.vptr.aimathtutor.util.SearchPatternUtil;
+
+/**
+ * Renders a full-text search snippet with the matched terms wrapped in
+ * {@code <mark>}. All segments are set as text, never as HTML.
+ */
+public class HighlightedText extends Span {
+
+    public HighlightedText(final String snippet) {
+        final var segments = SearchPatternUtil.splitHighlights(snippet != null ? snippet : "");
+        for (int i = 0; i < segments.size(); i++) {
+            final String segment = segments.get(i);
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (i % 2 == 1) {
+                this.getElement().appendChild(new Element("mark").setText(segment));
+            } else {
+                this.getElement().appendChild(Element.createText(segment));
+            }
+        }
+    }
+}
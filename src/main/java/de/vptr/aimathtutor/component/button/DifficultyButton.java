@@ -0,0 +1,24 @@
+package de.vptr.aimathtutor.component.button;
+
+import org.vaadin.lineawesome.LineAwesomeIcon;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+
+public class DifficultyButton extends Button {
+    private final static String DEFAULT_TOOLTIP = "Difficulty";
+
+    public DifficultyButton(final ComponentEventListener<ClickEvent<Button>> difficultyAction,
+            final String tooltipText) {
+        super("", difficultyAction);
+        this.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ICON);
+        this.setIcon(LineAwesomeIcon.CHART_BAR_SOLID.create());
+        this.setTooltipText(tooltipText != null ? tooltipText : DEFAULT_TOOLTIP);
+    }
+
+    public DifficultyButton(final ComponentEventListener<ClickEvent<Button>> difficultyAction) {
+        this(difficultyAction, null);
+    }
+}
@@ -2,14 +2,17 @@ package de.vptr.aimathtutor.component.layout;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Key;
 import com.vaadin.flow.component.KeyModifier;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -17,17 +20,18 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.shared.Registration;
 
 import de.vptr.aimathtutor.component.button.DeleteButton;
 import de.vptr.aimathtutor.component.button.EditButton;
 import de.vptr.aimathtutor.component.button.ReplyButton;
 import de.vptr.aimathtutor.component.button.ReportButton;
 import de.vptr.aimathtutor.dto.CommentDto;
+import de.vptr.aimathtutor.dto.CommentThreadDto;
 import de.vptr.aimathtutor.dto.CommentViewDto;
-import de.vptr.aimathtutor.event.CommentCreatedEvent;
+import de.vptr.aimathtutor.service.CommentBroadcaster;
 import de.vptr.aimathtutor.service.CommentService;
 import de.vptr.aimathtutor.util.NotificationUtil;
-import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.inject.Vetoed;
 import jakarta.enterprise.inject.spi.CDI;
 
@@ -39,6 +43,8 @@ import jakarta.enterprise.inject.spi.CDI;
  * new().
  * The @Vetoed annotation excludes it from CDI bean discovery.
  * CommentService is looked up programmatically at runtime rather than injected.
+ * New comments by other users are pushed by the CommentBroadcaster while the
+ * panel is attached and inserted in place.
  */
 @Vetoed
 public class CommentsPanel extends VerticalLayout {
@@ -55,6 +61,12 @@ public class CommentsPanel extends VerticalLayout {
     private Button submitButton;
     private int currentPage = 0;
     private Long currentParentId = null; // For threading
+    private Span emptyPlaceholder;
+    private Registration commentRegistration;
+
+    // Displayed comments by id, used to insert pushed replies under their parent
+    private final Map<Long, Div> commentElements = new HashMap<>();
+    private final Map<Long, Div> repliesContainers = new HashMap<>();
 
     public CommentsPanel(final Long exerciseId, final String sessionId, final Long currentUserId) {
         this.exerciseId = exerciseId;
@@ -71,6 +83,27 @@ public class CommentsPanel extends VerticalLayout {
         return CDI.current().select(CommentService.class).get();
     }
 
+    private CommentBroadcaster getCommentBroadcaster() {
+        return CDI.current().select(CommentBroadcaster.class).get();
+    }
+
+    @Override
+    protected void onAttach(final AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        final var ui = attachEvent.getUI();
+        this.commentRegistration = this.getCommentBroadcaster().register(
+                this.exerciseId, comments -> ui.access(() -> this.onCommentsPushed(comments)));
+    }
+
+    @Override
+    protected void onDetach(final DetachEvent detachEvent) {
+        if (this.commentRegistration != null) {
+            this.commentRegistration.remove();
+            this.commentRegistration = null;
+        }
+        super.onDetach(detachEvent);
+    }
+
     private void initializeUI() {
         this.setWidthFull();
         this.setPadding(true);
@@ -124,54 +157,34 @@ public class CommentsPanel extends VerticalLayout {
 
     private void loadComments() {
         try {
-            // Always load top-level comments
-            final List<CommentViewDto> comments = this.getCommentService()
-                    .listCommentsByExercise(this.exerciseId, this.currentPage, this.pageSize, null);
-            this.displayComments(comments);
+            // One page of top-level comments including all replies, loaded in a single query
+            final List<CommentThreadDto> threads = this.getCommentService()
+                    .listCommentThreadsByExercise(this.exerciseId, this.currentPage, this.pageSize);
+            this.displayComments(threads);
         } catch (final Exception e) {
             LOG.error("Failed to load comments", e);
             NotificationUtil.showError("Failed to load comments");
         }
     }
 
-    private void displayComments(final List<CommentViewDto> comments) {
+    private void displayComments(final List<CommentThreadDto> threads) {
         this.commentsContainer.removeAll();
+        this.commentElements.clear();
+        this.repliesContainers.clear();
+        this.emptyPlaceholder = null;
 
-        if (comments.isEmpty()) {
-            this.commentsContainer.add(new Span("No comments yet. Be the first to comment!"));
+        if (threads.isEmpty()) {
+            this.emptyPlaceholder = new Span("No comments yet. Be the first to comment!");
+            this.commentsContainer.add(this.emptyPlaceholder);
             return;
         }
 
-        for (final CommentViewDto comment : comments) {
-            final Div commentDiv = this.createCommentElement(comment);
-            this.commentsContainer.add(commentDiv);
-
-            // If this comment has replies, load and display them
-            if (Boolean.TRUE.equals(comment.parentId == null)) {
-                try {
-                    final List<CommentViewDto> replies = this.getCommentService().findReplies(comment.id);
-                    if (!replies.isEmpty()) {
-                        final Div repliesContainer = new Div();
-                        repliesContainer.addClassName("comment-replies");
-                        repliesContainer.getStyle()
-                                .set("margin-left", "2rem")
-                                .set("margin-top", "0.5rem")
-                                .set("padding-left", "1rem")
-                                .set("border-left", "2px solid var(--lumo-contrast-20pct)");
-
-                        for (final CommentViewDto reply : replies) {
-                            repliesContainer.add(this.createCommentElement(reply));
-                        }
-                        this.commentsContainer.add(repliesContainer);
-                    }
-                } catch (final Exception e) {
-                    LOG.debug("Failed to load replies for comment {}", comment.id, e);
-                }
-            }
+        for (final CommentThreadDto thread : threads) {
+            this.addThread(this.commentsContainer, thread);
         }
 
         // Add load more button if we got full page
-        if (comments.size() >= this.pageSize) {
+        if (threads.size() >= this.pageSize) {
             final Button loadMoreButton = new Button("Load More Comments");
             loadMoreButton.addClickListener(e -> {
                 this.currentPage++;
@@ -181,6 +194,109 @@ public class CommentsPanel extends VerticalLayout {
         }
     }
 
+    private void addThread(final Div container, final CommentThreadDto thread) {
+        final Div commentElement = this.createCommentElement(thread.comment);
+        this.commentElements.put(thread.comment.id, commentElement);
+        container.add(commentElement);
+        if (thread.replies.isEmpty()) {
+            return;
+        }
+
+        final Div repliesContainer = this.createRepliesContainer(thread.comment.id);
+        for (final CommentThreadDto reply : thread.replies) {
+            this.addThread(repliesContainer, reply);
+        }
+        container.add(repliesContainer);
+    }
+
+    private Div createRepliesContainer(final Long parentId) {
+        final Div repliesContainer = new Div();
+        repliesContainer.addClassName("comment-replies");
+        repliesContainer.getStyle()
+                .set("margin-left", "2rem")
+                .set("margin-top", "0.5rem")
+                .set("padding-left", "1rem")
+                .set("border-left", "2px solid var(--lumo-contrast-20pct)");
+        this.repliesContainers.put(parentId, repliesContainer);
+        return repliesContainer;
+    }
+
+    /**
+     * Inserts a single new comment without reloading: top-level comments go
+     * first (newest first, as loaded), replies go last under their parent.
+     *
+     * @return false if the comment does not belong on the displayed page
+     */
+    private boolean appendComment(final CommentViewDto comment) {
+        if (this.commentElements.containsKey(comment.id)) {
+            return true;
+        }
+
+        final Div commentElement;
+        if (comment.parentId == null) {
+            if (this.currentPage > 0) {
+                return false;
+            }
+            if (this.emptyPlaceholder != null) {
+                this.commentsContainer.remove(this.emptyPlaceholder);
+                this.emptyPlaceholder = null;
+            }
+            commentElement = this.createCommentElement(comment);
+            this.commentsContainer.addComponentAsFirst(commentElement);
+        } else {
+            final Div parentElement = this.commentElements.get(comment.parentId);
+            if (parentElement == null) {
+                return false;
+            }
+            Div repliesContainer = this.repliesContainers.get(comment.parentId);
+            if (repliesContainer == null) {
+                final var parentContainer = (Div) parentElement.getParent().orElseThrow();
+                repliesContainer = this.createRepliesContainer(comment.parentId);
+                final int index = parentContainer.getElement().indexOfChild(parentElement.getElement());
+                parentContainer.addComponentAtIndex(index + 1, repliesContainer);
+            }
+            commentElement = this.createCommentElement(comment);
+            repliesContainer.add(commentElement);
+        }
+        this.commentElements.put(comment.id, commentElement);
+        return true;
+    }
+
+    /**
+     * Removes a hidden or deleted comment together with its replies, which
+     * are not shown below a comment that is not visible either.
+     */
+    private boolean removeComment(final Long commentId) {
+        final Div commentElement = this.commentElements.remove(commentId);
+        if (commentElement == null) {
+            return false;
+        }
+        commentElement.removeFromParent();
+        final Div repliesContainer = this.repliesContainers.remove(commentId);
+        if (repliesContainer != null) {
+            repliesContainer.removeFromParent();
+        }
+        return true;
+    }
+
+    private void onCommentsPushed(final List<CommentViewDto> comments) {
+        int added = 0;
+        for (final CommentViewDto comment : comments) {
+            if (!"VISIBLE".equals(comment.status)) {
+                this.removeComment(comment.id);
+                continue;
+            }
+            // Skips comments already shown, e.g. the panel's own posts
+            if (!this.commentElements.containsKey(comment.id) && this.appendComment(comment)) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            LOG.debug("Inserted {} pushed comment(s) for exercise {}", added, this.exerciseId);
+            NotificationUtil.showInfo(added == 1 ? "New comment added" : added + " new comments added");
+        }
+    }
+
     private Div createCommentElement(final CommentViewDto comment) {
         final Div commentDiv = new Div();
         commentDiv.addClassName("comment-item");
@@ -271,14 +387,16 @@ public class CommentsPanel extends VerticalLayout {
             dto.sessionId = this.sessionId;
 
             // Call service
-            this.getCommentService().createComment(dto, this.currentUserId);
+            final CommentViewDto created = this.getCommentService().createComment(dto, this.currentUserId);
 
             // Clear form
             this.commentTextArea.clear();
 
-            // Reset pagination and reload
-            this.currentPage = 0;
-            this.loadComments();
+            // Show the new comment in place, reload only if it is not on this page
+            if (!this.appendComment(created)) {
+                this.currentPage = 0;
+                this.loadComments();
+            }
 
             NotificationUtil.showSuccess("Comment posted!");
         } catch (final Exception e) {
@@ -380,22 +498,4 @@ public class CommentsPanel extends VerticalLayout {
         this.currentParentId = null;
         this.loadComments();
     }
-
-    /**
-     * CDI Event observer: Listen for new comments on this exercise.
-     * When a new comment is created elsewhere (by another user), this method
-     * fires and refreshes the comments panel automatically.
-     */
-    public void onCommentCreated(@Observes final CommentCreatedEvent event) {
-        // Only refresh if the event is for our exercise
-        if (event.getExerciseId().equals(this.exerciseId)) {
-            LOG.debug("Comment created event received for exercise {}, refreshing comments", this.exerciseId);
-
-            // Must use UI.getCurrent().access() to update the UI from another thread
-            UI.getCurrent().access(() -> {
-                this.refresh();
-                NotificationUtil.showInfo("New comment added");
-            });
-        }
-    }
 }
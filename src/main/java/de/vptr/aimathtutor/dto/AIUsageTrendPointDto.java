@@ -0,0 +1,27 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one bucket and provider of the AI usage trend chart.
+ */
+public class AIUsageTrendPointDto {
+
+    public LocalDateTime bucketStart;
+    public String provider;
+    public Long aiCalls;
+    public Long hints;
+    public Long answers;
+
+    public AIUsageTrendPointDto() {
+    }
+
+    public AIUsageTrendPointDto(final LocalDateTime bucketStart, final String provider, final Long aiCalls,
+            final Long hints, final Long answers) {
+        this.bucketStart = bucketStart;
+        this.provider = provider;
+        this.aiCalls = aiCalls != null ? aiCalls : 0L;
+        this.hints = hints != null ? hints : 0L;
+        this.answers = answers != null ? answers : 0L;
+    }
+}
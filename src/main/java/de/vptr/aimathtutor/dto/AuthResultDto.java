@@ -6,7 +6,8 @@ public class AuthResultDto {
         SUCCESS,
         INVALID_CREDENTIALS,
         BACKEND_UNAVAILABLE,
-        INVALID_INPUT
+        INVALID_INPUT,
+        TOO_MANY_ATTEMPTS
     }
 
     private final Status status;
@@ -33,6 +34,10 @@ public class AuthResultDto {
         return new AuthResultDto(Status.INVALID_INPUT, "Username and password are required");
     }
 
+    public static AuthResultDto tooManyAttempts() {
+        return new AuthResultDto(Status.TOO_MANY_ATTEMPTS, "Too many login attempts, please try again later");
+    }
+
     public Status getStatus() {
         return this.status;
     }
@@ -0,0 +1,47 @@
+package de.vptr.aimathtutor.dto;
+
+/**
+ * One validated row of a catalog import, either a lesson or an exercise.
+ * Lessons are referenced by their {@link #ref} from later rows; an exercise's
+ * {@link #parentRef} names its lesson. Rows with an {@link #error} are not
+ * inserted.
+ */
+public class CatalogImportRowDto {
+
+    public enum Type {
+        LESSON,
+        EXERCISE
+    }
+
+    public long line;
+    public Type type;
+    public String ref;
+    public String parentRef;
+    public String title;
+    public String content;
+    public boolean published;
+    public boolean commentable;
+    public boolean graspableEnabled;
+    public String graspableInitialExpression;
+    public String graspableTargetExpression;
+    public String graspableDifficulty;
+    public String graspableHints;
+    public String error;
+
+    public CatalogImportRowDto() {
+    }
+
+    public CatalogImportRowDto(final long line) {
+        this.line = line;
+    }
+
+    public static CatalogImportRowDto invalid(final long line, final String error) {
+        final var row = new CatalogImportRowDto(line);
+        row.error = error;
+        return row;
+    }
+
+    public boolean isValid() {
+        return this.error == null;
+    }
+}
@@ -0,0 +1,54 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the student catalog: all lessons and the published
+ * exercises, grouped by lesson. One snapshot is shared by all sessions, so
+ * the contained DTOs must not be modified; per-user data such as completion
+ * is added to copies.
+ */
+public class CatalogSnapshotDto {
+
+    public final long generation;
+    public final LocalDateTime builtAt;
+    public final List<LessonViewDto> lessons;
+    public final List<ExerciseViewDto> publishedExercises;
+    public final List<ExerciseViewDto> standaloneExercises;
+
+    private final Map<Long, List<ExerciseViewDto>> publishedExercisesByLesson;
+
+    /**
+     * @param lessons            all lessons in display order
+     * @param publishedExercises all published exercises in display order
+     */
+    public CatalogSnapshotDto(final long generation, final LocalDateTime builtAt, final List<LessonViewDto> lessons,
+            final List<ExerciseViewDto> publishedExercises) {
+        this.generation = generation;
+        this.builtAt = builtAt;
+        this.lessons = List.copyOf(lessons);
+        this.publishedExercises = List.copyOf(publishedExercises);
+        this.standaloneExercises = this.publishedExercises.stream()
+                .filter(exercise -> exercise.lessonId == null)
+                .toList();
+        this.publishedExercisesByLesson = Map.copyOf(this.publishedExercises.stream()
+                .filter(exercise -> exercise.lessonId != null)
+                .collect(Collectors.groupingBy(exercise -> exercise.lessonId, LinkedHashMap::new,
+                        Collectors.toUnmodifiableList())));
+    }
+
+    /**
+     * Returns the published exercises of one lesson, in display order.
+     */
+    public List<ExerciseViewDto> getPublishedExercises(final Long lessonId) {
+        return lessonId != null ? this.publishedExercisesByLesson.getOrDefault(lessonId, List.of()) : List.of();
+    }
+
+    public boolean isEmpty() {
+        return this.lessons.isEmpty() && this.standaloneExercises.isEmpty();
+    }
+}
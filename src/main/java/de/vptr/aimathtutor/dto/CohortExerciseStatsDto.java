@@ -0,0 +1,78 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the aggregated activity of one user group on one exercise.
+ */
+public class CohortExerciseStatsDto {
+
+    /**
+     * Exercises with fewer sessions are too noisy to be reported as hot-spots.
+     */
+    public static final long MIN_SESSIONS_FOR_STRUGGLE = 3;
+
+    public Long exerciseId;
+    public String exerciseTitle;
+    public long totalSessions;
+    public long completedSessions;
+    public long hintsUsed;
+    public long actionsCount;
+    public long correctActions;
+    public LocalDateTime lastActivity;
+
+    public CohortExerciseStatsDto() {
+    }
+
+    public CohortExerciseStatsDto(final Long exerciseId, final String exerciseTitle, final long totalSessions,
+            final long completedSessions, final long hintsUsed, final long actionsCount, final long correctActions,
+            final LocalDateTime lastActivity) {
+        this.exerciseId = exerciseId;
+        this.exerciseTitle = exerciseTitle;
+        this.totalSessions = totalSessions;
+        this.completedSessions = completedSessions;
+        this.hintsUsed = hintsUsed;
+        this.actionsCount = actionsCount;
+        this.correctActions = correctActions;
+        this.lastActivity = lastActivity;
+    }
+
+    public double getCompletionRate() {
+        return this.totalSessions > 0 ? (double) this.completedSessions / this.totalSessions : 0.0;
+    }
+
+    public double getSuccessRate() {
+        return this.actionsCount > 0 ? (double) this.correctActions / this.actionsCount : 0.0;
+    }
+
+    public double getHintsPerSession() {
+        return this.totalSessions > 0 ? (double) this.hintsUsed / this.totalSessions : 0.0;
+    }
+
+    /**
+     * Heuristic between 0 and 1, higher means the class struggles more.
+     * Weighs unfinished sessions highest, then wrong steps, then hint usage
+     * (capped at three hints per session).
+     */
+    public double getStruggleScore() {
+        if (this.totalSessions == 0) {
+            return 0.0;
+        }
+        final double hints = Math.min(this.getHintsPerSession(), 3.0) / 3.0;
+        return 0.5 * (1.0 - this.getCompletionRate())
+                + 0.3 * (this.actionsCount > 0 ? 1.0 - this.getSuccessRate() : 0.0)
+                + 0.2 * hints;
+    }
+
+    public String getCompletionRatePercentage() {
+        return String.format("%.1f%%", this.getCompletionRate() * 100);
+    }
+
+    public String getSuccessRatePercentage() {
+        return String.format("%.1f%%", this.getSuccessRate() * 100);
+    }
+
+    public String getFormattedHintsPerSession() {
+        return String.format("%.1f", this.getHintsPerSession());
+    }
+}
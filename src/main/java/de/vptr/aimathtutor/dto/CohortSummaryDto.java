@@ -0,0 +1,86 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DTO for the class dashboard of a user group. Totals are sums over the
+ * group's per-exercise aggregates, {@link #exercises} is only filled when a
+ * single group is loaded.
+ */
+public class CohortSummaryDto {
+
+    public Long groupId;
+    public String groupName;
+    public long memberCount;
+    public long totalSessions;
+    public long completedSessions;
+    public long hintsUsed;
+    public long actionsCount;
+    public long correctActions;
+    public LocalDateTime lastActivity;
+    public List<CohortExerciseStatsDto> exercises = new ArrayList<>();
+
+    public CohortSummaryDto() {
+    }
+
+    public CohortSummaryDto(final Long groupId, final String groupName, final long memberCount) {
+        this.groupId = groupId;
+        this.groupName = groupName;
+        this.memberCount = memberCount;
+    }
+
+    /**
+     * Adds an exercise row and folds it into the group totals.
+     */
+    public void addExercise(final CohortExerciseStatsDto stats) {
+        this.exercises.add(stats);
+        this.totalSessions += stats.totalSessions;
+        this.completedSessions += stats.completedSessions;
+        this.hintsUsed += stats.hintsUsed;
+        this.actionsCount += stats.actionsCount;
+        this.correctActions += stats.correctActions;
+        if (stats.lastActivity != null
+                && (this.lastActivity == null || stats.lastActivity.isAfter(this.lastActivity))) {
+            this.lastActivity = stats.lastActivity;
+        }
+    }
+
+    /**
+     * Exercises the class struggles with most, ignoring exercises with too few
+     * sessions to be meaningful.
+     */
+    public List<CohortExerciseStatsDto> getStruggleHotSpots(final int limit) {
+        return this.exercises.stream()
+                .filter(stats -> stats.totalSessions >= CohortExerciseStatsDto.MIN_SESSIONS_FOR_STRUGGLE)
+                .sorted(Comparator.comparingDouble(CohortExerciseStatsDto::getStruggleScore).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public double getCompletionRate() {
+        return this.totalSessions > 0 ? (double) this.completedSessions / this.totalSessions : 0.0;
+    }
+
+    public double getSuccessRate() {
+        return this.actionsCount > 0 ? (double) this.correctActions / this.actionsCount : 0.0;
+    }
+
+    public double getHintsPerSession() {
+        return this.totalSessions > 0 ? (double) this.hintsUsed / this.totalSessions : 0.0;
+    }
+
+    public String getCompletionRatePercentage() {
+        return String.format("%.1f%%", this.getCompletionRate() * 100);
+    }
+
+    public String getSuccessRatePercentage() {
+        return String.format("%.1f%%", this.getSuccessRate() * 100);
+    }
+
+    public String getFormattedHintsPerSession() {
+        return String.format("%.1f", this.getHintsPerSession());
+    }
+}
@@ -0,0 +1,54 @@
+package de.vptr.aimathtutor.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a comment together with its (nested) replies.
+ */
+public class CommentThreadDto {
+
+    public CommentViewDto comment;
+    public List<CommentThreadDto> replies = new ArrayList<>();
+
+    public CommentThreadDto() {
+    }
+
+    public CommentThreadDto(final CommentViewDto comment) {
+        this.comment = comment;
+    }
+
+    /**
+     * Assembles threads from a flat list in which every reply comes after its
+     * parent. Comments whose parent is not in the list become roots, so the
+     * order of the roots and of the replies under each parent is preserved.
+     */
+    public static List<CommentThreadDto> assemble(final List<CommentViewDto> comments) {
+        final Map<Long, CommentThreadDto> byId = new LinkedHashMap<>();
+        final List<CommentThreadDto> roots = new ArrayList<>();
+        for (final CommentViewDto comment : comments) {
+            final var thread = new CommentThreadDto(comment);
+            byId.put(comment.id, thread);
+            final var parent = comment.parentId != null ? byId.get(comment.parentId) : null;
+            if (parent != null) {
+                parent.replies.add(thread);
+            } else {
+                roots.add(thread);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Number of comments in this thread, including the root.
+     */
+    public int size() {
+        int size = 1;
+        for (final CommentThreadDto reply : this.replies) {
+            size += reply.size();
+        }
+        return size;
+    }
+}
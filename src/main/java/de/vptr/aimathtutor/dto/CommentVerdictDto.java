@@ -0,0 +1,34 @@
+package de.vptr.aimathtutor.dto;
+
+/**
+ * Result of the automatic moderation for one comment.
+ */
+public class CommentVerdictDto {
+
+    public enum Verdict {
+        OK,
+        OFF_TOPIC,
+        TOXIC
+    }
+
+    public Long commentId;
+    public Verdict verdict;
+    public double confidence;
+
+    public CommentVerdictDto() {
+    }
+
+    public CommentVerdictDto(final Long commentId, final Verdict verdict, final double confidence) {
+        this.commentId = commentId;
+        this.verdict = verdict;
+        this.confidence = Math.max(0.0, Math.min(1.0, confidence));
+    }
+
+    public static CommentVerdictDto ok(final Long commentId) {
+        return new CommentVerdictDto(commentId, Verdict.OK, 1.0);
+    }
+
+    public boolean isOk() {
+        return this.verdict == null || this.verdict == Verdict.OK;
+    }
+}
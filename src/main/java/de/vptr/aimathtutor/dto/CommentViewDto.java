@@ -21,6 +21,9 @@ public class CommentViewDto {
     public LocalDateTime editedAt;
     public Long authorId;
 
+    // Highlighted full-text search snippet, only set for search results
+    public String searchSnippet;
+
     public CommentViewDto() {
     }
 
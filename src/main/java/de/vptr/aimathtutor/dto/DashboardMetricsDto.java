@@ -0,0 +1,101 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of the admin dashboard metrics.
+ * Deltas produce new instances so a snapshot can be shared between all open
+ * dashboards without copying.
+ */
+public class DashboardMetricsDto {
+
+    public final long totalSessions;
+    public final long completedSessions;
+    public final long activeStudents;
+    public final long activeStudents30Days;
+    public final long activeStudents90Days;
+    public final long activeStudentsToday;
+    public final long todaySessions;
+    public final LocalDate day;
+    public final LocalDateTime computedAt;
+
+    public DashboardMetricsDto(final long totalSessions, final long completedSessions, final long activeStudents,
+            final long activeStudents30Days, final long activeStudents90Days, final long activeStudentsToday,
+            final long todaySessions, final LocalDate day, final LocalDateTime computedAt) {
+        this.totalSessions = totalSessions;
+        this.completedSessions = completedSessions;
+        this.activeStudents = activeStudents;
+        this.activeStudents30Days = activeStudents30Days;
+        this.activeStudents90Days = activeStudents90Days;
+        this.activeStudentsToday = activeStudentsToday;
+        this.todaySessions = todaySessions;
+        this.day = day;
+        this.computedAt = computedAt;
+    }
+
+    /**
+     * Applies a started session. The today counter restarts when the session
+     * belongs to a later day than the snapshot, with its one active student.
+     * Otherwise active students are only recomputed by the scheduled refresh,
+     * since distinctness is unknown here.
+     */
+    public DashboardMetricsDto withSessionStarted(final LocalDateTime startedAt) {
+        final LocalDate startDay = startedAt.toLocalDate();
+        long today = this.todaySessions;
+        long activeToday = this.activeStudentsToday;
+        LocalDate snapshotDay = this.day;
+        if (startDay.isAfter(snapshotDay)) {
+            today = 1;
+            activeToday = 1;
+            snapshotDay = startDay;
+        } else if (startDay.equals(snapshotDay)) {
+            today++;
+        }
+        return new DashboardMetricsDto(this.totalSessions + 1, this.completedSessions, this.activeStudents,
+                this.activeStudents30Days, this.activeStudents90Days, activeToday, today, snapshotDay,
+                this.computedAt);
+    }
+
+    public DashboardMetricsDto withSessionCompleted() {
+        return new DashboardMetricsDto(this.totalSessions, this.completedSessions + 1, this.activeStudents,
+                this.activeStudents30Days, this.activeStudents90Days, this.activeStudentsToday, this.todaySessions,
+                this.day, this.computedAt);
+    }
+
+    public long getTotalSessions() {
+        return this.totalSessions;
+    }
+
+    public long getCompletedSessions() {
+        return this.completedSessions;
+    }
+
+    public long getActiveStudents() {
+        return this.activeStudents;
+    }
+
+    public long getActiveStudents30Days() {
+        return this.activeStudents30Days;
+    }
+
+    public long getActiveStudents90Days() {
+        return this.activeStudents90Days;
+    }
+
+    public long getActiveStudentsToday() {
+        return this.activeStudentsToday;
+    }
+
+    public long getTodaySessions() {
+        return this.todaySessions;
+    }
+
+    public LocalDate getDay() {
+        return this.day;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return this.computedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package de.vptr.aimathtutor.dto;
+
+/**
+ * DTO for the difficulty distribution of an exercise or lesson.
+ * Percentiles are derived from mergeable histograms, so they are accurate to
+ * about 2% of the reported value.
+ */
+public class ExerciseDifficultyDto {
+
+    public Long exerciseId;
+    public Long lessonId;
+    public String title;
+    public long completions;
+
+    public long timeToCompleteP50Seconds;
+    public long timeToCompleteP90Seconds;
+    public long timeToCompleteP99Seconds;
+
+    public long actionsP50;
+    public long actionsP90;
+    public long actionsP99;
+
+    public long hintsP50;
+    public long hintsP90;
+    public long hintsP99;
+
+    public ExerciseDifficultyDto() {
+    }
+
+    public String getTimeToCompleteSummary() {
+        return formatDuration(this.timeToCompleteP50Seconds) + " / " + formatDuration(this.timeToCompleteP90Seconds)
+                + " / " + formatDuration(this.timeToCompleteP99Seconds);
+    }
+
+    public String getActionsSummary() {
+        return this.actionsP50 + " / " + this.actionsP90 + " / " + this.actionsP99;
+    }
+
+    public String getHintsSummary() {
+        return this.hintsP50 + " / " + this.hintsP90 + " / " + this.hintsP99;
+    }
+
+    private static String formatDuration(final long seconds) {
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        return (seconds / 60) + "m " + (seconds % 60) + "s";
+    }
+}
@@ -18,11 +18,16 @@ public class ExerciseViewDto {
     public LocalDateTime created;
     public LocalDateTime lastEdit;
     public Long commentsCount;
+    public Long openFlagsCount;
+    public LocalDateTime lastCommentAt;
 
     // Completion tracking for current user
     public Boolean userCompleted;
     public Integer userCompletionCount;
 
+    // Highlighted full-text search snippet, only set for search results
+    public String searchSnippet;
+
     // Graspable Math fields
     public Boolean graspableEnabled;
     public String graspableInitialExpression;
@@ -46,7 +51,9 @@ public class ExerciseViewDto {
             this.commentable = entity.commentable;
             this.created = entity.created;
             this.lastEdit = entity.lastEdit;
-            this.commentsCount = entity.comments != null ? (long) entity.comments.size() : 0L;
+            this.commentsCount = entity.commentsCount != null ? (long) entity.commentsCount : 0L;
+            this.openFlagsCount = entity.openFlagsCount != null ? (long) entity.openFlagsCount : 0L;
+            this.lastCommentAt = entity.lastCommentAt;
 
             // Graspable Math fields
             this.graspableEnabled = entity.graspableEnabled;
@@ -57,6 +64,34 @@ public class ExerciseViewDto {
         }
     }
 
+    /**
+     * Copy constructor, used to add per-user data to shared catalog DTOs.
+     */
+    public ExerciseViewDto(final ExerciseViewDto other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.content = other.content;
+        this.userId = other.userId;
+        this.username = other.username;
+        this.lessonId = other.lessonId;
+        this.lessonName = other.lessonName;
+        this.published = other.published;
+        this.commentable = other.commentable;
+        this.created = other.created;
+        this.lastEdit = other.lastEdit;
+        this.commentsCount = other.commentsCount;
+        this.openFlagsCount = other.openFlagsCount;
+        this.lastCommentAt = other.lastCommentAt;
+        this.userCompleted = other.userCompleted;
+        this.userCompletionCount = other.userCompletionCount;
+        this.searchSnippet = other.searchSnippet;
+        this.graspableEnabled = other.graspableEnabled;
+        this.graspableInitialExpression = other.graspableInitialExpression;
+        this.graspableTargetExpression = other.graspableTargetExpression;
+        this.graspableDifficulty = other.graspableDifficulty;
+        this.graspableHints = other.graspableHints;
+    }
+
     /**
      * Getter for id
      */
@@ -0,0 +1,49 @@
+package de.vptr.aimathtutor.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first errors are kept, {@link #errorCount}
+ * counts all of them.
+ */
+public class ImportResultDto {
+
+    public static class RowError {
+        public long line;
+        public String message;
+
+        public RowError() {
+        }
+
+        public RowError(final long line, final String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+
+    public long rowsRead;
+    public int lessonsImported;
+    public int exercisesImported;
+    public long errorCount;
+    public List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Counts an error and keeps it while fewer than {@code limit} are kept.
+     */
+    public void addError(final long line, final String message, final int limit) {
+        this.errorCount++;
+        if (this.errors.size() < limit) {
+            this.errors.add(new RowError(line, message));
+        }
+    }
+
+    public boolean hasErrors() {
+        return this.errorCount > 0;
+    }
+
+    public String getSummary() {
+        return String.format("Imported %d lessons and %d exercises from %d rows, %d rows failed",
+                this.lessonsImported, this.exercisesImported, this.rowsRead, this.errorCount);
+    }
+}
@@ -64,6 +64,24 @@ public class LessonViewDto {
         }
     }
 
+    /**
+     * Creates the DTO from counts queried in bulk, without touching the lazy
+     * children and exercises collections. Only the parent's id and name are
+     * read, so the parent should be fetched with the lesson.
+     */
+    public LessonViewDto(final LessonEntity entity, final List<Long> childrenIds, final int exercisesCount) {
+        this.id = entity.id;
+        this.name = entity.name;
+        this.isRootLesson = entity.isRootLesson();
+        if (entity.parent != null) {
+            this.parentId = entity.parent.id;
+            this.parentName = entity.parent.name;
+        }
+        this.childrenIds = childrenIds != null ? List.copyOf(childrenIds) : List.of();
+        this.childrenCount = this.childrenIds.size();
+        this.exercisesCount = exercisesCount;
+    }
+
     /**
      * Helper method to check if this is a root lesson
      */
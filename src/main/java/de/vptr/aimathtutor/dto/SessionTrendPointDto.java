@@ -0,0 +1,25 @@
+package de.vptr.aimathtutor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one bucket of the session trend chart.
+ */
+public class SessionTrendPointDto {
+
+    public LocalDateTime bucketStart;
+    public Long sessionsStarted;
+    public Long sessionsCompleted;
+    public Long hintsUsed;
+
+    public SessionTrendPointDto() {
+    }
+
+    public SessionTrendPointDto(final LocalDateTime bucketStart, final Long sessionsStarted,
+            final Long sessionsCompleted, final Long hintsUsed) {
+        this.bucketStart = bucketStart;
+        this.sessionsStarted = sessionsStarted != null ? sessionsStarted : 0L;
+        this.sessionsCompleted = sessionsCompleted != null ? sessionsCompleted : 0L;
+        this.hintsUsed = hintsUsed != null ? hintsUsed : 0L;
+    }
+}
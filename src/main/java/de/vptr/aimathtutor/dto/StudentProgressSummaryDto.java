@@ -45,6 +45,38 @@ public class StudentProgressSummaryDto {
         this.lastActivity = lastActivity;
     }
 
+    /**
+     * Projection constructor used by the aggregated progress query. Takes the raw
+     * per-user sums from the database and derives rates and averages from them.
+     * Sums are null for users without any sessions.
+     */
+    public StudentProgressSummaryDto(
+            final Long userId,
+            final String username,
+            final Long totalSessions,
+            final Long completedSessions,
+            final Long hintsUsed,
+            final Long totalActions,
+            final Long correctActions,
+            final LocalDateTime lastActivity) {
+        final int sessions = totalSessions != null ? totalSessions.intValue() : 0;
+        final int completed = completedSessions != null ? completedSessions.intValue() : 0;
+        final long actions = totalActions != null ? totalActions : 0L;
+        final long correct = correctActions != null ? correctActions : 0L;
+
+        this.userId = userId;
+        this.username = username;
+        this.totalSessions = sessions;
+        this.completedSessions = completed;
+        // Note: one problem = one session/exercise attempt
+        this.totalProblems = sessions;
+        this.completedProblems = completed;
+        this.hintsUsed = hintsUsed != null ? hintsUsed.intValue() : 0;
+        this.averageActionsPerProblem = sessions > 0 ? (double) actions / sessions : 0.0;
+        this.successRate = actions > 0 ? (double) correct / actions : 0.0;
+        this.lastActivity = lastActivity;
+    }
+
     /**
      * Get completion rate as percentage string
      */
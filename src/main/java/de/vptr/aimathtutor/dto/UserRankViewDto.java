@@ -47,6 +47,14 @@ public class UserRankViewDto {
     }
 
     public UserRankViewDto(final UserRankEntity entity) {
+        this(entity, entity != null && entity.users != null ? Long.valueOf(entity.users.size()) : 0L);
+    }
+
+    /**
+     * Creates the DTO with a known user count, without loading the rank's
+     * users.
+     */
+    public UserRankViewDto(final UserRankEntity entity, final Long usersCount) {
         if (entity != null) {
             this.id = entity.id;
             this.name = entity.name;
@@ -85,10 +93,38 @@ public class UserRankViewDto {
             this.userRankEdit = entity.userRankEdit;
 
             // Computed fields
-            this.usersCount = entity.users != null ? (long) entity.users.size() : 0L;
+            this.usersCount = usersCount;
         }
     }
 
+    /**
+     * Creates a copy, so shared instances are never handed out.
+     */
+    public UserRankViewDto(final UserRankViewDto other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.adminView = other.adminView;
+        this.exerciseAdd = other.exerciseAdd;
+        this.exerciseDelete = other.exerciseDelete;
+        this.exerciseEdit = other.exerciseEdit;
+        this.lessonAdd = other.lessonAdd;
+        this.lessonDelete = other.lessonDelete;
+        this.lessonEdit = other.lessonEdit;
+        this.commentAdd = other.commentAdd;
+        this.commentDelete = other.commentDelete;
+        this.commentEdit = other.commentEdit;
+        this.userAdd = other.userAdd;
+        this.userDelete = other.userDelete;
+        this.userEdit = other.userEdit;
+        this.userGroupAdd = other.userGroupAdd;
+        this.userGroupDelete = other.userGroupDelete;
+        this.userGroupEdit = other.userGroupEdit;
+        this.userRankAdd = other.userRankAdd;
+        this.userRankDelete = other.userRankDelete;
+        this.userRankEdit = other.userRankEdit;
+        this.usersCount = other.usersCount;
+    }
+
     // Helper methods for permission checking
     public boolean canAdminView() {
         return Boolean.TRUE.equals(this.adminView);
@@ -55,6 +55,8 @@ public class AIInteractionEntity extends PanacheEntityBase {
     @Column(name = "action_correct")
     public Boolean actionCorrect;
 
+    public String provider; // AI provider that produced the feedback, null for student messages
+
     @Column(name = "conversation_context", columnDefinition = "TEXT")
     public String conversationContext; // JSON string of context sent with AI request
 
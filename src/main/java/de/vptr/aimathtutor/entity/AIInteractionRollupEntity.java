@@ -0,0 +1,39 @@
+package de.vptr.aimathtutor.entity;
+
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+/**
+ * Time-bucketed AI interaction counts per exercise, lesson and provider.
+ * Written only by the rollup job, read by the trend queries.
+ */
+@Entity
+@Table(name = "ai_interaction_rollups")
+public class AIInteractionRollupEntity extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    public String granularity; // HOUR or DAY
+
+    @Column(name = "bucket_start")
+    public LocalDateTime bucketStart;
+
+    @Column(name = "exercise_id")
+    public Long exerciseId;
+
+    @Column(name = "lesson_id")
+    public Long lessonId;
+
+    public String provider;
+
+    @Column(name = "ai_calls")
+    public Long aiCalls;
+
+    public Long hints;
+
+    public Long answers;
+}
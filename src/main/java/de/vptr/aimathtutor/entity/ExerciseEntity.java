@@ -47,6 +47,16 @@ public class ExerciseEntity extends PanacheEntityBase {
     @JsonIgnore
     public List<CommentEntity> comments;
 
+    // Comment counters, maintained with atomic SQL by CommentCounterService and never written by Hibernate
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    public Integer commentsCount;
+
+    @Column(name = "open_flags_count", insertable = false, updatable = false)
+    public Integer openFlagsCount;
+
+    @Column(name = "last_comment_at", insertable = false, updatable = false)
+    public LocalDateTime lastCommentAt;
+
     // Graspable Math Configuration
     @Column(name = "graspable_enabled", columnDefinition = "TINYINT(1)")
     public Boolean graspableEnabled = false;
@@ -21,6 +21,10 @@ public class LessonEntity extends PanacheEntityBase {
     @JoinColumn(name = "parent_id")
     public LessonEntity parent;
 
+    // Maintained by LessonService with native updates, never written by the entity
+    @Column(name = "path", insertable = false, updatable = false)
+    public String path;
+
     @OneToMany(mappedBy = "parent")
     public List<LessonEntity> children;
 
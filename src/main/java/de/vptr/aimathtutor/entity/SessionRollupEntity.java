@@ -0,0 +1,39 @@
+package de.vptr.aimathtutor.entity;
+
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+/**
+ * Time-bucketed session counts per exercise and lesson.
+ * Written only by the rollup job, read by the trend queries.
+ */
+@Entity
+@Table(name = "session_rollups")
+public class SessionRollupEntity extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long id;
+
+    public String granularity; // HOUR or DAY
+
+    @Column(name = "bucket_start")
+    public LocalDateTime bucketStart;
+
+    @Column(name = "exercise_id")
+    public Long exerciseId;
+
+    @Column(name = "lesson_id")
+    public Long lessonId;
+
+    @Column(name = "sessions_started")
+    public Long sessionsStarted;
+
+    @Column(name = "sessions_completed")
+    public Long sessionsCompleted;
+
+    @Column(name = "hints_used")
+    public Long hintsUsed;
+}
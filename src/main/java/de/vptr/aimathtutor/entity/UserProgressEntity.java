@@ -0,0 +1,38 @@
+package de.vptr.aimathtutor.entity;
+
+import java.time.LocalDateTime;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+/**
+ * Per-user progress aggregates, maintained incrementally on the session write
+ * path so progress summaries are point reads instead of scans over
+ * student_sessions.
+ */
+@Entity
+@Table(name = "user_progress")
+public class UserProgressEntity extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "user_id")
+    public Long userId;
+
+    @Column(name = "total_sessions")
+    public Long totalSessions = 0L;
+
+    @Column(name = "completed_sessions")
+    public Long completedSessions = 0L;
+
+    @Column(name = "hints_used")
+    public Long hintsUsed = 0L;
+
+    @Column(name = "actions_count")
+    public Long actionsCount = 0L;
+
+    @Column(name = "correct_actions")
+    public Long correctActions = 0L;
+
+    @Column(name = "last_activity")
+    public LocalDateTime lastActivity;
+}
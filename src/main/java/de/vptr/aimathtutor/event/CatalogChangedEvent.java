@@ -0,0 +1,27 @@
+package de.vptr.aimathtutor.event;
+
+/**
+ * CDI Event fired when a lesson or exercise is created, changed or deleted,
+ * so cached copies of the catalog can be rebuilt.
+ */
+public class CatalogChangedEvent {
+
+    public static final String LESSON = "lesson";
+    public static final String EXERCISE = "exercise";
+
+    public final String entityType;
+    public final Long entityId;
+
+    public CatalogChangedEvent(final String entityType, final Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+}
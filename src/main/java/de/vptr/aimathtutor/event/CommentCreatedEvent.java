@@ -10,6 +10,7 @@ public class CommentCreatedEvent {
 
     public final Long commentId;
     public final Long exerciseId;
+    public final Long parentCommentId;
     public final Long userId;
     public final String username;
     public final String content;
@@ -17,8 +18,14 @@ public class CommentCreatedEvent {
 
     public CommentCreatedEvent(final Long commentId, final Long exerciseId, final Long userId,
             final String username, final String content, final LocalDateTime createdAt) {
+        this(commentId, exerciseId, null, userId, username, content, createdAt);
+    }
+
+    public CommentCreatedEvent(final Long commentId, final Long exerciseId, final Long parentCommentId,
+            final Long userId, final String username, final String content, final LocalDateTime createdAt) {
         this.commentId = commentId;
         this.exerciseId = exerciseId;
+        this.parentCommentId = parentCommentId;
         this.userId = userId;
         this.username = username;
         this.content = content;
@@ -33,6 +40,10 @@ public class CommentCreatedEvent {
         return this.exerciseId;
     }
 
+    public Long getParentCommentId() {
+        return this.parentCommentId;
+    }
+
     public Long getUserId() {
         return this.userId;
     }
@@ -0,0 +1,45 @@
+package de.vptr.aimathtutor.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CDI Event fired once per bulk moderation batch with all comments that
+ * changed to the new status, grouped by exercise.
+ */
+public class CommentsModeratedEvent {
+
+    public final String status;
+    public final Map<Long, List<Long>> commentIdsByExercise;
+    public final Long moderatorId;
+    public final LocalDateTime occurredAt;
+
+    public CommentsModeratedEvent(final String status, final Map<Long, List<Long>> commentIdsByExercise,
+            final Long moderatorId, final LocalDateTime occurredAt) {
+        this.status = status;
+        this.commentIdsByExercise = Map.copyOf(commentIdsByExercise);
+        this.moderatorId = moderatorId;
+        this.occurredAt = occurredAt;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public Map<Long, List<Long>> getCommentIdsByExercise() {
+        return this.commentIdsByExercise;
+    }
+
+    public Long getModeratorId() {
+        return this.moderatorId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return this.occurredAt;
+    }
+
+    public int size() {
+        return this.commentIdsByExercise.values().stream().mapToInt(List::size).sum();
+    }
+}
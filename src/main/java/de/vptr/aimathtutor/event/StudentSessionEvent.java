@@ -0,0 +1,76 @@
+package de.vptr.aimathtutor.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI Event fired when a student session is started or completed.
+ * Observers that update caches should use
+ * {@code TransactionPhase.AFTER_SUCCESS} so rolled back sessions are ignored.
+ */
+public class StudentSessionEvent {
+
+    public enum Type {
+        STARTED,
+        COMPLETED
+    }
+
+    public final Type type;
+    public final String sessionId;
+    public final Long userId;
+    public final Long exerciseId;
+    public final Long lessonId;
+    public final LocalDateTime startedAt;
+    public final LocalDateTime occurredAt;
+    public final int actionsCount;
+    public final int hintsUsed;
+
+    public StudentSessionEvent(final Type type, final String sessionId, final Long userId,
+            final Long exerciseId, final Long lessonId, final LocalDateTime startedAt,
+            final LocalDateTime occurredAt, final int actionsCount, final int hintsUsed) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.exerciseId = exerciseId;
+        this.lessonId = lessonId;
+        this.startedAt = startedAt;
+        this.occurredAt = occurredAt;
+        this.actionsCount = actionsCount;
+        this.hintsUsed = hintsUsed;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public String getSessionId() {
+        return this.sessionId;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public Long getExerciseId() {
+        return this.exerciseId;
+    }
+
+    public Long getLessonId() {
+        return this.lessonId;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return this.startedAt;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return this.occurredAt;
+    }
+
+    public int getActionsCount() {
+        return this.actionsCount;
+    }
+
+    public int getHintsUsed() {
+        return this.hintsUsed;
+    }
+}
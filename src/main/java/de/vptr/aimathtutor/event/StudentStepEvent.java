@@ -0,0 +1,58 @@
+package de.vptr.aimathtutor.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI Event fired for every validated step (correct or incorrect) in a
+ * student session. Carries the exercise's lesson and difficulty so observers
+ * need no lookups.
+ */
+public class StudentStepEvent {
+
+    public final String sessionId;
+    public final Long userId;
+    public final Long exerciseId;
+    public final Long lessonId;
+    public final String difficulty;
+    public final boolean correct;
+    public final LocalDateTime occurredAt;
+
+    public StudentStepEvent(final String sessionId, final Long userId, final Long exerciseId, final Long lessonId,
+            final String difficulty, final boolean correct, final LocalDateTime occurredAt) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.exerciseId = exerciseId;
+        this.lessonId = lessonId;
+        this.difficulty = difficulty;
+        this.correct = correct;
+        this.occurredAt = occurredAt;
+    }
+
+    public String getSessionId() {
+        return this.sessionId;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public Long getExerciseId() {
+        return this.exerciseId;
+    }
+
+    public Long getLessonId() {
+        return this.lessonId;
+    }
+
+    public String getDifficulty() {
+        return this.difficulty;
+    }
+
+    public boolean isCorrect() {
+        return this.correct;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return this.occurredAt;
+    }
+}
@@ -0,0 +1,18 @@
+package de.vptr.aimathtutor.event;
+
+/**
+ * CDI Event fired when a user is updated or deleted, so cached copies of the
+ * user's identity can be dropped.
+ */
+public class UserChangedEvent {
+
+    public final Long userId;
+
+    public UserChangedEvent(final Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+}
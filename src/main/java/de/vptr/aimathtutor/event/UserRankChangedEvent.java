@@ -0,0 +1,18 @@
+package de.vptr.aimathtutor.event;
+
+/**
+ * CDI Event fired when the permissions of a user rank are updated or the rank
+ * is deleted, so cached identities of its users can be dropped.
+ */
+public class UserRankChangedEvent {
+
+    public final Long rankId;
+
+    public UserRankChangedEvent(final Long rankId) {
+        this.rankId = rankId;
+    }
+
+    public Long getRankId() {
+        return this.rankId;
+    }
+}
@@ -0,0 +1,65 @@
+package de.vptr.aimathtutor.security;
+
+import de.vptr.aimathtutor.dto.UserRankViewDto;
+import de.vptr.aimathtutor.entity.UserEntity;
+
+/**
+ * Immutable snapshot of the signed-in user, kept in the VaadinSession so views
+ * and per-action code never look the user up by name. The version is the
+ * change sequence at load time and tells whether a later user or rank change
+ * made the snapshot stale.
+ */
+public final class CurrentUser {
+
+    public final Long userId;
+    public final String username;
+    public final Long rankId;
+    public final String userAvatarEmoji;
+    public final String tutorAvatarEmoji;
+    public final long version;
+
+    private final UserRankViewDto rank;
+
+    /**
+     * Creates the snapshot of a loaded user, reading the user's rank but not
+     * the rank's users.
+     */
+    public CurrentUser(final UserEntity user, final long version) {
+        this.userId = user.id;
+        this.username = user.username;
+        this.rankId = user.rank != null ? user.rank.id : null;
+        this.userAvatarEmoji = user.userAvatarEmoji;
+        this.tutorAvatarEmoji = user.tutorAvatarEmoji;
+        this.version = version;
+        this.rank = user.rank != null ? new UserRankViewDto(user.rank, null) : null;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    public Long getRankId() {
+        return this.rankId;
+    }
+
+    public String getUserAvatarEmoji() {
+        return this.userAvatarEmoji;
+    }
+
+    public String getTutorAvatarEmoji() {
+        return this.tutorAvatarEmoji;
+    }
+
+    /**
+     * Returns a copy of the rank, so callers cannot change the snapshot.
+     *
+     * @return the rank or null if the user has none
+     */
+    public UserRankViewDto getRank() {
+        return this.rank != null ? new UserRankViewDto(this.rank) : null;
+    }
+}
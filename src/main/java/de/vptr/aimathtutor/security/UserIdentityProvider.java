@@ -34,6 +34,9 @@ public class UserIdentityProvider implements IdentityProvider<UsernamePasswordAu
     @Inject
     PasswordHashingService passwordHashingService;
 
+    @Inject
+    UserPrincipalCache principalCache;
+
     @Override
     public Class<UsernamePasswordAuthenticationRequest> getRequestType() {
         return UsernamePasswordAuthenticationRequest.class;
@@ -51,6 +54,8 @@ public class UserIdentityProvider implements IdentityProvider<UsernamePasswordAu
 
     @Transactional
     SecurityIdentity authenticateUser(final String username, final String password) {
+        // The password hash is deliberately not cached, so login always reads the user
+        final long stamp = this.principalCache.currentStamp();
         final UserEntity user = UserEntity.find("username = ?1", username).firstResult();
 
         if (user == null || !this.passwordHashingService.verifyPassword(password, user.password, user.salt)) {
@@ -79,6 +84,9 @@ public class UserIdentityProvider implements IdentityProvider<UsernamePasswordAu
                     user.username, e.getMessage());
         }
 
+        // Warm the cache, so the augmentation of this and following requests needs no query
+        this.principalCache.put(user, stamp);
+
         return QuarkusSecurityIdentity.builder()
                 .setPrincipal(new QuarkusPrincipal(username))
                 .build();
@@ -0,0 +1,118 @@
+package de.vptr.aimathtutor.security;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.entity.UserRankEntity;
+
+/**
+ * Immutable identity of an authenticated user: ids and the permissions
+ * granted by the user's rank, as role names such as "exercise:edit".
+ */
+public final class UserPrincipal {
+
+    public final Long id;
+    public final String username;
+    public final Long rankId;
+    public final Set<String> permissions;
+
+    public UserPrincipal(final Long id, final String username, final Long rankId, final Set<String> permissions) {
+        this.id = id;
+        this.username = username;
+        this.rankId = rankId;
+        this.permissions = Set.copyOf(permissions);
+    }
+
+    /**
+     * Creates the principal of a loaded user, reading the user's rank.
+     */
+    public static UserPrincipal of(final UserEntity user) {
+        return new UserPrincipal(user.id, user.username, user.rank != null ? user.rank.id : null,
+                permissionsOf(user.rank));
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    public Long getRankId() {
+        return this.rankId;
+    }
+
+    public Set<String> getPermissions() {
+        return this.permissions;
+    }
+
+    public boolean hasPermission(final String permission) {
+        return this.permissions.contains(permission);
+    }
+
+    /**
+     * Maps the permission flags of a rank to role names.
+     */
+    static Set<String> permissionsOf(final UserRankEntity rank) {
+        final Set<String> roles = new HashSet<>();
+        if (rank == null) {
+            return roles;
+        }
+
+        // View permissions
+        if (Boolean.TRUE.equals(rank.adminView))
+            roles.add("admin:view");
+
+        // Exercise permissions
+        if (Boolean.TRUE.equals(rank.exerciseAdd))
+            roles.add("exercise:add");
+        if (Boolean.TRUE.equals(rank.exerciseDelete))
+            roles.add("exercise:delete");
+        if (Boolean.TRUE.equals(rank.exerciseEdit))
+            roles.add("exercise:edit");
+
+        // Lesson permissions
+        if (Boolean.TRUE.equals(rank.lessonAdd))
+            roles.add("lesson:add");
+        if (Boolean.TRUE.equals(rank.lessonDelete))
+            roles.add("lesson:delete");
+        if (Boolean.TRUE.equals(rank.lessonEdit))
+            roles.add("lesson:edit");
+
+        // Comment permissions
+        if (Boolean.TRUE.equals(rank.commentAdd))
+            roles.add("comment:add");
+        if (Boolean.TRUE.equals(rank.commentDelete))
+            roles.add("comment:delete");
+        if (Boolean.TRUE.equals(rank.commentEdit))
+            roles.add("comment:edit");
+
+        // User permissions
+        if (Boolean.TRUE.equals(rank.userAdd))
+            roles.add("user:add");
+        if (Boolean.TRUE.equals(rank.userDelete))
+            roles.add("user:delete");
+        if (Boolean.TRUE.equals(rank.userEdit))
+            roles.add("user:edit");
+
+        // User group permissions
+        if (Boolean.TRUE.equals(rank.userGroupAdd))
+            roles.add("user-group:add");
+        if (Boolean.TRUE.equals(rank.userGroupDelete))
+            roles.add("user-group:delete");
+        if (Boolean.TRUE.equals(rank.userGroupEdit))
+            roles.add("user-group:edit");
+
+        // User rank permissions
+        if (Boolean.TRUE.equals(rank.userRankAdd))
+            roles.add("user-rank:add");
+        if (Boolean.TRUE.equals(rank.userRankDelete))
+            roles.add("user-rank:delete");
+        if (Boolean.TRUE.equals(rank.userRankEdit))
+            roles.add("user-rank:edit");
+
+        return roles;
+    }
+}
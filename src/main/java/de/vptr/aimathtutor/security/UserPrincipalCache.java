@@ -0,0 +1,203 @@
+package de.vptr.aimathtutor.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.event.UserChangedEvent;
+import de.vptr.aimathtutor.event.UserRankChangedEvent;
+import de.vptr.aimathtutor.service.ClusterEventBus;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Bounded cache from username to {@link UserPrincipal}, so identity
+ * augmentation is a map lookup instead of a query per request. The least
+ * recently used entries are dropped beyond the maximum size. Entries are
+ * dropped when their user or rank changes, also on other instances via the
+ * {@link ClusterEventBus}, and expire after the configured TTL as a bound for
+ * changes made outside the services.
+ */
+@ApplicationScoped
+public class UserPrincipalCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    /**
+     * Cluster event published on user and rank changes, fields are the kind
+     * ({@link #USER} or {@link #RANK}) and the id.
+     */
+    public static final String CLUSTER_EVENT_TYPE = "principal.changed";
+    public static final String USER = "user";
+    public static final String RANK = "rank";
+
+    private record CachedPrincipal(UserPrincipal principal, long loadedAt) {
+    }
+
+    // Access-ordered, guarded by itself
+    private final Map<String, CachedPrincipal> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedPrincipal> eldest) {
+            return this.size() > UserPrincipalCache.this.maxSize;
+        }
+    };
+
+    // Bumped on every invalidation, loads that raced with one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    ClusterEventBus clusterEventBus;
+
+    @ConfigProperty(name = "security.principal-cache.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @ConfigProperty(name = "security.principal-cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    void onStart(@Observes final StartupEvent event) {
+        this.clusterEventBus.subscribe(CLUSTER_EVENT_TYPE, this::onRemotePrincipalChanged);
+    }
+
+    /**
+     * Returns the cached principal without touching the database.
+     *
+     * @return the principal or null if it is not cached or expired
+     */
+    public UserPrincipal getIfPresent(final String username) {
+        if (username == null) {
+            return null;
+        }
+        final CachedPrincipal cached;
+        synchronized (this.cache) {
+            cached = this.cache.get(username);
+        }
+        if (cached == null || System.nanoTime() - cached.loadedAt() >= this.ttl.toNanos()) {
+            return null;
+        }
+        return cached.principal();
+    }
+
+    /**
+     * Returns the principal of a user, loading and caching it on a miss.
+     *
+     * @return the principal or null if the user does not exist
+     */
+    @Transactional
+    public UserPrincipal get(final String username) {
+        final UserPrincipal cached = this.getIfPresent(username);
+        if (cached != null || username == null) {
+            return cached;
+        }
+
+        final long stamp = this.currentStamp();
+        final UserEntity user = UserEntity.<UserEntity>find(
+                "SELECT u FROM UserEntity u LEFT JOIN FETCH u.rank WHERE u.username = ?1", username).firstResult();
+        return user != null ? this.put(user, stamp) : null;
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put}, taken before the user is
+     * loaded.
+     */
+    public long currentStamp() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Caches the principal of a user loaded elsewhere, e.g. during login. It
+     * is not cached if an invalidation happened since the stamp was taken.
+     * Must be called inside the loading transaction if the rank is not loaded.
+     */
+    public UserPrincipal put(final UserEntity user, final long stamp) {
+        final UserPrincipal principal = UserPrincipal.of(user);
+        synchronized (this.cache) {
+            if (this.invalidations.get() == stamp) {
+                this.cache.put(user.username, new CachedPrincipal(principal, System.nanoTime()));
+            }
+        }
+        return principal;
+    }
+
+    public void invalidateUser(final Long userId) {
+        this.invalidateIf(principal -> principal.id.equals(userId));
+    }
+
+    public void invalidateRank(final Long rankId) {
+        this.invalidateIf(principal -> rankId.equals(principal.rankId));
+    }
+
+    public void invalidateAll() {
+        this.invalidateIf(principal -> true);
+    }
+
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+    /**
+     * Drops matching entries. Updates are rare, so a scan over the bounded
+     * map is cheaper than maintaining secondary indexes.
+     */
+    private void invalidateIf(final Predicate<UserPrincipal> predicate) {
+        synchronized (this.cache) {
+            this.invalidations.incrementAndGet();
+            this.cache.values().removeIf(cached -> predicate.test(cached.principal()));
+        }
+    }
+
+    void onUserChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final UserChangedEvent event) {
+        if (event.userId != null) {
+            this.invalidateUser(event.userId);
+        }
+    }
+
+    void onUserRankChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final UserRankChangedEvent event) {
+        if (event.rankId != null) {
+            this.invalidateRank(event.rankId);
+        }
+    }
+
+    /**
+     * Forwards user changes to the other instances within the changing
+     * transaction.
+     */
+    void notifyClusterOfUser(@Observes final UserChangedEvent event) {
+        this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, USER, event.userId);
+    }
+
+    /**
+     * Forwards rank changes to the other instances within the changing
+     * transaction.
+     */
+    void notifyClusterOfRank(@Observes final UserRankChangedEvent event) {
+        this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, RANK, event.rankId);
+    }
+
+    private void onRemotePrincipalChanged(final JsonNode fields) {
+        if (!fields.path(1).canConvertToLong()) {
+            LOG.debug("Ignoring principal change without id: {}", fields);
+            return;
+        }
+        final Long id = fields.path(1).asLong();
+        if (RANK.equals(fields.path(0).asText())) {
+            this.invalidateRank(id);
+        } else {
+            this.invalidateUser(id);
+        }
+    }
+}
@@ -15,7 +15,9 @@ import de.vptr.aimathtutor.dto.*;
 import de.vptr.aimathtutor.entity.AIInteractionEntity;
 import de.vptr.aimathtutor.entity.ExerciseEntity;
 import de.vptr.aimathtutor.entity.UserEntity;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -54,6 +56,19 @@ public class AITutorService {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    RateLimiterService rateLimiterService;
+
+    /**
+     * Seeds the question rate limit from logged questions so a restart does
+     * not reset it.
+     */
+    void onStart(@Observes final StartupEvent event) {
+        this.rateLimiterService.registerHistory(RateLimitPolicy.AI_QUESTION,
+                (key, since) -> AIInteractionEntity.count("user.id = ?1 AND eventType = 'QUESTION' AND timestamp > ?2",
+                        Long.valueOf(key), since));
+    }
+
     /**
      * Analyzes a student's math action and provides AI feedback.
      * Only provides feedback for significant actions to reduce spam.
@@ -214,6 +229,19 @@ public class AITutorService {
         return message;
     }
 
+    /**
+     * Counts a question against the user's AI question limit.
+     * Transactional because the first check per user loads the history.
+     *
+     * @throws jakarta.ws.rs.WebApplicationException 429 if the limit is exceeded
+     */
+    @Transactional
+    public void checkQuestionRateLimit(final Long userId) {
+        if (userId != null) {
+            this.rateLimiterService.acquire(RateLimitPolicy.AI_QUESTION, userId);
+        }
+    }
+
     /**
      * Async version of answerQuestion that returns a CompletableFuture.
      * This allows the UI to show a typing indicator while waiting for the response.
@@ -809,6 +837,7 @@ public class AITutorService {
             interaction.feedbackMessage = feedback.message;
             interaction.confidenceScore = feedback.confidence;
             interaction.actionCorrect = event.correct;
+            interaction.provider = this.aiProvider;
 
             interaction.persist();
             LOG.debug("Logged AI interaction: {}", interaction.id);
@@ -870,6 +899,7 @@ public class AITutorService {
             aiAnswerRecord.eventType = "QUESTION_ANSWER";
             aiAnswerRecord.feedbackType = "ANSWER";
             aiAnswerRecord.feedbackMessage = aiAnswer;
+            aiAnswerRecord.provider = this.aiProvider;
 
             if (userId != null) {
                 user = UserEntity.findById(userId);
@@ -0,0 +1,300 @@
+package de.vptr.aimathtutor.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.event.StudentSessionEvent;
+import de.vptr.aimathtutor.util.HyperLogLog;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Distinct-user counters backed by HyperLogLog sketches, one per day overall
+ * and one per day and exercise. Sessions starts are added in memory after
+ * commit. Sliding windows (7/30/90 days) merge the daily sketches, so counts
+ * are answered in constant memory without touching student_sessions.
+ * Daily sketches are merged into user_activity_sketches periodically; HLL
+ * merges are idempotent, so several nodes can write the same day.
+ */
+@ApplicationScoped
+public class ActiveUserSketchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActiveUserSketchService.class);
+
+    public static final int MAX_WINDOW_DAYS = 90;
+
+    // ~0.8% error for the daily totals, ~2.3% for the per-exercise sketches. Sketches stay
+    // sparse (4 bytes per distinct register) until they reach a quarter of the dense size
+    private static final int GLOBAL_PRECISION = 14;
+    private static final int EXERCISE_PRECISION = 11;
+
+    private static final String SELECT_GLOBAL_FOR_UPDATE = """
+            SELECT sketch FROM user_activity_sketches WHERE day = ?1 AND exercise_id IS NULL FOR UPDATE
+            """;
+
+    private static final String SELECT_EXERCISE_FOR_UPDATE = """
+            SELECT sketch FROM user_activity_sketches WHERE day = ?1 AND exercise_id = ?2 FOR UPDATE
+            """;
+
+    private static final String UPSERT_GLOBAL = """
+            INSERT INTO user_activity_sketches (day, exercise_id, sketch, updated_at)
+            VALUES (?1, NULL, ?2, ?3)
+            ON CONFLICT (day, exercise_id) DO UPDATE SET sketch = EXCLUDED.sketch, updated_at = EXCLUDED.updated_at
+            """;
+
+    // Skips exercises deleted since the session was recorded
+    private static final String UPSERT_EXERCISE = """
+            INSERT INTO user_activity_sketches (day, exercise_id, sketch, updated_at)
+            SELECT ?1, ?2, ?3, ?4 WHERE EXISTS (SELECT 1 FROM exercises WHERE id = ?2)
+            ON CONFLICT (day, exercise_id) DO UPDATE SET sketch = EXCLUDED.sketch, updated_at = EXCLUDED.updated_at
+            """;
+
+    /**
+     * Key of a daily sketch, exerciseId is null for the sketch over all
+     * exercises.
+     */
+    record SketchKey(LocalDate day, Long exerciseId) {
+    }
+
+    private static final class DailySketch {
+        final HyperLogLog sketch;
+        volatile boolean dirty;
+        // Bumped on every change, tells whether the sketch changed during a flush
+        long changes;
+
+        DailySketch(final HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+    }
+
+    private final Map<SketchKey, DailySketch> sketches = new ConcurrentHashMap<>();
+
+    @Inject
+    EntityManager entityManager;
+
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        final LocalDate since = LocalDate.now().minusDays(MAX_WINDOW_DAYS);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager
+                .createNativeQuery("SELECT day, exercise_id, sketch FROM user_activity_sketches WHERE day > ?1")
+                .setParameter(1, since)
+                .getResultList();
+        if (rows.isEmpty()) {
+            this.bootstrapFromSessions(since);
+            return;
+        }
+        for (final Object[] row : rows) {
+            final LocalDate day = row[0] instanceof final Date date ? date.toLocalDate() : (LocalDate) row[0];
+            final Long exerciseId = row[1] != null ? ((Number) row[1]).longValue() : null;
+            this.sketches.put(new SketchKey(day, exerciseId), new DailySketch(HyperLogLog.fromBytes((byte[]) row[2])));
+        }
+        LOG.info("Loaded {} daily activity sketches", rows.size());
+    }
+
+    void onShutdown(@Observes final ShutdownEvent event) {
+        this.scheduledFlush();
+    }
+
+    void onSessionEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StudentSessionEvent event) {
+        if (event.type == StudentSessionEvent.Type.STARTED && event.userId != null) {
+            this.record(event.userId, event.exerciseId, event.occurredAt.toLocalDate());
+        }
+    }
+
+    /**
+     * @return estimated distinct users with a session start in the last
+     *         {@code days} days, today included
+     */
+    public long countActiveUsers(final int days) {
+        return this.mergeWindow(null, days, GLOBAL_PRECISION).estimate();
+    }
+
+    /**
+     * @return estimated distinct users who started the exercise in the last
+     *         {@code days} days, today included
+     */
+    public long countExerciseReach(final Long exerciseId, final int days) {
+        return this.mergeWindow(Objects.requireNonNull(exerciseId), days, EXERCISE_PRECISION).estimate();
+    }
+
+    /**
+     * @return estimated distinct users on the given day
+     */
+    public long countDailyActiveUsers(final LocalDate day) {
+        final var daily = this.sketches.get(new SketchKey(day, null));
+        if (daily == null) {
+            return 0;
+        }
+        synchronized (daily) {
+            return daily.sketch.estimate();
+        }
+    }
+
+    @Scheduled(every = "${analytics.sketch.flush-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledFlush() {
+        try {
+            this.flush();
+        } catch (final Exception e) {
+            LOG.error("Error flushing activity sketches", e);
+        }
+    }
+
+    /**
+     * Merges dirty daily sketches into the database, one transaction per
+     * sketch, and drops days that left the largest window. A sketch is only
+     * marked clean after its transaction committed; failed ones are retried
+     * on the next run and the others are still flushed.
+     */
+    public void flush() {
+        final var now = LocalDateTime.now();
+        final LocalDate oldest = now.toLocalDate().minusDays(MAX_WINDOW_DAYS - 1L);
+        this.sketches.keySet().removeIf(key -> key.day().isBefore(oldest));
+
+        RuntimeException failure = null;
+        for (final var entry : this.sketches.entrySet()) {
+            final var daily = entry.getValue();
+            if (!daily.dirty) {
+                continue;
+            }
+            final HyperLogLog taken;
+            final long takenChanges;
+            synchronized (daily) {
+                taken = daily.sketch.copy();
+                takenChanges = daily.changes;
+            }
+            final HyperLogLog merged;
+            try {
+                merged = this.flushSketch(entry.getKey(), taken, now);
+            } catch (final RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                continue;
+            }
+            if (merged == null) {
+                this.sketches.remove(entry.getKey());
+                continue;
+            }
+            synchronized (daily) {
+                // Pick up users recorded by other nodes
+                daily.sketch.merge(merged);
+                if (daily.changes == takenChanges) {
+                    daily.dirty = false;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Merges one sketch into its row in its own transaction.
+     *
+     * @return the merged sketch or null if the exercise no longer exists
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    HyperLogLog flushSketch(final SketchKey key, final HyperLogLog merged, final LocalDateTime now) {
+        final boolean global = key.exerciseId() == null;
+        final var select = this.entityManager
+                .createNativeQuery(global ? SELECT_GLOBAL_FOR_UPDATE : SELECT_EXERCISE_FOR_UPDATE)
+                .setParameter(1, key.day());
+        if (!global) {
+            select.setParameter(2, key.exerciseId());
+        }
+        final List<?> rows = select.getResultList();
+        if (!rows.isEmpty()) {
+            merged.merge(HyperLogLog.fromBytes((byte[]) rows.get(0)));
+        }
+        final int written = global
+                ? this.entityManager.createNativeQuery(UPSERT_GLOBAL)
+                        .setParameter(1, key.day())
+                        .setParameter(2, merged.toBytes())
+                        .setParameter(3, now)
+                        .executeUpdate()
+                : this.entityManager.createNativeQuery(UPSERT_EXERCISE)
+                        .setParameter(1, key.day())
+                        .setParameter(2, key.exerciseId())
+                        .setParameter(3, merged.toBytes())
+                        .setParameter(4, now)
+                        .executeUpdate();
+        return written == 0 ? null : merged;
+    }
+
+    private void record(final Long userId, final Long exerciseId, final LocalDate day) {
+        this.add(new SketchKey(day, null), GLOBAL_PRECISION, userId);
+        if (exerciseId != null) {
+            this.add(new SketchKey(day, exerciseId), EXERCISE_PRECISION, userId);
+        }
+    }
+
+    private void add(final SketchKey key, final int precision, final Long userId) {
+        final var daily = this.sketches.computeIfAbsent(key, k -> new DailySketch(new HyperLogLog(precision)));
+        synchronized (daily) {
+            if (daily.sketch.add(userId)) {
+                daily.changes++;
+                daily.dirty = true;
+            }
+        }
+    }
+
+    private HyperLogLog mergeWindow(final Long exerciseId, final int days, final int precision) {
+        final int window = Math.min(Math.max(days, 1), MAX_WINDOW_DAYS);
+        final LocalDate today = LocalDate.now();
+        final var merged = new HyperLogLog(precision);
+        for (int i = 0; i < window; i++) {
+            final var daily = this.sketches.get(new SketchKey(today.minusDays(i), exerciseId));
+            if (daily != null) {
+                synchronized (daily) {
+                    merged.merge(daily.sketch);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Replays session starts of the largest window, streamed with a cursor. The
+     * next flush persists the sketches.
+     */
+    private void bootstrapFromSessions(final LocalDate since) {
+        final var session = this.entityManager.unwrap(Session.class);
+        long count = 0;
+        try (var results = session.createQuery("SELECT s.user.id, s.exercise.id, s.startTime "
+                + "FROM StudentSessionEntity s WHERE s.startTime > :since", Object[].class)
+                .setParameter("since", since.plusDays(1).atStartOfDay())
+                .setReadOnly(true)
+                .setFetchSize(1000)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                final Object[] row = results.get();
+                this.record((Long) row[0], (Long) row[1], ((LocalDateTime) row[2]).toLocalDate());
+                count++;
+            }
+        }
+        if (count > 0) {
+            LOG.info("Bootstrapped activity sketches from {} sessions", count);
+        }
+    }
+}
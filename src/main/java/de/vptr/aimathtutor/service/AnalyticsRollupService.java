@@ -0,0 +1,167 @@
+package de.vptr.aimathtutor.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Background job that summarizes student_sessions and ai_interactions into
+ * hourly and daily rollup tables.
+ * A watermark stores the end of the last processed window, so every run only
+ * reads rows newer than that and adds them onto the existing buckets.
+ */
+@ApplicationScoped
+public class AnalyticsRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    private static final String WATERMARK_NAME = "analytics";
+
+    public enum Granularity {
+        HOUR,
+        DAY;
+
+        /**
+         * @return the date_trunc field name for this granularity
+         */
+        public String field() {
+            return this.name().toLowerCase();
+        }
+
+        /**
+         * @return the unit the buckets of this granularity are truncated to
+         */
+        public ChronoUnit unit() {
+            return this == HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        }
+    }
+
+    private static final String LOCK_WATERMARK = """
+            SELECT processed_until FROM rollup_watermarks WHERE name = ?1 FOR UPDATE
+            """;
+
+    private static final String INSERT_WATERMARK = """
+            INSERT INTO rollup_watermarks (name, processed_until) VALUES (?1, ?2)
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    private static final String UPDATE_WATERMARK = """
+            UPDATE rollup_watermarks SET processed_until = ?2 WHERE name = ?1
+            """;
+
+    // Starts are bucketed by start_time, completions (with their hints) by end_time
+    private static final String ROLLUP_SESSIONS = """
+            INSERT INTO session_rollups (granularity, bucket_start, exercise_id, lesson_id,
+                sessions_started, sessions_completed, hints_used)
+            SELECT ?1, bucket, exercise_id, lesson_id, SUM(started), SUM(completed), SUM(hints)
+            FROM (
+                SELECT date_trunc(?2, s.start_time) AS bucket, s.exercise_id, e.lesson_id,
+                    1 AS started, 0 AS completed, 0 AS hints
+                FROM student_sessions s JOIN exercises e ON e.id = s.exercise_id
+                WHERE s.start_time >= ?3 AND s.start_time < ?4
+                UNION ALL
+                SELECT date_trunc(?2, s.end_time), s.exercise_id, e.lesson_id, 0, 1, s.hints_used
+                FROM student_sessions s JOIN exercises e ON e.id = s.exercise_id
+                WHERE s.completed AND s.end_time >= ?3 AND s.end_time < ?4
+            ) events
+            GROUP BY bucket, exercise_id, lesson_id
+            ON CONFLICT (granularity, bucket_start, exercise_id, lesson_id) DO UPDATE SET
+                sessions_started = session_rollups.sessions_started + EXCLUDED.sessions_started,
+                sessions_completed = session_rollups.sessions_completed + EXCLUDED.sessions_completed,
+                hints_used = session_rollups.hints_used + EXCLUDED.hints_used
+            """;
+
+    // Student questions are not AI calls, their answers are
+    private static final String ROLLUP_AI_INTERACTIONS = """
+            INSERT INTO ai_interaction_rollups (granularity, bucket_start, exercise_id, lesson_id,
+                provider, ai_calls, hints, answers)
+            SELECT ?1, date_trunc(?2, a.timestamp), a.exercise_id, e.lesson_id,
+                COALESCE(a.provider, 'unknown'), COUNT(*),
+                COUNT(*) FILTER (WHERE a.feedback_type = 'HINT'),
+                COUNT(*) FILTER (WHERE a.event_type = 'QUESTION_ANSWER')
+            FROM ai_interactions a LEFT JOIN exercises e ON e.id = a.exercise_id
+            WHERE a.timestamp >= ?3 AND a.timestamp < ?4 AND a.event_type <> 'QUESTION'
+            GROUP BY 2, 3, 4, 5
+            ON CONFLICT (granularity, bucket_start, exercise_id, lesson_id, provider) DO UPDATE SET
+                ai_calls = ai_interaction_rollups.ai_calls + EXCLUDED.ai_calls,
+                hints = ai_interaction_rollups.hints + EXCLUDED.hints,
+                answers = ai_interaction_rollups.answers + EXCLUDED.answers
+            """;
+
+    @ConfigProperty(name = "analytics.rollup.lag", defaultValue = "2m")
+    Duration lag;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Scheduled(every = "${analytics.rollup.interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledRollup() {
+        try {
+            this.rollup();
+        } catch (final Exception e) {
+            LOG.error("Error rolling up analytics", e);
+        }
+    }
+
+    /**
+     * Rolls up all rows between the watermark and now minus the configured lag.
+     * The watermark row is locked for the duration of the run, so concurrent runs
+     * on other nodes wait and then continue from the new watermark.
+     *
+     * @return the new watermark
+     */
+    @Transactional
+    public LocalDateTime rollup() {
+        final LocalDateTime from = this.lockWatermark();
+        final LocalDateTime to = LocalDateTime.now().minus(this.lag).truncatedTo(ChronoUnit.MINUTES);
+        if (!to.isAfter(from)) {
+            return from;
+        }
+
+        for (final Granularity granularity : Granularity.values()) {
+            final int sessionBuckets = this.runWindow(ROLLUP_SESSIONS, granularity, from, to);
+            final int aiBuckets = this.runWindow(ROLLUP_AI_INTERACTIONS, granularity, from, to);
+            LOG.debug("Rolled up {} session and {} AI buckets ({}) for [{}, {})",
+                    sessionBuckets, aiBuckets, granularity, from, to);
+        }
+
+        this.entityManager.createNativeQuery(UPDATE_WATERMARK)
+                .setParameter(1, WATERMARK_NAME)
+                .setParameter(2, to)
+                .executeUpdate();
+        return to;
+    }
+
+    private LocalDateTime lockWatermark() {
+        this.entityManager.createNativeQuery(INSERT_WATERMARK)
+                .setParameter(1, WATERMARK_NAME)
+                .setParameter(2, LocalDateTime.of(1970, 1, 1, 0, 0))
+                .executeUpdate();
+        final Object value = this.entityManager.createNativeQuery(LOCK_WATERMARK)
+                .setParameter(1, WATERMARK_NAME)
+                .getSingleResult();
+        return value instanceof final Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private int runWindow(final String sql, final Granularity granularity, final LocalDateTime from,
+            final LocalDateTime to) {
+        return this.entityManager.createNativeQuery(sql)
+                .setParameter(1, granularity.name())
+                .setParameter(2, granularity.field())
+                .setParameter(3, from)
+                .setParameter(4, to)
+                .executeUpdate();
+    }
+}
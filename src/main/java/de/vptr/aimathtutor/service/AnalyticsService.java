@@ -1,20 +1,33 @@
 package de.vptr.aimathtutor.service;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.vptr.aimathtutor.dto.AIInteractionViewDto;
+import de.vptr.aimathtutor.dto.AIUsageTrendPointDto;
+import de.vptr.aimathtutor.dto.CohortExerciseStatsDto;
+import de.vptr.aimathtutor.dto.CohortSummaryDto;
+import de.vptr.aimathtutor.dto.DashboardMetricsDto;
+import de.vptr.aimathtutor.dto.SessionTrendPointDto;
 import de.vptr.aimathtutor.dto.StudentProgressSummaryDto;
 import de.vptr.aimathtutor.dto.StudentSessionViewDto;
 import de.vptr.aimathtutor.entity.AIInteractionEntity;
 import de.vptr.aimathtutor.entity.StudentSessionEntity;
-import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.util.SearchPatternUtil;
+import de.vptr.aimathtutor.util.TrendBucketUtil;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 
 /**
@@ -27,6 +40,87 @@ public class AnalyticsService {
 
         private static final Logger LOG = LoggerFactory.getLogger(AnalyticsService.class);
 
+        /**
+         * Reads the incrementally maintained user_progress aggregates. The LEFT JOIN
+         * keeps users without any sessions in the result.
+         */
+        private static final String PROGRESS_SUMMARY_SELECT = "SELECT new "
+                        + StudentProgressSummaryDto.class.getName() + "("
+                        + "u.id, u.username, COALESCE(p.totalSessions, 0), p.completedSessions, "
+                        + "p.hintsUsed, p.actionsCount, p.correctActions, p.lastActivity) "
+                        + "FROM UserEntity u LEFT JOIN UserProgressEntity p ON p.userId = u.id";
+
+        /**
+         * Whitelist of sortable DTO properties and their column expressions
+         */
+        private static final Map<String, String> PROGRESS_SORT_EXPRESSIONS = Map.of(
+                        "username", "u.username",
+                        "totalSessions", "p.totalSessions",
+                        "totalProblems", "p.totalSessions",
+                        "completedSessions", "p.completedSessions",
+                        "completionRate", "p.completedSessions * 1.0 / NULLIF(p.totalSessions, 0)",
+                        "hintsUsed", "p.hintsUsed",
+                        "averageActionsPerProblem", "p.actionsCount * 1.0 / NULLIF(p.totalSessions, 0)",
+                        "successRate", "p.correctActions * 1.0 / NULLIF(p.actionsCount, 0)",
+                        "lastActivity", "p.lastActivity");
+
+        /**
+         * One row per exercise of the group, or a single row with NULL exercise
+         * columns if the group has no activity yet.
+         */
+        private static final String COHORT_SUMMARY_SQL = """
+                        SELECT g.id, g.name,
+                            (SELECT COUNT(DISTINCT m.user_id) FROM user_groups_meta m WHERE m.group_id = g.id),
+                            p.exercise_id, e.title, p.total_sessions, p.completed_sessions, p.hints_used,
+                            p.actions_count, p.correct_actions, p.last_activity
+                        FROM user_groups g
+                        LEFT JOIN group_exercise_progress p ON p.group_id = g.id
+                        LEFT JOIN exercises e ON e.id = p.exercise_id
+                        WHERE g.id = ?1
+                        ORDER BY e.title
+                        """;
+
+        private static final String COHORT_OVERVIEW_SQL = """
+                        SELECT g.id, g.name,
+                            (SELECT COUNT(DISTINCT m.user_id) FROM user_groups_meta m WHERE m.group_id = g.id),
+                            SUM(p.total_sessions), SUM(p.completed_sessions), SUM(p.hints_used),
+                            SUM(p.actions_count), SUM(p.correct_actions), MAX(p.last_activity)
+                        FROM user_groups g
+                        LEFT JOIN group_exercise_progress p ON p.group_id = g.id
+                        GROUP BY g.id, g.name
+                        ORDER BY g.name
+                        """;
+
+        /**
+         * Sessions of matching students or exercises. Each branch starts from a
+         * trigram index scan on users or exercises and joins sessions through the
+         * foreign key indexes, ranked by the better of both similarities.
+         */
+        private static final String SESSION_SEARCH_SQL = """
+                        SELECT s.* FROM student_sessions s
+                        JOIN (
+                            SELECT ss.id, similarity(u.username, ?2) AS score
+                            FROM users u JOIN student_sessions ss ON ss.user_id = u.id
+                            WHERE u.username ILIKE ?1
+                            UNION ALL
+                            SELECT ss.id, similarity(e.title, ?2) AS score
+                            FROM exercises e JOIN student_sessions ss ON ss.exercise_id = e.id
+                            WHERE e.title ILIKE ?1
+                        ) m ON m.id = s.id
+                        GROUP BY s.id
+                        ORDER BY MAX(m.score) DESC, s.start_time DESC
+                        LIMIT ?3
+                        """;
+
+        @Inject
+        EntityManager entityManager;
+
+        @ConfigProperty(name = "search.max-results", defaultValue = "100")
+        int searchMaxResults;
+
+        @Inject
+        ActiveUserSketchService activeUserSketchService;
+
         /**
          * Get all student sessions
          */
@@ -212,108 +306,115 @@ public class AnalyticsService {
         public StudentProgressSummaryDto getUserProgressSummary(final Long userId) {
                 LOG.trace("Getting progress summary for user: {}", userId);
 
-                final UserEntity user = UserEntity.findById(userId);
-                if (user == null) {
-                        return null;
-                }
-
-                final List<StudentSessionEntity> sessions = StudentSessionEntity.find("user.id = ?1", userId).list();
-                return this.computeProgressSummary(user, sessions);
+                final String jpql = PROGRESS_SUMMARY_SELECT + " WHERE u.id = :userId";
+                return this.entityManager.createQuery(jpql, StudentProgressSummaryDto.class)
+                                .setParameter("userId", userId)
+                                .getResultStream()
+                                .findFirst()
+                                .orElse(null);
         }
 
         /**
          * Get progress summaries for all users
-         * Refactored to avoid N+1 queries by fetching all sessions once and grouping by
-         * user
+         * Read from the user_progress aggregates, no sessions are loaded into
+         * memory
          */
         @Transactional
         public List<StudentProgressSummaryDto> getAllUsersProgressSummary() {
                 LOG.trace("Getting progress summary for all users");
+                return this.getUsersProgressSummary(null, null, null, null, false, 0, Integer.MAX_VALUE);
+        }
 
-                // Fetch all users
-                final List<UserEntity> users = UserEntity.find("ORDER BY id DESC").list();
-                if (users.isEmpty()) {
-                        return List.of();
+        /**
+         * Get a page of progress summaries from the user_progress aggregates.
+         *
+         * @param usernameFilter optional case-insensitive username substring
+         * @param activityFrom   optional lower bound for the last activity
+         * @param activityTo     optional upper bound for the last activity
+         * @param sortProperty   one of the DTO property names, or null for newest
+         *                       users first
+         * @param ascending      sort direction for sortProperty
+         * @param offset         index of the first row
+         * @param limit          maximum number of rows
+         */
+        @Transactional
+        public List<StudentProgressSummaryDto> getUsersProgressSummary(
+                        final String usernameFilter,
+                        final LocalDateTime activityFrom,
+                        final LocalDateTime activityTo,
+                        final String sortProperty,
+                        final boolean ascending,
+                        final int offset,
+                        final int limit) {
+                LOG.trace("Getting progress summaries: filter={}, sort={}, offset={}, limit={}",
+                                usernameFilter, sortProperty, offset, limit);
+
+                final var jpql = new StringBuilder(PROGRESS_SUMMARY_SELECT)
+                                .append(this.buildProgressWhere(usernameFilter, activityFrom, activityTo));
+
+                final String sortExpression = sortProperty != null ? PROGRESS_SORT_EXPRESSIONS.get(sortProperty) : null;
+                if (sortExpression != null) {
+                        jpql.append(" ORDER BY ").append(sortExpression).append(ascending ? " ASC" : " DESC")
+                                        .append(" NULLS LAST, u.id DESC");
+                } else {
+                        jpql.append(" ORDER BY u.id DESC");
                 }
 
-                // Fetch all sessions in a single query
-                final List<StudentSessionEntity> allSessions = StudentSessionEntity.find("ORDER BY id DESC").list();
-
-                // Group sessions by user ID (filter out sessions with null user to avoid NPE)
-                final Map<Long, List<StudentSessionEntity>> sessionsByUser = allSessions.stream()
-                                .filter(session -> session.user != null)
-                                .collect(Collectors.groupingBy(session -> session.user.id));
-
-                // Build progress summaries for each user
-                return users.stream()
-                                .map(user -> this.computeProgressSummary(user,
-                                                sessionsByUser.getOrDefault(user.id, List.of())))
-                                .filter(summary -> summary != null)
-                                .toList();
+                final var query = this.entityManager.createQuery(jpql.toString(), StudentProgressSummaryDto.class)
+                                .setFirstResult(offset)
+                                .setMaxResults(limit);
+                this.bindProgressFilters(query, usernameFilter, activityFrom, activityTo);
+                return query.getResultList();
         }
 
         /**
-         * Computes progress summary for a user given their sessions
-         * Helper method to avoid code duplication between getUserProgressSummary and
-         * getAllUsersProgressSummary
+         * Count the users matching the given progress filters (for lazy grids)
          */
-        private StudentProgressSummaryDto computeProgressSummary(final UserEntity user,
-                        final List<StudentSessionEntity> sessions) {
-                if (sessions.isEmpty()) {
-                        return new StudentProgressSummaryDto(
-                                        user.id,
-                                        user.username,
-                                        0, 0, 0, 0, 0, 0.0, 0.0, null);
-                }
-
-                final int totalSessions = sessions.size();
-                final int completedSessions = (int) sessions.stream()
-                                .filter(s -> s.completed != null && s.completed)
-                                .count();
+        @Transactional
+        public long countUsersProgressSummary(
+                        final String usernameFilter,
+                        final LocalDateTime activityFrom,
+                        final LocalDateTime activityTo) {
+                final String jpql = "SELECT COUNT(u.id) FROM UserEntity u "
+                                + "LEFT JOIN UserProgressEntity p ON p.userId = u.id"
+                                + this.buildProgressWhere(usernameFilter, activityFrom, activityTo);
+
+                final var query = this.entityManager.createQuery(jpql, Long.class);
+                this.bindProgressFilters(query, usernameFilter, activityFrom, activityTo);
+                return query.getSingleResult();
+        }
 
-                // Note: one problem = one session/exercise attempt
-                // totalProblems is the number of exercises attempted
-                final int totalProblems = totalSessions;
-
-                // completedProblems is the number of exercises successfully completed
-                final int completedProblems = completedSessions;
-
-                final int hintsUsed = sessions.stream()
-                                .mapToInt(s -> s.hintsUsed != null ? s.hintsUsed : 0)
-                                .sum();
-
-                // Average actions per problem (per session)
-                final double totalActions = sessions.stream()
-                                .mapToInt(s -> s.actionsCount != null ? s.actionsCount : 0)
-                                .sum();
-                final double averageActionsPerProblem = totalSessions > 0 ? totalActions / totalSessions : 0.0;
-
-                /*
-                 * Success rate: percentage of actions that were correct (problem-solving
-                 * accuracy).
-                 * Not the same as completion rate.
-                 */
-                final int totalCorrectActions = sessions.stream()
-                                .mapToInt(s -> s.correctActions != null ? s.correctActions : 0)
-                                .sum();
-                final double successRate = totalActions > 0 ? (double) totalCorrectActions / totalActions : 0.0;
-
-                final LocalDateTime lastActivity = sessions.stream()
-                                .map(s -> s.endTime != null ? s.endTime : s.startTime)
-                                .max(LocalDateTime::compareTo)
-                                .orElse(null);
+        private String buildProgressWhere(
+                        final String usernameFilter,
+                        final LocalDateTime activityFrom,
+                        final LocalDateTime activityTo) {
+                final var where = new ArrayList<String>();
+                if (usernameFilter != null && !usernameFilter.isBlank()) {
+                        where.add("LOWER(u.username) LIKE :username");
+                }
+                if (activityFrom != null) {
+                        where.add("p.lastActivity >= :activityFrom");
+                }
+                if (activityTo != null) {
+                        where.add("p.lastActivity <= :activityTo");
+                }
+                return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+        }
 
-                return new StudentProgressSummaryDto(
-                                user.id,
-                                user.username,
-                                totalSessions,
-                                completedSessions,
-                                totalProblems,
-                                completedProblems,
-                                hintsUsed,
-                                averageActionsPerProblem,
-                                successRate,
-                                lastActivity);
+        private void bindProgressFilters(
+                        final TypedQuery<?> query,
+                        final String usernameFilter,
+                        final LocalDateTime activityFrom,
+                        final LocalDateTime activityTo) {
+                if (usernameFilter != null && !usernameFilter.isBlank()) {
+                        query.setParameter("username", "%" + usernameFilter.trim().toLowerCase() + "%");
+                }
+                if (activityFrom != null) {
+                        query.setParameter("activityFrom", activityFrom);
+                }
+                if (activityTo != null) {
+                        query.setParameter("activityTo", activityTo);
+                }
         }
 
         /**
@@ -355,19 +456,201 @@ public class AnalyticsService {
 
         /**
          * Get active students count (students with sessions in last 7 days)
+         * Estimated from the daily HyperLogLog sketches in constant time
          */
-        @Transactional
         public long getActiveStudentsCount() {
                 LOG.trace("Getting active students count");
-                final LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-                final List<StudentSessionEntity> recentSessions = StudentSessionEntity
-                                .find("startTime >= ?1", sevenDaysAgo)
-                                .list();
+                return this.activeUserSketchService.countActiveUsers(7);
+        }
 
-                return recentSessions.stream()
-                                .map(s -> s.user.id)
-                                .distinct()
-                                .count();
+        /**
+         * Get the estimated number of distinct students who started an exercise
+         * in the last {@code days} days, from the per-exercise HyperLogLog
+         * sketches without touching student_sessions.
+         */
+        public long getExerciseReach(final Long exerciseId, final int days) {
+                LOG.trace("Getting reach of exercise {} over {} days", exerciseId, days);
+                return this.activeUserSketchService.countExerciseReach(exerciseId, days);
+        }
+
+        /**
+         * Compute all dashboard metrics: lifetime totals from the user_progress
+         * aggregates, today's sessions from an index range scan on
+         * student_sessions.start_time and active students (today and the 7/30/90
+         * day windows) from the HyperLogLog sketches.
+         */
+        @Transactional
+        public DashboardMetricsDto computeDashboardMetrics() {
+                LOG.trace("Computing dashboard metrics");
+                final LocalDateTime now = LocalDateTime.now();
+                final LocalDate today = now.toLocalDate();
+                final LocalDateTime startOfDay = today.atStartOfDay();
+
+                final Object[] totals = this.entityManager.createQuery(
+                                "SELECT SUM(p.totalSessions), SUM(p.completedSessions) FROM UserProgressEntity p",
+                                Object[].class)
+                                .getSingleResult();
+                final Long todaySessions = this.entityManager.createQuery(
+                                "SELECT COUNT(s.id) FROM StudentSessionEntity s WHERE s.startTime >= :startOfDay",
+                                Long.class)
+                                .setParameter("startOfDay", startOfDay)
+                                .getSingleResult();
+
+                return new DashboardMetricsDto(
+                                toLong(totals[0]),
+                                toLong(totals[1]),
+                                this.activeUserSketchService.countActiveUsers(7),
+                                this.activeUserSketchService.countActiveUsers(30),
+                                this.activeUserSketchService.countActiveUsers(90),
+                                this.activeUserSketchService.countDailyActiveUsers(today),
+                                toLong(todaySessions),
+                                today,
+                                now);
+        }
+
+        /**
+         * Get the session trend (started, completed, hints) per bucket of
+         * [from, to), read from the rollup tables only. Buckets without sessions
+         * are omitted and buckets newer than the last rollup run are not
+         * included yet.
+         *
+         * @param exerciseId optional exercise filter
+         * @param lessonId   optional lesson filter
+         */
+        @Transactional
+        public List<SessionTrendPointDto> getSessionTrend(
+                        final AnalyticsRollupService.Granularity granularity,
+                        final LocalDateTime from,
+                        final LocalDateTime to,
+                        final Long exerciseId,
+                        final Long lessonId) {
+                LOG.trace("Getting session trend: granularity={}, from={}, to={}", granularity, from, to);
+                final var jpql = new StringBuilder("SELECT new ")
+                                .append(SessionTrendPointDto.class.getName())
+                                .append("(r.bucketStart, SUM(r.sessionsStarted), SUM(r.sessionsCompleted), ")
+                                .append("SUM(r.hintsUsed)) FROM SessionRollupEntity r")
+                                .append(this.buildTrendWhere(exerciseId, lessonId))
+                                .append(" GROUP BY r.bucketStart ORDER BY r.bucketStart");
+
+                final var query = this.entityManager.createQuery(jpql.toString(), SessionTrendPointDto.class);
+                this.bindTrendFilters(query, granularity, from, to, exerciseId, lessonId);
+                return query.getResultList();
+        }
+
+        /**
+         * Get AI calls, hints and answers per bucket and provider, read from the
+         * rollup tables only.
+         */
+        @Transactional
+        public List<AIUsageTrendPointDto> getAIUsageTrend(
+                        final AnalyticsRollupService.Granularity granularity,
+                        final LocalDateTime from,
+                        final LocalDateTime to,
+                        final Long exerciseId,
+                        final Long lessonId) {
+                LOG.trace("Getting AI usage trend: granularity={}, from={}, to={}", granularity, from, to);
+                final var jpql = new StringBuilder("SELECT new ")
+                                .append(AIUsageTrendPointDto.class.getName())
+                                .append("(r.bucketStart, r.provider, SUM(r.aiCalls), SUM(r.hints), SUM(r.answers)) ")
+                                .append("FROM AIInteractionRollupEntity r")
+                                .append(this.buildTrendWhere(exerciseId, lessonId))
+                                .append(" GROUP BY r.bucketStart, r.provider ORDER BY r.bucketStart, r.provider");
+
+                final var query = this.entityManager.createQuery(jpql.toString(), AIUsageTrendPointDto.class);
+                this.bindTrendFilters(query, granularity, from, to, exerciseId, lessonId);
+                return query.getResultList();
+        }
+
+        /**
+         * Get the class dashboard of one user group: totals plus one row per
+         * exercise, read with a single query from the group_exercise_progress
+         * aggregates (primary key range scan on group_id).
+         *
+         * @return the summary, or null if the group does not exist
+         */
+        @Transactional
+        public CohortSummaryDto getCohortSummary(final Long groupId) {
+                LOG.trace("Getting cohort summary for group: {}", groupId);
+                @SuppressWarnings("unchecked")
+                final List<Object[]> rows = this.entityManager.createNativeQuery(COHORT_SUMMARY_SQL)
+                                .setParameter(1, groupId)
+                                .getResultList();
+                if (rows.isEmpty()) {
+                        return null;
+                }
+                final Object[] first = rows.get(0);
+                final var summary = new CohortSummaryDto(toLong(first[0]), (String) first[1], toLong(first[2]));
+                for (final Object[] row : rows) {
+                        if (row[3] == null) {
+                                continue;
+                        }
+                        summary.addExercise(new CohortExerciseStatsDto(toLong(row[3]), (String) row[4],
+                                        toLong(row[5]), toLong(row[6]), toLong(row[7]), toLong(row[8]),
+                                        toLong(row[9]), toLocalDateTime(row[10])));
+                }
+                return summary;
+        }
+
+        /**
+         * Get the totals of all user groups, without per-exercise rows.
+         */
+        @Transactional
+        public List<CohortSummaryDto> getCohortOverview() {
+                LOG.trace("Getting cohort overview");
+                @SuppressWarnings("unchecked")
+                final List<Object[]> rows = this.entityManager.createNativeQuery(COHORT_OVERVIEW_SQL)
+                                .getResultList();
+                final List<CohortSummaryDto> result = new ArrayList<>(rows.size());
+                for (final Object[] row : rows) {
+                        final var summary = new CohortSummaryDto(toLong(row[0]), (String) row[1], toLong(row[2]));
+                        summary.totalSessions = toLong(row[3]);
+                        summary.completedSessions = toLong(row[4]);
+                        summary.hintsUsed = toLong(row[5]);
+                        summary.actionsCount = toLong(row[6]);
+                        summary.correctActions = toLong(row[7]);
+                        summary.lastActivity = toLocalDateTime(row[8]);
+                        result.add(summary);
+                }
+                return result;
+        }
+
+        private String buildTrendWhere(final Long exerciseId, final Long lessonId) {
+                final var where = new StringBuilder(" WHERE r.granularity = :granularity")
+                                .append(" AND r.bucketStart >= :from AND r.bucketStart < :to");
+                if (exerciseId != null) {
+                        where.append(" AND r.exerciseId = :exerciseId");
+                }
+                if (lessonId != null) {
+                        where.append(" AND r.lessonId = :lessonId");
+                }
+                return where.toString();
+        }
+
+        private void bindTrendFilters(
+                        final TypedQuery<?> query,
+                        final AnalyticsRollupService.Granularity granularity,
+                        final LocalDateTime from,
+                        final LocalDateTime to,
+                        final Long exerciseId,
+                        final Long lessonId) {
+                // The bucket containing from is included, the one starting at to is not
+                query.setParameter("granularity", granularity.name())
+                                .setParameter("from", TrendBucketUtil.bucketStart(from, granularity.unit()))
+                                .setParameter("to", to);
+                if (exerciseId != null) {
+                        query.setParameter("exerciseId", exerciseId);
+                }
+                if (lessonId != null) {
+                        query.setParameter("lessonId", lessonId);
+                }
+        }
+
+        private static long toLong(final Object value) {
+                return value instanceof final Number number ? number.longValue() : 0L;
+        }
+
+        private static LocalDateTime toLocalDateTime(final Object value) {
+                return value instanceof final Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
         }
 
         /**
@@ -385,15 +668,20 @@ public class AnalyticsService {
         }
 
         /**
-         * Search sessions by student username or exercise title
+         * Search sessions by student username or exercise title, best matches
+         * first and limited to search.max-results rows
          */
         @Transactional
         public List<StudentSessionViewDto> searchSessions(final String searchTerm) {
                 LOG.trace("Searching sessions for term: {}", searchTerm);
-                final String pattern = "%" + searchTerm.toLowerCase() + "%";
-                final List<StudentSessionEntity> sessions = StudentSessionEntity
-                                .find("LOWER(user.username) LIKE ?1 OR LOWER(exercise.title) LIKE ?1", pattern)
-                                .list();
+                final String term = searchTerm.trim();
+                @SuppressWarnings("unchecked")
+                final List<StudentSessionEntity> sessions = this.entityManager
+                                .createNativeQuery(SESSION_SEARCH_SQL, StudentSessionEntity.class)
+                                .setParameter(1, SearchPatternUtil.toContainsPattern(term))
+                                .setParameter(2, term)
+                                .setParameter(3, this.searchMaxResults)
+                                .getResultList();
                 return sessions.stream()
                                 .map(StudentSessionViewDto::new)
                                 .toList();
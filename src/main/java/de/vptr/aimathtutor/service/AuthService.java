@@ -9,6 +9,7 @@ import com.vaadin.flow.server.VaadinSession;
 
 import de.vptr.aimathtutor.dto.AuthResultDto;
 import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.security.CurrentUser;
 import de.vptr.aimathtutor.security.PasswordHashingService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -24,6 +25,12 @@ public class AuthService {
     @Inject
     UserRankService userRankService;
 
+    @Inject
+    RateLimiterService rateLimiterService;
+
+    @Inject
+    CurrentUserService currentUserService;
+
     private static final String USERNAME_KEY = "authenticated.username";
     private static final String PASSWORD_KEY = "authenticated.password";
     private static final String AUTHENTICATED_KEY = "authenticated.status";
@@ -37,31 +44,44 @@ public class AuthService {
             return AuthResultDto.invalidInput();
         }
 
+        // Keyed by client as well, so failed attempts from elsewhere cannot lock the account out. Clients
+        // without a known address do not share one key but get a separate, more lenient limit.
+        final var clientAddress = this.getClientAddress();
+        final var rateLimitPolicy = clientAddress != null ? RateLimitPolicy.LOGIN
+                : RateLimitPolicy.LOGIN_UNKNOWN_CLIENT;
+        final var rateLimitKey = clientAddress != null ? username.trim().toLowerCase() + "|" + clientAddress
+                : username.trim().toLowerCase();
+        if (!this.rateLimiterService.isAllowed(rateLimitPolicy, rateLimitKey)) {
+            LOG.warn("Too many login attempts for user: {}", username);
+            return AuthResultDto.tooManyAttempts();
+        }
+
         try {
             // Find user by username directly from database
+            final long version = this.currentUserService.currentVersion();
             final var user = UserEntity.<UserEntity>find("username = ?1", username).firstResult();
 
             if (user == null) {
                 LOG.trace("Authentication failed - user not found: {}", username);
-                return AuthResultDto.invalidCredentials();
+                return this.loginFailed(rateLimitPolicy, rateLimitKey);
             }
 
             // Check if user is banned
             if (user.banned != null && user.banned) {
                 LOG.trace("Authentication failed - user is banned: {}", username);
-                return AuthResultDto.invalidCredentials();
+                return this.loginFailed(rateLimitPolicy, rateLimitKey);
             }
 
             // Check if user is activated
             if (user.activated == null || !user.activated) {
                 LOG.trace("Authentication failed - user is not activated: {}", username);
-                return AuthResultDto.invalidCredentials();
+                return this.loginFailed(rateLimitPolicy, rateLimitKey);
             }
 
             // Verify password using password hashing service
             if (!this.passwordHashingService.verifyPassword(password, user.password, user.salt)) {
                 LOG.trace("Authentication failed - invalid password for user: {}", username);
-                return AuthResultDto.invalidCredentials();
+                return this.loginFailed(rateLimitPolicy, rateLimitKey);
             }
 
             // Update last login time and persist the user entity
@@ -76,6 +96,8 @@ public class AuthService {
             VaadinSession.getCurrent().setAttribute(USERNAME_KEY, username);
             VaadinSession.getCurrent().setAttribute(PASSWORD_KEY, password);
             VaadinSession.getCurrent().setAttribute(AUTHENTICATED_KEY, true);
+            this.currentUserService.store(VaadinSession.getCurrent(), user, version);
+            this.rateLimiterService.reset(rateLimitPolicy, rateLimitKey);
 
             LOG.trace("User authenticated successfully: {}", username);
             return AuthResultDto.success();
@@ -86,6 +108,22 @@ public class AuthService {
         }
     }
 
+    /**
+     * Counts a failed attempt towards the login limit.
+     */
+    private AuthResultDto loginFailed(final RateLimitPolicy rateLimitPolicy, final String rateLimitKey) {
+        this.rateLimiterService.record(rateLimitPolicy, rateLimitKey);
+        return AuthResultDto.invalidCredentials();
+    }
+
+    /**
+     * @return the address of the current client or null if it is unknown
+     */
+    private String getClientAddress() {
+        final var session = VaadinSession.getCurrent();
+        return session != null && session.getBrowser() != null ? session.getBrowser().getAddress() : null;
+    }
+
     public void logout() {
         final var username = this.getUsername();
         LOG.trace("Logging out user: {}", username);
@@ -93,6 +131,7 @@ public class AuthService {
         VaadinSession.getCurrent().setAttribute(USERNAME_KEY, null);
         VaadinSession.getCurrent().setAttribute(PASSWORD_KEY, null);
         VaadinSession.getCurrent().setAttribute(AUTHENTICATED_KEY, false);
+        this.currentUserService.clear(VaadinSession.getCurrent());
 
         LOG.trace("User logged out");
     }
@@ -109,25 +148,17 @@ public class AuthService {
     }
 
     public Long getUserId() {
-        final String username = this.getUsername();
-        if (username == null) {
-            return null;
-        }
-        final var user = UserEntity.<UserEntity>find("username = ?1", username).firstResult();
-        return user != null ? user.id : null;
+        final CurrentUser currentUser = this.currentUserService.get();
+        return currentUser != null ? currentUser.userId : null;
     }
 
     /**
-     * Get the current authenticated user entity (for accessing avatar settings,
-     * etc.)
+     * Get the current authenticated user (for accessing avatar settings, etc.)
+     * from the session, without querying the database.
      * 
-     * @return UserEntity or null if not authenticated
+     * @return CurrentUser or null if not authenticated
      */
-    public UserEntity getCurrentUserEntity() {
-        final String username = this.getUsername();
-        if (username == null) {
-            return null;
-        }
-        return UserEntity.<UserEntity>find("username = ?1", username).firstResult();
+    public CurrentUser getCurrentUser() {
+        return this.currentUserService.get();
     }
 }
@@ -0,0 +1,154 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.vptr.aimathtutor.dto.CatalogSnapshotDto;
+import de.vptr.aimathtutor.dto.ExerciseViewDto;
+import de.vptr.aimathtutor.dto.LessonViewDto;
+import de.vptr.aimathtutor.entity.ExerciseEntity;
+import de.vptr.aimathtutor.entity.LessonEntity;
+import de.vptr.aimathtutor.event.CatalogChangedEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Keeps an immutable snapshot of the student catalog in memory, so the
+ * lesson overview runs no catalog queries. Every committed lesson or
+ * exercise change advances the generation and rebuilds the snapshot with a
+ * fixed number of queries; readers keep using the previous snapshot until
+ * the new one is swapped in. Changes made on other instances arrive through
+ * the {@link ClusterEventBus}.
+ */
+@ApplicationScoped
+public class CatalogService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogService.class);
+
+    private static final String CLUSTER_EVENT_TYPE = "catalog.changed";
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile CatalogSnapshotDto snapshot;
+
+    @Inject
+    ClusterEventBus clusterEventBus;
+
+    @Inject
+    EntityManager entityManager;
+
+    void onStart(@Observes final StartupEvent event) {
+        this.clusterEventBus.subscribe(CLUSTER_EVENT_TYPE, this::onRemoteCatalogChanged);
+    }
+
+    /**
+     * Returns the current snapshot, rebuilding it first if it is missing or
+     * older than the last committed change.
+     */
+    public CatalogSnapshotDto getSnapshot() {
+        final CatalogSnapshotDto current = this.snapshot;
+        if (current != null && current.generation >= this.generation.get()) {
+            return current;
+        }
+        return this.rebuild();
+    }
+
+    /**
+     * Marks the snapshot as stale and rebuilds it.
+     */
+    public void invalidate() {
+        this.generation.incrementAndGet();
+        try {
+            this.rebuild();
+        } catch (final Exception e) {
+            // The next reader retries
+            LOG.error("Error rebuilding catalog snapshot", e);
+        }
+    }
+
+    void onCatalogChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final CatalogChangedEvent event) {
+        LOG.debug("Catalog changed: {} {}", event.entityType, event.entityId);
+        this.invalidate();
+    }
+
+    /**
+     * Forwards the change to the other instances within the changing
+     * transaction.
+     */
+    void notifyCluster(@Observes final CatalogChangedEvent event) {
+        this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, event.entityType, event.entityId);
+    }
+
+    private void onRemoteCatalogChanged(final JsonNode fields) {
+        this.invalidate();
+    }
+
+    /**
+     * Builds a snapshot for the current generation unless a concurrent
+     * rebuild already did. Serialized, so concurrent readers of a stale
+     * snapshot trigger a single rebuild.
+     */
+    private synchronized CatalogSnapshotDto rebuild() {
+        final long target = this.generation.get();
+        final CatalogSnapshotDto current = this.snapshot;
+        if (current != null && current.generation >= target) {
+            return current;
+        }
+        final CatalogSnapshotDto built = this.loadSnapshot(target);
+        this.snapshot = built;
+        LOG.info("Rebuilt catalog snapshot: generation={}, lessons={}, published exercises={}", target,
+                built.lessons.size(), built.publishedExercises.size());
+        return built;
+    }
+
+    /**
+     * Loads lessons, published exercises and the lesson counts with four
+     * queries, independent of the catalog size.
+     */
+    @Transactional
+    CatalogSnapshotDto loadSnapshot(final long snapshotGeneration) {
+        final Map<Long, List<Long>> childrenIds = new HashMap<>();
+        this.entityManager
+                .createQuery("SELECT l.parent.id, l.id FROM LessonEntity l WHERE l.parent IS NOT NULL "
+                        + "ORDER BY l.id", Object[].class)
+                .getResultList()
+                .forEach(row -> childrenIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add((Long) row[1]));
+
+        final Map<Long, Integer> exercisesCount = new HashMap<>();
+        this.entityManager
+                .createQuery("SELECT e.lesson.id, COUNT(e) FROM ExerciseEntity e WHERE e.lesson IS NOT NULL "
+                        + "GROUP BY e.lesson.id", Object[].class)
+                .getResultList()
+                .forEach(row -> exercisesCount.put((Long) row[0], ((Number) row[1]).intValue()));
+
+        final List<LessonViewDto> lessons = LessonEntity.<LessonEntity>find(
+                "SELECT l FROM LessonEntity l LEFT JOIN FETCH l.parent ORDER BY l.id DESC").stream()
+                .map(lesson -> new LessonViewDto(lesson, childrenIds.get(lesson.id),
+                        exercisesCount.getOrDefault(lesson.id, 0)))
+                .toList();
+
+        final List<ExerciseViewDto> publishedExercises = ExerciseEntity.<ExerciseEntity>find(
+                "SELECT e FROM ExerciseEntity e LEFT JOIN FETCH e.user LEFT JOIN FETCH e.lesson "
+                        + "WHERE e.published = true ORDER BY e.id DESC")
+                .stream()
+                .map(ExerciseViewDto::new)
+                .toList();
+
+        return new CatalogSnapshotDto(snapshotGeneration, LocalDateTime.now(), lessons, publishedExercises);
+    }
+}
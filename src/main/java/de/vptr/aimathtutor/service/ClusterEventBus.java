@@ -0,0 +1,189 @@
+package de.vptr.aimathtutor.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Propagates live-update events between application instances using
+ * Postgres LISTEN/NOTIFY on a single channel, so no extra infrastructure is
+ * needed. Each instance holds one listening connection and hands incoming
+ * events to the local subscribers of their type, which fan them out to their
+ * UIs. Events from the own instance are skipped, local delivery already
+ * happened through CDI.
+ * <p>
+ * Payloads are compact JSON: {@code {"t":type,"n":node,"d":[fields...]}}.
+ * Postgres limits them to 8000 bytes; publishers leave out large fields and
+ * let receivers load them. Events published while a listener is reconnecting
+ * are lost, which is acceptable for live updates.
+ */
+@ApplicationScoped
+public class ClusterEventBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterEventBus.class);
+
+    private static final String CHANNEL = "aimathtutor_events";
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, List<Consumer<JsonNode>>> handlers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "cluster.events.enabled", defaultValue = "true")
+    boolean enabled;
+
+    void onStart(@Observes final StartupEvent event) {
+        if (!this.enabled) {
+            LOG.info("Cluster event bus disabled");
+            return;
+        }
+        this.running = true;
+        this.listenerThread = new Thread(this::listen, "cluster-event-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.running = false;
+        if (this.listenerThread != null) {
+            this.listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Registers a handler for events of one type published by other
+     * instances. Handlers run on the listener thread and must return quickly.
+     */
+    public void subscribe(final String type, final Consumer<JsonNode> handler) {
+        this.handlers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Publishes an event to the other instances. Must be called inside the
+     * transaction that makes the change: Postgres delivers the notification on
+     * commit and drops it on rollback.
+     *
+     * @param fields JSON-serializable values, read back by position
+     * @return false if the event was not sent (disabled or payload too large)
+     */
+    public boolean publish(final String type, final Object... fields) {
+        if (!this.enabled) {
+            return false;
+        }
+        final String payload;
+        try {
+            payload = this.objectMapper.writeValueAsString(
+                    Map.of("t", type, "n", this.nodeId, "d", Arrays.asList(fields)));
+        } catch (final JsonProcessingException e) {
+            LOG.warn("Could not serialize cluster event {}", type, e);
+            return false;
+        }
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            LOG.warn("Cluster event {} exceeds {} bytes, not sent", type, MAX_PAYLOAD_BYTES);
+            return false;
+        }
+        this.entityManager.unwrap(Session.class).doWork(connection -> {
+            try (var statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        });
+        return true;
+    }
+
+    private void listen() {
+        while (this.running) {
+            try (var connection = this.dataSource.getConnection();
+                    var statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                final var pgConnection = connection.unwrap(PGConnection.class);
+                LOG.info("Listening for cluster events on channel {} as node {}", CHANNEL, this.nodeId);
+                while (this.running) {
+                    final PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (final PGNotification notification : notifications) {
+                            this.dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (final SQLException e) {
+                if (!this.running) {
+                    return;
+                }
+                LOG.warn("Cluster event listener lost its connection, reconnecting in {} ms",
+                        RECONNECT_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(final String payload) {
+        try {
+            final JsonNode message = this.objectMapper.readTree(payload);
+            if (this.nodeId.equals(message.path("n").asText())) {
+                return;
+            }
+            final var typeHandlers = this.handlers.get(message.path("t").asText());
+            if (typeHandlers == null) {
+                return;
+            }
+            final JsonNode fields = message.path("d");
+            for (final var handler : typeHandlers) {
+                try {
+                    handler.accept(fields);
+                } catch (final Exception e) {
+                    LOG.warn("Cluster event handler failed for {}", payload, e);
+                }
+            }
+        } catch (final JsonProcessingException e) {
+            LOG.warn("Ignoring malformed cluster event: {}", payload, e);
+        }
+    }
+}
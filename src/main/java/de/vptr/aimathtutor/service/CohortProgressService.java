@@ -0,0 +1,199 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.entity.StudentSessionEntity;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains the group_exercise_progress aggregate table, one row per user
+ * group and exercise. Session deltas are fanned out to all groups of the
+ * student with a single upsert; membership changes add or subtract the
+ * member's sessions. Drift from cascading deletes is corrected by a periodic
+ * rebuild.
+ */
+@ApplicationScoped
+public class CohortProgressService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CohortProgressService.class);
+
+    private static final String UPSERT_SESSION_DELTA = """
+            INSERT INTO group_exercise_progress (group_id, exercise_id, total_sessions, completed_sessions,
+                hints_used, actions_count, correct_actions, last_activity)
+            SELECT DISTINCT m.group_id, ?2, ?3, ?4, ?5, ?6, ?7, CAST(?8 AS TIMESTAMP)
+            FROM user_groups_meta m
+            WHERE m.user_id = ?1
+            ON CONFLICT (group_id, exercise_id) DO UPDATE SET
+                total_sessions = group_exercise_progress.total_sessions + EXCLUDED.total_sessions,
+                completed_sessions = group_exercise_progress.completed_sessions + EXCLUDED.completed_sessions,
+                hints_used = group_exercise_progress.hints_used + EXCLUDED.hints_used,
+                actions_count = group_exercise_progress.actions_count + EXCLUDED.actions_count,
+                correct_actions = group_exercise_progress.correct_actions + EXCLUDED.correct_actions,
+                last_activity = GREATEST(group_exercise_progress.last_activity, EXCLUDED.last_activity)
+            """;
+
+    /**
+     * Adds (?3 = 1) or subtracts (?3 = -1) all sessions of one user to a group.
+     */
+    private static final String UPSERT_MEMBER_DELTA = """
+            INSERT INTO group_exercise_progress (group_id, exercise_id, total_sessions, completed_sessions,
+                hints_used, actions_count, correct_actions, last_activity)
+            SELECT ?2, s.exercise_id, ?3 * COUNT(*), ?3 * COUNT(*) FILTER (WHERE s.completed),
+                ?3 * SUM(s.hints_used), ?3 * SUM(s.actions_count), ?3 * SUM(s.correct_actions),
+                MAX(COALESCE(s.end_time, s.start_time))
+            FROM student_sessions s
+            WHERE s.user_id = ?1
+            GROUP BY s.exercise_id
+            ON CONFLICT (group_id, exercise_id) DO UPDATE SET
+                total_sessions = group_exercise_progress.total_sessions + EXCLUDED.total_sessions,
+                completed_sessions = group_exercise_progress.completed_sessions + EXCLUDED.completed_sessions,
+                hints_used = group_exercise_progress.hints_used + EXCLUDED.hints_used,
+                actions_count = group_exercise_progress.actions_count + EXCLUDED.actions_count,
+                correct_actions = group_exercise_progress.correct_actions + EXCLUDED.correct_actions,
+                last_activity = GREATEST(group_exercise_progress.last_activity, EXCLUDED.last_activity)
+            """;
+
+    private static final String DELETE_EMPTY_GROUP_ROWS = """
+            DELETE FROM group_exercise_progress
+            WHERE group_id = ?1 AND total_sessions <= 0
+            """;
+
+    private static final String DELETE_ALL = "DELETE FROM group_exercise_progress";
+
+    private static final String REBUILD = """
+            INSERT INTO group_exercise_progress (group_id, exercise_id, total_sessions, completed_sessions,
+                hints_used, actions_count, correct_actions, last_activity)
+            SELECT m.group_id, s.exercise_id, COUNT(*), COUNT(*) FILTER (WHERE s.completed),
+                SUM(s.hints_used), SUM(s.actions_count), SUM(s.correct_actions),
+                MAX(COALESCE(s.end_time, s.start_time))
+            FROM (SELECT DISTINCT group_id, user_id FROM user_groups_meta) m
+            JOIN student_sessions s ON s.user_id = m.user_id
+            GROUP BY m.group_id, s.exercise_id
+            """;
+
+    private static final String COUNT_ROWS = "SELECT COUNT(*) FROM group_exercise_progress";
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Backfills the aggregates for databases that already contain sessions.
+     */
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        final Number rows = (Number) this.entityManager.createNativeQuery(COUNT_ROWS).getSingleResult();
+        if (rows.longValue() == 0 && StudentSessionEntity.count() > 0) {
+            LOG.info("group_exercise_progress is empty, rebuilding from student_sessions");
+            this.rebuild();
+        }
+    }
+
+    @Transactional
+    public void recordSessionStarted(final Long userId, final Long exerciseId, final LocalDateTime at) {
+        this.applySessionDelta(userId, exerciseId, 1, 0, 0, 0, 0, at);
+    }
+
+    @Transactional
+    public void recordAction(final Long userId, final Long exerciseId, final boolean correct,
+            final LocalDateTime at) {
+        this.applySessionDelta(userId, exerciseId, 0, 0, 0, 1, correct ? 1 : 0, at);
+    }
+
+    @Transactional
+    public void recordHintUsed(final Long userId, final Long exerciseId, final LocalDateTime at) {
+        this.applySessionDelta(userId, exerciseId, 0, 0, 1, 0, 0, at);
+    }
+
+    @Transactional
+    public void recordSessionCompleted(final Long userId, final Long exerciseId, final LocalDateTime at) {
+        this.applySessionDelta(userId, exerciseId, 0, 1, 0, 0, 0, at);
+    }
+
+    /**
+     * Adds the existing sessions of a new member to the group's aggregates.
+     */
+    @Transactional
+    public void recordMemberAdded(final Long userId, final Long groupId) {
+        this.applyMemberDelta(userId, groupId, 1);
+    }
+
+    /**
+     * Removes the sessions of a former member from the group's aggregates.
+     * last_activity is left as is until the next rebuild.
+     */
+    @Transactional
+    public void recordMemberRemoved(final Long userId, final Long groupId) {
+        this.applyMemberDelta(userId, groupId, -1);
+        this.entityManager.createNativeQuery(DELETE_EMPTY_GROUP_ROWS)
+                .setParameter(1, groupId)
+                .executeUpdate();
+    }
+
+    @Scheduled(every = "${analytics.cohort.reconcile-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledRebuild() {
+        try {
+            this.rebuild();
+        } catch (final Exception e) {
+            LOG.error("Error rebuilding group_exercise_progress", e);
+        }
+    }
+
+    /**
+     * Recomputes all group aggregates from student_sessions and the current
+     * memberships, correcting drift from deleted users, exercises or sessions.
+     *
+     * @return number of group/exercise rows
+     */
+    @Transactional
+    public int rebuild() {
+        this.entityManager.createNativeQuery(DELETE_ALL).executeUpdate();
+        final int rows = this.entityManager.createNativeQuery(REBUILD).executeUpdate();
+        LOG.info("Rebuilt group_exercise_progress: {} rows", rows);
+        return rows;
+    }
+
+    private void applySessionDelta(
+            final Long userId,
+            final Long exerciseId,
+            final int sessions,
+            final int completed,
+            final int hints,
+            final int actions,
+            final int correct,
+            final LocalDateTime at) {
+        if (userId == null || exerciseId == null) {
+            return;
+        }
+        this.entityManager.createNativeQuery(UPSERT_SESSION_DELTA)
+                .setParameter(1, userId)
+                .setParameter(2, exerciseId)
+                .setParameter(3, sessions)
+                .setParameter(4, completed)
+                .setParameter(5, hints)
+                .setParameter(6, actions)
+                .setParameter(7, correct)
+                .setParameter(8, at)
+                .executeUpdate();
+    }
+
+    private void applyMemberDelta(final Long userId, final Long groupId, final int sign) {
+        if (userId == null || groupId == null) {
+            return;
+        }
+        this.entityManager.createNativeQuery(UPSERT_MEMBER_DELTA)
+                .setParameter(1, userId)
+                .setParameter(2, groupId)
+                .setParameter(3, sign)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,234 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vaadin.flow.shared.Registration;
+
+import de.vptr.aimathtutor.dto.CommentViewDto;
+import de.vptr.aimathtutor.event.CommentCreatedEvent;
+import de.vptr.aimathtutor.event.CommentsModeratedEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * Pushes new comments to the comment panels showing the same exercise.
+ * Comments created within the coalesce window are delivered as one batch,
+ * built from the event itself, so subscribers never reload from the database.
+ * Exercises without subscribers cost nothing. Hidden or deleted comments are
+ * pushed with their new status so panels can drop them. Changes made on other
+ * instances arrive through the {@link ClusterEventBus}.
+ */
+@ApplicationScoped
+public class CommentBroadcaster {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommentBroadcaster.class);
+
+    private static final String CLUSTER_EVENT_TYPE = "comment.created";
+    private static final String CLUSTER_MODERATION_TYPE = "comment.moderated";
+    private static final int MODERATION_IDS_PER_MESSAGE = 500;
+
+    private final Map<Long, Set<Consumer<List<CommentViewDto>>>> subscribers = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<CommentViewDto>> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "comment-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Inject
+    ClusterEventBus clusterEventBus;
+
+    @Inject
+    CommentService commentService;
+
+    @ConfigProperty(name = "comments.broadcast.coalesce-window", defaultValue = "250ms")
+    Duration coalesceWindow;
+
+    void onStart(@Observes final StartupEvent event) {
+        this.clusterEventBus.subscribe(CLUSTER_EVENT_TYPE, this::onRemoteCommentCreated);
+        this.clusterEventBus.subscribe(CLUSTER_MODERATION_TYPE, this::onRemoteCommentsModerated);
+    }
+
+    /**
+     * Registers a listener for new comments on one exercise. Listeners are
+     * called from a background thread and must synchronize with their UI
+     * themselves.
+     */
+    public Registration register(final Long exerciseId, final Consumer<List<CommentViewDto>> listener) {
+        this.subscribers.computeIfAbsent(exerciseId, id -> new CopyOnWriteArraySet<>()).add(listener);
+        return () -> this.subscribers.computeIfPresent(exerciseId, (id, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    void onCommentCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) final CommentCreatedEvent event) {
+        this.publish(toViewDto(event));
+    }
+
+    /**
+     * Forwards the comment to the other instances within the creating
+     * transaction. Content too large for a notification is left out and
+     * loaded by the receivers.
+     */
+    void notifyCluster(@Observes final CommentCreatedEvent event) {
+        final String createdAt = event.createdAt != null ? event.createdAt.toString() : null;
+        if (!this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, event.commentId, event.exerciseId,
+                event.parentCommentId, event.userId, event.username, createdAt, event.content)) {
+            this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, event.commentId, event.exerciseId,
+                    event.parentCommentId, event.userId, event.username, createdAt);
+        }
+    }
+
+    void onCommentsModerated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) final CommentsModeratedEvent event) {
+        if ("VISIBLE".equals(event.status)) {
+            // Restored comments show up with the next load, pushing them would need their content
+            return;
+        }
+        event.commentIdsByExercise.forEach((exerciseId, commentIds) -> this.publishRemoved(exerciseId,
+                commentIds, event.status));
+    }
+
+    /**
+     * Forwards a moderation batch as one compact message per exercise (and
+     * chunk of ids) within the moderating transaction.
+     */
+    void notifyClusterModerated(@Observes final CommentsModeratedEvent event) {
+        if ("VISIBLE".equals(event.status)) {
+            return;
+        }
+        event.commentIdsByExercise.forEach((exerciseId, commentIds) -> {
+            for (int from = 0; from < commentIds.size(); from += MODERATION_IDS_PER_MESSAGE) {
+                final var chunk = commentIds.subList(from,
+                        Math.min(from + MODERATION_IDS_PER_MESSAGE, commentIds.size()));
+                this.clusterEventBus.publish(CLUSTER_MODERATION_TYPE, exerciseId, event.status, chunk);
+            }
+        });
+    }
+
+    private void onRemoteCommentsModerated(final JsonNode fields) {
+        final Long exerciseId = longOrNull(fields.get(0));
+        if (exerciseId == null || !this.subscribers.containsKey(exerciseId)) {
+            return;
+        }
+        final List<Long> commentIds = new ArrayList<>();
+        fields.get(2).forEach(id -> commentIds.add(id.asLong()));
+        this.publishRemoved(exerciseId, commentIds, fields.get(1).asText());
+    }
+
+    private void publishRemoved(final Long exerciseId, final List<Long> commentIds, final String status) {
+        if (!this.subscribers.containsKey(exerciseId)) {
+            return;
+        }
+        for (final Long commentId : commentIds) {
+            final var dto = new CommentViewDto();
+            dto.id = commentId;
+            dto.exerciseId = exerciseId;
+            dto.status = status;
+            this.publish(dto);
+        }
+    }
+
+    private void onRemoteCommentCreated(final JsonNode fields) {
+        final Long exerciseId = longOrNull(fields.get(1));
+        if (exerciseId == null || !this.subscribers.containsKey(exerciseId)) {
+            return;
+        }
+        final Long commentId = longOrNull(fields.get(0));
+        if (!fields.has(6)) {
+            this.commentService.findById(commentId).ifPresent(this::publish);
+            return;
+        }
+        final var createdAt = fields.get(5).isNull() ? null : LocalDateTime.parse(fields.get(5).asText());
+        this.publish(toViewDto(new CommentCreatedEvent(commentId, exerciseId, longOrNull(fields.get(2)),
+                longOrNull(fields.get(3)), fields.get(4).asText(null), fields.get(6).asText(), createdAt)));
+    }
+
+    /**
+     * Queues a comment for its exercise's subscribers. The first comment of a
+     * burst schedules the flush, later ones just join the batch.
+     */
+    public void publish(final CommentViewDto comment) {
+        if (comment.exerciseId == null || !this.subscribers.containsKey(comment.exerciseId)) {
+            return;
+        }
+        final boolean[] first = { false };
+        this.pending.compute(comment.exerciseId, (id, batch) -> {
+            if (batch == null) {
+                first[0] = true;
+                batch = new ArrayList<>();
+            }
+            batch.add(comment);
+            return batch;
+        });
+        if (first[0]) {
+            this.flusher.schedule(() -> this.flush(comment.exerciseId), this.coalesceWindow.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.flusher.shutdownNow();
+    }
+
+    private void flush(final Long exerciseId) {
+        final var batch = this.pending.remove(exerciseId);
+        final var listeners = this.subscribers.get(exerciseId);
+        if (batch == null || listeners == null) {
+            return;
+        }
+        final var comments = List.copyOf(batch);
+        LOG.debug("Broadcasting {} comment(s) for exercise {} to {} panel(s)", comments.size(), exerciseId,
+                listeners.size());
+        for (final var listener : listeners) {
+            try {
+                listener.accept(comments);
+            } catch (final Exception e) {
+                LOG.warn("Comment listener failed for exercise {}", exerciseId, e);
+            }
+        }
+    }
+
+    private static Long longOrNull(final JsonNode node) {
+        return node == null || node.isNull() ? null : node.asLong();
+    }
+
+    private static CommentViewDto toViewDto(final CommentCreatedEvent event) {
+        final var dto = new CommentViewDto();
+        dto.id = event.commentId;
+        dto.exerciseId = event.exerciseId;
+        dto.parentId = event.parentCommentId;
+        dto.userId = event.userId;
+        dto.authorId = event.userId;
+        dto.username = event.username;
+        dto.content = event.content;
+        dto.created = event.createdAt;
+        dto.status = "VISIBLE";
+        dto.flagsCount = 0;
+        return dto;
+    }
+}
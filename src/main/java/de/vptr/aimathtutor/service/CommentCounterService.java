@@ -0,0 +1,153 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains the denormalized comment counters on exercises: visible comments,
+ * open flags (flags on comments that are not deleted) and the newest visible
+ * comment.
+ * Every change is a single atomic increment, so listing pages read the
+ * counters instead of aggregating comments. A periodic reconciliation
+ * corrects drift, e.g. from cascading deletes.
+ */
+@ApplicationScoped
+public class CommentCounterService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommentCounterService.class);
+
+    private static final String VISIBLE = "VISIBLE";
+    private static final String DELETED = "DELETED";
+
+    private static final String RECORD_CREATED = """
+            UPDATE exercises
+            SET comments_count = comments_count + 1,
+                last_comment_at = GREATEST(last_comment_at, CAST(?2 AS TIMESTAMP))
+            WHERE id = ?1
+            """;
+
+    private static final String ADJUST = """
+            UPDATE exercises
+            SET comments_count = comments_count + ?2,
+                open_flags_count = open_flags_count + ?3
+            WHERE id = ?1
+            """;
+
+    private static final String RECONCILE = """
+            UPDATE exercises e
+            SET comments_count = COALESCE(c.visible, 0),
+                open_flags_count = COALESCE(c.open_flags, 0),
+                last_comment_at = c.last_comment
+            FROM exercises x
+            LEFT JOIN (
+                SELECT exercise_id,
+                    COUNT(*) FILTER (WHERE status = 'VISIBLE') AS visible,
+                    SUM(flags_count) FILTER (WHERE status <> 'DELETED') AS open_flags,
+                    MAX(created) FILTER (WHERE status = 'VISIBLE') AS last_comment
+                FROM comments
+                GROUP BY exercise_id
+            ) c ON c.exercise_id = x.id
+            WHERE e.id = x.id
+                AND (e.comments_count IS DISTINCT FROM COALESCE(c.visible, 0)
+                    OR e.open_flags_count IS DISTINCT FROM COALESCE(c.open_flags, 0)
+                    OR e.last_comment_at IS DISTINCT FROM c.last_comment)
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Brings the counters in line with seeded or pre-existing comments.
+     */
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        this.reconcile();
+    }
+
+    /**
+     * Counts a new visible comment. Hidden or pending comments are not
+     * recorded, matching the reconciliation.
+     */
+    @Transactional
+    public void recordCommentCreated(final Long exerciseId, final LocalDateTime at) {
+        this.entityManager.createNativeQuery(RECORD_CREATED)
+                .setParameter(1, exerciseId)
+                .setParameter(2, at)
+                .executeUpdate();
+    }
+
+    /**
+     * Applies a change of a comment's status and/or flag count. A hard delete
+     * is a change to status DELETED with no flags.
+     */
+    @Transactional
+    public void recordCommentChanged(final Long exerciseId, final String oldStatus, final int oldFlags,
+            final String newStatus, final int newFlags) {
+        this.adjust(exerciseId, visibleDelta(oldStatus, newStatus),
+                openFlagsDelta(oldStatus, oldFlags, newStatus, newFlags));
+    }
+
+    @Transactional
+    public void adjust(final Long exerciseId, final int commentDelta, final int flagDelta) {
+        if (exerciseId == null || (commentDelta == 0 && flagDelta == 0)) {
+            return;
+        }
+        this.entityManager.createNativeQuery(ADJUST)
+                .setParameter(1, exerciseId)
+                .setParameter(2, commentDelta)
+                .setParameter(3, flagDelta)
+                .executeUpdate();
+    }
+
+    @Scheduled(every = "${comments.counters.reconcile-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledReconcile() {
+        try {
+            this.reconcile();
+        } catch (final Exception e) {
+            LOG.error("Error reconciling exercise comment counters", e);
+        }
+    }
+
+    /**
+     * Recomputes the counters from the comments table, touching only
+     * exercises whose counters drifted.
+     *
+     * @return number of corrected exercises
+     */
+    @Transactional
+    public int reconcile() {
+        final int corrected = this.entityManager.createNativeQuery(RECONCILE).executeUpdate();
+        if (corrected > 0) {
+            LOG.info("Reconciled comment counters of {} exercises", corrected);
+        }
+        return corrected;
+    }
+
+    public static int visibleDelta(final String oldStatus, final String newStatus) {
+        return visible(newStatus) - visible(oldStatus);
+    }
+
+    public static int openFlagsDelta(final String oldStatus, final int oldFlags, final String newStatus,
+            final int newFlags) {
+        return openFlags(newStatus, newFlags) - openFlags(oldStatus, oldFlags);
+    }
+
+    private static int visible(final String status) {
+        return VISIBLE.equals(status) ? 1 : 0;
+    }
+
+    private static int openFlags(final String status, final int flags) {
+        return DELETED.equals(status) ? 0 : flags;
+    }
+}
@@ -0,0 +1,280 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.vptr.aimathtutor.dto.CommentVerdictDto;
+import de.vptr.aimathtutor.dto.CommentVerdictDto.Verdict;
+import de.vptr.aimathtutor.event.CommentCreatedEvent;
+import de.vptr.aimathtutor.util.CommentModerationUtil;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Classifies new comments in the background. Committed comments are offered
+ * to a bounded queue, never blocking the creating transaction; when the queue
+ * is full the comment is skipped and left to manual moderation. A worker
+ * thread drains the queue in micro-batches and classifies each batch with a
+ * single call to the configured AI provider, falling back to a keyword
+ * classifier. Clearly toxic comments are hidden, other findings are flagged
+ * for moderators.
+ */
+@ApplicationScoped
+public class CommentModerationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommentModerationService.class);
+
+    private static final long POLL_TIMEOUT_SECONDS = 1;
+
+    private record PendingComment(Long commentId, Long exerciseId, String content) {
+    }
+
+    private final AtomicLong droppedComments = new AtomicLong();
+
+    private BlockingQueue<PendingComment> queue;
+    private volatile boolean running;
+    private Thread workerThread;
+
+    @Inject
+    CommentService commentService;
+
+    @Inject
+    GeminiAIService geminiService;
+
+    @Inject
+    OpenAIService openAIService;
+
+    @Inject
+    OllamaService ollamaService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "ai.tutor.provider", defaultValue = "mock")
+    String aiProvider;
+
+    @ConfigProperty(name = "comments.moderation.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "comments.moderation.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "comments.moderation.batch-size", defaultValue = "20")
+    int batchSize;
+
+    @ConfigProperty(name = "comments.moderation.batch-wait", defaultValue = "2s")
+    Duration batchWait;
+
+    @ConfigProperty(name = "comments.moderation.hide-confidence", defaultValue = "0.9")
+    double hideConfidence;
+
+    @ConfigProperty(name = "comments.moderation.flag-confidence", defaultValue = "0.6")
+    double flagConfidence;
+
+    void onStart(@Observes final StartupEvent event) {
+        if (!this.enabled) {
+            LOG.info("Automatic comment moderation disabled");
+            return;
+        }
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.running = true;
+        this.workerThread = new Thread(this::work, "comment-moderation");
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.running = false;
+        if (this.workerThread != null) {
+            this.workerThread.interrupt();
+        }
+    }
+
+    void onCommentCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) final CommentCreatedEvent event) {
+        this.enqueue(event.commentId, event.exerciseId, event.content);
+    }
+
+    /**
+     * Offers a comment for classification without waiting.
+     *
+     * @return false if moderation is disabled or the queue is full
+     */
+    public boolean enqueue(final Long commentId, final Long exerciseId, final String content) {
+        if (this.queue == null || commentId == null) {
+            return false;
+        }
+        if (!this.queue.offer(new PendingComment(commentId, exerciseId, content))) {
+            final long dropped = this.droppedComments.incrementAndGet();
+            LOG.warn("Comment moderation queue full, skipping comment {} ({} skipped so far)", commentId, dropped);
+            return false;
+        }
+        return true;
+    }
+
+    public int getQueueSize() {
+        return this.queue != null ? this.queue.size() : 0;
+    }
+
+    public long getDroppedComments() {
+        return this.droppedComments.get();
+    }
+
+    private void work() {
+        while (this.running) {
+            try {
+                final List<PendingComment> batch = this.nextBatch();
+                if (!batch.isEmpty()) {
+                    this.moderate(batch);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final Exception e) {
+                LOG.error("Error moderating comments", e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the first comment, then collects more until the batch is full
+     * or the batch wait has passed.
+     */
+    private List<PendingComment> nextBatch() throws InterruptedException {
+        final List<PendingComment> batch = new ArrayList<>(this.batchSize);
+        final PendingComment first = this.queue.poll(POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        final long deadline = System.nanoTime() + this.batchWait.toNanos();
+        while (batch.size() < this.batchSize) {
+            this.queue.drainTo(batch, this.batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= this.batchSize || remaining <= 0) {
+                break;
+            }
+            final PendingComment next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void moderate(final List<PendingComment> batch) {
+        final Map<Long, String> contents = new LinkedHashMap<>();
+        final Map<Long, Long> exerciseIds = new HashMap<>();
+        for (final PendingComment comment : batch) {
+            contents.put(comment.commentId(), comment.content());
+            exerciseIds.put(comment.commentId(), comment.exerciseId());
+        }
+
+        final List<Long> hide = new ArrayList<>();
+        final List<Long> flag = new ArrayList<>();
+        for (final CommentVerdictDto verdict : this.classify(contents, exerciseIds)) {
+            if (verdict.isOk()) {
+                continue;
+            }
+            if (verdict.verdict == Verdict.TOXIC && verdict.confidence >= this.hideConfidence) {
+                hide.add(verdict.commentId);
+            } else if (verdict.confidence >= this.flagConfidence) {
+                flag.add(verdict.commentId);
+            }
+        }
+
+        // Both statements only touch comments that are still visible
+        final int hidden = this.commentService.autoHideComments(hide);
+        final int flagged = this.commentService.autoFlagComments(flag);
+        LOG.debug("Moderated {} comments: hidden={}, flagged={}", batch.size(), hidden, flagged);
+    }
+
+    /**
+     * Classifies the batch with one provider call. Comments the model did not
+     * answer for are classified locally.
+     */
+    private List<CommentVerdictDto> classify(final Map<Long, String> contents, final Map<Long, Long> exerciseIds) {
+        Map<Long, CommentVerdictDto> verdicts = Map.of();
+        if (!"mock".equalsIgnoreCase(this.aiProvider)) {
+            try {
+                final String prompt = CommentModerationUtil.buildPrompt(contents, this.loadTopics(exerciseIds));
+                final String response = this.generate(prompt);
+                if (response != null) {
+                    verdicts = CommentModerationUtil.parseVerdicts(response, contents, this.objectMapper);
+                }
+            } catch (final Exception e) {
+                LOG.warn("AI comment moderation failed, using keyword classifier: {}", e.getMessage());
+            }
+        }
+
+        final List<CommentVerdictDto> result = new ArrayList<>(contents.size());
+        for (final var entry : contents.entrySet()) {
+            final CommentVerdictDto verdict = verdicts.get(entry.getKey());
+            result.add(verdict != null ? verdict
+                    : CommentModerationUtil.classifyLocally(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Calls the configured provider, or returns null if it is not usable.
+     */
+    private String generate(final String prompt) {
+        return switch (this.aiProvider.toLowerCase()) {
+            case "gemini" -> this.geminiService.isConfigured() ? this.geminiService.generateContent(prompt) : null;
+            case "openai" -> this.openAIService.isConfigured() ? this.openAIService.generateJsonContent(prompt) : null;
+            case "ollama" -> this.ollamaService.isAvailable() ? this.ollamaService.generateContent(prompt) : null;
+            default -> null;
+        };
+    }
+
+    /**
+     * Loads the exercise titles for the prompt with one query.
+     *
+     * @return exercise title by comment id
+     */
+    @Transactional
+    Map<Long, String> loadTopics(final Map<Long, Long> exerciseIds) {
+        final List<Long> ids = exerciseIds.values().stream().filter(id -> id != null).distinct().toList();
+        final Map<Long, String> titles = new HashMap<>();
+        if (!ids.isEmpty()) {
+            this.entityManager
+                    .createQuery("SELECT e.id, e.title FROM ExerciseEntity e WHERE e.id IN :ids", Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .forEach(row -> titles.put((Long) row[0], (String) row[1]));
+        }
+        final Map<Long, String> topics = new HashMap<>();
+        exerciseIds.forEach((commentId, exerciseId) -> {
+            final String title = titles.get(exerciseId);
+            if (title != null) {
+                topics.put(commentId, title);
+            }
+        });
+        return topics;
+    }
+}
@@ -1,25 +1,38 @@
 package de.vptr.aimathtutor.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.vptr.aimathtutor.dto.CommentDto;
+import de.vptr.aimathtutor.dto.CommentThreadDto;
 import de.vptr.aimathtutor.dto.CommentViewDto;
 import de.vptr.aimathtutor.entity.CommentEntity;
 import de.vptr.aimathtutor.entity.CommentFlagEntity;
 import de.vptr.aimathtutor.entity.ExerciseEntity;
 import de.vptr.aimathtutor.entity.UserEntity;
 import de.vptr.aimathtutor.event.CommentCreatedEvent;
+import de.vptr.aimathtutor.event.CommentsModeratedEvent;
+import de.vptr.aimathtutor.util.SearchPatternUtil;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import jakarta.ws.rs.WebApplicationException;
@@ -30,8 +43,165 @@ public class CommentService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CommentService.class);
 
-    private static final long RATE_LIMIT_WINDOW_SECONDS = 5;
-    private static final int RATE_LIMIT_DAILY = 200;
+    private static final int AUTO_HIDE_FLAGS = 5;
+
+    /**
+     * Atomically counts one more flag, returns the new count and the exercise.
+     */
+    private static final String INCREMENT_FLAGS_SQL = """
+            UPDATE comments SET flags_count = flags_count + 1
+            WHERE id = ?1
+            RETURNING flags_count, exercise_id
+            """;
+
+    /**
+     * Hides a comment that is still visible; the caller already holds the
+     * row lock from the flag increment.
+     */
+    private static final String AUTO_HIDE_SQL = """
+            UPDATE comments SET status = 'HIDDEN'
+            WHERE id = ?1 AND status = 'VISIBLE'
+            """;
+
+    /**
+     * Bulk moderation statements (JDBC, ids bound as one array). Each locks the
+     * comments that are not yet in the target state in id order, so
+     * overlapping bulk actions cannot deadlock, updates them in one statement
+     * and returns id, exercise, old and new status and flag count.
+     */
+    private static final String BULK_HIDE_SQL = """
+            WITH target AS (
+                SELECT id, exercise_id, status, flags_count FROM comments
+                WHERE id = ANY(?) AND status = 'VISIBLE'
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE comments c SET status = 'HIDDEN'
+            FROM target t
+            WHERE c.id = t.id
+            RETURNING c.id, t.exercise_id, t.status, t.flags_count, c.status, c.flags_count
+            """;
+
+    private static final String BULK_DELETE_SQL = """
+            WITH target AS (
+                SELECT id, exercise_id, status, flags_count FROM comments
+                WHERE id = ANY(?) AND status <> 'DELETED'
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE comments c SET status = 'DELETED', deleted_by = ?, deleted_at = ?
+            FROM target t
+            WHERE c.id = t.id
+            RETURNING c.id, t.exercise_id, t.status, t.flags_count, c.status, c.flags_count
+            """;
+
+    /**
+     * Restoring a hidden comment clears its flags like SHOW does, restoring a
+     * deleted one keeps them like RESTORE does.
+     */
+    private static final String BULK_RESTORE_SQL = """
+            WITH target AS (
+                SELECT id, exercise_id, status, flags_count FROM comments
+                WHERE id = ANY(?) AND status <> 'VISIBLE'
+                ORDER BY id
+                FOR UPDATE
+            )
+            UPDATE comments c SET status = 'VISIBLE', deleted_by = NULL, deleted_at = NULL,
+                flags_count = CASE WHEN t.status = 'HIDDEN' THEN 0 ELSE c.flags_count END
+            FROM target t
+            WHERE c.id = t.id
+            RETURNING c.id, t.exercise_id, t.status, t.flags_count, c.status, c.flags_count
+            """;
+
+    private enum BulkOperation {
+        HIDE,
+        DELETE,
+        RESTORE;
+
+        String sql() {
+            return switch (this) {
+                case HIDE -> BULK_HIDE_SQL;
+                case DELETE -> BULK_DELETE_SQL;
+                case RESTORE -> BULK_RESTORE_SQL;
+            };
+        }
+
+        /**
+         * @return whether the statement records the moderator and time
+         */
+        boolean recordsModerator() {
+            return this == DELETE;
+        }
+    }
+
+    /**
+     * Adds one flag to each visible comment, used for flags raised by the
+     * automatic moderation which has no flagging user.
+     */
+    private static final String BULK_FLAG_SQL = """
+            UPDATE comments SET flags_count = flags_count + 1
+            WHERE id = ANY(?) AND status = 'VISIBLE'
+            RETURNING exercise_id
+            """;
+
+    /**
+     * Comments whose content matches the websearch query (comments_content_fts)
+     * or whose author matches the term (users_username_trgm_idx).
+     */
+    private static final String SEARCH_MATCHES_CTE = """
+            WITH q AS (SELECT websearch_to_tsquery('english', ?1) AS query),
+            matches AS (
+                SELECT c.id FROM comments c, q WHERE to_tsvector('english', c.content) @@ q.query
+                UNION
+                SELECT c.id FROM users u JOIN comments c ON c.user_id = u.id WHERE u.username ILIKE ?2
+            )
+            """;
+
+    /**
+     * Ranks and pages the matches first, snippets are only built for the rows
+     * of the requested page.
+     */
+    private static final String SEARCH_PAGE_SQL = SEARCH_MATCHES_CTE + """
+            SELECT p.id, ts_headline('english', c.content, q.query, ?3)
+            FROM (
+                SELECT c.id, ts_rank(to_tsvector('english', c.content), q.query) AS rank, c.created
+                FROM matches m JOIN comments c ON c.id = m.id CROSS JOIN q
+                ORDER BY rank DESC, c.created DESC, c.id DESC
+                LIMIT ?4 OFFSET ?5
+            ) p
+            JOIN comments c ON c.id = p.id CROSS JOIN q
+            ORDER BY p.rank DESC, p.created DESC, p.id DESC
+            """;
+
+    /**
+     * One page of visible top-level comments plus all visible replies below
+     * them, at any depth, in one round-trip. Roots are ordered newest first,
+     * replies oldest first, and every reply comes after its parent.
+     */
+    private static final String THREAD_PAGE_SQL = """
+            WITH RECURSIVE roots AS (
+                SELECT c.id FROM comments c
+                WHERE c.exercise_id = ?1 AND c.parent_comment_id IS NULL AND c.status = 'VISIBLE'
+                ORDER BY c.created DESC, c.id DESC
+                LIMIT ?2 OFFSET ?3
+            ),
+            thread AS (
+                SELECT c.id, c.parent_comment_id, c.user_id, c.content, c.created, c.status, c.flags_count,
+                    c.session_id, c.edited_at, 0 AS depth
+                FROM comments c JOIN roots r ON r.id = c.id
+                UNION ALL
+                SELECT c.id, c.parent_comment_id, c.user_id, c.content, c.created, c.status, c.flags_count,
+                    c.session_id, c.edited_at, t.depth + 1
+                FROM comments c JOIN thread t ON c.parent_comment_id = t.id
+                WHERE c.status = 'VISIBLE'
+            )
+            SELECT t.id, t.parent_comment_id, t.user_id, u.username, t.content, t.created, t.status,
+                t.flags_count, t.session_id, t.edited_at
+            FROM thread t LEFT JOIN users u ON u.id = t.user_id
+            ORDER BY t.depth, CASE WHEN t.depth = 0 THEN t.created END DESC, t.created, t.id
+            """;
+
+    private static final String SEARCH_COUNT_SQL = SEARCH_MATCHES_CTE + "SELECT COUNT(*) FROM matches";
 
     @Inject
     UserService userService;
@@ -39,6 +209,33 @@ public class CommentService {
     @Inject
     Event<CommentCreatedEvent> commentCreatedEvent;
 
+    @Inject
+    Event<CommentsModeratedEvent> commentsModeratedEvent;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    RateLimiterService rateLimiterService;
+
+    @Inject
+    CommentCounterService commentCounterService;
+
+    @ConfigProperty(name = "search.max-results", defaultValue = "100")
+    int searchMaxResults;
+
+    /**
+     * Seeds the comment and flag rate limits from persisted rows so a restart
+     * does not reset them.
+     */
+    void onStart(@Observes final StartupEvent event) {
+        this.rateLimiterService.registerHistory(RateLimitPolicy.COMMENT_CREATE,
+                (key, since) -> CommentEntity.count("user.id = ?1 AND created > ?2", Long.valueOf(key), since));
+        this.rateLimiterService.registerHistory(RateLimitPolicy.COMMENT_FLAG,
+                (key, since) -> CommentFlagEntity.count("flagger.id = ?1 AND created > ?2", Long.valueOf(key),
+                        since));
+    }
+
     @Transactional
     public List<CommentViewDto> getAllComments() {
         final List<CommentEntity> comments = CommentEntity.find("ORDER BY id DESC").list();
@@ -151,6 +348,9 @@ public class CommentService {
 
         comment.created = LocalDateTime.now();
         comment.persist();
+        if (comment.status == null || "VISIBLE".equals(comment.status)) {
+            this.commentCounterService.recordCommentCreated(existingExercise.id, comment.created);
+        }
 
         // Force load lazy fields to avoid LazyInitializationException
         if (comment.exercise != null) {
@@ -218,7 +418,14 @@ public class CommentService {
 
     @Transactional
     public boolean deleteComment(final Long id) {
-        return CommentEntity.deleteById(id);
+        final CommentEntity comment = CommentEntity.findById(id);
+        if (comment == null) {
+            return false;
+        }
+        this.commentCounterService.recordCommentChanged(comment.exercise.id, comment.status,
+                this.flagsOf(comment), "DELETED", 0);
+        comment.delete();
+        return true;
     }
 
     /**
@@ -240,7 +447,7 @@ public class CommentService {
 
         // 2. Check rate limiting
         try {
-            this.checkRateLimit(authorId);
+            this.rateLimiterService.acquire(RateLimitPolicy.COMMENT_CREATE, authorId);
         } catch (final Exception e) {
             LOG.warn("Rate limit exceeded for authorId={}", authorId);
             throw e;
@@ -303,14 +510,15 @@ public class CommentService {
         comment.status = "VISIBLE";
         comment.flagsCount = 0;
         comment.persist();
+        this.commentCounterService.recordCommentCreated(exercise.id, comment.created);
 
         // 7. Force load lazy fields
         this.forceLoadLazyFields(comment);
 
         // 8. Fire CDI event for real-time updates
         this.commentCreatedEvent.fire(new CommentCreatedEvent(
-                comment.id, comment.exercise.id, comment.user.id, comment.user.username,
-                comment.content, comment.created));
+                comment.id, comment.exercise.id, comment.parentComment != null ? comment.parentComment.id : null,
+                comment.user.id, comment.user.username, comment.content, comment.created));
 
         LOG.info("Comment created successfully: commentId={}, exerciseId={}, authorId={}", comment.id, dto.exerciseId,
                 authorId);
@@ -390,12 +598,15 @@ public class CommentService {
                     Response.Status.FORBIDDEN);
         }
 
+        final String oldStatus = comment.status;
+        final int flags = this.flagsOf(comment);
         if (softDelete) {
             // Soft delete: mark as deleted but preserve data
             comment.status = "DELETED";
             comment.deletedBy = requester;
             comment.deletedAt = LocalDateTime.now();
             comment.persist();
+            this.commentCounterService.recordCommentChanged(comment.exercise.id, oldStatus, flags, "DELETED", flags);
             LOG.info("Comment soft-deleted: commentId={}, requesterId={}, isAuthor={}", commentId, requesterId,
                     isAuthor);
         } else {
@@ -405,6 +616,7 @@ public class CommentService {
                 throw new WebApplicationException("Only moderators can permanently delete",
                         Response.Status.FORBIDDEN);
             }
+            this.commentCounterService.recordCommentChanged(comment.exercise.id, oldStatus, flags, "DELETED", 0);
             CommentEntity.deleteById(commentId);
             LOG.info("Comment hard-deleted: commentId={}, requesterId={}", commentId, requesterId);
         }
@@ -435,6 +647,8 @@ public class CommentService {
             throw new WebApplicationException("You have already flagged this comment", Response.Status.BAD_REQUEST);
         }
 
+        this.rateLimiterService.acquire(RateLimitPolicy.COMMENT_FLAG, flaggerId);
+
         // Create flag record
         final CommentFlagEntity flag = new CommentFlagEntity();
         flag.comment = comment;
@@ -442,18 +656,30 @@ public class CommentService {
         flag.created = LocalDateTime.now();
         flag.persist();
 
-        // Increment flag count
-        comment.flagsCount = (comment.flagsCount != null ? comment.flagsCount : 0) + 1;
+        // Increment flag count atomically, concurrent flags must not overwrite each other
+        final Object[] row = (Object[]) this.entityManager.createNativeQuery(INCREMENT_FLAGS_SQL)
+                .setParameter(1, commentId)
+                .getSingleResult();
+        final int flagsCount = ((Number) row[0]).intValue();
+        final Long exerciseId = ((Number) row[1]).longValue();
 
         // If flagged 5+ times, auto-hide
-        if (comment.flagsCount >= 5) {
-            comment.status = "HIDDEN";
-            LOG.warn("Comment auto-hidden due to flags: commentId={}, flagCount={}", commentId, comment.flagsCount);
+        int visibleDelta = 0;
+        if (flagsCount >= AUTO_HIDE_FLAGS) {
+            final int hidden = this.entityManager.createNativeQuery(AUTO_HIDE_SQL)
+                    .setParameter(1, commentId)
+                    .executeUpdate();
+            if (hidden > 0) {
+                visibleDelta = -1;
+                LOG.warn("Comment auto-hidden due to flags: commentId={}, flagCount={}", commentId, flagsCount);
+            }
         }
+        final int flagDelta = "DELETED".equals(comment.status) ? 0 : 1;
+        this.commentCounterService.adjust(exerciseId, visibleDelta, flagDelta);
 
-        comment.persist();
-        LOG.info("Comment flagged: commentId={}, flaggerId={}, newFlagCount={}", commentId, flaggerId,
-                comment.flagsCount);
+        // The loaded entity is stale now, keep it from being flushed over the new values
+        this.entityManager.detach(comment);
+        LOG.info("Comment flagged: commentId={}, flaggerId={}, newFlagCount={}", commentId, flaggerId, flagsCount);
     }
 
     /**
@@ -493,6 +719,46 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads a page of top-level comments of an exercise together with all
+     * their replies as a tree. Replaces one findReplies call per comment with
+     * a single recursive query.
+     */
+    @Transactional
+    public List<CommentThreadDto> listCommentThreadsByExercise(final Long exerciseId, final int page,
+            final int pageSize) {
+        final ExerciseEntity exercise = ExerciseEntity.findById(exerciseId);
+        if (exercise == null) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager.createNativeQuery(THREAD_PAGE_SQL)
+                .setParameter(1, exerciseId)
+                .setParameter(2, pageSize)
+                .setParameter(3, page * pageSize)
+                .getResultList();
+
+        final List<CommentViewDto> comments = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            final var dto = new CommentViewDto();
+            dto.id = ((Number) row[0]).longValue();
+            dto.parentId = row[1] != null ? ((Number) row[1]).longValue() : null;
+            dto.userId = row[2] != null ? ((Number) row[2]).longValue() : null;
+            dto.authorId = dto.userId;
+            dto.username = (String) row[3];
+            dto.content = (String) row[4];
+            dto.created = toLocalDateTime(row[5]);
+            dto.status = (String) row[6];
+            dto.flagsCount = row[7] != null ? ((Number) row[7]).intValue() : 0;
+            dto.sessionId = (String) row[8];
+            dto.editedAt = toLocalDateTime(row[9]);
+            dto.exerciseId = exercise.id;
+            dto.exerciseTitle = exercise.title;
+            comments.add(dto);
+        }
+        return CommentThreadDto.assemble(comments);
+    }
+
     /**
      * List comments by session
      */
@@ -534,6 +800,8 @@ public class CommentService {
                     Response.Status.FORBIDDEN);
         }
 
+        final String oldStatus = comment.status;
+        final int oldFlags = this.flagsOf(comment);
         switch (action.toUpperCase()) {
             case "HIDE":
                 comment.status = "HIDDEN";
@@ -564,6 +832,139 @@ public class CommentService {
         }
 
         comment.persist();
+        this.commentCounterService.recordCommentChanged(comment.exercise.id, oldStatus, oldFlags, comment.status,
+                this.flagsOf(comment));
+    }
+
+    /**
+     * Applies one moderation action ("HIDE", "DELETE" or "RESTORE") to many
+     * comments with a single set-based UPDATE instead of one transaction per
+     * comment. Comments already in the target state are skipped. Counters are
+     * adjusted once per exercise and one CommentsModeratedEvent is fired for
+     * the whole batch.
+     *
+     * @return number of changed comments
+     */
+    @Transactional
+    public int bulkModerateComments(final List<Long> commentIds, final String action, final Long moderatorId,
+            final String reason) {
+        if (commentIds == null || commentIds.isEmpty()) {
+            return 0;
+        }
+        LOG.info("Bulk moderating comments: count={}, action={}, moderatorId={}, reason={}", commentIds.size(),
+                action, moderatorId, reason);
+
+        final UserEntity moderator = UserEntity.findById(moderatorId);
+        if (!this.isModerator(moderator)) {
+            LOG.warn("Bulk moderation unauthorized: moderatorId={}", moderatorId);
+            throw new WebApplicationException("Only moderators can perform moderation",
+                    Response.Status.FORBIDDEN);
+        }
+
+        final BulkOperation operation = switch (action.toUpperCase()) {
+            case "HIDE" -> BulkOperation.HIDE;
+            case "DELETE" -> BulkOperation.DELETE;
+            case "RESTORE" -> BulkOperation.RESTORE;
+            default -> throw new ValidationException("Invalid bulk moderation action: " + action);
+        };
+        final int changed = this.applyBulkModeration(operation, commentIds, moderatorId);
+        LOG.info("Bulk moderation done: action={}, requested={}, changed={}", action, commentIds.size(), changed);
+        return changed;
+    }
+
+    /**
+     * Hides comments the automatic moderation found abusive. Runs without a
+     * moderator, the event carries no moderator id.
+     *
+     * @return number of hidden comments
+     */
+    @Transactional
+    public int autoHideComments(final List<Long> commentIds) {
+        if (commentIds == null || commentIds.isEmpty()) {
+            return 0;
+        }
+        final int hidden = this.applyBulkModeration(BulkOperation.HIDE, commentIds, null);
+        LOG.info("Auto-hidden comments: requested={}, hidden={}", commentIds.size(), hidden);
+        return hidden;
+    }
+
+    /**
+     * Adds one flag to each visible comment so it shows up for moderators.
+     *
+     * @return number of flagged comments
+     */
+    @Transactional
+    public int autoFlagComments(final List<Long> commentIds) {
+        if (commentIds == null || commentIds.isEmpty()) {
+            return 0;
+        }
+        final List<Long> exerciseIds = this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (var statement = connection.prepareStatement(BULK_FLAG_SQL)) {
+                statement.setArray(1, connection.createArrayOf("bigint", commentIds.toArray()));
+                final List<Long> rows = new ArrayList<>();
+                try (var resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(resultSet.getLong(1));
+                    }
+                }
+                return rows;
+            }
+        });
+        exerciseIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((exerciseId, flags) -> this.commentCounterService.adjust(exerciseId, 0, flags.intValue()));
+        LOG.info("Auto-flagged comments: requested={}, flagged={}", commentIds.size(), exerciseIds.size());
+        return exerciseIds.size();
+    }
+
+    /**
+     * Runs one of the bulk moderation statements, adjusts the counters once
+     * per exercise and fires one event for the batch.
+     *
+     * @param moderatorId only bound for operations that record the moderator
+     */
+    private int applyBulkModeration(final BulkOperation operation, final List<Long> commentIds,
+            final Long moderatorId) {
+        final LocalDateTime now = LocalDateTime.now();
+
+        final List<Object[]> changed = this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (var statement = connection.prepareStatement(operation.sql())) {
+                statement.setArray(1, connection.createArrayOf("bigint", commentIds.toArray()));
+                if (operation.recordsModerator()) {
+                    statement.setLong(2, moderatorId);
+                    statement.setTimestamp(3, Timestamp.valueOf(now));
+                }
+                final List<Object[]> rows = new ArrayList<>();
+                try (var resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(new Object[] { resultSet.getLong(1), resultSet.getLong(2), resultSet.getString(3),
+                                resultSet.getInt(4), resultSet.getString(5), resultSet.getInt(6) });
+                    }
+                }
+                return rows;
+            }
+        });
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        final Map<Long, List<Long>> idsByExercise = new HashMap<>();
+        final Map<Long, int[]> deltasByExercise = new HashMap<>();
+        String newStatus = null;
+        for (final Object[] row : changed) {
+            final Long exerciseId = (Long) row[1];
+            newStatus = (String) row[4];
+            idsByExercise.computeIfAbsent(exerciseId, id -> new ArrayList<>()).add((Long) row[0]);
+            final int[] deltas = deltasByExercise.computeIfAbsent(exerciseId, id -> new int[2]);
+            deltas[0] += CommentCounterService.visibleDelta((String) row[2], newStatus);
+            deltas[1] += CommentCounterService.openFlagsDelta((String) row[2], (Integer) row[3], newStatus,
+                    (Integer) row[5]);
+        }
+        deltasByExercise.forEach((exerciseId, deltas) -> this.commentCounterService.adjust(exerciseId, deltas[0],
+                deltas[1]));
+
+        this.commentsModeratedEvent.fire(new CommentsModeratedEvent(newStatus, idsByExercise, moderatorId, now));
+        return changed.size();
     }
 
     /**
@@ -584,6 +985,10 @@ public class CommentService {
 
     // HELPER METHODS
 
+    private static LocalDateTime toLocalDateTime(final Object value) {
+        return value instanceof final Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
     private void forceLoadLazyFields(final CommentEntity comment) {
         if (comment.exercise != null) {
             comment.exercise.title.length();
@@ -596,61 +1001,78 @@ public class CommentService {
         }
     }
 
+    private int flagsOf(final CommentEntity comment) {
+        return comment.flagsCount != null ? comment.flagsCount : 0;
+    }
+
     private boolean isModerator(final UserEntity user) {
         // Check if user has teacher or admin rank
         return user != null && user.rank != null && (Boolean.TRUE.equals(user.rank.exerciseEdit) ||
                 Boolean.TRUE.equals(user.rank.adminView));
     }
 
-    private void checkRateLimit(final Long userId) {
-        // Get user's last comment timestamp
-        final LocalDateTime fiveSecondsAgo = LocalDateTime.now().minusSeconds(RATE_LIMIT_WINDOW_SECONDS);
-        final long recentCount = CommentEntity.find(
-                "user.id = ?1 AND created > ?2",
-                userId, fiveSecondsAgo).count();
-
-        if (recentCount > 0) {
-            LOG.debug("Rate limit exceeded (5-second window): userId={}, recentCount={}", userId, recentCount);
-            throw new WebApplicationException("Please wait before posting another comment",
-                    Response.Status.TOO_MANY_REQUESTS);
-        }
-
-        // Check daily limit
-        final LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        final long dailyCount = CommentEntity.find(
-                "user.id = ?1 AND created > ?2",
-                userId, oneDayAgo).count();
-
-        if (dailyCount >= RATE_LIMIT_DAILY) {
-            LOG.warn("Daily comment limit exceeded: userId={}, dailyCount={}, limit={}", userId, dailyCount,
-                    RATE_LIMIT_DAILY);
-            throw new WebApplicationException("Daily comment limit exceeded",
-                    Response.Status.TOO_MANY_REQUESTS);
+    /**
+     * Full-text search over comment content plus author names, best matches
+     * first. Returns the first search.max-results hits.
+     */
+    @Transactional
+    public List<CommentViewDto> searchComments(final String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return this.getAllComments();
         }
+        return this.searchComments(query, 0, this.searchMaxResults);
     }
 
-    public List<CommentViewDto> searchComments(final String query) {
+    /**
+     * Returns one page of full-text search hits ordered by ts_rank. Each DTO
+     * carries a highlighted snippet in {@link CommentViewDto#searchSnippet}.
+     */
+    @Transactional
+    public List<CommentViewDto> searchComments(final String query, final int offset, final int limit) {
         if (query == null || query.trim().isEmpty()) {
-            return this.getAllComments();
+            return List.of();
+        }
+        final var term = query.trim();
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager.createNativeQuery(SEARCH_PAGE_SQL)
+                .setParameter(1, term)
+                .setParameter(2, SearchPatternUtil.toContainsPattern(term))
+                .setParameter(3, SearchPatternUtil.HEADLINE_OPTIONS)
+                .setParameter(4, limit)
+                .setParameter(5, offset)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
         }
-        final var searchTerm = "%" + query.trim().toLowerCase() + "%";
-        final List<CommentEntity> comments = CommentEntity.find(
-                "content LIKE ?1 OR LOWER(user.username) LIKE ?1", searchTerm).list();
 
-        // Force load lazy fields
-        for (final CommentEntity comment : comments) {
-            if (comment.exercise != null) {
-                comment.exercise.title.length();
-            }
-            if (comment.user != null) {
-                comment.user.username.length();
+        final List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        final Map<Long, CommentEntity> comments = CommentEntity.<CommentEntity>find(
+                "SELECT c FROM CommentEntity c LEFT JOIN FETCH c.exercise LEFT JOIN FETCH c.user WHERE c.id IN ?1",
+                ids).stream()
+                .collect(Collectors.toMap(comment -> comment.id, Function.identity()));
+
+        final List<CommentViewDto> result = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            final var comment = comments.get(((Number) row[0]).longValue());
+            if (comment != null) {
+                final var dto = new CommentViewDto(comment);
+                dto.searchSnippet = (String) row[1];
+                result.add(dto);
             }
-            comment.content.length();
         }
+        return result;
+    }
 
-        return comments.stream()
-                .map(CommentViewDto::new)
-                .collect(Collectors.toList());
+    @Transactional
+    public long countSearchComments(final String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return 0;
+        }
+        final var term = query.trim();
+        return ((Number) this.entityManager.createNativeQuery(SEARCH_COUNT_SQL)
+                .setParameter(1, term)
+                .setParameter(2, SearchPatternUtil.toContainsPattern(term))
+                .getSingleResult()).longValue();
     }
 
     @Transactional
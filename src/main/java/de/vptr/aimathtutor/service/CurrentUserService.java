@@ -0,0 +1,139 @@
+package de.vptr.aimathtutor.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.vaadin.flow.server.VaadinSession;
+
+import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.event.UserChangedEvent;
+import de.vptr.aimathtutor.event.UserRankChangedEvent;
+import de.vptr.aimathtutor.security.CurrentUser;
+import de.vptr.aimathtutor.security.UserPrincipalCache;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Keeps the {@link CurrentUser} of each VaadinSession. The snapshot is taken at
+ * login and served from the session afterwards; it is reloaded once when its
+ * user or rank changed, also on other instances via the
+ * {@link ClusterEventBus}.
+ */
+@ApplicationScoped
+public class CurrentUserService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CurrentUserService.class);
+
+    private static final String USERNAME_KEY = "authenticated.username";
+    private static final String CURRENT_USER_KEY = "authenticated.user";
+
+    // Bumped on every change, the maps hold the sequence of the last change per id
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Long, Long> userChanges = new ConcurrentHashMap<>();
+    private final Map<Long, Long> rankChanges = new ConcurrentHashMap<>();
+
+    @Inject
+    ClusterEventBus clusterEventBus;
+
+    void onStart(@Observes final StartupEvent event) {
+        this.clusterEventBus.subscribe(UserPrincipalCache.CLUSTER_EVENT_TYPE, this::onRemotePrincipalChanged);
+    }
+
+    /**
+     * Returns the version to pass to {@link #store}, taken before the user is
+     * loaded.
+     */
+    public long currentVersion() {
+        return this.changes.get();
+    }
+
+    /**
+     * Stores the snapshot of a user loaded elsewhere, e.g. during login. Must
+     * be called inside the loading transaction if the rank is not loaded.
+     */
+    public CurrentUser store(final VaadinSession session, final UserEntity user, final long version) {
+        final var currentUser = new CurrentUser(user, version);
+        session.setAttribute(CURRENT_USER_KEY, currentUser);
+        return currentUser;
+    }
+
+    /**
+     * Returns the signed-in user of the current session. Only stale or missing
+     * snapshots are loaded from the database.
+     *
+     * @return the user or null if there is no session or nobody is signed in
+     */
+    public CurrentUser get() {
+        final var session = VaadinSession.getCurrent();
+        if (session == null) {
+            return null;
+        }
+        final var username = (String) session.getAttribute(USERNAME_KEY);
+        if (username == null) {
+            return null;
+        }
+        final var currentUser = (CurrentUser) session.getAttribute(CURRENT_USER_KEY);
+        if (currentUser != null && username.equals(currentUser.username) && !this.isStale(currentUser)) {
+            return currentUser;
+        }
+        return this.load(session, username);
+    }
+
+    public void clear(final VaadinSession session) {
+        session.setAttribute(CURRENT_USER_KEY, null);
+    }
+
+    @Transactional
+    CurrentUser load(final VaadinSession session, final String username) {
+        final long version = this.currentVersion();
+        final UserEntity user = UserEntity.<UserEntity>find(
+                "SELECT u FROM UserEntity u LEFT JOIN FETCH u.rank WHERE u.username = ?1", username).firstResult();
+        if (user == null) {
+            this.clear(session);
+            return null;
+        }
+        LOG.trace("Loaded current user: {}", username);
+        return this.store(session, user, version);
+    }
+
+    private boolean isStale(final CurrentUser currentUser) {
+        if (this.userChanges.getOrDefault(currentUser.userId, 0L) > currentUser.version) {
+            return true;
+        }
+        return currentUser.rankId != null
+                && this.rankChanges.getOrDefault(currentUser.rankId, 0L) > currentUser.version;
+    }
+
+    void onUserChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final UserChangedEvent event) {
+        if (event.userId != null) {
+            this.userChanges.put(event.userId, this.changes.incrementAndGet());
+        }
+    }
+
+    void onUserRankChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) final UserRankChangedEvent event) {
+        if (event.rankId != null) {
+            this.rankChanges.put(event.rankId, this.changes.incrementAndGet());
+        }
+    }
+
+    private void onRemotePrincipalChanged(final JsonNode fields) {
+        if (!fields.path(1).canConvertToLong()) {
+            return;
+        }
+        final Long id = fields.path(1).asLong();
+        if (UserPrincipalCache.RANK.equals(fields.path(0).asText())) {
+            this.rankChanges.put(id, this.changes.incrementAndGet());
+        } else {
+            this.userChanges.put(id, this.changes.incrementAndGet());
+        }
+    }
+}
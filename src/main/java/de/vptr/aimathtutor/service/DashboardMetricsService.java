@@ -0,0 +1,98 @@
+package de.vptr.aimathtutor.service;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.shared.Registration;
+
+import de.vptr.aimathtutor.dto.DashboardMetricsDto;
+import de.vptr.aimathtutor.event.StudentSessionEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * Serves the admin dashboard metrics from a cached snapshot.
+ * The snapshot is recomputed on a schedule and adjusted in between by
+ * session events, which are pushed to every registered dashboard.
+ */
+@ApplicationScoped
+public class DashboardMetricsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardMetricsService.class);
+
+    private final AtomicReference<DashboardMetricsDto> snapshot = new AtomicReference<>();
+
+    private final Set<Consumer<DashboardMetricsDto>> listeners = new CopyOnWriteArraySet<>();
+
+    @Inject
+    AnalyticsService analyticsService;
+
+    /**
+     * Returns the current snapshot, computing it on first access.
+     */
+    public DashboardMetricsDto getSnapshot() {
+        final var current = this.snapshot.get();
+        return current != null ? current : this.refresh();
+    }
+
+    @Scheduled(every = "${dashboard.metrics.refresh-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        try {
+            this.refresh();
+        } catch (final Exception e) {
+            LOG.error("Error refreshing dashboard metrics", e);
+        }
+    }
+
+    /**
+     * Recomputes the snapshot from the database and publishes it.
+     */
+    public DashboardMetricsDto refresh() {
+        final var metrics = this.analyticsService.computeDashboardMetrics();
+        this.snapshot.set(metrics);
+        LOG.debug("Refreshed dashboard metrics: {} sessions, {} active students",
+                metrics.totalSessions, metrics.activeStudents);
+        this.publish(metrics);
+        return metrics;
+    }
+
+    /**
+     * Registers a listener for snapshot changes. Listeners are called from
+     * background threads and must synchronize with their UI themselves.
+     */
+    public Registration register(final Consumer<DashboardMetricsDto> listener) {
+        this.listeners.add(listener);
+        return () -> this.listeners.remove(listener);
+    }
+
+    void onSessionEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StudentSessionEvent event) {
+        final UnaryOperator<DashboardMetricsDto> delta = switch (event.type) {
+            case STARTED -> metrics -> metrics.withSessionStarted(event.occurredAt);
+            case COMPLETED -> DashboardMetricsDto::withSessionCompleted;
+        };
+        final var updated = this.snapshot.updateAndGet(metrics -> metrics != null ? delta.apply(metrics) : null);
+        if (updated != null) {
+            this.publish(updated);
+        }
+    }
+
+    private void publish(final DashboardMetricsDto metrics) {
+        for (final var listener : this.listeners) {
+            try {
+                listener.accept(metrics);
+            } catch (final Exception e) {
+                LOG.warn("Dashboard metrics listener failed", e);
+            }
+        }
+    }
+}
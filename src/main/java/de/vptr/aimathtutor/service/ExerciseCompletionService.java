@@ -0,0 +1,135 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.vptr.aimathtutor.event.StudentSessionEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Completed session counts per exercise for one user, loaded with a single
+ * grouped query and cached until the user completes another session. Entries
+ * also expire after the configured TTL, which bounds staleness from changes
+ * without an event (e.g. deleted sessions) and drops inactive users.
+ */
+@ApplicationScoped
+public class ExerciseCompletionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExerciseCompletionService.class);
+
+    private static final String CLUSTER_EVENT_TYPE = "completion.changed";
+
+    private static final String COMPLETION_COUNTS_SQL = """
+            SELECT exercise_id, COUNT(*) FROM student_sessions
+            WHERE user_id = ?1 AND completed
+            GROUP BY exercise_id
+            """;
+
+    private record CachedCounts(Map<Long, Integer> counts, long loadedAt) {
+    }
+
+    private final Map<Long, CachedCounts> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, loads that raced with one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
+    ClusterEventBus clusterEventBus;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "exercises.completion-cache.ttl", defaultValue = "10m")
+    Duration ttl;
+
+    void onStart(@Observes final StartupEvent event) {
+        this.clusterEventBus.subscribe(CLUSTER_EVENT_TYPE, this::onRemoteCompletionChanged);
+    }
+
+    /**
+     * Returns the number of completed sessions per exercise id. Exercises
+     * without a completed session are missing from the map.
+     */
+    @Transactional
+    public Map<Long, Integer> getCompletionCounts(final Long userId) {
+        if (userId == null) {
+            return Map.of();
+        }
+        final long now = System.nanoTime();
+        final CachedCounts cached = this.cache.get(userId);
+        if (cached != null && now - cached.loadedAt() < this.ttl.toNanos()) {
+            return cached.counts();
+        }
+
+        final long stamp = this.invalidations.get();
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager.createNativeQuery(COMPLETION_COUNTS_SQL)
+                .setParameter(1, userId)
+                .getResultList();
+        final Map<Long, Integer> counts = new HashMap<>();
+        for (final Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        final Map<Long, Integer> result = Map.copyOf(counts);
+        if (this.invalidations.get() == stamp) {
+            this.cache.put(userId, new CachedCounts(result, now));
+        }
+        return result;
+    }
+
+    public void invalidate(final Long userId) {
+        if (userId == null) {
+            return;
+        }
+        this.invalidations.incrementAndGet();
+        this.cache.remove(userId);
+    }
+
+    void onSessionEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StudentSessionEvent event) {
+        if (event.type == StudentSessionEvent.Type.COMPLETED) {
+            this.invalidate(event.userId);
+        }
+    }
+
+    /**
+     * Forwards completions to the other instances within the completing
+     * transaction.
+     */
+    void notifyCluster(@Observes final StudentSessionEvent event) {
+        if (event.type == StudentSessionEvent.Type.COMPLETED) {
+            this.clusterEventBus.publish(CLUSTER_EVENT_TYPE, event.userId);
+        }
+    }
+
+    private void onRemoteCompletionChanged(final JsonNode fields) {
+        if (fields.path(0).canConvertToLong()) {
+            this.invalidate(fields.path(0).asLong());
+        }
+    }
+
+    @Scheduled(every = "${exercises.completion-cache.ttl}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledEviction() {
+        final long expiredBefore = System.nanoTime() - this.ttl.toNanos();
+        final int before = this.cache.size();
+        this.cache.values().removeIf(cached -> cached.loadedAt() - expiredBefore < 0);
+        LOG.debug("Evicted {} expired completion cache entries", before - this.cache.size());
+    }
+}
@@ -0,0 +1,334 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.dto.ExerciseDifficultyDto;
+import de.vptr.aimathtutor.event.StudentSessionEvent;
+import de.vptr.aimathtutor.util.LogHistogram;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains per-exercise distributions of time-to-complete, actions and hints
+ * per completed session in mergeable histograms.
+ * Completions are recorded in memory after commit and periodically merged into
+ * exercise_stat_sketches. Only the delta since the last flush is written, so
+ * several nodes can share the table. Lesson distributions merge the sketches
+ * of their exercises.
+ */
+@ApplicationScoped
+public class ExerciseDifficultyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExerciseDifficultyService.class);
+
+    enum Metric {
+        TIME_TO_COMPLETE,
+        ACTIONS,
+        HINTS
+    }
+
+    private static final String SELECT_SKETCH_FOR_UPDATE = """
+            SELECT sketch FROM exercise_stat_sketches WHERE exercise_id = ?1 AND metric = ?2 FOR UPDATE
+            """;
+
+    // Skips exercises deleted since the completion was recorded
+    private static final String UPSERT_SKETCH = """
+            INSERT INTO exercise_stat_sketches (exercise_id, metric, sketch, updated_at)
+            SELECT ?1, ?2, ?3, ?4 WHERE EXISTS (SELECT 1 FROM exercises WHERE id = ?1)
+            ON CONFLICT (exercise_id, metric) DO UPDATE SET sketch = EXCLUDED.sketch, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final Map<Long, ExerciseSketches> sketches = new ConcurrentHashMap<>();
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Totals and pending deltas of one exercise, guarded by its own monitor.
+     */
+    private static final class ExerciseSketches {
+        final LogHistogram[] totals = newHistograms();
+        LogHistogram[] pending = newHistograms();
+        volatile boolean dirty;
+
+        synchronized void record(final long seconds, final long actions, final long hints) {
+            final long[] values = { seconds, actions, hints };
+            for (int i = 0; i < values.length; i++) {
+                this.totals[i].record(values[i]);
+                this.pending[i].record(values[i]);
+            }
+            this.dirty = true;
+        }
+
+        synchronized LogHistogram[] takePending() {
+            final var taken = this.pending;
+            this.pending = newHistograms();
+            this.dirty = false;
+            return taken;
+        }
+
+        synchronized void restorePending(final LogHistogram[] taken) {
+            for (int i = 0; i < taken.length; i++) {
+                this.pending[i].merge(taken[i]);
+            }
+            this.dirty = true;
+        }
+
+        synchronized void replaceTotal(final int metric, final LogHistogram persisted) {
+            // Persisted state already contains the flushed delta, add what arrived since
+            final var total = persisted.copy();
+            total.merge(this.pending[metric]);
+            this.totals[metric] = total;
+        }
+
+        synchronized LogHistogram copyTotal(final int metric) {
+            return this.totals[metric].copy();
+        }
+
+        private static LogHistogram[] newHistograms() {
+            final var histograms = new LogHistogram[Metric.values().length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LogHistogram();
+            }
+            return histograms;
+        }
+    }
+
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager
+                .createNativeQuery("SELECT exercise_id, metric, sketch FROM exercise_stat_sketches")
+                .getResultList();
+        if (rows.isEmpty()) {
+            this.bootstrapFromSessions();
+            return;
+        }
+        for (final Object[] row : rows) {
+            final var exerciseSketches = this.sketchesFor(((Number) row[0]).longValue());
+            final int metric = Metric.valueOf((String) row[1]).ordinal();
+            exerciseSketches.replaceTotal(metric, LogHistogram.fromBytes((byte[]) row[2]));
+        }
+        LOG.info("Loaded difficulty sketches for {} exercises", this.sketches.size());
+    }
+
+    void onSessionEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StudentSessionEvent event) {
+        if (event.type != StudentSessionEvent.Type.COMPLETED || event.exerciseId == null) {
+            return;
+        }
+        this.record(event.exerciseId, event.startedAt, event.occurredAt, event.actionsCount, event.hintsUsed);
+    }
+
+    @Scheduled(every = "${analytics.sketch.flush-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledFlush() {
+        try {
+            this.flush();
+        } catch (final Exception e) {
+            LOG.error("Error flushing difficulty sketches", e);
+        }
+    }
+
+    /**
+     * Merges all pending deltas into the persisted sketches, one transaction
+     * per exercise. On failure the deltas of that exercise are kept for the
+     * next run and the other exercises are still flushed.
+     */
+    public void flush() {
+        final var now = LocalDateTime.now();
+        RuntimeException failure = null;
+        for (final var entry : this.sketches.entrySet()) {
+            final var exerciseSketches = entry.getValue();
+            if (!exerciseSketches.dirty) {
+                continue;
+            }
+            final var taken = exerciseSketches.takePending();
+            final LogHistogram[] merged;
+            try {
+                merged = this.flushExercise(entry.getKey(), taken, now);
+            } catch (final RuntimeException e) {
+                exerciseSketches.restorePending(taken);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                continue;
+            }
+            // Totals only follow committed state
+            if (merged == null) {
+                this.sketches.remove(entry.getKey());
+                continue;
+            }
+            for (final Metric metric : Metric.values()) {
+                exerciseSketches.replaceTotal(metric.ordinal(), merged[metric.ordinal()]);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the delta of one exercise in its own transaction.
+     *
+     * @return the merged sketches or null if the exercise no longer exists
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    LogHistogram[] flushExercise(final Long exerciseId, final LogHistogram[] taken, final LocalDateTime now) {
+        final var merged = new LogHistogram[taken.length];
+        for (final Metric metric : Metric.values()) {
+            merged[metric.ordinal()] = this.loadForUpdate(exerciseId, metric);
+            merged[metric.ordinal()].merge(taken[metric.ordinal()]);
+            final int written = this.entityManager.createNativeQuery(UPSERT_SKETCH)
+                    .setParameter(1, exerciseId)
+                    .setParameter(2, metric.name())
+                    .setParameter(3, merged[metric.ordinal()].toBytes())
+                    .setParameter(4, now)
+                    .executeUpdate();
+            if (written == 0) {
+                return null;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Get the distribution of a single exercise, or null without completions.
+     */
+    public ExerciseDifficultyDto getExerciseDifficulty(final Long exerciseId) {
+        final var exerciseSketches = this.sketches.get(exerciseId);
+        if (exerciseSketches == null) {
+            return null;
+        }
+        final var dto = this.toDto(new LogHistogram[] {
+                exerciseSketches.copyTotal(0), exerciseSketches.copyTotal(1), exerciseSketches.copyTotal(2) });
+        dto.exerciseId = exerciseId;
+        return dto;
+    }
+
+    /**
+     * Get the merged distribution of all exercises currently in the lesson.
+     */
+    @Transactional
+    public ExerciseDifficultyDto getLessonDifficulty(final Long lessonId) {
+        final List<Long> exerciseIds = this.entityManager
+                .createQuery("SELECT e.id FROM ExerciseEntity e WHERE e.lesson.id = :lessonId", Long.class)
+                .setParameter("lessonId", lessonId)
+                .getResultList();
+        final var merged = ExerciseSketches.newHistograms();
+        for (final Long exerciseId : exerciseIds) {
+            final var exerciseSketches = this.sketches.get(exerciseId);
+            if (exerciseSketches != null) {
+                for (int i = 0; i < merged.length; i++) {
+                    merged[i].merge(exerciseSketches.copyTotal(i));
+                }
+            }
+        }
+        final var dto = this.toDto(merged);
+        dto.lessonId = lessonId;
+        return dto;
+    }
+
+    /**
+     * Get the distributions of all exercises with at least one completion,
+     * hardest (highest median time) first.
+     */
+    @Transactional
+    public List<ExerciseDifficultyDto> getAllExerciseDifficulty() {
+        final List<Object[]> exercises = this.entityManager
+                .createQuery("SELECT e.id, e.title, e.lesson.id FROM ExerciseEntity e", Object[].class)
+                .getResultList();
+        final var result = new ArrayList<ExerciseDifficultyDto>();
+        for (final Object[] exercise : exercises) {
+            final var dto = this.getExerciseDifficulty((Long) exercise[0]);
+            if (dto != null && dto.completions > 0) {
+                dto.title = (String) exercise[1];
+                dto.lessonId = (Long) exercise[2];
+                result.add(dto);
+            }
+        }
+        result.sort((a, b) -> Long.compare(b.timeToCompleteP50Seconds, a.timeToCompleteP50Seconds));
+        return result;
+    }
+
+    private void record(final Long exerciseId, final LocalDateTime startedAt, final LocalDateTime completedAt,
+            final long actions, final long hints) {
+        final long seconds = startedAt != null && completedAt != null
+                ? Math.max(0, Duration.between(startedAt, completedAt).getSeconds())
+                : 0;
+        this.sketchesFor(exerciseId).record(seconds, actions, hints);
+    }
+
+    private ExerciseSketches sketchesFor(final Long exerciseId) {
+        return this.sketches.computeIfAbsent(exerciseId, id -> new ExerciseSketches());
+    }
+
+    private LogHistogram loadForUpdate(final Long exerciseId, final Metric metric) {
+        final List<?> rows = this.entityManager.createNativeQuery(SELECT_SKETCH_FOR_UPDATE)
+                .setParameter(1, exerciseId)
+                .setParameter(2, metric.name())
+                .getResultList();
+        return rows.isEmpty() ? new LogHistogram() : LogHistogram.fromBytes((byte[]) rows.get(0));
+    }
+
+    /**
+     * Replays all completed sessions into pending deltas, streamed with a cursor
+     * so large tables are not loaded at once. The next flush persists them.
+     */
+    private void bootstrapFromSessions() {
+        final var session = this.entityManager.unwrap(Session.class);
+        long count = 0;
+        try (var results = session.createQuery("SELECT s.exercise.id, s.startTime, s.endTime, s.actionsCount, "
+                + "s.hintsUsed FROM StudentSessionEntity s WHERE s.completed = true", Object[].class)
+                .setReadOnly(true)
+                .setFetchSize(1000)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                final Object[] row = results.get();
+                this.record((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                        row[3] != null ? ((Number) row[3]).longValue() : 0,
+                        row[4] != null ? ((Number) row[4]).longValue() : 0);
+                count++;
+            }
+        }
+        if (count > 0) {
+            LOG.info("Bootstrapped difficulty sketches from {} completed sessions", count);
+        }
+    }
+
+    private ExerciseDifficultyDto toDto(final LogHistogram[] histograms) {
+        final var time = histograms[Metric.TIME_TO_COMPLETE.ordinal()];
+        final var actions = histograms[Metric.ACTIONS.ordinal()];
+        final var hints = histograms[Metric.HINTS.ordinal()];
+
+        final var dto = new ExerciseDifficultyDto();
+        dto.completions = time.getTotalCount();
+        dto.timeToCompleteP50Seconds = time.valueAtPercentile(50);
+        dto.timeToCompleteP90Seconds = time.valueAtPercentile(90);
+        dto.timeToCompleteP99Seconds = time.valueAtPercentile(99);
+        dto.actionsP50 = actions.valueAtPercentile(50);
+        dto.actionsP90 = actions.valueAtPercentile(90);
+        dto.actionsP99 = actions.valueAtPercentile(99);
+        dto.hintsP50 = hints.valueAtPercentile(50);
+        dto.hintsP90 = hints.valueAtPercentile(90);
+        dto.hintsP99 = hints.valueAtPercentile(99);
+        return dto;
+    }
+}
@@ -3,9 +3,15 @@ package de.vptr.aimathtutor.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,8 +20,12 @@ import de.vptr.aimathtutor.dto.ExerciseViewDto;
 import de.vptr.aimathtutor.entity.ExerciseEntity;
 import de.vptr.aimathtutor.entity.LessonEntity;
 import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.event.CatalogChangedEvent;
+import de.vptr.aimathtutor.util.SearchPatternUtil;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import jakarta.ws.rs.WebApplicationException;
@@ -26,11 +36,56 @@ public class ExerciseService {
 
     private static final Logger log = LoggerFactory.getLogger(ExerciseService.class);
 
+    /**
+     * Content matches use the full-text index (exercises_content_fts), title
+     * and author matches the trigram indexes. Each branch is an index scan of
+     * its own, the UNION avoids an OR across joined tables.
+     */
+    private static final String SEARCH_MATCHES_CTE = """
+            WITH q AS (SELECT websearch_to_tsquery('english', ?1) AS query),
+            matches AS (
+                SELECT x.id FROM exercises x, q WHERE to_tsvector('english', x.content) @@ q.query
+                UNION
+                SELECT x.id FROM exercises x WHERE x.title ILIKE ?2
+                UNION
+                SELECT x.id FROM users u JOIN exercises x ON x.user_id = u.id WHERE u.username ILIKE ?2
+            )
+            """;
+
+    /**
+     * Ranks by the best of content rank, title and author similarity, pages,
+     * and only then builds snippets for the rows of the page.
+     */
+    private static final String SEARCH_PAGE_SQL = SEARCH_MATCHES_CTE + """
+            SELECT p.id, ts_headline('english', e.content, q.query, ?3)
+            FROM (
+                SELECT e.id, GREATEST(ts_rank(to_tsvector('english', e.content), q.query),
+                    similarity(e.title, ?1),
+                    COALESCE((SELECT similarity(u.username, ?1) FROM users u WHERE u.id = e.user_id), 0)) AS rank
+                FROM matches m JOIN exercises e ON e.id = m.id CROSS JOIN q
+                ORDER BY rank DESC, e.id DESC
+                LIMIT ?4 OFFSET ?5
+            ) p
+            JOIN exercises e ON e.id = p.id CROSS JOIN q
+            ORDER BY p.rank DESC, p.id DESC
+            """;
+
+    private static final String SEARCH_COUNT_SQL = SEARCH_MATCHES_CTE + "SELECT COUNT(*) FROM matches";
+
     @Inject
     AuthService authService;
 
     @Inject
-    AnalyticsService analyticsService;
+    ExerciseCompletionService exerciseCompletionService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<CatalogChangedEvent> catalogChangedEvent;
+
+    @ConfigProperty(name = "search.max-results", defaultValue = "100")
+    int searchMaxResults;
 
     /**
      * Enriches an ExerciseViewDto with completion data for the current user.
@@ -40,35 +95,69 @@ public class ExerciseService {
      * @return The enriched DTO
      */
     private ExerciseViewDto enrichWithCompletionData(final ExerciseViewDto dto) {
-        if (dto == null) {
-            return dto;
+        if (dto != null) {
+            this.enrichWithCompletionData(List.of(dto));
+        }
+        return dto;
+    }
+
+    /**
+     * Enriches a list of ExerciseViewDtos with completion data for the current
+     * user from one grouped query, cached per user until their next completed
+     * session. If the user is not authenticated, completion fields remain null.
+     *
+     * @param dtos The exercise DTOs to enrich
+     * @return The same list
+     */
+    private List<ExerciseViewDto> enrichWithCompletionData(final List<ExerciseViewDto> dtos) {
+        if (dtos.isEmpty()) {
+            return dtos;
         }
 
         try {
             final Long currentUserId = this.authService.getUserId();
             if (currentUserId == null) {
                 // User not authenticated, leave completion data as null
-                return dto;
+                return dtos;
             }
 
-            // Get completed sessions for this user on this exercise (single query)
-            final var userSessions = this.analyticsService.getSessionsByUserAndExercise(currentUserId, dto.id);
-
-            // Check if any session was completed
-            final var completedSessions = userSessions.stream()
-                    .filter(s -> Boolean.TRUE.equals(s.completed))
-                    .toList();
-
-            dto.userCompleted = !completedSessions.isEmpty();
-            dto.userCompletionCount = completedSessions.size();
+            final Map<Long, Integer> completionCounts = this.exerciseCompletionService
+                    .getCompletionCounts(currentUserId);
+            for (final ExerciseViewDto dto : dtos) {
+                final int completed = completionCounts.getOrDefault(dto.id, 0);
+                dto.userCompleted = completed > 0;
+                dto.userCompletionCount = completed;
+            }
 
         } catch (final Exception e) {
             // Log the error but don't fail - this ensures we don't break the exercise
             // loading functionality
-            log.error("Error enriching exercise DTO with completion data for exercise ID: " + dto.id, e);
+            log.error("Error enriching {} exercise DTOs with completion data", dtos.size(), e);
         }
 
-        return dto;
+        return dtos;
+    }
+
+    /**
+     * Returns copies of the given exercises with completion data for the
+     * current user, leaving the (shared) originals untouched.
+     */
+    public List<ExerciseViewDto> withCompletionData(final List<ExerciseViewDto> exercises) {
+        return this.enrichWithCompletionData(exercises.stream()
+                .map(ExerciseViewDto::new)
+                .toList());
+    }
+
+    /**
+     * Returns the ids of the exercises the current user has completed, without
+     * copying any exercise.
+     */
+    public Set<Long> getCompletedExerciseIds() {
+        final Long currentUserId = this.authService.getUserId();
+        if (currentUserId == null) {
+            return Set.of();
+        }
+        return this.exerciseCompletionService.getCompletionCounts(currentUserId).keySet();
     }
 
     public List<ExerciseViewDto> getAllExercises() {
@@ -83,9 +172,9 @@ public class ExerciseService {
     }
 
     public List<ExerciseViewDto> findPublishedExercises() {
-        return ExerciseEntity.find("published = true ORDER BY id DESC").list().stream()
-                .map(entity -> this.enrichWithCompletionData(new ExerciseViewDto((ExerciseEntity) entity)))
-                .toList();
+        return this.enrichWithCompletionData(ExerciseEntity.find("published = true ORDER BY id DESC").list().stream()
+                .map(entity -> new ExerciseViewDto((ExerciseEntity) entity))
+                .toList());
     }
 
     public List<ExerciseViewDto> findByUserId(final Long userId) {
@@ -95,9 +184,10 @@ public class ExerciseService {
     }
 
     public List<ExerciseViewDto> findByLessonId(final Long lessonId) {
-        return ExerciseEntity.find("lesson.id = ?1 ORDER BY id DESC", lessonId).list().stream()
-                .map(entity -> this.enrichWithCompletionData(new ExerciseViewDto((ExerciseEntity) entity)))
-                .toList();
+        return this.enrichWithCompletionData(ExerciseEntity.find("lesson.id = ?1 ORDER BY id DESC", lessonId)
+                .list().stream()
+                .map(entity -> new ExerciseViewDto((ExerciseEntity) entity))
+                .toList());
     }
 
     public List<ExerciseViewDto> findGraspableMathExercises() {
@@ -168,6 +258,7 @@ public class ExerciseService {
         }
 
         exercise.persist();
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.EXERCISE, exercise.id));
         return new ExerciseViewDto(exercise);
     }
 
@@ -231,6 +322,7 @@ public class ExerciseService {
         }
 
         existingExercise.persist();
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.EXERCISE, existingExercise.id));
         return new ExerciseViewDto(existingExercise);
     }
 
@@ -292,25 +384,81 @@ public class ExerciseService {
 
         existingExercise.lastEdit = LocalDateTime.now();
         existingExercise.persist();
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.EXERCISE, existingExercise.id));
         return new ExerciseViewDto(existingExercise);
     }
 
     @Transactional
     public boolean deleteExercise(final Long id) {
-        return ExerciseEntity.deleteById(id);
+        final boolean deleted = ExerciseEntity.deleteById(id);
+        if (deleted) {
+            this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.EXERCISE, id));
+        }
+        return deleted;
     }
 
+    /**
+     * Full-text search over exercise content plus title and author matches,
+     * best matches first. Returns the first search.max-results hits.
+     */
+    @Transactional
     public List<ExerciseViewDto> searchExercises(final String query) {
         if (query == null || query.trim().isEmpty()) {
             return this.getAllExercises();
         }
-        final var searchTerm = "%" + query.trim().toLowerCase() + "%";
-        final List<ExerciseEntity> exercises = ExerciseEntity.find(
-                "LOWER(title) LIKE ?1 OR content LIKE ?1 OR LOWER(user.username) LIKE ?1 ORDER BY id DESC",
-                searchTerm).list();
-        return exercises.stream()
-                .map(ExerciseViewDto::new)
-                .toList();
+        return this.searchExercises(query, 0, this.searchMaxResults);
+    }
+
+    /**
+     * Returns one page of search hits. Each DTO carries a highlighted content
+     * snippet in {@link ExerciseViewDto#searchSnippet}.
+     */
+    @Transactional
+    public List<ExerciseViewDto> searchExercises(final String query, final int offset, final int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        final var term = query.trim();
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager.createNativeQuery(SEARCH_PAGE_SQL)
+                .setParameter(1, term)
+                .setParameter(2, SearchPatternUtil.toContainsPattern(term))
+                .setParameter(3, SearchPatternUtil.HEADLINE_OPTIONS)
+                .setParameter(4, limit)
+                .setParameter(5, offset)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        final List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        final Map<Long, ExerciseEntity> exercises = ExerciseEntity.<ExerciseEntity>find(
+                "SELECT e FROM ExerciseEntity e LEFT JOIN FETCH e.user LEFT JOIN FETCH e.lesson WHERE e.id IN ?1",
+                ids).stream()
+                .collect(Collectors.toMap(exercise -> exercise.id, Function.identity()));
+
+        final List<ExerciseViewDto> result = new ArrayList<>(rows.size());
+        for (final Object[] row : rows) {
+            final var exercise = exercises.get(((Number) row[0]).longValue());
+            if (exercise != null) {
+                final var dto = new ExerciseViewDto(exercise);
+                dto.searchSnippet = (String) row[1];
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    @Transactional
+    public long countSearchExercises(final String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return 0;
+        }
+        final var term = query.trim();
+        return ((Number) this.entityManager.createNativeQuery(SEARCH_COUNT_SQL)
+                .setParameter(1, term)
+                .setParameter(2, SearchPatternUtil.toContainsPattern(term))
+                .getSingleResult()).longValue();
     }
 
     public List<ExerciseViewDto> findByDateRange(final String startDate, final String endDate) {
@@ -0,0 +1,144 @@
+package de.vptr.aimathtutor.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.util.CatalogImportUtil;
+import de.vptr.aimathtutor.util.ExportWriter;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Streams student sessions, AI interactions and the lesson and exercise
+ * catalog as gzip-compressed CSV or JSONL. Rows are read with a forward-only cursor and a bounded fetch size and only
+ * scalar columns are selected, so no entities accumulate in the persistence
+ * context and memory use does not depend on the table size.
+ */
+@ApplicationScoped
+public class ExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
+
+    private static final String[] SESSION_COLUMNS = {
+            "id", "session_id", "user_id", "username", "exercise_id", "exercise_title", "start_time",
+            "end_time", "completed", "actions_count", "correct_actions", "hints_used", "final_expression" };
+
+    private static final String SESSION_QUERY = "SELECT s.id, s.sessionId, u.id, u.username, e.id, e.title, "
+            + "s.startTime, s.endTime, s.completed, s.actionsCount, s.correctActions, s.hintsUsed, "
+            + "s.finalExpression FROM StudentSessionEntity s JOIN s.user u JOIN s.exercise e ORDER BY s.id";
+
+    private static final String[] AI_INTERACTION_COLUMNS = {
+            "id", "session_id", "user_id", "username", "exercise_id", "event_type", "student_message",
+            "expression_before", "expression_after", "feedback_type", "feedback_message", "confidence_score",
+            "action_correct", "provider", "timestamp" };
+
+    private static final String AI_INTERACTION_QUERY = "SELECT a.id, a.sessionId, u.id, u.username, e.id, "
+            + "a.eventType, a.studentMessage, a.expressionBefore, a.expressionAfter, a.feedbackType, "
+            + "a.feedbackMessage, a.confidenceScore, a.actionCorrect, a.provider, a.timestamp "
+            + "FROM AIInteractionEntity a LEFT JOIN a.user u LEFT JOIN a.exercise e ORDER BY a.id";
+
+    // Parents sort before their children by path, so the file can be imported in order
+    private static final String CATALOG_LESSON_QUERY = "SELECT l.id, p.id, l.name "
+            + "FROM LessonEntity l LEFT JOIN l.parent p ORDER BY l.path, l.id";
+
+    private static final String CATALOG_EXERCISE_QUERY = "SELECT e.id, l.id, e.title, e.content, e.published, "
+            + "e.commentable, e.graspableEnabled, e.graspableInitialExpression, e.graspableTargetExpression, "
+            + "e.graspableDifficulty, e.graspableHints FROM ExerciseEntity e LEFT JOIN e.lesson l ORDER BY e.id";
+
+    /**
+     * A query and the mapping of its result rows to the export columns.
+     */
+    private record RowSource(String hql, UnaryOperator<Object[]> mapper) {
+    }
+
+    @ConfigProperty(name = "export.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Writes all student sessions to the given stream. The stream is finished
+     * but not closed.
+     *
+     * @return number of exported rows
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "export.transaction-timeout")
+    public long exportSessions(final ExportWriter.Format format, final OutputStream out) throws IOException {
+        return this.export(SESSION_COLUMNS, format, out, new RowSource(SESSION_QUERY, UnaryOperator.identity()));
+    }
+
+    /**
+     * Writes all AI interactions to the given stream. The stream is finished but
+     * not closed.
+     *
+     * @return number of exported rows
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "export.transaction-timeout")
+    public long exportAIInteractions(final ExportWriter.Format format, final OutputStream out) throws IOException {
+        return this.export(AI_INTERACTION_COLUMNS, format, out,
+                new RowSource(AI_INTERACTION_QUERY, UnaryOperator.identity()));
+    }
+
+    /**
+     * Writes all lessons, parents first, followed by all exercises in the
+     * layout read by {@link ImportService#importCatalog}. Ids are written as
+     * refs, so the file recreates the same tree on import. The stream is
+     * finished but not closed.
+     *
+     * @return number of exported rows
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "export.transaction-timeout")
+    public long exportCatalog(final ExportWriter.Format format, final OutputStream out) throws IOException {
+        return this.export(CatalogImportUtil.COLUMNS, format, out,
+                new RowSource(CATALOG_LESSON_QUERY, row -> new Object[] {
+                        "lesson", row[0], row[1], row[2], null, null, null, null, null, null, null, null }),
+                new RowSource(CATALOG_EXERCISE_QUERY, row -> new Object[] {
+                        "exercise", row[0], row[1], row[2], row[3], row[4], row[5], row[6], row[7], row[8],
+                        row[9], row[10] }));
+    }
+
+    private long export(final String[] columns, final ExportWriter.Format format, final OutputStream out,
+            final RowSource... sources) throws IOException {
+        final var session = this.entityManager.unwrap(Session.class);
+        final var gzip = new GZIPOutputStream(out, 64 * 1024);
+        final var writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        try (var exportWriter = ExportWriter.create(format, writer, columns)) {
+            for (final RowSource source : sources) {
+                try (var results = session.createQuery(source.hql(), Object[].class)
+                        .setReadOnly(true)
+                        .setFetchSize(this.fetchSize)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        exportWriter.writeRow(source.mapper().apply(results.get()));
+                        rows++;
+                    }
+                }
+            }
+        }
+
+        writer.flush();
+        gzip.finish();
+        LOG.info("Exported {} rows as {}", rows, format);
+        return rows;
+    }
+}
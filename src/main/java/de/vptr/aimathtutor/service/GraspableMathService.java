@@ -11,7 +11,11 @@ import de.vptr.aimathtutor.dto.GraspableEventDto;
 import de.vptr.aimathtutor.entity.ExerciseEntity;
 import de.vptr.aimathtutor.entity.StudentSessionEntity;
 import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.event.StudentSessionEvent;
+import de.vptr.aimathtutor.event.StudentStepEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 /**
@@ -23,6 +27,18 @@ public class GraspableMathService {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraspableMathService.class);
 
+    @Inject
+    UserProgressService userProgressService;
+
+    @Inject
+    CohortProgressService cohortProgressService;
+
+    @Inject
+    Event<StudentSessionEvent> sessionEvent;
+
+    @Inject
+    Event<StudentStepEvent> stepEvent;
+
     /**
      * Creates a new student session for working on an exercise.
      * 
@@ -57,6 +73,9 @@ public class GraspableMathService {
         session.hintsUsed = 0;
 
         session.persist();
+        this.userProgressService.recordSessionStarted(userId, session.startTime);
+        this.cohortProgressService.recordSessionStarted(userId, exerciseId, session.startTime);
+        this.sessionEvent.fire(this.toEvent(StudentSessionEvent.Type.STARTED, session, session.startTime));
         LOG.info("Created new session: {} for user {} on exercise {}", sessionId, userId, exerciseId);
 
         return sessionId;
@@ -99,6 +118,15 @@ public class GraspableMathService {
         }
 
         session.persist();
+        final LocalDateTime now = LocalDateTime.now();
+        this.userProgressService.recordAction(session.user.id, Boolean.TRUE.equals(event.correct), now);
+        this.cohortProgressService.recordAction(session.user.id, session.exercise.id,
+                Boolean.TRUE.equals(event.correct), now);
+        if (event.correct != null) {
+            final Long lessonId = session.exercise.lesson != null ? session.exercise.lesson.id : null;
+            this.stepEvent.fire(new StudentStepEvent(session.sessionId, session.user.id, session.exercise.id,
+                    lessonId, session.exercise.graspableDifficulty, event.correct, now));
+        }
         LOG.debug("Updated session {}: {} actions, {} correct",
                 event.sessionId, session.actionsCount, session.correctActions);
     }
@@ -112,9 +140,12 @@ public class GraspableMathService {
     public void completeSession(final String sessionId) {
         final var session = StudentSessionEntity.findBySessionId(sessionId);
         if (session != null) {
-            session.completed = true;
-            session.endTime = LocalDateTime.now();
-            session.persist();
+            if (!Boolean.TRUE.equals(session.completed)) {
+                session.completed = true;
+                session.endTime = LocalDateTime.now();
+                session.persist();
+                this.recordCompletion(session);
+            }
             LOG.info("Completed session: {}", sessionId);
         }
     }
@@ -130,6 +161,9 @@ public class GraspableMathService {
         if (session != null) {
             session.hintsUsed++;
             session.persist();
+            final LocalDateTime now = LocalDateTime.now();
+            this.userProgressService.recordHintUsed(session.user.id, now);
+            this.cohortProgressService.recordHintUsed(session.user.id, session.exercise.id, now);
             LOG.debug("Hint used in session: {}", sessionId);
         }
     }
@@ -246,9 +280,26 @@ public class GraspableMathService {
             return;
         }
 
-        session.completed = true;
-        session.endTime = LocalDateTime.now();
-        session.persist();
+        // Keep the first completion time, repeated matches must not move end_time
+        if (!Boolean.TRUE.equals(session.completed)) {
+            session.completed = true;
+            session.endTime = LocalDateTime.now();
+            session.persist();
+            this.recordCompletion(session);
+        }
         LOG.debug("Session marked complete: {}", sessionId);
     }
+
+    private void recordCompletion(final StudentSessionEntity session) {
+        this.userProgressService.recordSessionCompleted(session.user.id, session.endTime);
+        this.cohortProgressService.recordSessionCompleted(session.user.id, session.exercise.id, session.endTime);
+        this.sessionEvent.fire(this.toEvent(StudentSessionEvent.Type.COMPLETED, session, session.endTime));
+    }
+
+    private StudentSessionEvent toEvent(final StudentSessionEvent.Type type, final StudentSessionEntity session,
+            final LocalDateTime occurredAt) {
+        final Long lessonId = session.exercise.lesson != null ? session.exercise.lesson.id : null;
+        return new StudentSessionEvent(type, session.sessionId, session.user.id, session.exercise.id, lessonId,
+                session.startTime, occurredAt, session.actionsCount, session.hintsUsed);
+    }
 }
@@ -0,0 +1,359 @@
+package de.vptr.aimathtutor.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.dto.CatalogImportRowDto;
+import de.vptr.aimathtutor.dto.CatalogImportRowDto.Type;
+import de.vptr.aimathtutor.dto.ImportResultDto;
+import de.vptr.aimathtutor.event.CatalogChangedEvent;
+import de.vptr.aimathtutor.util.CatalogImportUtil;
+import de.vptr.aimathtutor.util.ExportWriter;
+import de.vptr.aimathtutor.util.ImportReader;
+import de.vptr.aimathtutor.util.LessonPathUtil;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
+
+/**
+ * Imports lesson trees and exercises from (optionally gzip-compressed) CSV or
+ * JSONL files in the layout written by {@link ExportService#exportCatalog}.
+ * The file is read as a stream in chunks: each chunk is validated and
+ * canonicalized in parallel, then inserted with JDBC batches in its own
+ * transaction, so memory use and transaction size do not depend on the file
+ * size. Invalid rows are skipped and reported with their line number.
+ * <p>
+ * A "parent_ref" refers to a lesson "ref" earlier in the file; if the file
+ * has not declared that ref and the value is numeric, it refers to the id of
+ * an existing lesson. A declared ref never falls back to an existing lesson,
+ * so rows below a lesson that was rejected are rejected as well.
+ */
+@ApplicationScoped
+public class ImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportService.class);
+
+    private static final String ALLOCATE_LESSON_IDS_SQL = """
+            SELECT nextval(pg_get_serial_sequence('lessons', 'id')) FROM generate_series(1, ?)
+            """;
+
+    private static final String EXISTING_LESSONS_SQL = "SELECT id, path FROM lessons WHERE id = ANY(?)";
+
+    private static final String INSERT_LESSON_SQL = """
+            INSERT INTO lessons (id, name, parent_id, path) VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_EXERCISE_SQL = """
+            INSERT INTO exercises (title, content, user_id, lesson_id, published, commentable, created,
+                graspable_enabled, graspable_initial_expression, graspable_target_expression,
+                graspable_difficulty, graspable_hints)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * An imported or existing lesson a later row can refer to.
+     */
+    record LessonRef(Long id, String path) {
+    }
+
+    /**
+     * Outcome of one chunk transaction. New lesson refs are only published to
+     * later chunks once the transaction committed.
+     */
+    record ChunkResult(int lessons, int exercises, Map<String, LessonRef> newRefs,
+            List<ImportResultDto.RowError> errors) {
+    }
+
+    @ConfigProperty(name = "import.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "import.max-reported-errors", defaultValue = "1000")
+    int maxReportedErrors;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<CatalogChangedEvent> catalogChangedEvent;
+
+    /**
+     * Imports a catalog file. The format is taken from the file name, gzip
+     * compression is detected from the content. The stream is closed.
+     *
+     * @param userId author of the imported exercises
+     * @throws ValidationException if the file type is not supported
+     */
+    public ImportResultDto importCatalog(final InputStream in, final String fileName, final Long userId)
+            throws IOException {
+        final ExportWriter.Format format = ImportReader.formatOf(fileName);
+        if (format == null) {
+            throw new ValidationException("Unsupported file type: " + fileName + " (expected .csv or .jsonl, "
+                    + "optionally gzip-compressed)");
+        }
+
+        final var result = new ImportResultDto();
+        final Map<String, LessonRef> lessonRefs = new HashMap<>();
+        // Every ref the file declared so far, including those of rejected rows
+        final Set<String> declaredRefs = new HashSet<>();
+        final List<ImportReader.Row> chunk = new ArrayList<>(this.batchSize);
+        try (var reader = ImportReader.create(format,
+                new InputStreamReader(decompress(in), StandardCharsets.UTF_8))) {
+            ImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                result.rowsRead++;
+                chunk.add(row);
+                if (chunk.size() >= this.batchSize) {
+                    this.processChunk(chunk, lessonRefs, declaredRefs, userId, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.processChunk(chunk, lessonRefs, declaredRefs, userId, result);
+        }
+
+        LOG.info("Imported {} from {}: {}", format, fileName, result.getSummary());
+        if (result.lessonsImported > 0 || result.exercisesImported > 0) {
+            this.catalogChangedEvent.fire(new CatalogChangedEvent(
+                    result.lessonsImported > 0 ? CatalogChangedEvent.LESSON : CatalogChangedEvent.EXERCISE, null));
+        }
+        return result;
+    }
+
+    private void processChunk(final List<ImportReader.Row> chunk, final Map<String, LessonRef> lessonRefs,
+            final Set<String> declaredRefs, final Long userId, final ImportResultDto result) {
+        for (final ImportReader.Row row : chunk) {
+            final String ref = CatalogImportUtil.declaredRef(row);
+            if (ref != null) {
+                declaredRefs.add(ref);
+            }
+        }
+        // Validation is CPU bound and independent per row, the order is kept for the inserts
+        final List<CatalogImportRowDto> rows = chunk.parallelStream().map(CatalogImportUtil::validate).toList();
+        final List<CatalogImportRowDto> valid = new ArrayList<>(rows.size());
+        for (final CatalogImportRowDto row : rows) {
+            if (row.isValid()) {
+                valid.add(row);
+            } else {
+                result.addError(row.line, row.error, this.maxReportedErrors);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            final ChunkResult inserted = this.insertChunk(valid, lessonRefs, declaredRefs, userId);
+            lessonRefs.putAll(inserted.newRefs());
+            result.lessonsImported += inserted.lessons();
+            result.exercisesImported += inserted.exercises();
+            inserted.errors().forEach(error -> result.addError(error.line, error.message, this.maxReportedErrors));
+        } catch (final Exception e) {
+            LOG.error("Error inserting import chunk at line {}", valid.get(0).line, e);
+            for (final CatalogImportRowDto row : valid) {
+                result.addError(row.line, "Not imported, the batch failed: " + e.getMessage(),
+                        this.maxReportedErrors);
+            }
+        }
+    }
+
+    /**
+     * Inserts the valid rows of one chunk. Lesson ids are taken from the
+     * sequence up front, so children in the same chunk can reference their
+     * parents and the lessons still go into a single batch.
+     */
+    @Transactional
+    ChunkResult insertChunk(final List<CatalogImportRowDto> rows, final Map<String, LessonRef> lessonRefs,
+            final Set<String> declaredRefs, final Long userId) {
+        return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            final Map<String, LessonRef> existing = this.loadExistingLessons(connection, rows, declaredRefs);
+            final List<Long> lessonIds = this.allocateLessonIds(connection,
+                    (int) rows.stream().filter(row -> row.type == Type.LESSON).count());
+            final Map<String, LessonRef> newRefs = new HashMap<>();
+            final List<ImportResultDto.RowError> errors = new ArrayList<>();
+            int lessons = 0;
+            int exercises = 0;
+
+            try (var insertLesson = connection.prepareStatement(INSERT_LESSON_SQL);
+                    var insertExercise = connection.prepareStatement(INSERT_EXERCISE_SQL)) {
+                final var created = Timestamp.valueOf(LocalDateTime.now());
+                int nextLessonId = 0;
+                for (final CatalogImportRowDto row : rows) {
+                    LessonRef parent = null;
+                    if (row.parentRef != null) {
+                        parent = resolveParent(row.parentRef, newRefs, lessonRefs, declaredRefs, existing);
+                        if (parent == null && declaredRefs.contains(row.parentRef)) {
+                            errors.add(new ImportResultDto.RowError(row.line, "Lesson '" + row.parentRef
+                                    + "' was not imported or comes after this row"));
+                            continue;
+                        }
+                        if (parent == null) {
+                            errors.add(new ImportResultDto.RowError(row.line, "Unknown lesson '" + row.parentRef
+                                    + "', parent lessons must precede the rows that refer to them"));
+                            continue;
+                        }
+                    }
+
+                    if (row.type == Type.LESSON) {
+                        final Long id = lessonIds.get(nextLessonId++);
+                        if (row.ref != null && (newRefs.containsKey(row.ref) || lessonRefs.containsKey(row.ref))) {
+                            errors.add(new ImportResultDto.RowError(row.line, "Duplicate lesson ref '" + row.ref
+                                    + "'"));
+                            continue;
+                        }
+                        final String path = LessonPathUtil.childPath(parent != null ? parent.path() : null, id);
+                        insertLesson.setLong(1, id);
+                        insertLesson.setString(2, row.title);
+                        setLong(insertLesson, 3, parent != null ? parent.id() : null);
+                        insertLesson.setString(4, path);
+                        insertLesson.addBatch();
+                        if (row.ref != null) {
+                            newRefs.put(row.ref, new LessonRef(id, path));
+                        }
+                        lessons++;
+                    } else {
+                        insertExercise.setString(1, row.title);
+                        insertExercise.setString(2, row.content);
+                        setLong(insertExercise, 3, userId);
+                        setLong(insertExercise, 4, parent != null ? parent.id() : null);
+                        insertExercise.setBoolean(5, row.published);
+                        insertExercise.setBoolean(6, row.commentable);
+                        insertExercise.setTimestamp(7, created);
+                        insertExercise.setBoolean(8, row.graspableEnabled);
+                        insertExercise.setString(9, row.graspableInitialExpression);
+                        insertExercise.setString(10, row.graspableTargetExpression);
+                        insertExercise.setString(11, row.graspableDifficulty);
+                        insertExercise.setString(12, row.graspableHints);
+                        insertExercise.addBatch();
+                        exercises++;
+                    }
+                }
+                // Lessons first, exercises of this chunk may belong to them
+                if (lessons > 0) {
+                    insertLesson.executeBatch();
+                }
+                if (exercises > 0) {
+                    insertExercise.executeBatch();
+                }
+            }
+            return new ChunkResult(lessons, exercises, newRefs, errors);
+        });
+    }
+
+    /**
+     * Resolves a parent ref against the lessons imported from the file, then
+     * against existing lessons. A ref the file declared never falls back to an
+     * existing lesson, even if its row was rejected or its chunk failed.
+     *
+     * @return the parent lesson or null if the ref cannot be resolved
+     */
+    static LessonRef resolveParent(final String parentRef, final Map<String, LessonRef> newRefs,
+            final Map<String, LessonRef> lessonRefs, final Set<String> declaredRefs,
+            final Map<String, LessonRef> existing) {
+        LessonRef parent = newRefs.get(parentRef);
+        if (parent == null) {
+            parent = lessonRefs.get(parentRef);
+        }
+        if (parent == null && !declaredRefs.contains(parentRef)) {
+            parent = existing.get(parentRef);
+        }
+        return parent;
+    }
+
+    /**
+     * Loads existing lessons referenced by numeric parent refs that the file
+     * does not declare itself.
+     *
+     * @return lessons by ref
+     */
+    private Map<String, LessonRef> loadExistingLessons(final Connection connection,
+            final List<CatalogImportRowDto> rows, final Set<String> declaredRefs) throws SQLException {
+        final List<Long> ids = rows.stream()
+                .map(row -> row.parentRef)
+                .filter(ref -> ref != null && !declaredRefs.contains(ref) && ref.matches("\\d{1,18}"))
+                .map(Long::valueOf)
+                .distinct()
+                .toList();
+        final Map<String, LessonRef> existing = new HashMap<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        try (var statement = connection.prepareStatement(EXISTING_LESSONS_SQL)) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    final long id = resultSet.getLong(1);
+                    final String path = resultSet.getString(2);
+                    existing.put(Long.toString(id),
+                            new LessonRef(id, path != null ? path : LessonPathUtil.childPath(null, id)));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private List<Long> allocateLessonIds(final Connection connection, final int count) throws SQLException {
+        final List<Long> ids = new ArrayList<>(count);
+        if (count == 0) {
+            return ids;
+        }
+        try (var statement = connection.prepareStatement(ALLOCATE_LESSON_IDS_SQL)) {
+            statement.setInt(1, count);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void setLong(final PreparedStatement statement, final int index, final Long value)
+            throws SQLException {
+        if (value != null) {
+            statement.setLong(index, value);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    /**
+     * Unwraps gzip-compressed input, detected by its magic number.
+     */
+    private static InputStream decompress(final InputStream in) throws IOException {
+        final var buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        final int first = buffered.read();
+        final int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(buffered, 64 * 1024);
+        }
+        return buffered;
+    }
+}
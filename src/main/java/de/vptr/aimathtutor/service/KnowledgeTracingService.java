@@ -0,0 +1,341 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.dto.ExerciseViewDto;
+import de.vptr.aimathtutor.event.StudentStepEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Online Bayesian knowledge tracing. Every lesson is a skill, the exercises of
+ * a lesson practice it. Guess and slip probabilities depend on the exercise's
+ * graspableDifficulty, and a skill a student has not practised yet starts
+ * from the student's mastery of the parent lesson.
+ * <p>
+ * Mastery is kept per student in primitive arrays indexed by a dense skill
+ * index, so a step is an O(1) update. Changed students are written to
+ * student_skill_mastery periodically and loaded lazily on first access.
+ */
+@ApplicationScoped
+public class KnowledgeTracingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KnowledgeTracingService.class);
+
+    static final double DEFAULT_PRIOR = 0.2;
+    static final double TRANSIT = 0.1;
+    static final double MASTERED = 0.95;
+
+    // Clean students idle for longer than this are dropped and reloaded on demand
+    private static final long IDLE_EVICTION_MILLIS = 60 * 60 * 1000L;
+
+    private static final String UPSERT_MASTERY = """
+            INSERT INTO student_skill_mastery (user_id, lesson_id, mastery, observations, updated_at)
+            SELECT ?1, ?2, ?3, ?4, ?5
+            WHERE EXISTS (SELECT 1 FROM lessons WHERE id = ?2) AND EXISTS (SELECT 1 FROM users WHERE id = ?1)
+            ON CONFLICT (user_id, lesson_id) DO UPDATE SET mastery = EXCLUDED.mastery,
+                observations = EXCLUDED.observations, updated_at = EXCLUDED.updated_at
+            """;
+
+    /**
+     * Dense skill index per lesson id, shared by all students
+     */
+    private final Map<Long, Integer> skillIndex = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSkillIndex = new AtomicInteger();
+    private volatile long[] lessonIds = new long[16];
+
+    private final Map<Long, StudentState> students = new ConcurrentHashMap<>();
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Mastery of one student. NaN marks skills without observations.
+     */
+    private static final class StudentState {
+        float[] mastery = new float[0];
+        int[] observations = new int[0];
+        boolean dirty;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        void ensureCapacity(final int length) {
+            if (this.mastery.length < length) {
+                final int oldLength = this.mastery.length;
+                final int newLength = Math.max(length, oldLength * 2);
+                this.mastery = Arrays.copyOf(this.mastery, newLength);
+                Arrays.fill(this.mastery, oldLength, newLength, Float.NaN);
+                this.observations = Arrays.copyOf(this.observations, newLength);
+            }
+        }
+
+        double get(final int skill) {
+            return skill < this.mastery.length ? this.mastery[skill] : Double.NaN;
+        }
+    }
+
+    /**
+     * Guess and slip probabilities per difficulty, harder exercises are less
+     * likely to be solved by guessing and more likely to be slipped on.
+     */
+    static double[] guessAndSlip(final String difficulty) {
+        if (difficulty == null) {
+            return new double[] { 0.2, 0.1 };
+        }
+        return switch (difficulty.toLowerCase()) {
+            case "beginner" -> new double[] { 0.25, 0.08 };
+            case "advanced", "expert" -> new double[] { 0.12, 0.15 };
+            default -> new double[] { 0.2, 0.1 };
+        };
+    }
+
+    /**
+     * One BKT step: posterior given the observation, then the learning
+     * transition.
+     */
+    static double update(final double prior, final boolean correct, final double guess, final double slip,
+            final double transit) {
+        final double posterior = correct
+                ? prior * (1 - slip) / (prior * (1 - slip) + (1 - prior) * guess)
+                : prior * slip / (prior * slip + (1 - prior) * (1 - guess));
+        return posterior + (1 - posterior) * transit;
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    void onStep(@Observes(during = TransactionPhase.AFTER_SUCCESS) final StudentStepEvent event) {
+        if (event.userId == null || event.lessonId == null) {
+            return; // Exercises outside of lessons have no skill
+        }
+        final int skill = this.skillFor(event.lessonId);
+        final var state = this.stateFor(event.userId);
+        // Only skips the parent lookup, mastery never returns to NaN once set. The
+        // lesson tree is queried outside the lock, all mastery values are read inside it.
+        final Integer parentSkill = this.hasMastery(state, skill) ? null : this.parentSkillFor(event.lessonId);
+        final double[] params = guessAndSlip(event.difficulty);
+
+        synchronized (state) {
+            state.ensureCapacity(skill + 1);
+            double prior = state.mastery[skill];
+            if (Double.isNaN(prior)) {
+                final double parentPrior = parentSkill != null ? state.get(parentSkill) : Double.NaN;
+                prior = Double.isNaN(parentPrior) ? DEFAULT_PRIOR : parentPrior;
+            }
+            state.mastery[skill] = (float) update(prior, event.correct, params[0], params[1], TRANSIT);
+            state.observations[skill]++;
+            state.dirty = true;
+        }
+    }
+
+    /**
+     * @return mastery probability of the lesson's skill, NaN if never practised
+     */
+    @Transactional
+    public double getMastery(final Long userId, final Long lessonId) {
+        final Integer skill = this.skillIndex.get(lessonId);
+        if (skill == null) {
+            return Double.NaN;
+        }
+        final var state = this.stateFor(userId);
+        synchronized (state) {
+            return state.get(skill);
+        }
+    }
+
+    /**
+     * Picks the next exercises for a student from the given candidates.
+     * Mastered skills are skipped; for the others the exercise difficulty
+     * should match the current mastery, and skills closest to mastery come
+     * first.
+     */
+    @Transactional
+    public List<ExerciseViewDto> recommendExercises(final Long userId, final List<ExerciseViewDto> candidates,
+            final int limit) {
+        if (userId == null || candidates.isEmpty()) {
+            return List.of();
+        }
+        final var state = this.stateFor(userId);
+        final var scored = new ArrayList<ScoredExercise>();
+        for (final var exercise : candidates) {
+            if (exercise.lessonId == null || Boolean.TRUE.equals(exercise.userCompleted)) {
+                continue;
+            }
+            final Integer skill = this.skillIndex.get(exercise.lessonId);
+            double mastery;
+            synchronized (state) {
+                mastery = skill != null ? state.get(skill) : Double.NaN;
+            }
+            if (Double.isNaN(mastery)) {
+                mastery = DEFAULT_PRIOR;
+            }
+            if (mastery >= MASTERED) {
+                continue;
+            }
+            final int distance = Math.abs(difficultyRank(exercise.graspableDifficulty) - targetRank(mastery));
+            scored.add(new ScoredExercise(exercise, distance, mastery));
+        }
+        return scored.stream()
+                .sorted(Comparator.comparingInt(ScoredExercise::distance)
+                        .thenComparing(Comparator.comparingDouble(ScoredExercise::mastery).reversed())
+                        .thenComparing(s -> s.exercise().id))
+                .limit(limit)
+                .map(ScoredExercise::exercise)
+                .toList();
+    }
+
+    private record ScoredExercise(ExerciseViewDto exercise, int distance, double mastery) {
+    }
+
+    @Scheduled(every = "${analytics.knowledge.snapshot-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledSnapshot() {
+        try {
+            this.snapshot();
+        } catch (final Exception e) {
+            LOG.error("Error writing knowledge tracing snapshot", e);
+        }
+    }
+
+    /**
+     * Writes all changed students to student_skill_mastery and evicts idle ones.
+     */
+    @Transactional
+    public void snapshot() {
+        final var now = LocalDateTime.now();
+        final long idleSince = System.currentTimeMillis() - IDLE_EVICTION_MILLIS;
+        final long[] lessons = this.lessonIds;
+        int written = 0;
+        for (final var entry : this.students.entrySet()) {
+            final var state = entry.getValue();
+            final float[] mastery;
+            final int[] observations;
+            synchronized (state) {
+                if (!state.dirty) {
+                    if (state.lastAccess < idleSince) {
+                        this.students.remove(entry.getKey(), state);
+                    }
+                    continue;
+                }
+                state.dirty = false;
+                mastery = state.mastery.clone();
+                observations = state.observations.clone();
+            }
+            try {
+                for (int skill = 0; skill < mastery.length && skill < lessons.length; skill++) {
+                    if (Float.isNaN(mastery[skill]) || observations[skill] == 0) {
+                        continue;
+                    }
+                    this.entityManager.createNativeQuery(UPSERT_MASTERY)
+                            .setParameter(1, entry.getKey())
+                            .setParameter(2, lessons[skill])
+                            .setParameter(3, (double) mastery[skill])
+                            .setParameter(4, observations[skill])
+                            .setParameter(5, now)
+                            .executeUpdate();
+                    written++;
+                }
+            } catch (final RuntimeException e) {
+                synchronized (state) {
+                    state.dirty = true;
+                }
+                throw e;
+            }
+        }
+        if (written > 0) {
+            LOG.debug("Wrote {} skill mastery rows", written);
+        }
+    }
+
+    private static int difficultyRank(final String difficulty) {
+        if (difficulty == null) {
+            return 1;
+        }
+        return switch (difficulty.toLowerCase()) {
+            case "beginner" -> 0;
+            case "advanced", "expert" -> 2;
+            default -> 1;
+        };
+    }
+
+    private static int targetRank(final double mastery) {
+        if (mastery < 0.4) {
+            return 0;
+        }
+        return mastery < 0.7 ? 1 : 2;
+    }
+
+    private boolean hasMastery(final StudentState state, final int skill) {
+        synchronized (state) {
+            return !Double.isNaN(state.get(skill));
+        }
+    }
+
+    /**
+     * @return skill index of the lesson's parent, null without a parent or if
+     *         the parent was never practised
+     */
+    private Integer parentSkillFor(final Long lessonId) {
+        final List<Long> parents = this.entityManager
+                .createQuery("SELECT l.parent.id FROM LessonEntity l WHERE l.id = :id", Long.class)
+                .setParameter("id", lessonId)
+                .getResultList();
+        if (parents.isEmpty() || parents.get(0) == null) {
+            return null;
+        }
+        return this.skillIndex.get(parents.get(0));
+    }
+
+    private int skillFor(final Long lessonId) {
+        return this.skillIndex.computeIfAbsent(lessonId, id -> {
+            final int index = this.nextSkillIndex.getAndIncrement();
+            synchronized (this) {
+                if (index >= this.lessonIds.length) {
+                    this.lessonIds = Arrays.copyOf(this.lessonIds, Math.max(index + 1, this.lessonIds.length * 2));
+                }
+                this.lessonIds[index] = id;
+            }
+            return index;
+        });
+    }
+
+    /**
+     * Returns the in-memory state of a student, loading the last snapshot on
+     * first access. Must run inside a transaction.
+     */
+    private StudentState stateFor(final Long userId) {
+        final var existing = this.students.get(userId);
+        if (existing != null) {
+            existing.lastAccess = System.currentTimeMillis();
+            return existing;
+        }
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager
+                .createNativeQuery("SELECT lesson_id, mastery, observations FROM student_skill_mastery "
+                        + "WHERE user_id = ?1")
+                .setParameter(1, userId)
+                .getResultList();
+        final var loaded = new StudentState();
+        for (final Object[] row : rows) {
+            final int skill = this.skillFor(((Number) row[0]).longValue());
+            loaded.ensureCapacity(skill + 1);
+            loaded.mastery[skill] = ((Number) row[1]).floatValue();
+            loaded.observations[skill] = ((Number) row[2]).intValue();
+        }
+        // Another thread may have loaded the student meanwhile, keep the first
+        final var previous = this.students.putIfAbsent(userId, loaded);
+        return previous != null ? previous : loaded;
+    }
+}
@@ -1,43 +1,177 @@
 package de.vptr.aimathtutor.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import de.vptr.aimathtutor.dto.LessonViewDto;
 import de.vptr.aimathtutor.entity.LessonEntity;
+import de.vptr.aimathtutor.event.CatalogChangedEvent;
+import de.vptr.aimathtutor.util.LessonPathUtil;
+import de.vptr.aimathtutor.util.SearchPatternUtil;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 
+/**
+ * Lessons form a tree through parent_id. Each lesson also stores its
+ * materialized path (see {@link LessonPathUtil}), so subtree checks and
+ * subtree moves are single prefix queries. Views load the tree one level at
+ * a time; child and exercise counts of a level come from one grouped query.
+ */
 @ApplicationScoped
 public class LessonService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(LessonService.class);
+
+    /**
+     * Child ids and exercise counts of the given lessons, one row per lesson
+     * and kind.
+     */
+    private static final String COUNTS_SQL = """
+            SELECT parent_id, 'CHILDREN', COUNT(*), string_agg(CAST(id AS TEXT), ',' ORDER BY id)
+            FROM lessons WHERE parent_id IN (?1) GROUP BY parent_id
+            UNION ALL
+            SELECT lesson_id, 'EXERCISES', COUNT(*), NULL
+            FROM exercises WHERE lesson_id IN (?1) GROUP BY lesson_id
+            """;
+
+    private static final String SET_PATH_SQL = """
+            UPDATE lessons l
+            SET path = COALESCE((SELECT p.path FROM lessons p WHERE p.id = l.parent_id), '/')
+                || CAST(l.id AS TEXT) || '/'
+            WHERE l.id = ?1
+            """;
+
+    /**
+     * Replaces the path prefix ?2 of a moved lesson and all its descendants
+     * with ?1.
+     */
+    private static final String MOVE_SUBTREE_SQL = """
+            UPDATE lessons SET path = ?1 || substr(path, ?3)
+            WHERE path LIKE ?2
+            """;
+
+    /**
+     * Recomputes all paths from parent_id and updates the drifted rows.
+     */
+    private static final String REBUILD_PATHS_SQL = """
+            WITH RECURSIVE tree AS (
+                SELECT id, CAST('/' || CAST(id AS TEXT) || '/' AS VARCHAR(1024)) AS path
+                FROM lessons WHERE parent_id IS NULL
+                UNION ALL
+                SELECT l.id, CAST(t.path || CAST(l.id AS TEXT) || '/' AS VARCHAR(1024))
+                FROM lessons l JOIN tree t ON l.parent_id = t.id
+            )
+            UPDATE lessons l SET path = t.path
+            FROM tree t
+            WHERE l.id = t.id AND l.path IS DISTINCT FROM t.path
+            """;
+
+    private static final String SEARCH_SQL = """
+            SELECT l.* FROM lessons l
+            WHERE l.name ILIKE ?1
+            ORDER BY similarity(l.name, ?2) DESC, l.id DESC
+            LIMIT ?3
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<CatalogChangedEvent> catalogChangedEvent;
+
+    @ConfigProperty(name = "search.max-results", defaultValue = "100")
+    int searchMaxResults;
+
+    /**
+     * Fills in paths for lessons created before paths were maintained.
+     */
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        final int updated = this.rebuildPaths();
+        if (updated > 0) {
+            LOG.info("Rebuilt materialized paths of {} lessons", updated);
+        }
+    }
+
+    @Transactional
+    public int rebuildPaths() {
+        return this.entityManager.createNativeQuery(REBUILD_PATHS_SQL).executeUpdate();
+    }
+
     @Transactional
     public List<LessonViewDto> getAllLessons() {
-        return LessonEntity.find("ORDER BY id DESC").list().stream()
-                .map(entity -> new LessonViewDto((LessonEntity) entity))
-                .toList();
+        return this.toViewDtos(LessonEntity.find("SELECT l FROM LessonEntity l LEFT JOIN FETCH l.parent "
+                + "ORDER BY l.id DESC").list());
     }
 
     @Transactional
     public Optional<LessonViewDto> findById(final Long id) {
-        return LessonEntity.findByIdOptional(id)
-                .map(entity -> new LessonViewDto((LessonEntity) entity));
+        return LessonEntity.<LessonEntity>findByIdOptional(id)
+                .map(entity -> this.toViewDtos(List.of(entity)).get(0));
     }
 
     @Transactional
     public List<LessonViewDto> findRootLessons() {
-        return LessonEntity.findRootLessons().stream()
-                .map(LessonViewDto::new)
-                .toList();
+        return this.toViewDtos(LessonEntity.findRootLessons());
     }
 
+    @Transactional
     public List<LessonViewDto> findByParentId(final Long parentId) {
-        return LessonEntity.findByParentId(parentId).stream()
-                .map(LessonViewDto::new)
-                .toList();
+        return this.toViewDtos(LessonEntity.findByParentId(parentId));
+    }
+
+    /**
+     * Returns one page of the direct children of a lesson, or of the root
+     * lessons if parentId is null.
+     */
+    @Transactional
+    public List<LessonViewDto> findChildren(final Long parentId, final int offset, final int limit) {
+        final var query = parentId == null
+                ? LessonEntity.<LessonEntity>find("SELECT l FROM LessonEntity l WHERE l.parent IS NULL "
+                        + "ORDER BY l.id DESC")
+                : LessonEntity.<LessonEntity>find("SELECT l FROM LessonEntity l JOIN FETCH l.parent "
+                        + "WHERE l.parent.id = ?1 ORDER BY l.id DESC", parentId);
+        return this.toViewDtos(query.range(offset, offset + limit - 1).list());
+    }
+
+    @Transactional
+    public long countChildren(final Long parentId) {
+        return parentId == null
+                ? LessonEntity.count("parent IS NULL")
+                : LessonEntity.count("parent.id", parentId);
+    }
+
+    /**
+     * Returns all lessons that may become the parent of the given lesson,
+     * i.e. all lessons outside its subtree. All lessons for a new lesson.
+     */
+    @Transactional
+    public List<LessonViewDto> findParentCandidates(final Long lessonId) {
+        final LessonEntity lesson = lessonId != null ? LessonEntity.findById(lessonId) : null;
+        final List<LessonEntity> candidates = lesson == null || lesson.path == null
+                ? LessonEntity.find("SELECT l FROM LessonEntity l LEFT JOIN FETCH l.parent ORDER BY l.name")
+                        .list()
+                : LessonEntity.find("SELECT l FROM LessonEntity l LEFT JOIN FETCH l.parent "
+                        + "WHERE l.path IS NULL OR l.path NOT LIKE ?1 ORDER BY l.name",
+                        LessonPathUtil.subtreePattern(lesson.path)).list();
+        return this.toViewDtos(candidates);
     }
 
     @Transactional
@@ -57,7 +191,11 @@ public class LessonService {
         }
 
         lesson.persist();
-        return new LessonViewDto(lesson);
+        this.entityManager.createNativeQuery(SET_PATH_SQL)
+                .setParameter(1, lesson.id)
+                .executeUpdate();
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.LESSON, lesson.id));
+        return this.toViewDtos(List.of(lesson)).get(0);
     }
 
     @Transactional
@@ -74,6 +212,7 @@ public class LessonService {
 
         // Complete replacement (PUT semantics) - update name and parent
         existingLesson.name = lesson.name;
+        final Long previousParentId = existingLesson.parent != null ? existingLesson.parent.id : null;
 
         // Handle parent change - validate if parent is provided
         if (lesson.parent != null && lesson.parent.id != null) {
@@ -93,7 +232,9 @@ public class LessonService {
         }
 
         existingLesson.persist();
-        return new LessonViewDto(existingLesson);
+        this.updatePathIfMoved(existingLesson, previousParentId);
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.LESSON, existingLesson.id));
+        return this.toViewDtos(List.of(existingLesson)).get(0);
     }
 
     @Transactional
@@ -107,6 +248,7 @@ public class LessonService {
         if (lesson.name != null) {
             existingLesson.name = lesson.name;
         }
+        final Long previousParentId = existingLesson.parent != null ? existingLesson.parent.id : null;
 
         // Handle parent change if provided
         if (lesson.parent != null) {
@@ -129,14 +271,39 @@ public class LessonService {
         }
 
         existingLesson.persist();
-        return new LessonViewDto(existingLesson);
+        this.updatePathIfMoved(existingLesson, previousParentId);
+        this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.LESSON, existingLesson.id));
+        return this.toViewDtos(List.of(existingLesson)).get(0);
     }
 
     /**
-     * Check if potential parent is a descendant of the lesson (to prevent
-     * circular references)
+     * Moves the path of a lesson and its subtree below the new parent.
+     */
+    private void updatePathIfMoved(final LessonEntity lesson, final Long previousParentId) {
+        final Long parentId = lesson.parent != null ? lesson.parent.id : null;
+        if (Objects.equals(parentId, previousParentId)) {
+            return;
+        }
+        final String parentPath = lesson.parent != null ? lesson.parent.path : LessonPathUtil.ROOT;
+        if (lesson.path == null || parentPath == null) {
+            this.rebuildPaths();
+            return;
+        }
+        this.entityManager.createNativeQuery(MOVE_SUBTREE_SQL)
+                .setParameter(1, LessonPathUtil.childPath(parentPath, lesson.id))
+                .setParameter(2, LessonPathUtil.subtreePattern(lesson.path))
+                .setParameter(3, lesson.path.length() + 1)
+                .executeUpdate();
+    }
+
+    /**
+     * Check if potential parent is the lesson itself or one of its
+     * descendants (to prevent circular references)
      */
     private boolean isDescendantOf(final LessonEntity potentialParent, final LessonEntity lesson) {
+        if (potentialParent.path != null && lesson.path != null) {
+            return LessonPathUtil.isInSubtree(potentialParent.path, lesson.path);
+        }
         var current = potentialParent.parent;
         while (current != null) {
             if (current.id.equals(lesson.id)) {
@@ -149,7 +316,14 @@ public class LessonService {
 
     @Transactional
     public boolean deleteLesson(final Long id) {
-        return LessonEntity.deleteById(id);
+        final boolean deleted = LessonEntity.deleteById(id);
+        if (deleted) {
+            // Children of the deleted lesson become root lessons (ON DELETE SET NULL)
+            this.entityManager.flush();
+            this.rebuildPaths();
+            this.catalogChangedEvent.fire(new CatalogChangedEvent(CatalogChangedEvent.LESSON, id));
+        }
+        return deleted;
     }
 
     @Transactional
@@ -157,11 +331,44 @@ public class LessonService {
         if (query == null || query.trim().isEmpty()) {
             return this.getAllLessons();
         }
-        final var searchTerm = "%" + query.trim().toLowerCase() + "%";
-        final List<LessonEntity> lessons = LessonEntity.find(
-                "LOWER(name) LIKE ?1", searchTerm).list();
+        final var term = query.trim();
+        @SuppressWarnings("unchecked")
+        final List<LessonEntity> lessons = this.entityManager.createNativeQuery(SEARCH_SQL, LessonEntity.class)
+                .setParameter(1, SearchPatternUtil.toContainsPattern(term))
+                .setParameter(2, term)
+                .setParameter(3, this.searchMaxResults)
+                .getResultList();
+        return this.toViewDtos(lessons);
+    }
+
+    /**
+     * Converts lessons to DTOs with children and exercise counts from one
+     * grouped query, without touching the lazy collections.
+     */
+    private List<LessonViewDto> toViewDtos(final List<LessonEntity> lessons) {
+        if (lessons.isEmpty()) {
+            return List.of();
+        }
+        final List<Long> ids = lessons.stream().map(lesson -> lesson.id).toList();
+        final Map<Long, List<Long>> childrenIds = new HashMap<>();
+        final Map<Long, Integer> exercisesCount = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = this.entityManager.createNativeQuery(COUNTS_SQL)
+                .setParameter(1, ids)
+                .getResultList();
+        for (final Object[] row : rows) {
+            final Long lessonId = ((Number) row[0]).longValue();
+            if ("CHILDREN".equals(row[1])) {
+                final List<Long> children = new ArrayList<>();
+                Arrays.stream(((String) row[3]).split(",")).forEach(id -> children.add(Long.valueOf(id)));
+                childrenIds.put(lessonId, children);
+            } else {
+                exercisesCount.put(lessonId, ((Number) row[2]).intValue());
+            }
+        }
         return lessons.stream()
-                .map(LessonViewDto::new)
+                .map(lesson -> new LessonViewDto(lesson, childrenIds.get(lesson.id),
+                        exercisesCount.getOrDefault(lesson.id, 0)))
                 .toList();
     }
 }
@@ -0,0 +1,48 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limits enforced by {@link RateLimiterService}. Every policy combines
+ * one or more limits; an event is only admitted if all of them have room.
+ */
+public enum RateLimitPolicy {
+
+    COMMENT_CREATE(
+            new Limit(1, Duration.ofSeconds(5), "Please wait before posting another comment"),
+            new Limit(200, Duration.ofDays(1), "Daily comment limit exceeded")),
+    COMMENT_FLAG(
+            new Limit(5, Duration.ofMinutes(1), "Please wait before flagging more comments"),
+            new Limit(50, Duration.ofDays(1), "Daily flag limit exceeded")),
+    AI_QUESTION(
+            new Limit(10, Duration.ofMinutes(1), "Please wait a moment before asking another question"),
+            new Limit(500, Duration.ofDays(1), "Daily question limit exceeded")),
+    // Failed attempts per username and client address
+    LOGIN(
+            new Limit(10, Duration.ofMinutes(15), "Too many login attempts, please try again later")),
+    // Failed attempts per username when the client address is unknown, more lenient as clients share it
+    LOGIN_UNKNOWN_CLIENT(
+            new Limit(30, Duration.ofMinutes(15), "Too many login attempts, please try again later"));
+
+    public final List<Limit> limits;
+
+    RateLimitPolicy(final Limit... limits) {
+        this.limits = List.of(limits);
+    }
+
+    /**
+     * At most {@code maxEvents} events per {@code window}.
+     */
+    public static final class Limit {
+        public final int maxEvents;
+        public final Duration window;
+        public final String message;
+
+        Limit(final int maxEvents, final Duration window, final String message) {
+            this.maxEvents = maxEvents;
+            this.window = window;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.util.TokenBucket;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * In-memory rate limiter with one token bucket per policy limit and key
+ * (usually a user id). Checks cost no database queries; the only query is
+ * the optional {@link History} lookup the first time a key is seen, so limits
+ * survive restarts for policies whose events are persisted anyway.
+ * Full buckets carry no state and are evicted periodically.
+ */
+@ApplicationScoped
+public class RateLimiterService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiterService.class);
+
+    /**
+     * Counts persisted events of a key, used to seed new buckets.
+     */
+    @FunctionalInterface
+    public interface History {
+        long countSince(String key, LocalDateTime since);
+    }
+
+    private final Map<RateLimitPolicy, History> histories = new ConcurrentHashMap<>();
+    private final Map<BucketKey, TokenBucket[]> buckets = new ConcurrentHashMap<>();
+
+    private record BucketKey(RateLimitPolicy policy, String key) {
+    }
+
+    /**
+     * Registers where a policy's past events can be counted. Policies without
+     * a history start with full buckets.
+     */
+    public void registerHistory(final RateLimitPolicy policy, final History history) {
+        this.histories.put(policy, history);
+    }
+
+    /**
+     * Records one event if all limits of the policy allow it.
+     *
+     * @return false if the event exceeds a limit
+     */
+    public boolean tryAcquire(final RateLimitPolicy policy, final Object key) {
+        return this.acquireOrViolation(policy, key) == null;
+    }
+
+    /**
+     * Records one event or throws 429 with the message of the exceeded limit.
+     */
+    public void acquire(final RateLimitPolicy policy, final Object key) {
+        final var violated = this.acquireOrViolation(policy, key);
+        if (violated != null) {
+            LOG.debug("Rate limit exceeded: policy={}, key={}, limit={}/{}", policy, key, violated.maxEvents,
+                    violated.window);
+            throw new WebApplicationException(violated.message, Response.Status.TOO_MANY_REQUESTS);
+        }
+    }
+
+    /**
+     * Checks whether all limits of the policy have room for a key without
+     * recording an event, for policies that only count failures.
+     */
+    public boolean isAllowed(final RateLimitPolicy policy, final Object key) {
+        final var limits = this.bucketsFor(new BucketKey(policy, String.valueOf(key)));
+        final long now = System.nanoTime();
+        synchronized (limits) {
+            for (final TokenBucket bucket : limits) {
+                if (!bucket.hasToken(now)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records one event in every limit that still has room, e.g. a failed
+     * login checked with {@link #isAllowed} beforehand.
+     */
+    public void record(final RateLimitPolicy policy, final Object key) {
+        final var limits = this.bucketsFor(new BucketKey(policy, String.valueOf(key)));
+        final long now = System.nanoTime();
+        synchronized (limits) {
+            for (final TokenBucket bucket : limits) {
+                bucket.tryConsume(now);
+            }
+        }
+    }
+
+    /**
+     * Forgets all events of a key, e.g. failed logins after a successful one.
+     */
+    public void reset(final RateLimitPolicy policy, final Object key) {
+        this.buckets.remove(new BucketKey(policy, String.valueOf(key)));
+    }
+
+    @Scheduled(every = "${ratelimit.cleanup-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledEvictFullBuckets() {
+        try {
+            this.evictFullBuckets();
+        } catch (final Exception e) {
+            LOG.error("Error evicting rate limit buckets", e);
+        }
+    }
+
+    /**
+     * @return number of evicted keys
+     */
+    public int evictFullBuckets() {
+        final long now = System.nanoTime();
+        final int before = this.buckets.size();
+        this.buckets.values().removeIf(limits -> {
+            synchronized (limits) {
+                for (final TokenBucket bucket : limits) {
+                    if (!bucket.isFull(now)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+        final int evicted = before - this.buckets.size();
+        LOG.debug("Evicted {} idle rate limit buckets", evicted);
+        return evicted;
+    }
+
+    private RateLimitPolicy.Limit acquireOrViolation(final RateLimitPolicy policy, final Object key) {
+        final var limits = this.bucketsFor(new BucketKey(policy, String.valueOf(key)));
+        final long now = System.nanoTime();
+        synchronized (limits) {
+            for (int i = 0; i < limits.length; i++) {
+                if (!limits[i].hasToken(now)) {
+                    return policy.limits.get(i);
+                }
+            }
+            for (final TokenBucket bucket : limits) {
+                bucket.consume(now);
+            }
+        }
+        return null;
+    }
+
+    private TokenBucket[] bucketsFor(final BucketKey bucketKey) {
+        var limits = this.buckets.get(bucketKey);
+        if (limits == null) {
+            // Seed outside of the map lock; a concurrent seed for the same key loses
+            final var seeded = this.seed(bucketKey.policy(), bucketKey.key());
+            limits = this.buckets.putIfAbsent(bucketKey, seeded);
+            if (limits == null) {
+                limits = seeded;
+            }
+        }
+        return limits;
+    }
+
+    private TokenBucket[] seed(final RateLimitPolicy policy, final String key) {
+        final var history = this.histories.get(policy);
+        final var now = LocalDateTime.now();
+        final long nowNanos = System.nanoTime();
+        final var limits = new TokenBucket[policy.limits.size()];
+        for (int i = 0; i < limits.length; i++) {
+            final var limit = policy.limits.get(i);
+            long used = 0;
+            if (history != null) {
+                try {
+                    used = history.countSince(key, now.minus(limit.window));
+                } catch (final Exception e) {
+                    LOG.warn("Could not load rate limit history: policy={}, key={}", policy, key, e);
+                }
+            }
+            limits[i] = new TokenBucket(limit.maxEvents, limit.window, used, nowNanos);
+        }
+        return limits;
+    }
+}
@@ -11,6 +11,7 @@ import de.vptr.aimathtutor.entity.UserEntity;
 import de.vptr.aimathtutor.entity.UserGroupEntity;
 import de.vptr.aimathtutor.entity.UserGroupMetaEntity;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import jakarta.ws.rs.WebApplicationException;
@@ -19,6 +20,9 @@ import jakarta.ws.rs.core.Response;
 @ApplicationScoped
 public class UserGroupService {
 
+    @Inject
+    CohortProgressService cohortProgressService;
+
     @Transactional
     public List<UserGroupViewDto> getAllGroups() {
         return UserGroupEntity.find("ORDER BY id DESC").list().stream()
@@ -131,6 +135,7 @@ public class UserGroupService {
         meta.group = group;
         meta.timestamp = LocalDateTime.now();
         meta.persist();
+        this.cohortProgressService.recordMemberAdded(userId, groupId);
 
         return meta;
     }
@@ -142,6 +147,7 @@ public class UserGroupService {
             return false;
         }
         meta.delete();
+        this.cohortProgressService.recordMemberRemoved(userId, groupId);
         return true;
     }
 
@@ -0,0 +1,143 @@
+package de.vptr.aimathtutor.service;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.vptr.aimathtutor.entity.StudentSessionEntity;
+import de.vptr.aimathtutor.entity.UserProgressEntity;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Maintains the user_progress aggregate table.
+ * Every update is a single atomic upsert, so concurrent sessions of the same
+ * user never lose increments. Callers are expected to run inside the
+ * transaction that changes the session itself.
+ */
+@ApplicationScoped
+public class UserProgressService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserProgressService.class);
+
+    private static final String UPSERT_DELTA = """
+            INSERT INTO user_progress (user_id, total_sessions, completed_sessions, hints_used,
+                actions_count, correct_actions, last_activity)
+            VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7)
+            ON CONFLICT (user_id) DO UPDATE SET
+                total_sessions = user_progress.total_sessions + EXCLUDED.total_sessions,
+                completed_sessions = user_progress.completed_sessions + EXCLUDED.completed_sessions,
+                hints_used = user_progress.hints_used + EXCLUDED.hints_used,
+                actions_count = user_progress.actions_count + EXCLUDED.actions_count,
+                correct_actions = user_progress.correct_actions + EXCLUDED.correct_actions,
+                last_activity = GREATEST(user_progress.last_activity, EXCLUDED.last_activity)
+            """;
+
+    private static final String REBUILD = """
+            INSERT INTO user_progress (user_id, total_sessions, completed_sessions, hints_used,
+                actions_count, correct_actions, last_activity)
+            SELECT user_id, COUNT(*), COUNT(*) FILTER (WHERE completed), SUM(hints_used),
+                SUM(actions_count), SUM(correct_actions), MAX(COALESCE(end_time, start_time))
+            FROM student_sessions
+            GROUP BY user_id
+            ON CONFLICT (user_id) DO UPDATE SET
+                total_sessions = EXCLUDED.total_sessions,
+                completed_sessions = EXCLUDED.completed_sessions,
+                hints_used = EXCLUDED.hints_used,
+                actions_count = EXCLUDED.actions_count,
+                correct_actions = EXCLUDED.correct_actions,
+                last_activity = EXCLUDED.last_activity
+            """;
+
+    private static final String DELETE_ORPHANS = """
+            DELETE FROM user_progress p
+            WHERE NOT EXISTS (SELECT 1 FROM student_sessions s WHERE s.user_id = p.user_id)
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Backfills the aggregates for databases that already contain sessions.
+     */
+    @Transactional
+    void onStart(@Observes final StartupEvent event) {
+        if (UserProgressEntity.count() == 0 && StudentSessionEntity.count() > 0) {
+            LOG.info("user_progress is empty, rebuilding from student_sessions");
+            this.rebuild();
+        }
+    }
+
+    @Transactional
+    public void recordSessionStarted(final Long userId, final LocalDateTime at) {
+        this.applyDelta(userId, 1, 0, 0, 0, 0, at);
+    }
+
+    @Transactional
+    public void recordAction(final Long userId, final boolean correct, final LocalDateTime at) {
+        this.applyDelta(userId, 0, 0, 0, 1, correct ? 1 : 0, at);
+    }
+
+    @Transactional
+    public void recordHintUsed(final Long userId, final LocalDateTime at) {
+        this.applyDelta(userId, 0, 0, 1, 0, 0, at);
+    }
+
+    @Transactional
+    public void recordSessionCompleted(final Long userId, final LocalDateTime at) {
+        this.applyDelta(userId, 0, 1, 0, 0, 0, at);
+    }
+
+    @Scheduled(every = "${analytics.progress.reconcile-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    void scheduledRebuild() {
+        try {
+            this.rebuild();
+        } catch (final Exception e) {
+            LOG.error("Error rebuilding user_progress", e);
+        }
+    }
+
+    /**
+     * Recomputes all aggregates from student_sessions. Used for the initial
+     * backfill and on a schedule to reconcile drift after bulk deletes (e.g.
+     * cascades from deleted exercises).
+     *
+     * @return number of users with progress rows
+     */
+    @Transactional
+    public int rebuild() {
+        final int updated = this.entityManager.createNativeQuery(REBUILD).executeUpdate();
+        final int removed = this.entityManager.createNativeQuery(DELETE_ORPHANS).executeUpdate();
+        LOG.info("Rebuilt user_progress: {} users updated, {} stale rows removed", updated, removed);
+        return updated;
+    }
+
+    private void applyDelta(
+            final Long userId,
+            final int sessions,
+            final int completed,
+            final int hints,
+            final int actions,
+            final int correct,
+            final LocalDateTime at) {
+        if (userId == null) {
+            return;
+        }
+        this.entityManager.createNativeQuery(UPSERT_DELTA)
+                .setParameter(1, userId)
+                .setParameter(2, sessions)
+                .setParameter(3, completed)
+                .setParameter(4, hints)
+                .setParameter(5, actions)
+                .setParameter(6, correct)
+                .setParameter(7, at)
+                .executeUpdate();
+    }
+}
@@ -3,13 +3,14 @@ package de.vptr.aimathtutor.service;
 import java.util.List;
 import java.util.Optional;
 
-import com.vaadin.flow.server.VaadinSession;
-
 import de.vptr.aimathtutor.dto.UserRankDto;
 import de.vptr.aimathtutor.dto.UserRankViewDto;
 import de.vptr.aimathtutor.entity.UserEntity;
 import de.vptr.aimathtutor.entity.UserRankEntity;
+import de.vptr.aimathtutor.event.UserRankChangedEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
@@ -17,26 +18,18 @@ import jakarta.ws.rs.core.Response;
 @ApplicationScoped
 public class UserRankService {
 
-    private static final String USERNAME_KEY = "authenticated.username";
-
-    @Transactional
-    public UserRankViewDto getCurrentUserRank() {
-        final var session = VaadinSession.getCurrent();
-        if (session == null) {
-            return null; // Return null instead of throwing when no session
-        }
-
-        final var username = (String) session.getAttribute(USERNAME_KEY);
-        if (username == null) {
-            return null; // Return null instead of throwing when not authenticated
-        }
+    @Inject
+    Event<UserRankChangedEvent> userRankChangedEvent;
 
-        final var user = UserEntity.<UserEntity>find("username = ?1", username).firstResult();
-        if (user == null || user.rank == null) {
-            return null; // Return null instead of throwing when user or rank not found
-        }
+    @Inject
+    CurrentUserService currentUserService;
 
-        return new UserRankViewDto(user.rank);
+    /**
+     * Returns the rank of the signed-in user from the session.
+     */
+    public UserRankViewDto getCurrentUserRank() {
+        final var currentUser = this.currentUserService.get();
+        return currentUser != null ? currentUser.getRank() : null; // null when not authenticated or without rank
     }
 
     @Transactional
@@ -132,6 +125,7 @@ public class UserRankService {
         existingRank.userRankEdit = rankDto.userRankEdit != null ? rankDto.userRankEdit : false;
 
         existingRank.persist();
+        this.userRankChangedEvent.fire(new UserRankChangedEvent(existingRank.id));
         return new UserRankViewDto(existingRank);
     }
 
@@ -185,6 +179,7 @@ public class UserRankService {
             existingRank.userRankEdit = rankDto.userRankEdit;
 
         existingRank.persist();
+        this.userRankChangedEvent.fire(new UserRankChangedEvent(existingRank.id));
         return new UserRankViewDto(existingRank);
     }
 
@@ -204,6 +199,10 @@ public class UserRankService {
                     Response.Status.CONFLICT);
         }
 
-        return UserRankEntity.deleteById(id);
+        final boolean deleted = UserRankEntity.deleteById(id);
+        if (deleted) {
+            this.userRankChangedEvent.fire(new UserRankChangedEvent(id));
+        }
+        return deleted;
     }
 }
@@ -5,13 +5,19 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import de.vptr.aimathtutor.dto.UserDto;
 import de.vptr.aimathtutor.dto.UserViewDto;
 import de.vptr.aimathtutor.entity.UserEntity;
 import de.vptr.aimathtutor.entity.UserRankEntity;
+import de.vptr.aimathtutor.event.UserChangedEvent;
 import de.vptr.aimathtutor.security.PasswordHashingService;
+import de.vptr.aimathtutor.util.SearchPatternUtil;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import jakarta.ws.rs.WebApplicationException;
@@ -20,9 +26,25 @@ import jakarta.ws.rs.core.Response;
 @ApplicationScoped
 public class UserService {
 
+    private static final String SEARCH_SQL = """
+            SELECT u.* FROM users u
+            WHERE u.username ILIKE ?1 OR u.email ILIKE ?1
+            ORDER BY GREATEST(similarity(u.username, ?2), COALESCE(similarity(u.email, ?2), 0)) DESC, u.id DESC
+            LIMIT ?3
+            """;
+
     @Inject
     PasswordHashingService passwordHashingService;
 
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<UserChangedEvent> userChangedEvent;
+
+    @ConfigProperty(name = "search.max-results", defaultValue = "100")
+    int searchMaxResults;
+
     @Transactional
     public List<UserViewDto> getAllUsers() {
         return UserEntity.find("ORDER BY id DESC").list().stream()
@@ -186,6 +208,7 @@ public class UserService {
         }
 
         existingUser.persist();
+        this.userChangedEvent.fire(new UserChangedEvent(existingUser.id));
         return new UserViewDto(existingUser);
     }
 
@@ -253,12 +276,17 @@ public class UserService {
         }
 
         existingUser.persist();
+        this.userChangedEvent.fire(new UserChangedEvent(existingUser.id));
         return new UserViewDto(existingUser);
     }
 
     @Transactional
     public boolean deleteUser(final Long id) {
-        return UserEntity.deleteById(id);
+        final boolean deleted = UserEntity.deleteById(id);
+        if (deleted) {
+            this.userChangedEvent.fire(new UserChangedEvent(id));
+        }
+        return deleted;
     }
 
     public List<UserViewDto> findActiveUsers() {
@@ -272,10 +300,13 @@ public class UserService {
         if (query == null || query.trim().isEmpty()) {
             return this.getAllUsers();
         }
-        final var searchTerm = "%" + query.trim().toLowerCase() + "%";
-        final List<UserEntity> users = UserEntity.find(
-                "LOWER(username) LIKE ?1 OR LOWER(email) LIKE ?1 ORDER BY id DESC",
-                searchTerm).list();
+        final var term = query.trim();
+        @SuppressWarnings("unchecked")
+        final List<UserEntity> users = this.entityManager.createNativeQuery(SEARCH_SQL, UserEntity.class)
+                .setParameter(1, SearchPatternUtil.toContainsPattern(term))
+                .setParameter(2, term)
+                .setParameter(3, this.searchMaxResults)
+                .getResultList();
         return users.stream()
                 .map(UserViewDto::new)
                 .toList();
@@ -367,6 +398,7 @@ public class UserService {
         user.userAvatarEmoji = userEmoji;
         user.tutorAvatarEmoji = tutorEmoji;
         user.persist();
+        this.userChangedEvent.fire(new UserChangedEvent(user.id));
     }
 
     /**
@@ -0,0 +1,179 @@
+package de.vptr.aimathtutor.util;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import de.vptr.aimathtutor.dto.CatalogImportRowDto;
+import de.vptr.aimathtutor.dto.CatalogImportRowDto.Type;
+
+/**
+ * Utility class for the catalog import and export: the shared column layout,
+ * row validation and expression canonicalization. All methods are stateless
+ * and safe to call from parallel streams.
+ */
+public class CatalogImportUtil {
+
+    /**
+     * Columns of a catalog file. Lessons use "title" for their name and leave
+     * the exercise columns empty; "parent_ref" is the parent lesson of a
+     * lesson or the lesson of an exercise.
+     */
+    public static final String[] COLUMNS = {
+            "type", "ref", "parent_ref", "title", "content", "published", "commentable", "graspable_enabled",
+            "graspable_initial_expression", "graspable_target_expression", "graspable_difficulty",
+            "graspable_hints" };
+
+    public static final Set<String> DIFFICULTIES = Set.of("beginner", "intermediate", "advanced", "expert");
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final Pattern EXPRESSION_PATTERN = Pattern.compile("[\\p{Alnum}\\s+\\-*/^=().,<>!|_\\[\\]{}]*");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // A single "=", not part of "<=", ">=", "!=" or "=="
+    private static final Pattern EQUALS = Pattern.compile("\\s*(?<![<>!=])=(?!=)\\s*");
+
+    private CatalogImportUtil() {
+    }
+
+    /**
+     * Validates and canonicalizes one parsed row.
+     *
+     * @return the row, with {@link CatalogImportRowDto#error} set if it is
+     *         invalid
+     */
+    public static CatalogImportRowDto validate(final ImportReader.Row source) {
+        if (!source.isValid()) {
+            return CatalogImportRowDto.invalid(source.line, source.error);
+        }
+        final var row = new CatalogImportRowDto(source.line);
+        try {
+            final String type = trimToNull(source.get("type"));
+            if (type == null) {
+                throw new IllegalArgumentException("Missing type");
+            }
+            row.type = switch (type.toLowerCase(Locale.ROOT)) {
+                case "lesson" -> Type.LESSON;
+                case "exercise" -> Type.EXERCISE;
+                default -> throw new IllegalArgumentException("Unknown type '" + type + "'");
+            };
+            row.ref = trimToNull(source.get("ref"));
+            row.parentRef = trimToNull(source.get("parent_ref"));
+            row.title = trimToNull(source.get("title"));
+            if (row.title == null) {
+                throw new IllegalArgumentException(row.type == Type.LESSON ? "Missing lesson name" : "Missing title");
+            }
+            if (row.title.length() > MAX_TITLE_LENGTH) {
+                throw new IllegalArgumentException("Title longer than " + MAX_TITLE_LENGTH + " characters");
+            }
+            if (row.type == Type.LESSON) {
+                return row;
+            }
+
+            row.content = trimToNull(source.get("content"));
+            if (row.content == null) {
+                throw new IllegalArgumentException("Missing content");
+            }
+            row.published = parseBoolean(source.get("published"), "published");
+            row.commentable = parseBoolean(source.get("commentable"), "commentable");
+            row.graspableEnabled = parseBoolean(source.get("graspable_enabled"), "graspable_enabled");
+            row.graspableInitialExpression = canonicalizeExpression(source.get("graspable_initial_expression"));
+            row.graspableTargetExpression = canonicalizeExpression(source.get("graspable_target_expression"));
+            if (row.graspableEnabled && row.graspableTargetExpression == null) {
+                throw new IllegalArgumentException("Graspable Math exercises need a target expression");
+            }
+            final String difficulty = trimToNull(source.get("graspable_difficulty"));
+            if (difficulty != null) {
+                row.graspableDifficulty = difficulty.toLowerCase(Locale.ROOT);
+                if (!DIFFICULTIES.contains(row.graspableDifficulty)) {
+                    throw new IllegalArgumentException("Unknown difficulty '" + difficulty + "'");
+                }
+            }
+            row.graspableHints = trimToNull(source.get("graspable_hints"));
+            return row;
+        } catch (final IllegalArgumentException e) {
+            return CatalogImportRowDto.invalid(source.line, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the lesson ref a row declares, whether or not the row is valid.
+     *
+     * @return the trimmed ref or null if there is none or the row could not
+     *         be parsed
+     */
+    public static String declaredRef(final ImportReader.Row source) {
+        return source.isValid() ? trimToNull(source.get("ref")) : null;
+    }
+
+    /**
+     * Brings an expression into the form the editor produces: typographic
+     * operators replaced by their ASCII forms, "**" written as "^", single
+     * spaces, no spaces inside parentheses and one space around "=".
+     *
+     * @return the canonical expression or null if it is blank
+     * @throws IllegalArgumentException if the expression contains unsupported
+     *                                  characters or unbalanced parentheses
+     */
+    public static String canonicalizeExpression(final String expression) {
+        if (expression == null || expression.isBlank()) {
+            return null;
+        }
+        // Minus sign, en dash, multiplication sign, dot operators, division sign, superscripts
+        String canonical = expression
+                .replace('\u2212', '-')
+                .replace('\u2013', '-')
+                .replace('\u00d7', '*')
+                .replace('\u22c5', '*')
+                .replace('\u00b7', '*')
+                .replace('\u00f7', '/')
+                .replace("\u00b2", "^2")
+                .replace("\u00b3", "^3")
+                .replace("**", "^");
+        if (!EXPRESSION_PATTERN.matcher(canonical).matches()) {
+            throw new IllegalArgumentException("Unsupported characters in expression '" + expression.trim() + "'");
+        }
+
+        int depth = 0;
+        for (int i = 0; i < canonical.length(); i++) {
+            final char c = canonical.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth < 0) {
+                break;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("Unbalanced parentheses in expression '" + expression.trim() + "'");
+        }
+
+        canonical = WHITESPACE.matcher(canonical.trim()).replaceAll(" ");
+        canonical = canonical.replace("( ", "(").replace(" )", ")");
+        return EQUALS.matcher(canonical).replaceAll(" = ");
+    }
+
+    /**
+     * Parses true/false, yes/no or 1/0. Empty values are false.
+     */
+    static boolean parseBoolean(final String value, final String column) {
+        final String text = trimToNull(value);
+        if (text == null) {
+            return false;
+        }
+        return switch (text.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid boolean '" + text + "' in " + column);
+        };
+    }
+
+    private static String trimToNull(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
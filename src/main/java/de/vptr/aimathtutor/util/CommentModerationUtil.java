@@ -0,0 +1,187 @@
+package de.vptr.aimathtutor.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.vptr.aimathtutor.dto.CommentVerdictDto;
+import de.vptr.aimathtutor.dto.CommentVerdictDto.Verdict;
+
+/**
+ * Utility class for the automatic comment moderation: builds one prompt for a
+ * batch of comments, reads the verdicts from the model's JSON answer and
+ * provides a keyword based fallback classifier.
+ */
+public class CommentModerationUtil {
+
+    // Whole words only, so "idiotic" or "oxymoron" do not match
+    private static final List<Pattern> INSULT_PATTERNS = compileAll(
+            "idiots?", "stupid", "morons?", "losers?", "dumbass", "retard(s|ed)?");
+
+    private static final List<Pattern> ABUSE_PATTERNS = compileAll(
+            "shut up", "hate you", "kill yourself", "fuck\\w*", "bitch\\w*", "assholes?");
+
+    // Students calling themselves names ("I feel so stupid") are not insulting anyone
+    private static final Pattern SELF_REFERENCE = Pattern.compile("\\b(i|i'm|im|me|myself)\\b");
+    private static final Pattern SECOND_PERSON = Pattern.compile("\\b(you|your|you're|youre|ur|u)\\b");
+    private static final Pattern SENTENCE_END = Pattern.compile("[.!?\\n]");
+
+    private static final Pattern LINK_PATTERN = Pattern.compile("(https?://|www\\.)\\S+");
+
+    private static final int MAX_PROMPT_COMMENT_LENGTH = 500;
+
+    private CommentModerationUtil() {
+    }
+
+    /**
+     * Builds one classification prompt for a batch of comments. The answer is
+     * requested as a JSON object so it also works with OpenAI's JSON mode.
+     *
+     * @param contents comment contents by comment id
+     * @param topics   exercise title by comment id, may miss entries
+     */
+    public static String buildPrompt(final Map<Long, String> contents, final Map<Long, String> topics) {
+        final var prompt = new StringBuilder();
+        prompt.append("You moderate the comment section of a math learning platform for students.\n")
+                .append("Classify every comment below as one of:\n")
+                .append("- OK: on topic or harmless (questions, hints, thanks, short reactions)\n")
+                .append("- OFF_TOPIC: spam, advertising or unrelated to the exercise\n")
+                .append("- TOXIC: insults, harassment, hate or sexual content\n\n")
+                .append("Comments:\n");
+        contents.forEach((id, content) -> {
+            prompt.append("[id=").append(id);
+            final String topic = topics.get(id);
+            if (topic != null) {
+                prompt.append(", exercise=\"").append(topic).append('"');
+            }
+            prompt.append("] ").append(truncate(content)).append('\n');
+        });
+        prompt.append("\nRespond ONLY with JSON in this format:\n")
+                .append("{\"verdicts\": [{\"id\": 1, \"verdict\": \"OK\", \"confidence\": 0.9}]}\n");
+        return prompt.toString();
+    }
+
+    /**
+     * Reads the verdicts from a model answer. Accepts a bare array or an
+     * object with a "verdicts" array, optionally wrapped in a markdown code
+     * fence. Unknown ids and malformed entries are skipped.
+     *
+     * @return verdicts by comment id, only for ids contained in {@code contents}
+     */
+    public static Map<Long, CommentVerdictDto> parseVerdicts(final String response, final Map<Long, ?> contents,
+            final ObjectMapper objectMapper) {
+        final Map<Long, CommentVerdictDto> verdicts = new LinkedHashMap<>();
+        if (response == null || response.isBlank()) {
+            return verdicts;
+        }
+
+        String json = response.trim();
+        if (json.startsWith("```json")) {
+            json = json.substring(7);
+        }
+        if (json.startsWith("```")) {
+            json = json.substring(3);
+        }
+        if (json.endsWith("```")) {
+            json = json.substring(0, json.length() - 3);
+        }
+
+        final JsonNode root;
+        try {
+            root = objectMapper.readTree(json.trim());
+        } catch (final Exception e) {
+            return verdicts;
+        }
+        final JsonNode entries = root != null && root.isObject() ? root.path("verdicts") : root;
+        if (entries == null || !entries.isArray()) {
+            return verdicts;
+        }
+
+        for (final JsonNode entry : entries) {
+            if (!entry.path("id").canConvertToLong()) {
+                continue;
+            }
+            final Long id = entry.path("id").asLong();
+            final Verdict verdict = parseVerdict(entry.path("verdict").asText(null));
+            if (!contents.containsKey(id) || verdict == null) {
+                continue;
+            }
+            verdicts.put(id, new CommentVerdictDto(id, verdict, entry.path("confidence").asDouble(0.5)));
+        }
+        return verdicts;
+    }
+
+    /**
+     * Keyword based classifier, used for the mock provider and whenever the
+     * model is unavailable or skipped a comment.
+     */
+    public static CommentVerdictDto classifyLocally(final Long commentId, final String content) {
+        if (content == null || content.isBlank()) {
+            return CommentVerdictDto.ok(commentId);
+        }
+        final String text = content.toLowerCase(Locale.ROOT);
+
+        final long abusiveTerms = ABUSE_PATTERNS.stream().filter(pattern -> pattern.matcher(text).find()).count()
+                + INSULT_PATTERNS.stream().filter(pattern -> containsInsult(text, pattern)).count();
+        if (abusiveTerms > 0) {
+            return new CommentVerdictDto(commentId, Verdict.TOXIC, abusiveTerms > 1 ? 0.95 : 0.6);
+        }
+
+        final long links = LINK_PATTERN.matcher(text).results().count();
+        if (links >= 2) {
+            return new CommentVerdictDto(commentId, Verdict.OFF_TOPIC, 0.7);
+        }
+        return CommentVerdictDto.ok(commentId);
+    }
+
+    /**
+     * Whether the insult occurs at least once outside of a self-referential
+     * sentence, i.e. one with "I" or "me" before it and no "you".
+     */
+    private static boolean containsInsult(final String text, final Pattern pattern) {
+        final var matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            final String sentence = text.substring(sentenceStart(text, matcher.start()), matcher.start());
+            if (!SELF_REFERENCE.matcher(sentence).find() || SECOND_PERSON.matcher(sentence).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int sentenceStart(final String text, final int end) {
+        final var matcher = SENTENCE_END.matcher(text).region(0, end);
+        int start = 0;
+        while (matcher.find()) {
+            start = matcher.end();
+        }
+        return start;
+    }
+
+    private static List<Pattern> compileAll(final String... terms) {
+        return Arrays.stream(terms).map(term -> Pattern.compile("\\b" + term + "\\b")).toList();
+    }
+
+    private static Verdict parseVerdict(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Verdict.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_'));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(final String content) {
+        final String singleLine = content == null ? "" : content.replaceAll("\\s+", " ").trim();
+        return singleLine.length() <= MAX_PROMPT_COMMENT_LENGTH ? singleLine
+                : singleLine.substring(0, MAX_PROMPT_COMMENT_LENGTH) + "...";
+    }
+}
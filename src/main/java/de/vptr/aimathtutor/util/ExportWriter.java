@@ -0,0 +1,131 @@
+package de.vptr.aimathtutor.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Row-by-row writer for tabular exports. Rows are written directly to the
+ * underlying writer, nothing is buffered beyond a single row.
+ */
+public abstract class ExportWriter implements AutoCloseable {
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        JSONL("jsonl", "application/x-ndjson");
+
+        public final String extension;
+        public final String contentType;
+
+        Format(final String extension, final String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+    }
+
+    protected final Writer writer;
+    protected final String[] columns;
+
+    protected ExportWriter(final Writer writer, final String[] columns) {
+        this.writer = writer;
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Creates a writer for the given format. CSV writers emit the header row
+     * immediately.
+     */
+    public static ExportWriter create(final Format format, final Writer writer, final String... columns)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter(writer, columns);
+            case JSONL -> new JsonLinesWriter(writer, columns);
+        };
+    }
+
+    /**
+     * Writes one row, values must be in column order.
+     */
+    public abstract void writeRow(Object[] values) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        this.writer.flush();
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+
+        CsvWriter(final Writer writer, final String[] columns) throws IOException {
+            super(writer, columns);
+            this.writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(final Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    this.writer.write(',');
+                }
+                if (values[i] != null) {
+                    this.writer.write(escape(values[i].toString()));
+                }
+            }
+            this.writer.write("\r\n");
+        }
+
+        static String escape(final String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class JsonLinesWriter extends ExportWriter {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+
+        JsonLinesWriter(final Writer writer, final String[] columns) throws IOException {
+            super(writer, columns);
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Flushing per row must not flush (and break up) the compressed stream
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeRow(final Object[] values) throws IOException {
+            this.generator.writeStartObject();
+            for (int i = 0; i < this.columns.length; i++) {
+                this.generator.writeFieldName(this.columns[i]);
+                final Object value = values[i];
+                if (value == null) {
+                    this.generator.writeNull();
+                } else if (value instanceof final Boolean bool) {
+                    this.generator.writeBoolean(bool);
+                } else if (value instanceof Double || value instanceof Float) {
+                    this.generator.writeNumber(((Number) value).doubleValue());
+                } else if (value instanceof final Number number) {
+                    this.generator.writeNumber(number.longValue());
+                } else {
+                    this.generator.writeString(value.toString());
+                }
+            }
+            this.generator.writeEndObject();
+            this.generator.flush();
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.generator.close();
+            super.close();
+        }
+    }
+}
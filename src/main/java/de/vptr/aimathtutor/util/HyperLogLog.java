@@ -0,0 +1,263 @@
+package de.vptr.aimathtutor.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch for counting distinct ids in constant memory.
+ * With precision p the sketch uses 2^p one-byte registers and has a standard
+ * error of about 1.04 / sqrt(2^p), e.g. 0.8% for p = 14. Sketches of the same
+ * precision merge by taking the register-wise maximum, which is idempotent, so
+ * merging the same data twice does not inflate the count.
+ * <p>
+ * Small sketches are kept sparse: only the non-zero registers are stored, as
+ * sorted (index, rank) entries of four bytes each, and the sketch turns dense
+ * once that would take more space than the registers. Sketches of the few
+ * dozen users of one exercise and day thus take a few hundred bytes.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    // Set on the precision byte of sparse encodings
+    private static final int SPARSE_FLAG = 0x80;
+
+    private final int precision;
+
+    // Dense registers, null while sparse
+    private byte[] registers;
+
+    // Sparse entries (index << 8 | rank) sorted by index, null when dense
+    private int[] entries;
+    private int entryCount;
+
+    public HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.entries = new int[8];
+    }
+
+    private HyperLogLog(final int precision, final byte[] registers, final int[] entries, final int entryCount) {
+        this.precision = precision;
+        this.registers = registers;
+        this.entries = entries;
+        this.entryCount = entryCount;
+    }
+
+    public int getPrecision() {
+        return this.precision;
+    }
+
+    public boolean isSparse() {
+        return this.registers == null;
+    }
+
+    /**
+     * Adds an id to the sketch.
+     *
+     * @return true if a register changed
+     */
+    public boolean add(final long id) {
+        final long hash = mix(id);
+        final int index = (int) (hash >>> (64 - this.precision));
+        // Guard bit keeps the rank bounded when the remaining bits are all zero
+        final long remaining = (hash << this.precision) | (1L << (this.precision - 1));
+        return this.update(index, Long.numberOfLeadingZeros(remaining) + 1);
+    }
+
+    /**
+     * Raises a register to the rank if it is lower.
+     *
+     * @return true if the register changed
+     */
+    private boolean update(final int index, final int rank) {
+        if (this.registers != null) {
+            if (rank > this.registers[index]) {
+                this.registers[index] = (byte) rank;
+                return true;
+            }
+            return false;
+        }
+        final int position = this.findEntry(index);
+        if (position >= 0) {
+            if (rank > (this.entries[position] & 0xFF)) {
+                this.entries[position] = index << 8 | rank;
+                return true;
+            }
+            return false;
+        }
+        final int insertAt = -(position + 1);
+        if (this.entryCount == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, this.entries.length * 2);
+        }
+        System.arraycopy(this.entries, insertAt, this.entries, insertAt + 1, this.entryCount - insertAt);
+        this.entries[insertAt] = index << 8 | rank;
+        this.entryCount++;
+        // Four bytes per entry against one per register
+        if (this.entryCount > (1 << this.precision) / 4) {
+            this.toDense();
+        }
+        return true;
+    }
+
+    /**
+     * @return the entry position, or -(insertion point + 1) if absent
+     */
+    private int findEntry(final int index) {
+        int low = 0;
+        int high = this.entryCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midIndex = this.entries[mid] >>> 8;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void toDense() {
+        final var dense = new byte[1 << this.precision];
+        for (int i = 0; i < this.entryCount; i++) {
+            dense[this.entries[i] >>> 8] = (byte) (this.entries[i] & 0xFF);
+        }
+        this.registers = dense;
+        this.entries = null;
+        this.entryCount = 0;
+    }
+
+    /**
+     * Merges the other sketch into this one.
+     */
+    public void merge(final HyperLogLog other) {
+        if (other.precision != this.precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with precision " + this.precision + " and "
+                    + other.precision);
+        }
+        if (other.registers == null) {
+            for (int i = 0; i < other.entryCount; i++) {
+                this.update(other.entries[i] >>> 8, other.entries[i] & 0xFF);
+            }
+            return;
+        }
+        if (this.registers == null) {
+            this.toDense();
+        }
+        for (int i = 0; i < this.registers.length; i++) {
+            if (other.registers[i] > this.registers[i]) {
+                this.registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct ids
+     */
+    public long estimate() {
+        final int m = 1 << this.precision;
+        double sum = 0;
+        int zeros = 0;
+        if (this.registers != null) {
+            for (final byte register : this.registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = m - this.entryCount;
+            sum = zeros;
+            for (int i = 0; i < this.entryCount; i++) {
+                sum += 1.0 / (1L << (this.entries[i] & 0xFF));
+            }
+        }
+        final double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        final double estimate = alpha * m * m / sum;
+        // Linear counting is more accurate for small cardinalities
+        if (estimate <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    public HyperLogLog copy() {
+        return this.registers != null
+                ? new HyperLogLog(this.precision, this.registers.clone(), null, 0)
+                : new HyperLogLog(this.precision, null, this.entries.clone(), this.entryCount);
+    }
+
+    /**
+     * Serializes the sketch as one precision byte followed by the registers,
+     * or for sparse sketches the flagged precision byte followed by the
+     * entries as four-byte big-endian integers.
+     */
+    public byte[] toBytes() {
+        if (this.registers == null) {
+            final var buffer = ByteBuffer.allocate(1 + 4 * this.entryCount);
+            buffer.put((byte) (this.precision | SPARSE_FLAG));
+            for (int i = 0; i < this.entryCount; i++) {
+                buffer.putInt(this.entries[i]);
+            }
+            return buffer.array();
+        }
+        final var bytes = new byte[this.registers.length + 1];
+        bytes[0] = (byte) this.precision;
+        System.arraycopy(this.registers, 0, bytes, 1, this.registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(final byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Invalid HyperLogLog encoding");
+        }
+        final int precision = bytes[0] & ~SPARSE_FLAG & 0xFF;
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid HyperLogLog encoding");
+        }
+        if ((bytes[0] & SPARSE_FLAG) == 0) {
+            if (bytes.length != (1 << precision) + 1) {
+                throw new IllegalArgumentException("Invalid HyperLogLog encoding");
+            }
+            return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length), null, 0);
+        }
+        if ((bytes.length - 1) % 4 != 0) {
+            throw new IllegalArgumentException("Invalid HyperLogLog encoding");
+        }
+        // Re-added one by one, so unsorted or oversized input is normalized
+        final var sketch = new HyperLogLog(precision);
+        final var buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        while (buffer.hasRemaining()) {
+            final int entry = buffer.getInt();
+            if (entry >>> 8 >= 1 << precision) {
+                throw new IllegalArgumentException("Invalid HyperLogLog encoding");
+            }
+            sketch.update(entry >>> 8, entry & 0xFF);
+        }
+        return sketch;
+    }
+
+    /**
+     * SplitMix64 finalizer, spreads sequential ids over all 64 bits.
+     */
+    private static long mix(final long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
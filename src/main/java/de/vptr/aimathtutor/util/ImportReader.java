@@ -0,0 +1,232 @@
+package de.vptr.aimathtutor.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Row-by-row reader for tabular imports, the counterpart of
+ * {@link ExportWriter}. Only the current row is held in memory. Malformed
+ * rows are returned with an error instead of aborting the import.
+ */
+public abstract class ImportReader implements AutoCloseable {
+
+    /**
+     * One parsed row. Values are keyed by column name, empty values are null.
+     */
+    public static final class Row {
+        public final long line;
+        public final Map<String, String> values;
+        public final String error;
+
+        Row(final long line, final Map<String, String> values, final String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+
+        public String get(final String column) {
+            return this.values.get(column);
+        }
+
+        public boolean isValid() {
+            return this.error == null;
+        }
+    }
+
+    protected final BufferedReader reader;
+
+    protected ImportReader(final Reader reader) {
+        this.reader = reader instanceof final BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Creates a reader for the given format. CSV readers expect a header row.
+     */
+    public static ImportReader create(final ExportWriter.Format format, final Reader reader) {
+        return switch (format) {
+            case CSV -> new CsvReader(reader);
+            case JSONL -> new JsonLinesReader(reader);
+        };
+    }
+
+    /**
+     * Determines the format from a file name such as "catalog.csv.gz".
+     *
+     * @return the format or null if the extension is unknown
+     */
+    public static ExportWriter.Format formatOf(final String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".csv")) {
+            return ExportWriter.Format.CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return ExportWriter.Format.JSONL;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the row or null at the end of the input
+     */
+    public abstract Row next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private static final class CsvReader extends ImportReader {
+
+        private List<String> header;
+        private long line = 1;
+
+        CsvReader(final Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (this.header == null) {
+                final List<String> names = this.readRecord();
+                if (names == null) {
+                    return null;
+                }
+                this.header = names.stream().map(name -> name == null ? "" : name.trim()).toList();
+            }
+
+            List<String> fields;
+            long start;
+            do {
+                start = this.line;
+                fields = this.readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0) == null);
+
+            if (fields.size() != this.header.size()) {
+                return new Row(start, Map.of(), "Expected " + this.header.size() + " columns but found "
+                        + fields.size());
+            }
+            final Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(this.header.get(i), fields.get(i));
+            }
+            return new Row(start, Collections.unmodifiableMap(values), null);
+        }
+
+        /**
+         * Reads one RFC 4180 record, quoted fields may span lines.
+         *
+         * @return the fields, empty fields as null, or null at the end of the
+         *         input
+         */
+        private List<String> readRecord() throws IOException {
+            int c = this.reader.read();
+            if (c < 0) {
+                return null;
+            }
+            final List<String> fields = new ArrayList<>();
+            final var field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (c < 0) {
+                    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                    return fields;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        this.reader.mark(1);
+                        final int next = this.reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            this.reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            this.line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\n') {
+                    this.line++;
+                    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = this.reader.read();
+            }
+        }
+    }
+
+    private static final class JsonLinesReader extends ImportReader {
+
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+        private long line;
+
+        JsonLinesReader(final Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = this.reader.readLine();
+                if (text == null) {
+                    return null;
+                }
+                this.line++;
+            } while (text.isBlank());
+
+            final JsonNode node;
+            try {
+                node = OBJECT_MAPPER.readTree(text);
+            } catch (final JsonProcessingException e) {
+                return new Row(this.line, Map.of(), "Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (node == null || !node.isObject()) {
+                return new Row(this.line, Map.of(), "Expected a JSON object");
+            }
+
+            final Map<String, String> values = new LinkedHashMap<>();
+            node.properties().forEach(entry -> {
+                final JsonNode value = entry.getValue();
+                values.put(entry.getKey(), value.isNull() ? null
+                        : value.isValueNode() ? value.asText() : value.toString());
+            });
+            return new Row(this.line, Collections.unmodifiableMap(values), null);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.vptr.aimathtutor.util;
+
+/**
+ * Utility class for the materialized lesson paths: the ids from the root down
+ * to a lesson, each followed by a slash (e.g. "/1/4/" for lesson 4 below
+ * lesson 1). The path statements of the lesson service and the import build
+ * paths by the same rules.
+ */
+public class LessonPathUtil {
+
+    public static final String ROOT = "/";
+
+    private LessonPathUtil() {
+    }
+
+    /**
+     * @param parentPath path of the parent, null for a root lesson
+     * @return the path of a lesson below the given parent
+     */
+    public static String childPath(final String parentPath, final long id) {
+        return (parentPath != null ? parentPath : ROOT) + id + "/";
+    }
+
+    /**
+     * Builds a LIKE pattern matching a path and all paths below it. Paths only
+     * contain digits and slashes, so nothing needs escaping.
+     */
+    public static String subtreePattern(final String path) {
+        return path + "%";
+    }
+
+    /**
+     * @return whether the path is the ancestor path itself or lies below it
+     */
+    public static boolean isInSubtree(final String path, final String ancestorPath) {
+        return path.startsWith(ancestorPath);
+    }
+}
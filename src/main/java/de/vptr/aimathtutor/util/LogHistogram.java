@@ -0,0 +1,164 @@
+package de.vptr.aimathtutor.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact, mergeable histogram with log-linear buckets (HdrHistogram layout).
+ * Values below 32 are counted exactly, above that every power of two is split
+ * into 32 linear sub-buckets, which bounds the relative error of a reported
+ * percentile to about 1.6%. The bucket array only grows up to the highest
+ * recorded value.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+public final class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private long[] counts = new long[0];
+    private long totalCount;
+
+    public LogHistogram() {
+    }
+
+    private LogHistogram(final long[] counts, final long totalCount) {
+        this.counts = counts;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Records a value, negative values count as 0 and values above
+     * {@link #MAX_VALUE} are clamped.
+     */
+    public void record(final long value) {
+        this.record(value, 1);
+    }
+
+    public void record(final long value, final long count) {
+        if (count <= 0) {
+            return;
+        }
+        final int index = indexFor(Math.min(Math.max(value, 0), MAX_VALUE));
+        this.ensureCapacity(index + 1);
+        this.counts[index] += count;
+        this.totalCount += count;
+    }
+
+    /**
+     * Adds all counts of the other histogram to this one.
+     */
+    public void merge(final LogHistogram other) {
+        if (other == null || other.totalCount == 0) {
+            return;
+        }
+        this.ensureCapacity(other.counts.length);
+        for (int i = 0; i < other.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return a value equivalent to the given percentile, or 0 if empty
+     */
+    public long valueAtPercentile(final double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        final double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+        final long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * this.totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            cumulative += this.counts[i];
+            if (cumulative >= target) {
+                return medianEquivalentValue(i);
+            }
+        }
+        return medianEquivalentValue(this.counts.length - 1);
+    }
+
+    public LogHistogram copy() {
+        return new LogHistogram(this.counts.clone(), this.totalCount);
+    }
+
+    /**
+     * Serializes the non-empty buckets as (index, count) pairs.
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (final long count : this.counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        final var buffer = ByteBuffer.allocate(Integer.BYTES + nonEmpty * (Integer.BYTES + Long.BYTES));
+        buffer.putInt(nonEmpty);
+        for (int i = 0; i < this.counts.length; i++) {
+            if (this.counts[i] != 0) {
+                buffer.putInt(i).putLong(this.counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static LogHistogram fromBytes(final byte[] bytes) {
+        final var histogram = new LogHistogram();
+        if (bytes == null || bytes.length == 0) {
+            return histogram;
+        }
+        final var buffer = ByteBuffer.wrap(bytes);
+        final int nonEmpty = buffer.getInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            final int index = buffer.getInt();
+            final long count = buffer.getLong();
+            histogram.ensureCapacity(index + 1);
+            histogram.counts[index] += count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+
+    static int indexFor(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    static long medianEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        return lowestEquivalentValue(index) + ((1L << shift) >> 1);
+    }
+
+    private void ensureCapacity(final int length) {
+        if (this.counts.length < length) {
+            // Grow by whole octaves to avoid resizing on every new maximum
+            final int rounded = ((length + SUB_BUCKET_COUNT - 1) / SUB_BUCKET_COUNT) * SUB_BUCKET_COUNT;
+            this.counts = Arrays.copyOf(this.counts, rounded);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.vptr.aimathtutor.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for building LIKE/ILIKE patterns from user input and for
+ * reading highlighted full-text search snippets.
+ * Wildcards typed by the user are matched literally, so a search for "50%"
+ * does not turn into a prefix scan.
+ */
+public class SearchPatternUtil {
+
+    /**
+     * Private use characters mark matches in ts_headline output, so snippets
+     * can be rendered as text without trusting HTML from user content.
+     */
+    public static final char HIGHLIGHT_START = '\uE000';
+    public static final char HIGHLIGHT_END = '\uE001';
+
+    /**
+     * Options for ts_headline: up to two short fragments around the matches.
+     */
+    public static final String HEADLINE_OPTIONS = "StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_END
+            + ", MaxWords=25, MinWords=8, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    private SearchPatternUtil() {
+    }
+
+    /**
+     * Builds a "contains" pattern for ILIKE, escaping backslash, % and _ with
+     * the default LIKE escape character.
+     */
+    public static String toContainsPattern(final String term) {
+        final var pattern = new StringBuilder(term.length() + 2).append('%');
+        for (int i = 0; i < term.length(); i++) {
+            final char c = term.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Splits a ts_headline snippet into alternating plain and highlighted
+     * segments. Even indexes are plain text, odd indexes are matches.
+     */
+    public static List<String> splitHighlights(final String snippet) {
+        final List<String> segments = new ArrayList<>();
+        final var current = new StringBuilder();
+        for (int i = 0; i < snippet.length(); i++) {
+            final char c = snippet.charAt(i);
+            final boolean inMatch = segments.size() % 2 == 1;
+            if ((c == HIGHLIGHT_START && !inMatch) || (c == HIGHLIGHT_END && inMatch)) {
+                segments.add(current.toString());
+                current.setLength(0);
+            } else if (c != HIGHLIGHT_START && c != HIGHLIGHT_END) {
+                current.append(c);
+            }
+        }
+        segments.add(current.toString());
+        return segments;
+    }
+}
@@ -0,0 +1,63 @@
+package de.vptr.aimathtutor.util;
+
+import java.time.Duration;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens that refill evenly over
+ * {@code period}. Implemented as a generic cell rate algorithm on integer
+ * nanoseconds (only the theoretical arrival time is stored), so refills are
+ * exact and the bucket needs no background timer.
+ * Not thread-safe; callers synchronize. Times are {@link System#nanoTime()}
+ * values and are only compared by difference.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final long intervalNanos;
+    private long theoreticalArrival;
+
+    /**
+     * @param used tokens already spent within the last period, e.g. counted
+     *             from persisted history after a restart
+     */
+    public TokenBucket(final long capacity, final Duration period, final long used, final long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.theoreticalArrival = nowNanos + Math.min(Math.max(used, 0), capacity) * this.intervalNanos;
+    }
+
+    public boolean hasToken(final long nowNanos) {
+        return nowNanos - (this.theoreticalArrival - (this.capacity - 1) * this.intervalNanos) >= 0;
+    }
+
+    /**
+     * Spends one token. Callers check {@link #hasToken(long)} first.
+     */
+    public void consume(final long nowNanos) {
+        final long start = this.theoreticalArrival - nowNanos > 0 ? this.theoreticalArrival : nowNanos;
+        this.theoreticalArrival = start + this.intervalNanos;
+    }
+
+    public boolean tryConsume(final long nowNanos) {
+        if (!this.hasToken(nowNanos)) {
+            return false;
+        }
+        this.consume(nowNanos);
+        return true;
+    }
+
+    public long available(final long nowNanos) {
+        final long backlog = Math.max(0, this.theoreticalArrival - nowNanos);
+        return this.capacity - (backlog + this.intervalNanos - 1) / this.intervalNanos;
+    }
+
+    /**
+     * A full bucket carries no state and can be dropped.
+     */
+    public boolean isFull(final long nowNanos) {
+        return this.theoreticalArrival - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,62 @@
+package de.vptr.aimathtutor.util;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utility class for the hourly and daily trend charts: aligns time ranges to
+ * the buckets written by the rollup job and fills buckets without rows, so
+ * charts show gaps as zero instead of skipping them.
+ */
+public class TrendBucketUtil {
+
+    private TrendBucketUtil() {
+    }
+
+    /**
+     * Returns the start of the bucket containing the time, matching
+     * PostgreSQL's date_trunc for hours and days.
+     */
+    public static LocalDateTime bucketStart(final LocalDateTime time, final ChronoUnit unit) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Returns the starts of all buckets overlapping [from, to): the first one
+     * contains {@code from}, the bucket starting exactly at {@code to} is
+     * excluded.
+     */
+    public static List<LocalDateTime> bucketStarts(final LocalDateTime from, final LocalDateTime to,
+            final ChronoUnit unit) {
+        final List<LocalDateTime> starts = new ArrayList<>();
+        for (var start = bucketStart(from, unit); start.isBefore(to); start = start.plus(1, unit)) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    /**
+     * Returns one point per bucket of [from, to) in order, using
+     * {@code empty} for buckets without a point. Points outside of the range
+     * are dropped.
+     */
+    public static <T> List<T> fill(final List<T> points, final Function<T, LocalDateTime> bucketOf,
+            final Function<LocalDateTime, T> empty, final LocalDateTime from, final LocalDateTime to,
+            final ChronoUnit unit) {
+        final Map<LocalDateTime, T> byBucket = new HashMap<>();
+        for (final T point : points) {
+            byBucket.put(bucketOf.apply(point), point);
+        }
+        final List<T> filled = new ArrayList<>();
+        for (final LocalDateTime start : bucketStarts(from, to, unit)) {
+            final T point = byBucket.get(start);
+            filled.add(point != null ? point : empty.apply(start));
+        }
+        return filled;
+    }
+}
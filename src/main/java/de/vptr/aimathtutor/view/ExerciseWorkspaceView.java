@@ -33,6 +33,7 @@ import de.vptr.aimathtutor.service.ExerciseService;
 import de.vptr.aimathtutor.service.GraspableMathService;
 import de.vptr.aimathtutor.util.NotificationUtil;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 
 /**
  * ExerciseWorkspaceView - Student-facing view for working on specific exercises
@@ -288,12 +289,12 @@ public class ExerciseWorkspaceView extends HorizontalLayout implements BeforeEnt
 
         // Right side: AI Chat panel with built-in styling (30%)
         // Get user's avatar settings
-        final var currentUserEntity = this.authService.getCurrentUserEntity();
-        final String userAvatar = currentUserEntity != null && currentUserEntity.userAvatarEmoji != null
-                ? currentUserEntity.userAvatarEmoji
+        final var currentUser = this.authService.getCurrentUser();
+        final String userAvatar = currentUser != null && currentUser.userAvatarEmoji != null
+                ? currentUser.userAvatarEmoji
                 : "🧒";
-        final String tutorAvatar = currentUserEntity != null && currentUserEntity.tutorAvatarEmoji != null
-                ? currentUserEntity.tutorAvatarEmoji
+        final String tutorAvatar = currentUser != null && currentUser.tutorAvatarEmoji != null
+                ? currentUser.tutorAvatarEmoji
                 : "🧑‍🏫";
         this.chatPanel = new AIChatPanel(this::handleUserQuestion, userAvatar, tutorAvatar);
 
@@ -476,6 +477,13 @@ public class ExerciseWorkspaceView extends HorizontalLayout implements BeforeEnt
      * Handles user questions from the chat panel.
      */
     private void handleUserQuestion(final String question) {
+        try {
+            this.aiTutorService.checkQuestionRateLimit(this.authService.getUserId());
+        } catch (final WebApplicationException e) {
+            NotificationUtil.showWarning(e.getMessage());
+            return;
+        }
+
         // Create and add user message to context
         final var userMessage = ChatMessageDto.userQuestion(question);
         userMessage.sessionId = this.currentSessionId;
@@ -1,25 +1,39 @@
 package de.vptr.aimathtutor.view;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.details.Details;
 import com.vaadin.flow.component.html.*;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteParameters;
 
+import de.vptr.aimathtutor.dto.CatalogSnapshotDto;
 import de.vptr.aimathtutor.dto.ExerciseViewDto;
 import de.vptr.aimathtutor.dto.LessonViewDto;
 import de.vptr.aimathtutor.service.AuthService;
+import de.vptr.aimathtutor.service.CatalogService;
 import de.vptr.aimathtutor.service.ExerciseService;
-import de.vptr.aimathtutor.service.LessonService;
+import de.vptr.aimathtutor.service.KnowledgeTracingService;
 import jakarta.inject.Inject;
 
+/**
+ * Student start page. Lessons are shown in a virtual list, so only the cards
+ * scrolled into view exist as components. A lesson's exercise cards are
+ * created when the lesson is expanded and discarded with the card when it
+ * scrolls out of view.
+ */
 @Route(value = "", layout = MainLayout.class)
 public class LessonsView extends VerticalLayout implements BeforeEnterObserver {
 
@@ -27,11 +41,29 @@ public class LessonsView extends VerticalLayout implements BeforeEnterObserver {
     AuthService authService;
 
     @Inject
-    LessonService lessonService;
+    CatalogService catalogService;
 
     @Inject
     ExerciseService exerciseService;
 
+    @Inject
+    KnowledgeTracingService knowledgeTracingService;
+
+    private static final int RECOMMENDATION_LIMIT = 3;
+
+    /**
+     * One entry of the virtual list: a lesson, or the standalone exercises if
+     * lessonId is null.
+     */
+    private record CatalogSection(Long lessonId, String name) {
+    }
+
+    // Shared snapshot the sections are rendered from, never modified
+    private CatalogSnapshotDto catalog;
+
+    // Expanded sections, kept so cards scrolled back into view stay expanded
+    private final Set<CatalogSection> expandedSections = new HashSet<>();
+
     public LessonsView() {
         this.setAlignItems(Alignment.START);
         this.setJustifyContentMode(JustifyContentMode.START);
@@ -47,6 +79,7 @@ public class LessonsView extends VerticalLayout implements BeforeEnterObserver {
 
     private void buildUI() {
         this.removeAll();
+        this.expandedSections.clear();
 
         // Welcome header
         final var welcomeLabel = new H2("Welcome, " + this.authService.getUsername() + "!");
@@ -54,51 +87,59 @@ public class LessonsView extends VerticalLayout implements BeforeEnterObserver {
 
         this.add(welcomeLabel);
 
-        // Get all lessons
-        final List<LessonViewDto> lessons = this.lessonService.getAllLessons();
-
-        // Also show standalone exercises (not in any lesson)
-        final List<ExerciseViewDto> standaloneExercises = this.exerciseService.findPublishedExercises().stream()
-                .filter(ex -> ex.lessonId == null)
-                .toList();
+        // Lessons and published exercises come from the shared in-memory catalog
+        this.catalog = this.catalogService.getSnapshot();
 
-        if (lessons.isEmpty() && standaloneExercises.isEmpty()) {
+        if (this.catalog.isEmpty()) {
             final var noLessonsMsg = new Paragraph("No lessons available yet. Check back soon!");
             noLessonsMsg.getStyle().set("color", "var(--lumo-secondary-text-color)");
             this.add(noLessonsMsg);
             return;
         }
 
-        // Display each lesson with its exercises
-        for (final LessonViewDto lesson : lessons) {
+        // Recommendations from the student's current skill mastery. Completed
+        // exercises are filtered by id, so only the recommended ones are copied.
+        final Set<Long> completedIds = this.exerciseService.getCompletedExerciseIds();
+        final List<ExerciseViewDto> candidates = this.catalog.publishedExercises.stream()
+                .filter(exercise -> !completedIds.contains(exercise.id))
+                .toList();
+        final List<ExerciseViewDto> recommended = this.exerciseService.withCompletionData(
+                this.knowledgeTracingService.recommendExercises(this.authService.getUserId(), candidates,
+                        RECOMMENDATION_LIMIT));
+        if (!recommended.isEmpty()) {
+            final var recommendedSection = new VerticalLayout();
+            recommendedSection.setSpacing(true);
+            recommendedSection.setPadding(false);
+            recommendedSection.setWidthFull();
+            recommendedSection.add(new H3("Recommended for You"));
+            recommendedSection.add(this.createExerciseGrid(recommended));
+            this.add(recommendedSection);
+        }
+
+        // Lessons with exercises, followed by the standalone exercises (not in any lesson)
+        final List<CatalogSection> sections = new ArrayList<>();
+        for (final LessonViewDto lesson : this.catalog.lessons) {
             if (lesson.exercisesCount > 0) {
-                this.add(this.createLessonCard(lesson));
+                sections.add(new CatalogSection(lesson.getId(), lesson.getName()));
             }
         }
+        if (!this.catalog.standaloneExercises.isEmpty()) {
+            sections.add(new CatalogSection(null, "Additional Exercises"));
+        }
 
-        if (!standaloneExercises.isEmpty()) {
-            final var standaloneSection = new VerticalLayout();
-            standaloneSection.setSpacing(true);
-            standaloneSection.setPadding(false);
-            standaloneSection.setWidthFull();
-
-            final var standaloneTitle = new H3("Additional Exercises");
-            standaloneSection.add(standaloneTitle);
-
-            final var exerciseGrid = new HorizontalLayout();
-            exerciseGrid.setSpacing(true);
-            exerciseGrid.getStyle().set("flex-wrap", "wrap");
-
-            for (final ExerciseViewDto exercise : standaloneExercises) {
-                exerciseGrid.add(this.createExerciseCard(exercise));
-            }
+        final var catalogList = new VirtualList<CatalogSection>();
+        catalogList.setItems(sections);
+        catalogList.setRenderer(new ComponentRenderer<>(this::createLessonCard));
+        catalogList.setWidthFull();
+        this.addAndExpand(catalogList);
+    }
 
-            standaloneSection.add(exerciseGrid);
-            this.add(standaloneSection);
-        }
+    private List<ExerciseViewDto> getPublishedExercises(final CatalogSection section) {
+        return section.lessonId() != null ? this.catalog.getPublishedExercises(section.lessonId())
+                : this.catalog.standaloneExercises;
     }
 
-    private VerticalLayout createLessonCard(final LessonViewDto lesson) {
+    private VerticalLayout createLessonCard(final CatalogSection section) {
         final var lessonCard = new VerticalLayout();
         lessonCard.setSpacing(true);
         lessonCard.setPadding(true);
@@ -108,38 +149,62 @@ public class LessonsView extends VerticalLayout implements BeforeEnterObserver {
                 .set("border-radius", "var(--lumo-border-radius-m)")
                 .set("margin-bottom", "var(--lumo-space-m)");
 
-        // Lesson title and description
-        final var lessonTitle = new H3(lesson.getName());
+        // Lesson title
+        final var lessonTitle = new H3(section.name());
         lessonTitle.getStyle().set("margin", "0");
         lessonCard.add(lessonTitle);
 
-        // Get exercises for this lesson
-        final List<ExerciseViewDto> exercises = this.exerciseService.findByLessonId(lesson.getId()).stream()
-                .filter(ex -> Boolean.TRUE.equals(ex.published))
-                .toList();
-
-        if (exercises.isEmpty()) {
+        final int publishedCount = this.getPublishedExercises(section).size();
+        if (publishedCount == 0) {
             final var noExercisesMsg = new Paragraph("No exercises available in this lesson yet.");
             noExercisesMsg.getStyle()
                     .set("color", "var(--lumo-secondary-text-color)")
                     .set("font-style", "italic");
             lessonCard.add(noExercisesMsg);
-        } else {
-            // Exercise cards in a horizontal layout
-            final var exerciseGrid = new HorizontalLayout();
-            exerciseGrid.setSpacing(true);
-            exerciseGrid.getStyle().set("flex-wrap", "wrap");
-
-            for (final ExerciseViewDto exercise : exercises) {
-                exerciseGrid.add(this.createExerciseCard(exercise));
-            }
+            return lessonCard;
+        }
 
-            lessonCard.add(exerciseGrid);
+        // Exercise cards are only created once the section is expanded
+        final var details = new Details(publishedCount == 1 ? "1 exercise" : publishedCount + " exercises");
+        details.setWidthFull();
+        if (this.expandedSections.contains(section)) {
+            this.loadExercises(details, section);
+            details.setOpened(true);
         }
+        details.addOpenedChangeListener(e -> {
+            if (e.isOpened()) {
+                this.expandedSections.add(section);
+                this.loadExercises(details, section);
+            } else {
+                this.expandedSections.remove(section);
+            }
+        });
+        lessonCard.add(details);
 
         return lessonCard;
     }
 
+    /**
+     * Adds the exercise cards of a section with the user's completion data,
+     * unless they were already added.
+     */
+    private void loadExercises(final Details details, final CatalogSection section) {
+        if (details.getContent().findAny().isEmpty()) {
+            details.add(this.createExerciseGrid(
+                    this.exerciseService.withCompletionData(this.getPublishedExercises(section))));
+        }
+    }
+
+    private HorizontalLayout createExerciseGrid(final List<ExerciseViewDto> exercises) {
+        final var exerciseGrid = new HorizontalLayout();
+        exerciseGrid.setSpacing(true);
+        exerciseGrid.getStyle().set("flex-wrap", "wrap");
+        for (final ExerciseViewDto exercise : exercises) {
+            exerciseGrid.add(this.createExerciseCard(exercise));
+        }
+        return exerciseGrid;
+    }
+
     private Div createExerciseCard(final ExerciseViewDto exercise) {
         final var card = new Div();
         card.getStyle()
@@ -82,6 +82,12 @@ public class LoginView extends VerticalLayout {
                         NotificationUtil.showWarning(result.getMessage());
                         break;
 
+                    case TOO_MANY_ATTEMPTS:
+                        LOG.trace("Login rate limited, showing warning");
+                        NotificationUtil.showWarning(result.getMessage());
+                        passwordField.clear();
+                        break;
+
                     default:
                         LOG.error("Unknown authentication result status: {}", result.getStatus());
                         NotificationUtil.showError("Unknown error occurred");
@@ -32,6 +32,7 @@ import de.vptr.aimathtutor.service.AuthService;
 import de.vptr.aimathtutor.service.GraspableMathService;
 import de.vptr.aimathtutor.util.NotificationUtil;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 
 /**
  * Vaadin view that embeds Graspable Math workspace with AI tutor integration.
@@ -131,12 +132,12 @@ public class MathWorkspaceView extends HorizontalLayout implements BeforeEnterOb
 
         // Right side: AI Chat panel with built-in styling (30%)
         // Get user's avatar settings
-        final var currentUserEntity = this.authService.getCurrentUserEntity();
-        final String userAvatar = currentUserEntity != null && currentUserEntity.userAvatarEmoji != null
-                ? currentUserEntity.userAvatarEmoji
+        final var currentUser = this.authService.getCurrentUser();
+        final String userAvatar = currentUser != null && currentUser.userAvatarEmoji != null
+                ? currentUser.userAvatarEmoji
                 : "🧒";
-        final String tutorAvatar = currentUserEntity != null && currentUserEntity.tutorAvatarEmoji != null
-                ? currentUserEntity.tutorAvatarEmoji
+        final String tutorAvatar = currentUser != null && currentUser.tutorAvatarEmoji != null
+                ? currentUser.tutorAvatarEmoji
                 : "🧑‍🏫";
         this.chatPanel = new AIChatPanel(this::handleUserQuestion, userAvatar, tutorAvatar);
 
@@ -302,6 +303,13 @@ public class MathWorkspaceView extends HorizontalLayout implements BeforeEnterOb
      * Handles user questions from the chat panel.
      */
     private void handleUserQuestion(final String question) {
+        try {
+            this.aiTutorService.checkQuestionRateLimit(this.authService.getUserId());
+        } catch (final WebApplicationException e) {
+            NotificationUtil.showWarning(e.getMessage());
+            return;
+        }
+
         // Create and add user message to context
         final var userMessage = ChatMessageDto.userQuestion(question);
         userMessage.sessionId = this.sessionId;
@@ -333,10 +341,10 @@ public class MathWorkspaceView extends HorizontalLayout implements BeforeEnterOb
                          * // Log the question and answer interaction to the database
                          * if (this.sessionId != null) {
                          * try {
-                         * final var currentUser = this.authService.getCurrentUserEntity();
+                         * final var currentUser = this.authService.getCurrentUser();
                          * this.aiTutorService.logQuestionInteraction(
                          * this.sessionId,
-                         * currentUser != null ? currentUser.id : null,
+                         * currentUser != null ? currentUser.userId : null,
                          * null, // GraspableMathView doesn't have a specific exercise
                          * question,
                          * answer.message);
@@ -0,0 +1,225 @@
+package de.vptr.aimathtutor.view.admin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import de.vptr.aimathtutor.component.button.RefreshButton;
+import de.vptr.aimathtutor.dto.CohortExerciseStatsDto;
+import de.vptr.aimathtutor.dto.CohortSummaryDto;
+import de.vptr.aimathtutor.service.AnalyticsService;
+import de.vptr.aimathtutor.service.AuthService;
+import de.vptr.aimathtutor.util.DateTimeFormatterUtil;
+import de.vptr.aimathtutor.util.NotificationUtil;
+import jakarta.inject.Inject;
+
+/**
+ * Admin view for class-level analytics per user group.
+ * Lists all groups with their totals; selecting a group shows completion
+ * rate, hint usage and the exercises the class struggles with most.
+ */
+@Route(value = "admin/cohorts", layout = AdminMainLayout.class)
+@PageTitle("Classes - AI Math Tutor")
+public class AdminCohortsView extends VerticalLayout implements BeforeEnterObserver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdminCohortsView.class);
+
+    private static final int HOT_SPOT_LIMIT = 5;
+
+    @Inject
+    AuthService authService;
+
+    @Inject
+    AnalyticsService analyticsService;
+
+    @Inject
+    DateTimeFormatterUtil dateTimeFormatter;
+
+    private final Map<String, Span> statCardValues = new HashMap<>();
+
+    private Grid<CohortSummaryDto> groupGrid;
+    private H3 detailTitle;
+    private Grid<CohortExerciseStatsDto> hotSpotGrid;
+    private Grid<CohortExerciseStatsDto> exerciseGrid;
+
+    public AdminCohortsView() {
+        this.setSizeFull();
+        this.setPadding(true);
+        this.setSpacing(true);
+    }
+
+    @Override
+    public void beforeEnter(final BeforeEnterEvent event) {
+        if (!this.authService.isAuthenticated()) {
+            event.forwardTo("login");
+            return;
+        }
+
+        this.buildUI();
+        this.loadGroups();
+    }
+
+    private void buildUI() {
+        this.removeAll();
+        this.statCardValues.clear();
+
+        // Title
+        this.add(new H2("Classes"));
+
+        final var buttonLayout = new HorizontalLayout();
+        buttonLayout.add(new RefreshButton(e -> this.loadGroups()));
+        this.add(buttonLayout);
+
+        // Group overview
+        this.groupGrid = new Grid<>(CohortSummaryDto.class, false);
+        this.groupGrid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+        this.groupGrid.setHeight("250px");
+        this.groupGrid.addColumn(summary -> summary.groupName)
+                .setHeader("Group")
+                .setFlexGrow(1);
+        this.groupGrid.addColumn(summary -> summary.memberCount)
+                .setHeader("Members")
+                .setFlexGrow(0);
+        this.groupGrid.addColumn(summary -> summary.totalSessions)
+                .setHeader("Sessions")
+                .setFlexGrow(0);
+        this.groupGrid.addColumn(CohortSummaryDto::getCompletionRatePercentage)
+                .setHeader("Completion Rate")
+                .setFlexGrow(0);
+        this.groupGrid.addColumn(CohortSummaryDto::getFormattedHintsPerSession)
+                .setHeader("Hints/Session")
+                .setFlexGrow(0);
+        this.groupGrid.addColumn(summary -> this.dateTimeFormatter.formatDateTime(summary.lastActivity))
+                .setHeader("Last Activity")
+                .setWidth("180px").setFlexGrow(0);
+        this.groupGrid.asSingleSelect().addValueChangeListener(e -> {
+            if (e.getValue() != null) {
+                this.loadGroupDetail(e.getValue().groupId);
+            }
+        });
+        this.add(this.groupGrid);
+
+        // Selected group
+        this.detailTitle = new H3("Select a group");
+        this.add(this.detailTitle);
+
+        final var cardsContainer = new HorizontalLayout();
+        cardsContainer.setSpacing(true);
+        cardsContainer.setWidthFull();
+        final var membersCard = this.createStatCard("Members", "-");
+        final var completionCard = this.createStatCard("Completion Rate", "-");
+        final var successCard = this.createStatCard("Success Rate", "-");
+        final var hintsCard = this.createStatCard("Hints per Session", "-");
+        cardsContainer.add(membersCard, completionCard, successCard, hintsCard);
+        cardsContainer.setFlexGrow(1, membersCard, completionCard, successCard, hintsCard);
+        this.add(cardsContainer);
+
+        this.add(new H3("Struggle Hot-Spots"));
+        this.hotSpotGrid = this.createExerciseGrid();
+        this.hotSpotGrid.setAllRowsVisible(true);
+        this.add(this.hotSpotGrid);
+
+        this.add(new H3("All Exercises"));
+        this.exerciseGrid = this.createExerciseGrid();
+        this.add(this.exerciseGrid);
+    }
+
+    private Grid<CohortExerciseStatsDto> createExerciseGrid() {
+        final var grid = new Grid<>(CohortExerciseStatsDto.class, false);
+        grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+        grid.addColumn(stats -> stats.exerciseTitle)
+                .setHeader("Exercise")
+                .setFlexGrow(1);
+        grid.addColumn(stats -> stats.totalSessions)
+                .setHeader("Sessions")
+                .setFlexGrow(0);
+        grid.addColumn(CohortExerciseStatsDto::getCompletionRatePercentage)
+                .setHeader("Completion Rate")
+                .setFlexGrow(0);
+        grid.addColumn(CohortExerciseStatsDto::getSuccessRatePercentage)
+                .setHeader("Success Rate")
+                .setFlexGrow(0);
+        grid.addColumn(CohortExerciseStatsDto::getFormattedHintsPerSession)
+                .setHeader("Hints/Session")
+                .setFlexGrow(0);
+        return grid;
+    }
+
+    private void loadGroups() {
+        try {
+            this.groupGrid.setItems(this.analyticsService.getCohortOverview());
+        } catch (final Exception e) {
+            LOG.error("Error loading groups", e);
+            NotificationUtil.showError("Failed to load groups");
+        }
+    }
+
+    private void loadGroupDetail(final Long groupId) {
+        try {
+            final var summary = this.analyticsService.getCohortSummary(groupId);
+            if (summary == null) {
+                NotificationUtil.showError("Group not found");
+                return;
+            }
+            this.detailTitle.setText(summary.groupName);
+            this.updateStatCard("Members", String.valueOf(summary.memberCount));
+            this.updateStatCard("Completion Rate", summary.getCompletionRatePercentage());
+            this.updateStatCard("Success Rate", summary.getSuccessRatePercentage());
+            this.updateStatCard("Hints per Session", summary.getFormattedHintsPerSession());
+            this.hotSpotGrid.setItems(summary.getStruggleHotSpots(HOT_SPOT_LIMIT));
+            this.exerciseGrid.setItems(summary.exercises);
+        } catch (final Exception e) {
+            LOG.error("Error loading group {}", groupId, e);
+            NotificationUtil.showError("Failed to load group analytics");
+        }
+    }
+
+    private VerticalLayout createStatCard(final String title, final String value) {
+        final var card = new VerticalLayout();
+        card.setPadding(true);
+        card.setSpacing(false);
+        card.getStyle()
+                .set("border", "1px solid var(--lumo-contrast-10pct)")
+                .set("border-radius", "4px")
+                .set("background-color", "var(--lumo-contrast-5pct)");
+
+        final var titleLabel = new Span(title);
+        titleLabel.getStyle()
+                .set("font-size", "12px")
+                .set("color", "var(--lumo-secondary-text-color)")
+                .set("text-transform", "uppercase")
+                .set("font-weight", "500");
+
+        final var valueLabel = new Span(value);
+        valueLabel.getStyle()
+                .set("font-size", "28px")
+                .set("font-weight", "700")
+                .set("color", "var(--lumo-primary-text-color)");
+
+        this.statCardValues.put(title, valueLabel);
+
+        card.add(titleLabel, valueLabel);
+        return card;
+    }
+
+    private void updateStatCard(final String title, final String value) {
+        final var valueLabel = this.statCardValues.get(title);
+        if (valueLabel != null) {
+            valueLabel.setText(value);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package de.vptr.aimathtutor.view.admin;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -31,6 +32,7 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
 
+import de.vptr.aimathtutor.component.HighlightedText;
 import de.vptr.aimathtutor.component.button.*;
 import de.vptr.aimathtutor.component.dialog.FormDialog;
 import de.vptr.aimathtutor.component.layout.DateFilterLayout;
@@ -69,6 +71,10 @@ public class AdminCommentsView extends VerticalLayout implements BeforeEnterObse
     private IntegerField exerciseIdField;
     private Select<String> statusFilterSelect;
     private IntegerField flagsFilterField;
+    private Span selectionLabel;
+    private Button bulkHideButton;
+    private Button bulkDeleteButton;
+    private Button bulkRestoreButton;
 
     private Dialog commentDialog;
     private Binder<CommentDto> binder;
@@ -211,14 +217,55 @@ public class AdminCommentsView extends VerticalLayout implements BeforeEnterObse
 
         final var refreshButton = new RefreshButton(e -> this.loadCommentsAsync());
 
-        layout.add(refreshButton);
+        // Bulk moderation of the selected rows
+        this.selectionLabel = new Span();
+        this.bulkHideButton = new HideButton(e -> this.bulkModerate("HIDE", "Hide", "hidden"), "Hide selected");
+        this.bulkDeleteButton = new DeleteButton(e -> this.bulkModerate("DELETE", "Delete", "deleted"),
+                "Delete selected");
+        this.bulkRestoreButton = new RestoreButton(e -> this.bulkModerate("RESTORE", "Restore", "restored"),
+                "Restore selected");
+        this.updateBulkActions(0);
+
+        layout.add(refreshButton, this.selectionLabel, this.bulkHideButton, this.bulkDeleteButton,
+                this.bulkRestoreButton);
+        layout.setAlignItems(Alignment.CENTER);
         return layout;
     }
 
+    private void updateBulkActions(final int selected) {
+        this.selectionLabel.setText(selected > 0 ? selected + " selected" : "");
+        this.bulkHideButton.setEnabled(selected > 0);
+        this.bulkDeleteButton.setEnabled(selected > 0);
+        this.bulkRestoreButton.setEnabled(selected > 0);
+    }
+
+    private void bulkModerate(final String action, final String title, final String pastTense) {
+        final List<Long> ids = this.grid.getSelectedItems().stream().map(comment -> comment.id).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        this.showModerationReasonDialog(title + " " + ids.size() + " Comments",
+                "Why are you moderating these comments?", reason -> {
+                    try {
+                        final var currentUserId = this.authService.getUserId();
+                        final int changed = this.commentService.bulkModerateComments(ids, action, currentUserId,
+                                reason);
+                        NotificationUtil.showSuccess(changed + " comment(s) " + pastTense);
+                        this.grid.deselectAll();
+                        this.loadCommentsAsync();
+                    } catch (final Exception e) {
+                        LOG.error("Error bulk moderating comments: action={}", action, e);
+                        NotificationUtil.showError("Error moderating comments: " + e.getMessage());
+                    }
+                });
+    }
+
     private void createGrid() {
         this.grid = new Grid<>(CommentViewDto.class, false);
         this.grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
         this.grid.setSizeFull();
+        this.grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        this.grid.addSelectionListener(e -> this.updateBulkActions(e.getAllSelectedItems().size()));
 
         // Configure columns
         this.grid.addColumn(comment -> comment.id).setHeader("ID").setWidth("80px").setFlexGrow(0);
@@ -236,9 +283,14 @@ public class AdminCommentsView extends VerticalLayout implements BeforeEnterObse
         this.grid.addColumn(comment -> comment.username != null ? comment.username : "(Unknown)")
                 .setHeader("Author").setWidth("120px").setFlexGrow(0);
 
-        // Content column with limited display
+        // Content column with limited display, search results show the highlighted snippet
         this.grid.addComponentColumn(comment -> {
             final var content = comment.content != null ? comment.content : "";
+            if (comment.searchSnippet != null) {
+                final var snippet = new HighlightedText(comment.searchSnippet);
+                snippet.setTitle(content);
+                return snippet;
+            }
             final var truncated = content.length() > 50 ? content.substring(0, 50) + "..." : content;
             final var span = new Span(truncated);
             span.setTitle(content); // Show full content on hover
@@ -413,9 +465,11 @@ public class AdminCommentsView extends VerticalLayout implements BeforeEnterObse
         this.searchButton.setEnabled(false);
         LOG.info("Searching comments with query: {}", query);
         try {
-            final var comments = this.commentService.searchComments(query.trim());
-            LOG.info("Successfully found {} comments", comments.size());
-            this.grid.setItems(comments);
+            // Paged through the full-text index, ranked best match first
+            final var term = query.trim();
+            this.grid.setItems(
+                    page -> this.commentService.searchComments(term, page.getOffset(), page.getLimit()).stream(),
+                    page -> (int) this.commentService.countSearchComments(term));
         } catch (final Exception e) {
             LOG.error("Error searching comments", e);
             NotificationUtil.showError("Error searching comments: " + e.getMessage());
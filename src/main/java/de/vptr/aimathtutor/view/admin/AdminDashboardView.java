@@ -1,30 +1,54 @@
 package de.vptr.aimathtutor.view.admin;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 
+import de.vptr.aimathtutor.dto.AIUsageTrendPointDto;
+import de.vptr.aimathtutor.dto.DashboardMetricsDto;
+import de.vptr.aimathtutor.dto.ExerciseDifficultyDto;
+import de.vptr.aimathtutor.dto.SessionTrendPointDto;
+import de.vptr.aimathtutor.service.AnalyticsRollupService.Granularity;
 import de.vptr.aimathtutor.service.AnalyticsService;
 import de.vptr.aimathtutor.service.AuthService;
+import de.vptr.aimathtutor.service.DashboardMetricsService;
+import de.vptr.aimathtutor.service.ExerciseDifficultyService;
 import de.vptr.aimathtutor.util.NotificationUtil;
+import de.vptr.aimathtutor.util.TrendBucketUtil;
 import jakarta.inject.Inject;
 
 /**
  * Admin dashboard for displaying high-level analytics and overview statistics.
  * Shows total sessions, active students, completed sessions, and recent
- * activity.
+ * activity. Metrics come from the shared cached snapshot and are pushed live
+ * while the view is attached. The hourly and daily trend charts read the
+ * rollup tables only.
  */
 @Route(value = "admin/dashboard", layout = AdminMainLayout.class)
 @PageTitle("Admin Dashboard - AI Math Tutor")
@@ -35,12 +59,36 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
     @Inject
     AuthService authService;
 
+    @Inject
+    DashboardMetricsService dashboardMetricsService;
+
+    @Inject
+    ExerciseDifficultyService exerciseDifficultyService;
+
     @Inject
     AnalyticsService analyticsService;
 
+    private static final int HOURLY_TREND_BUCKETS = 48;
+    private static final int DAILY_TREND_BUCKETS = 30;
+    private static final int REACH_DAYS = 30;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("dd.MM. HH:00");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private record TrendBar(LocalDateTime bucketStart, long value, String tooltip) {
+    }
+
     // Map to store references to stat card value spans for efficient updates
     private final Map<String, Span> statCardValues = new HashMap<>();
 
+    private Registration metricsRegistration;
+
+    private Grid<ExerciseDifficultyDto> difficultyGrid;
+    private Map<Long, Long> exerciseReach = Map.of();
+
+    private Select<Granularity> trendGranularitySelect;
+    private VerticalLayout sessionTrendChart;
+    private VerticalLayout aiUsageTrendChart;
+
     public AdminDashboardView() {
         this.setSizeFull();
         this.setPadding(true);
@@ -56,6 +104,7 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
 
         this.buildUI();
         this.loadDashboardData();
+        this.loadTrends();
     }
 
     private void buildUI() {
@@ -74,30 +123,96 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         // Add placeholder cards that will be updated with data
         final var totalSessionsCard = this.createStatCard("Total Sessions", "Loading...");
         final var completedSessionsCard = this.createStatCard("Completed Sessions", "Loading...");
+        final var activeStudentsTodayCard = this.createStatCard("Active Students (Today)", "Loading...");
         final var activeStudentsCard = this.createStatCard("Active Students (Last 7 Days)", "Loading...");
+        final var activeStudents30Card = this.createStatCard("Active Students (Last 30 Days)", "Loading...");
+        final var activeStudents90Card = this.createStatCard("Active Students (Last 90 Days)", "Loading...");
         final var todaySessionsCard = this.createStatCard("Today's Sessions", "Loading...");
 
-        cardsContainer.add(totalSessionsCard, completedSessionsCard, activeStudentsCard, todaySessionsCard);
-        cardsContainer.setFlexGrow(1, totalSessionsCard, completedSessionsCard, activeStudentsCard, todaySessionsCard);
+        cardsContainer.add(totalSessionsCard, completedSessionsCard, activeStudentsTodayCard, activeStudentsCard,
+                activeStudents30Card, activeStudents90Card, todaySessionsCard);
+        cardsContainer.setFlexGrow(1, totalSessionsCard, completedSessionsCard, activeStudentsTodayCard,
+                activeStudentsCard, activeStudents30Card, activeStudents90Card, todaySessionsCard);
 
         this.add(cardsContainer);
+
+        // Activity trends from the hourly and daily rollups
+        this.add(new H3("Activity Trend"));
+        this.trendGranularitySelect = new Select<>();
+        this.trendGranularitySelect.setLabel("Range");
+        this.trendGranularitySelect.setItems(Granularity.HOUR, Granularity.DAY);
+        this.trendGranularitySelect.setItemLabelGenerator(granularity -> granularity == Granularity.HOUR
+                ? "Last " + HOURLY_TREND_BUCKETS + " hours (hourly)"
+                : "Last " + DAILY_TREND_BUCKETS + " days (daily)");
+        this.trendGranularitySelect.setValue(Granularity.HOUR);
+        this.trendGranularitySelect.addValueChangeListener(e -> this.loadTrends());
+
+        this.sessionTrendChart = this.createChartContainer("Sessions Started");
+        this.aiUsageTrendChart = this.createChartContainer("AI Calls");
+        final var chartsContainer = new HorizontalLayout(this.sessionTrendChart, this.aiUsageTrendChart);
+        chartsContainer.setWidthFull();
+        chartsContainer.setFlexGrow(1, this.sessionTrendChart, this.aiUsageTrendChart);
+        this.add(this.trendGranularitySelect, chartsContainer);
+
+        // Exercise difficulty percentiles (p50 / p90 / p99)
+        this.add(new H3("Exercise Difficulty (p50 / p90 / p99)"));
+        this.difficultyGrid = new Grid<>(ExerciseDifficultyDto.class, false);
+        this.difficultyGrid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+        this.difficultyGrid.addColumn(dto -> dto.title)
+                .setHeader("Exercise")
+                .setFlexGrow(1);
+        this.difficultyGrid.addColumn(dto -> dto.completions)
+                .setHeader("Completions")
+                .setFlexGrow(0);
+        this.difficultyGrid.addColumn(dto -> this.exerciseReach.getOrDefault(dto.exerciseId, 0L))
+                .setHeader("Students (" + REACH_DAYS + " Days)")
+                .setFlexGrow(0);
+        this.difficultyGrid.addColumn(ExerciseDifficultyDto::getTimeToCompleteSummary)
+                .setHeader("Time to Complete")
+                .setFlexGrow(1);
+        this.difficultyGrid.addColumn(ExerciseDifficultyDto::getActionsSummary)
+                .setHeader("Actions")
+                .setFlexGrow(0);
+        this.difficultyGrid.addColumn(ExerciseDifficultyDto::getHintsSummary)
+                .setHeader("Hints")
+                .setFlexGrow(0);
+        this.add(this.difficultyGrid);
+    }
+
+    @Override
+    protected void onAttach(final AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        final var ui = attachEvent.getUI();
+        this.metricsRegistration = this.dashboardMetricsService.register(
+                metrics -> ui.access(() -> this.showMetrics(metrics)));
+    }
+
+    @Override
+    protected void onDetach(final DetachEvent detachEvent) {
+        if (this.metricsRegistration != null) {
+            this.metricsRegistration.remove();
+            this.metricsRegistration = null;
+        }
+        super.onDetach(detachEvent);
     }
 
     private void loadDashboardData() {
         CompletableFuture.runAsync(() -> {
             try {
-                final var totalSessions = this.analyticsService.getTotalSessionsCount();
-                final var completedSessions = this.analyticsService.getCompletedSessionsCount();
-                final var activeStudents = this.analyticsService.getActiveStudentsCount();
-                final var todaySessions = this.analyticsService.getTodaySessionsCount();
-
+                // Served from the cached snapshot, only the first access hits the database
+                final var metrics = this.dashboardMetricsService.getSnapshot();
+                // Percentiles are read from in-memory histograms, no session rows are sorted
+                final var difficulty = this.exerciseDifficultyService.getAllExerciseDifficulty();
+                // Estimated from the per-exercise HyperLogLog sketches in memory
+                final Map<Long, Long> reach = new HashMap<>();
+                for (final ExerciseDifficultyDto dto : difficulty) {
+                    reach.put(dto.exerciseId, this.analyticsService.getExerciseReach(dto.exerciseId, REACH_DAYS));
+                }
                 this.getUI().ifPresent(ui -> ui.access(() -> {
-                    this.updateStatCard("Total Sessions", String.valueOf(totalSessions));
-                    this.updateStatCard("Completed Sessions", String.valueOf(completedSessions));
-                    this.updateStatCard("Active Students (Last 7 Days)", String.valueOf(activeStudents));
-                    this.updateStatCard("Today's Sessions", String.valueOf(todaySessions));
+                    this.showMetrics(metrics);
+                    this.exerciseReach = reach;
+                    this.difficultyGrid.setItems(difficulty);
                 }));
-
             } catch (final Exception e) {
                 LOG.error("Error loading dashboard data", e);
                 this.getUI().ifPresent(ui -> ui.access(() -> {
@@ -107,6 +222,136 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         });
     }
 
+    private void loadTrends() {
+        final var granularity = this.trendGranularitySelect.getValue();
+        final var to = LocalDateTime.now();
+        final var from = granularity == Granularity.HOUR
+                ? to.minusHours(HOURLY_TREND_BUCKETS - 1)
+                : to.minusDays(DAILY_TREND_BUCKETS - 1);
+        CompletableFuture.runAsync(() -> {
+            try {
+                final var sessions = this.analyticsService.getSessionTrend(granularity, from, to, null, null);
+                final var aiUsage = this.analyticsService.getAIUsageTrend(granularity, from, to, null, null);
+                final var sessionBars = this.toSessionBars(sessions, granularity, from, to);
+                final var aiUsageBars = this.toAIUsageBars(aiUsage, granularity, from, to);
+                this.getUI().ifPresent(ui -> ui.access(() -> {
+                    this.showBarChart(this.sessionTrendChart, sessionBars, granularity);
+                    this.showBarChart(this.aiUsageTrendChart, aiUsageBars, granularity);
+                }));
+            } catch (final Exception e) {
+                LOG.error("Error loading activity trends", e);
+                this.getUI().ifPresent(ui -> ui.access(() -> {
+                    NotificationUtil.showError("Failed to load activity trends");
+                }));
+            }
+        });
+    }
+
+    private List<TrendBar> toSessionBars(final List<SessionTrendPointDto> points, final Granularity granularity,
+            final LocalDateTime from, final LocalDateTime to) {
+        final var filled = TrendBucketUtil.fill(points, point -> point.bucketStart,
+                start -> new SessionTrendPointDto(start, 0L, 0L, 0L), from, to, granularity.unit());
+        return filled.stream()
+                .map(point -> new TrendBar(point.bucketStart, point.sessionsStarted,
+                        this.formatBucket(point.bucketStart, granularity) + ": " + point.sessionsStarted
+                                + " started, " + point.sessionsCompleted + " completed, " + point.hintsUsed
+                                + " hints"))
+                .toList();
+    }
+
+    /**
+     * Sums the providers of each bucket, the tooltip lists them.
+     */
+    private List<TrendBar> toAIUsageBars(final List<AIUsageTrendPointDto> points, final Granularity granularity,
+            final LocalDateTime from, final LocalDateTime to) {
+        final Map<LocalDateTime, Map<String, Long>> byBucket = new HashMap<>();
+        for (final AIUsageTrendPointDto point : points) {
+            byBucket.computeIfAbsent(point.bucketStart, bucket -> new TreeMap<>())
+                    .merge(point.provider != null ? point.provider : "unknown", point.aiCalls, Long::sum);
+        }
+        final List<TrendBar> bars = new ArrayList<>();
+        for (final LocalDateTime start : TrendBucketUtil.bucketStarts(from, to, granularity.unit())) {
+            final var providers = byBucket.getOrDefault(start, Map.of());
+            final long calls = providers.values().stream().mapToLong(Long::longValue).sum();
+            final var tooltip = new StringBuilder(this.formatBucket(start, granularity))
+                    .append(": ").append(calls).append(" AI calls");
+            providers.forEach((provider, count) -> tooltip.append(", ").append(provider).append(' ').append(count));
+            bars.add(new TrendBar(start, calls, tooltip.toString()));
+        }
+        return bars;
+    }
+
+    private VerticalLayout createChartContainer(final String title) {
+        final var container = new VerticalLayout();
+        container.setPadding(true);
+        container.setSpacing(false);
+        container.getStyle()
+                .set("border", "1px solid var(--lumo-contrast-10pct)")
+                .set("border-radius", "4px");
+        final var titleLabel = new Span(title);
+        titleLabel.getStyle()
+                .set("font-size", "12px")
+                .set("color", "var(--lumo-secondary-text-color)")
+                .set("text-transform", "uppercase")
+                .set("font-weight", "500");
+        container.add(titleLabel);
+        return container;
+    }
+
+    /**
+     * Renders the bars as plain divs scaled to the largest value, with the
+     * details of each bucket as its tooltip.
+     */
+    private void showBarChart(final VerticalLayout container, final List<TrendBar> bars,
+            final Granularity granularity) {
+        while (container.getComponentCount() > 1) {
+            container.remove(container.getComponentAt(1));
+        }
+        final long max = bars.stream().mapToLong(TrendBar::value).max().orElse(0);
+
+        final var plot = new HorizontalLayout();
+        plot.setWidthFull();
+        plot.setHeight("160px");
+        plot.setSpacing(false);
+        plot.setAlignItems(FlexComponent.Alignment.END);
+        plot.getStyle().set("gap", "2px");
+        for (final TrendBar bar : bars) {
+            final var column = new Div();
+            column.setTitle(bar.tooltip());
+            column.getStyle()
+                    .set("flex", "1")
+                    .set("min-height", "1px")
+                    .set("height", max > 0 ? (bar.value() * 100.0 / max) + "%" : "0")
+                    .set("background-color", "var(--lumo-primary-color)");
+            plot.add(column);
+        }
+
+        final var axis = new HorizontalLayout();
+        axis.setWidthFull();
+        axis.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+        if (!bars.isEmpty()) {
+            axis.add(new Span(this.formatBucket(bars.get(0).bucketStart(), granularity)),
+                    new Span("max " + max),
+                    new Span(this.formatBucket(bars.get(bars.size() - 1).bucketStart(), granularity)));
+        }
+        axis.getStyle().set("font-size", "12px").set("color", "var(--lumo-secondary-text-color)");
+        container.add(plot, axis);
+    }
+
+    private String formatBucket(final LocalDateTime bucketStart, final Granularity granularity) {
+        return bucketStart.format(granularity == Granularity.HOUR ? HOUR_FORMAT : DAY_FORMAT);
+    }
+
+    private void showMetrics(final DashboardMetricsDto metrics) {
+        this.updateStatCard("Total Sessions", String.valueOf(metrics.totalSessions));
+        this.updateStatCard("Completed Sessions", String.valueOf(metrics.completedSessions));
+        this.updateStatCard("Active Students (Today)", String.valueOf(metrics.activeStudentsToday));
+        this.updateStatCard("Active Students (Last 7 Days)", String.valueOf(metrics.activeStudents));
+        this.updateStatCard("Active Students (Last 30 Days)", String.valueOf(metrics.activeStudents30Days));
+        this.updateStatCard("Active Students (Last 90 Days)", String.valueOf(metrics.activeStudents90Days));
+        this.updateStatCard("Today's Sessions", String.valueOf(metrics.todaySessions));
+    }
+
     private VerticalLayout createStatCard(final String title, final String value) {
         final var card = new VerticalLayout();
         card.setPadding(true);
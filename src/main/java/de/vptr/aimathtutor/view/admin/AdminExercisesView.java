@@ -16,6 +16,7 @@ import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
@@ -24,6 +25,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.data.binder.ValidationResult;
@@ -31,7 +33,10 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.QueryParameters;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.vaadin.flow.server.streams.UploadHandler;
 
+import de.vptr.aimathtutor.component.HighlightedText;
 import de.vptr.aimathtutor.component.button.*;
 import de.vptr.aimathtutor.component.dialog.FormDialog;
 import de.vptr.aimathtutor.component.layout.DateFilterLayout;
@@ -39,9 +44,11 @@ import de.vptr.aimathtutor.component.layout.IntegerFilterLayout;
 import de.vptr.aimathtutor.component.layout.SearchLayout;
 import de.vptr.aimathtutor.dto.ExerciseDto;
 import de.vptr.aimathtutor.dto.ExerciseViewDto;
+import de.vptr.aimathtutor.dto.ImportResultDto;
 import de.vptr.aimathtutor.dto.LessonViewDto;
 import de.vptr.aimathtutor.service.*;
 import de.vptr.aimathtutor.util.DateTimeFormatterUtil;
+import de.vptr.aimathtutor.util.ExportWriter;
 import de.vptr.aimathtutor.util.NotificationUtil;
 import de.vptr.aimathtutor.view.LoginView;
 import jakarta.inject.Inject;
@@ -66,10 +73,17 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
     @Inject
     CommentService commentService;
 
+    @Inject
+    ImportService importService;
+
+    @Inject
+    ExportService exportService;
+
     @Inject
     DateTimeFormatterUtil dateTimeFormatter;
 
     private Grid<ExerciseViewDto> grid;
+    private Grid.Column<ExerciseViewDto> snippetColumn;
     private TextField searchField;
     private Button searchButton;
     private Button showPublishedButton;
@@ -105,6 +119,7 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
         try {
             final var exercises = this.exerciseService.getAllExercises();
             LOG.info("Successfully loaded {} exercises", exercises.size());
+            this.snippetColumn.setVisible(false);
             this.grid.setItems(exercises);
         } catch (final Exception e) {
             LOG.error("Error loading exercises", e);
@@ -117,6 +132,7 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
         try {
             final var exercises = this.exerciseService.findPublishedExercises();
             LOG.info("Successfully loaded {} published exercises", exercises.size());
+            this.snippetColumn.setVisible(false);
             this.grid.setItems(exercises);
         } catch (final Exception e) {
             LOG.error("Error loading published exercises", e);
@@ -187,10 +203,92 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
         final var createButton = new CreateButton(e -> this.openExerciseDialog(null));
         final var refreshButton = new RefreshButton(e -> this.loadExercisesAsync());
 
-        layout.add(createButton, refreshButton);
+        layout.add(createButton, refreshButton, this.createImportUpload());
+        for (final var format : ExportWriter.Format.values()) {
+            layout.add(this.createExportLink(format));
+        }
         return layout;
     }
 
+    /**
+     * Creates an upload that streams the file straight into the importer.
+     * The handler runs outside the UI lock, results are shown via
+     * {@link UI#access}.
+     */
+    private Upload createImportUpload() {
+        final Long userId = this.authService.getUserId();
+        final UploadHandler handler = event -> {
+            final var ui = event.getUI();
+            try {
+                final ImportResultDto result = this.importService.importCatalog(event.getInputStream(),
+                        event.getFileName(), userId);
+                ui.access(() -> this.showImportResult(result));
+            } catch (final Exception e) {
+                LOG.error("Error importing {}", event.getFileName(), e);
+                ui.access(() -> NotificationUtil.showError("Import failed: " + e.getMessage()));
+            }
+        };
+
+        final var upload = new Upload(handler);
+        upload.setAcceptedFileTypes(".csv", ".jsonl", ".ndjson", ".gz");
+        upload.setMaxFiles(1);
+        upload.setDropAllowed(false);
+        upload.setUploadButton(new Button("Import (CSV/JSONL)"));
+        return upload;
+    }
+
+    private void showImportResult(final ImportResultDto result) {
+        this.loadExercisesAsync();
+        this.loadLessonsAsync();
+        if (!result.hasErrors()) {
+            NotificationUtil.showSuccess(result.getSummary());
+            return;
+        }
+        NotificationUtil.showWarning(result.getSummary());
+
+        final var dialog = new FormDialog("800px", "600px");
+        final var errorGrid = new Grid<ImportResultDto.RowError>();
+        errorGrid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES, GridVariant.LUMO_COMPACT);
+        errorGrid.addColumn(error -> error.line).setHeader("Line").setWidth("100px").setFlexGrow(0)
+                .setSortable(true);
+        errorGrid.addColumn(error -> error.message).setHeader("Error").setFlexGrow(1);
+        errorGrid.setItems(result.errors);
+        errorGrid.setSizeFull();
+
+        final var hint = new Span(result.errors.size() < result.errorCount
+                ? "Showing the first " + result.errors.size() + " of " + result.errorCount + " errors"
+                : result.errorCount + " rows were not imported");
+        final var closeButton = new Button("Close", e -> dialog.close());
+        closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+
+        final var dialogLayout = new VerticalLayout(new H3("Import errors"), hint, errorGrid, closeButton);
+        dialogLayout.setPadding(false);
+        dialogLayout.setSizeFull();
+        dialog.add(dialogLayout);
+        dialog.open();
+    }
+
+    /**
+     * Creates a download link that streams all lessons and exercises in the
+     * import layout.
+     */
+    private Anchor createExportLink(final ExportWriter.Format format) {
+        final DownloadHandler handler = event -> {
+            event.setFileName("catalog." + format.extension + ".gz");
+            event.setContentType("application/gzip");
+            try {
+                this.exportService.exportCatalog(format, event.getOutputStream());
+            } catch (final Exception e) {
+                LOG.error("Error exporting catalog as {}", format, e);
+                throw e;
+            }
+        };
+
+        final var link = new Anchor(handler, "Export (" + format.name() + ")");
+        link.getElement().setAttribute("download", true);
+        return link;
+    }
+
     private void createGrid() {
         this.grid = new Grid<>(ExerciseViewDto.class, false);
         this.grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
@@ -217,6 +315,12 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
                 .setHeader("Lesson")
                 .setFlexGrow(1);
 
+        // Highlighted content snippet, only shown for search results
+        this.snippetColumn = this.grid.addComponentColumn(exercise -> new HighlightedText(exercise.searchSnippet))
+                .setHeader("Match")
+                .setFlexGrow(2);
+        this.snippetColumn.setVisible(false);
+
         this.grid.addComponentColumn(exercise -> {
             final var checkbox = new Checkbox();
             checkbox.setValue(exercise.published != null ? exercise.published : false);
@@ -238,6 +342,14 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
             return checkbox;
         }).setHeader("Graspable Math").setWidth("120px").setFlexGrow(0);
 
+        // Read from the denormalized counters on the exercise row
+        this.grid.addColumn(exercise -> exercise.commentsCount).setHeader("Comments")
+                .setWidth("110px").setFlexGrow(0);
+        this.grid.addColumn(exercise -> exercise.openFlagsCount).setHeader("Open Flags")
+                .setWidth("110px").setFlexGrow(0);
+        this.grid.addColumn(exercise -> this.dateTimeFormatter.formatDateTime(exercise.lastCommentAt))
+                .setHeader("Last Comment").setWidth("180px").setFlexGrow(0);
+
         this.grid.addColumn(exercise -> this.dateTimeFormatter.formatDateTime(exercise.created)).setHeader("Created")
                 .setWidth("180px").setFlexGrow(0);
         this.grid.addColumn(exercise -> this.dateTimeFormatter.formatDateTime(exercise.lastEdit)).setHeader("Last Edit")
@@ -522,8 +634,12 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
         this.searchButton.setEnabled(false);
         this.searchButton.setText("Searching...");
         try {
-            final var exercises = this.exerciseService.searchExercises(query.trim());
-            this.grid.setItems(exercises);
+            // Paged through the full-text index, ranked best match first
+            final var term = query.trim();
+            this.snippetColumn.setVisible(true);
+            this.grid.setItems(
+                    page -> this.exerciseService.searchExercises(term, page.getOffset(), page.getLimit()).stream(),
+                    page -> (int) this.exerciseService.countSearchExercises(term));
         } catch (final Exception e) {
             LOG.error("Error searching exercises", e);
             NotificationUtil.showError("Error searching exercises: " + e.getMessage());
@@ -549,6 +665,7 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
 
         try {
             final var exercises = this.exerciseService.findByDateRange(startDate.toString(), endDate.toString());
+            this.snippetColumn.setVisible(false);
             this.grid.setItems(exercises);
         } catch (final Exception e) {
             LOG.error("Error filtering exercises by date range", e);
@@ -565,6 +682,7 @@ public class AdminExercisesView extends VerticalLayout implements BeforeEnterObs
 
         try {
             final var exercises = this.exerciseService.findByUserId(userId.longValue());
+            this.snippetColumn.setVisible(false);
             this.grid.setItems(exercises);
         } catch (final Exception e) {
             LOG.error("Error filtering exercises by user", e);
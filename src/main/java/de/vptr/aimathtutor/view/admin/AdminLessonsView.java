@@ -3,6 +3,8 @@ package de.vptr.aimathtutor.view.admin;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,26 +17,32 @@ import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.treegrid.TreeGrid;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Route;
 
 import de.vptr.aimathtutor.component.button.CreateButton;
 import de.vptr.aimathtutor.component.button.DeleteButton;
+import de.vptr.aimathtutor.component.button.DifficultyButton;
 import de.vptr.aimathtutor.component.button.EditButton;
 import de.vptr.aimathtutor.component.button.RefreshButton;
 import de.vptr.aimathtutor.component.dialog.FormDialog;
 import de.vptr.aimathtutor.component.layout.SearchLayout;
+import de.vptr.aimathtutor.dto.ExerciseDifficultyDto;
 import de.vptr.aimathtutor.dto.LessonDto;
 import de.vptr.aimathtutor.dto.LessonViewDto;
 import de.vptr.aimathtutor.entity.LessonEntity;
 import de.vptr.aimathtutor.service.AuthService;
+import de.vptr.aimathtutor.service.ExerciseDifficultyService;
 import de.vptr.aimathtutor.service.LessonService;
 import de.vptr.aimathtutor.util.NotificationUtil;
 import de.vptr.aimathtutor.view.LoginView;
@@ -51,10 +59,14 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
     @Inject
     AuthService authService;
 
+    @Inject
+    ExerciseDifficultyService exerciseDifficultyService;
+
     private TreeGrid<LessonViewDto> treeGrid;
+    private LessonTreeDataProvider dataProvider;
     private TextField searchField;
     private Button searchButton;
-    private List<LessonViewDto> allLessons;
+    private List<LessonDto> parentCandidates;
 
     private Dialog lessonDialog;
     private Binder<LessonDto> binder;
@@ -74,43 +86,16 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         }
 
         this.buildUI();
-        this.loadLessonsAsync();
-    }
-
-    private void loadLessonsAsync() {
-        LOG.info("Loading lessons");
-
-        CompletableFuture.supplyAsync(() -> {
-            LOG.info("Loading lessons from service");
-            try {
-                return this.lessonService.getAllLessons();
-            } catch (final Exception e) {
-                LOG.error("Error loading lessons", e);
-                throw new RuntimeException("Failed to load lessons", e);
-            }
-        }).orTimeout(30, TimeUnit.SECONDS)
-                .whenComplete((lessons, throwable) -> {
-                    this.getUI().ifPresent(ui -> ui.access(() -> {
-                        if (throwable != null) {
-                            LOG.error("Error loading lessons: {}", throwable.getMessage(), throwable);
-                            NotificationUtil.showError("Failed to load lessons: " + throwable.getMessage());
-                        } else {
-                            LOG.info("Successfully loaded {} lessons", lessons.size());
-                            this.allLessons = lessons;
-                            this.updateTreeGrid();
-                        }
-                    }));
-                });
+        this.updateTreeGrid();
     }
 
     private void updateTreeGrid() {
-        // Find root lessons (lessons without parent)
-        final var rootLessons = this.allLessons.stream()
-                .filter(LessonViewDto::isRootLesson)
-                .toList();
-
-        this.treeGrid.setItems(rootLessons, this::getChildrenOfLesson);
-        this.treeGrid.expandRecursively(rootLessons, 2); // Expand up to 2 levels
+        // Lazy tree: each level is loaded when its parent is expanded
+        if (this.treeGrid.getDataProvider() != this.dataProvider) {
+            this.treeGrid.setDataProvider(this.dataProvider);
+        } else {
+            this.dataProvider.refreshAll();
+        }
     }
 
     private void updateSearchTreeGrid(final List<LessonViewDto> searchResults) {
@@ -121,7 +106,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         // Get all lesson IDs that exist in the search results
         final var lessonIdsInResults = searchResults.stream()
                 .map(cat -> cat.id)
-                .collect(java.util.stream.Collectors.toSet());
+                .collect(Collectors.toSet());
 
         // Find lessons to show at the top level:
         // 1. Root lessons (no parent)
@@ -139,12 +124,6 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         this.treeGrid.expandRecursively(topLevelLessons, 10);
     }
 
-    private List<LessonViewDto> getChildrenOfLesson(final LessonViewDto parent) {
-        return this.allLessons.stream()
-                .filter(lesson -> lesson.parentId != null && lesson.parentId.equals(parent.id))
-                .toList();
-    }
-
     private void buildUI() {
         this.removeAll();
 
@@ -152,6 +131,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         final var searchLayout = this.createSearchLayout();
         final var buttonLayout = this.createButtonLayout();
         this.createTreeGrid();
+        this.dataProvider = new LessonTreeDataProvider(this.lessonService);
         this.lessonDialog = new FormDialog();
 
         this.add(header, searchLayout, buttonLayout, this.treeGrid);
@@ -179,7 +159,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         layout.setSpacing(true);
 
         final var createButton = new CreateButton(e -> this.openLessonDialog(null));
-        final var refreshButton = new RefreshButton(e -> this.loadLessonsAsync());
+        final var refreshButton = new RefreshButton(e -> this.updateTreeGrid());
 
         layout.add(createButton, refreshButton);
         return layout;
@@ -211,7 +191,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         // Add action column
         this.treeGrid.addComponentColumn(this::createActionButtons)
                 .setHeader("Actions")
-                .setWidth("150px")
+                .setWidth("180px")
                 .setFlexGrow(0);
     }
 
@@ -221,12 +201,47 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
 
         // Convert view DTO to a fresh LessonDto and pass that to the dialog
         final var editButton = new EditButton(e -> this.openLessonDialog(lesson.toLessonDto()));
-        final var deleteButton = new DeleteButton(e -> this.deleteLesson(lesson.toLessonDto()));
+        final var difficultyButton = new DifficultyButton(e -> this.openDifficultyDialog(lesson));
+        final var deleteButton = new DeleteButton(e -> this.deleteLesson(lesson));
 
-        layout.add(editButton, deleteButton);
+        layout.add(editButton, difficultyButton, deleteButton);
         return layout;
     }
 
+    /**
+     * Shows the merged difficulty distribution of the exercises in a lesson.
+     */
+    private void openDifficultyDialog(final LessonViewDto lesson) {
+        final ExerciseDifficultyDto difficulty;
+        try {
+            difficulty = this.exerciseDifficultyService.getLessonDifficulty(lesson.id);
+        } catch (final Exception e) {
+            LOG.error("Error loading difficulty of lesson {}", lesson.id, e);
+            NotificationUtil.showError("Failed to load lesson difficulty");
+            return;
+        }
+
+        final var dialog = new FormDialog("500px");
+        final var content = new VerticalLayout(new H3("Difficulty: " + lesson.name));
+        content.setSpacing(true);
+        content.setPadding(false);
+        if (difficulty.completions == 0) {
+            content.add(new Span("No exercise in this lesson has been completed yet."));
+        } else {
+            content.add(new Span("Completions: " + difficulty.completions),
+                    new Span("Time to complete (P50 / P90 / P99): " + difficulty.getTimeToCompleteSummary()),
+                    new Span("Actions (P50 / P90 / P99): " + difficulty.getActionsSummary()),
+                    new Span("Hints (P50 / P90 / P99): " + difficulty.getHintsSummary()));
+        }
+
+        final var closeButton = new Button("Close", e -> dialog.close());
+        closeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        content.add(closeButton);
+
+        dialog.add(content);
+        dialog.open();
+    }
+
     private void openLessonDialog(final LessonDto lesson) {
         this.lessonDialog.removeAll();
         // Use provided LessonDto or start fresh for create
@@ -248,14 +263,16 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         parentField.setItemLabelGenerator(cat -> cat != null ? cat.name : "N/A");
         parentField.setPlaceholder("(none)");
         parentField.setInvalid(false); // Clear any previous validation state
-        if (this.allLessons != null) {
-            // Only show lessons that are not descendants of the current lesson
-            final var availableParents = this.allLessons.stream()
+        try {
+            // Only lessons outside the subtree of the current lesson
+            this.parentCandidates = this.lessonService.findParentCandidates(lesson != null ? lesson.id : null)
+                    .stream()
                     .map(LessonViewDto::toLessonDto)
-                    .filter(cat -> lesson == null || !this.isDescendantOf(cat, lesson))
-                    .filter(cat -> lesson == null || !cat.id.equals(lesson.id))
                     .toList();
-            parentField.setItems(availableParents);
+            parentField.setItems(this.parentCandidates);
+        } catch (final Exception e) {
+            LOG.error("Error loading parent lessons", e);
+            this.parentCandidates = List.of();
         }
         // Allow clearing the selection to make it a root lesson
         parentField.setClearButtonVisible(true);
@@ -270,13 +287,10 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
                             // Convert from DTO parent field
                             if (cat.parent != null && cat.parent.id != null) {
                                 // Find the LessonDto from available parents
-                                if (this.allLessons != null) {
-                                    return this.allLessons.stream()
-                                            .map(LessonViewDto::toLessonDto)
-                                            .filter(c -> c.id.equals(cat.parent.id))
-                                            .findFirst()
-                                            .orElse(null);
-                                }
+                                return this.parentCandidates.stream()
+                                        .filter(c -> c.id.equals(cat.parent.id))
+                                        .findFirst()
+                                        .orElse(null);
                             }
                             return null;
                         },
@@ -321,28 +335,6 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         this.lessonDialog.open();
     }
 
-    private boolean isDescendantOf(final LessonDto potential, final LessonDto ancestor) {
-        if (potential.parent == null) {
-            return false;
-        }
-        if (potential.parent.id.equals(ancestor.id)) {
-            return true;
-        }
-
-        // Find the parent in the list and check recursively
-        final var parent = this.allLessons.stream()
-                .filter(cat -> cat.id.equals(potential.parent.id))
-                .map(LessonViewDto::toLessonDto)
-                .findFirst()
-                .orElse(null);
-
-        if (parent != null) {
-            return this.isDescendantOf(parent, ancestor);
-        }
-
-        return false;
-    }
-
     private void saveLesson() {
         try {
             this.binder.writeBean(this.currentLesson);
@@ -371,7 +363,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
             }
 
             this.lessonDialog.close();
-            this.loadLessonsAsync();
+            this.updateTreeGrid();
 
         } catch (final ValidationException e) {
             NotificationUtil.showError("Please check the form for errors");
@@ -381,12 +373,9 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         }
     }
 
-    private void deleteLesson(final LessonDto lesson) {
+    private void deleteLesson(final LessonViewDto lesson) {
         // Check if lesson has children
-        final boolean hasChildren = this.allLessons.stream()
-                .anyMatch(cat -> cat.parentId != null && cat.parentId.equals(lesson.id));
-
-        if (hasChildren) {
+        if (lesson.childrenCount > 0) {
             NotificationUtil
                     .showError("Cannot delete lesson with sub-lessons. Please delete or move sub-lessons first.");
             return;
@@ -395,7 +384,7 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
         try {
             if (this.lessonService.deleteLesson(lesson.id)) {
                 NotificationUtil.showSuccess("Lesson deleted successfully");
-                this.loadLessonsAsync();
+                this.updateTreeGrid();
             } else {
                 NotificationUtil.showError("Failed to delete lesson");
             }
@@ -438,4 +427,53 @@ public class AdminLessonsView extends VerticalLayout implements BeforeEnterObser
                     }));
                 });
     }
+
+    /**
+     * Loads the lesson tree one level at a time. Whether a lesson can be
+     * expanded and how many children it has come from the counts already
+     * loaded with the lesson.
+     */
+    static class LessonTreeDataProvider extends AbstractBackEndHierarchicalDataProvider<LessonViewDto, Void> {
+
+        private final LessonService lessonService;
+
+        LessonTreeDataProvider(final LessonService lessonService) {
+            this.lessonService = lessonService;
+        }
+
+        @Override
+        protected Stream<LessonViewDto> fetchChildrenFromBackEnd(final HierarchicalQuery<LessonViewDto, Void> query) {
+            final Long parentId = query.getParentOptional().map(LessonViewDto::getId).orElse(null);
+            try {
+                return this.lessonService.findChildren(parentId, query.getOffset(), query.getLimit()).stream();
+            } catch (final Exception e) {
+                LOG.error("Error loading lessons below {}", parentId, e);
+                NotificationUtil.showError("Failed to load lessons");
+                return Stream.empty();
+            }
+        }
+
+        @Override
+        public int getChildCount(final HierarchicalQuery<LessonViewDto, Void> query) {
+            if (query.getParent() != null) {
+                return query.getParent().childrenCount;
+            }
+            try {
+                return (int) this.lessonService.countChildren(null);
+            } catch (final Exception e) {
+                LOG.error("Error counting root lessons", e);
+                return 0;
+            }
+        }
+
+        @Override
+        public boolean hasChildren(final LessonViewDto item) {
+            return item.childrenCount > 0;
+        }
+
+        @Override
+        public Object getId(final LessonViewDto item) {
+            return item.id;
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package de.vptr.aimathtutor.view.admin;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +17,9 @@ import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
@@ -96,43 +102,55 @@ public class AdminProgressView extends VerticalLayout implements BeforeEnterObse
         // Configure columns
         this.grid.addColumn(progress -> progress.username)
                 .setHeader("Student")
+                .setSortProperty("username")
                 .setFlexGrow(1);
 
         this.grid.addColumn(progress -> progress.totalSessions)
                 .setHeader("Total Sessions")
+                .setSortProperty("totalSessions")
                 .setFlexGrow(0);
 
         this.grid.addColumn(progress -> progress.completedSessions)
                 .setHeader("Completed")
+                .setSortProperty("completedSessions")
                 .setFlexGrow(0);
 
         this.grid.addColumn(
                 (ValueProvider<StudentProgressSummaryDto, ?>) StudentProgressSummaryDto::getCompletionRatePercentage)
                 .setHeader("Completion Rate")
+                .setSortProperty("completionRate")
                 .setFlexGrow(1);
 
         this.grid.addColumn(progress -> progress.totalProblems)
                 .setHeader("Total Problems")
+                .setSortProperty("totalProblems")
                 .setFlexGrow(0);
 
         this.grid.addColumn(
                 (ValueProvider<StudentProgressSummaryDto, ?>) StudentProgressSummaryDto::getSuccessRatePercentage)
                 .setHeader("Success Rate")
+                .setSortProperty("successRate")
                 .setFlexGrow(1);
 
         this.grid.addColumn(progress -> progress.hintsUsed)
                 .setHeader("Hints Used")
+                .setSortProperty("hintsUsed")
                 .setFlexGrow(0);
 
         this.grid.addColumn(
                 (ValueProvider<StudentProgressSummaryDto, ?>) StudentProgressSummaryDto::getFormattedAverageActions)
                 .setHeader("Avg Actions/Problem")
+                .setSortProperty("averageActionsPerProblem")
                 .setFlexGrow(1);
 
         this.grid.addColumn(progress -> this.dateTimeFormatter.formatDateTime(progress.lastActivity))
                 .setHeader("Last Activity")
+                .setSortProperty("lastActivity")
                 .setWidth("180px").setFlexGrow(0);
 
+        // Lazy data provider: paging, sorting and filtering happen in the database
+        this.grid.setItems(this::fetchProgressData, this::countProgressData);
+
         this.add(this.grid);
     }
 
@@ -173,70 +191,57 @@ public class AdminProgressView extends VerticalLayout implements BeforeEnterObse
     }
 
     private void searchStudents() {
-        final String searchTerm = this.searchField.getValue();
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            this.loadProgressData();
-            return;
-        }
-
-        try {
-            final var allProgress = this.analyticsService.getAllUsersProgressSummary();
-            final var filtered = allProgress.stream()
-                    .filter(p -> p.username != null && p.username.toLowerCase().contains(searchTerm.toLowerCase()))
-                    .toList();
-            this.grid.setItems(filtered);
-        } catch (final Exception e) {
-            LOG.error("Error searching students", e);
-            NotificationUtil.showError("Error searching students: " + e.getMessage());
-        }
+        this.loadProgressData();
     }
 
     private void loadProgressData() {
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return this.analyticsService.getAllUsersProgressSummary();
-            } catch (final Exception e) {
-                LOG.error("Error loading progress data", e);
-                throw new RuntimeException("Failed to load progress data", e);
-            }
-        }).whenComplete((progressData, throwable) -> {
-            this.getUI().ifPresent(ui -> ui.access(() -> {
-                if (throwable != null) {
-                    LOG.error("Error loading progress data: {}", throwable.getMessage(), throwable);
-                    NotificationUtil.showError("Failed to load progress data");
-                } else {
-                    this.grid.setItems(progressData);
-                    this.grid.getDataProvider().refreshAll();
-                }
-            }));
-        });
+        this.grid.getDataProvider().refreshAll();
     }
 
     private void filterByDateRange() {
+        this.loadProgressData();
+    }
+
+    private Stream<StudentProgressSummaryDto> fetchProgressData(final Query<StudentProgressSummaryDto, Void> query) {
+        final var sortOrder = query.getSortOrders().stream().findFirst();
+        try {
+            return this.analyticsService.getUsersProgressSummary(
+                    this.searchField.getValue(),
+                    this.getActivityFrom(),
+                    this.getActivityTo(),
+                    sortOrder.map(QuerySortOrder::getSorted).orElse(null),
+                    sortOrder.map(order -> order.getDirection() == SortDirection.ASCENDING).orElse(false),
+                    query.getOffset(),
+                    query.getLimit()).stream();
+        } catch (final Exception e) {
+            LOG.error("Error loading progress data", e);
+            NotificationUtil.showError("Failed to load progress data");
+            return Stream.empty();
+        }
+    }
+
+    private int countProgressData(final Query<StudentProgressSummaryDto, Void> query) {
         try {
-            final var allProgress = this.analyticsService.getAllUsersProgressSummary();
-            final var startDate = this.startDatePicker.getValue();
-            final var endDate = this.endDatePicker.getValue();
-
-            final var filtered = allProgress.stream()
-                    .filter(p -> {
-                        if (p.lastActivity == null) {
-                            return false;
-                        }
-                        final var activityDate = p.lastActivity.toLocalDate();
-                        final boolean passStart = startDate == null || !activityDate.isBefore(startDate);
-                        final boolean passEnd = endDate == null || !activityDate.isAfter(endDate);
-                        return passStart && passEnd;
-                    })
-                    .toList();
-
-            this.grid.setItems(filtered);
+            return (int) this.analyticsService.countUsersProgressSummary(
+                    this.searchField.getValue(),
+                    this.getActivityFrom(),
+                    this.getActivityTo());
         } catch (final Exception e) {
-            LOG.error("Error filtering by date range", e);
-            NotificationUtil.showError("Error filtering by date range: " + e.getMessage());
+            LOG.error("Error counting progress data", e);
+            return 0;
         }
     }
 
+    private LocalDateTime getActivityFrom() {
+        final LocalDate startDate = this.startDatePicker.getValue();
+        return startDate != null ? startDate.atStartOfDay() : null;
+    }
+
+    private LocalDateTime getActivityTo() {
+        final LocalDate endDate = this.endDatePicker.getValue();
+        return endDate != null ? endDate.atTime(LocalTime.MAX) : null;
+    }
+
     private void resetFilters() {
         this.searchField.clear();
         this.startDatePicker.clear();
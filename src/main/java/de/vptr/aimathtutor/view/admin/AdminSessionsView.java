@@ -11,6 +11,7 @@ import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
@@ -20,6 +21,7 @@ import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.DownloadHandler;
 
 import de.vptr.aimathtutor.component.button.RefreshButton;
 import de.vptr.aimathtutor.component.layout.DateFilterLayout;
@@ -27,7 +29,9 @@ import de.vptr.aimathtutor.component.layout.SearchLayout;
 import de.vptr.aimathtutor.dto.StudentSessionViewDto;
 import de.vptr.aimathtutor.service.AnalyticsService;
 import de.vptr.aimathtutor.service.AuthService;
+import de.vptr.aimathtutor.service.ExportService;
 import de.vptr.aimathtutor.util.DateTimeFormatterUtil;
+import de.vptr.aimathtutor.util.ExportWriter;
 import de.vptr.aimathtutor.util.NotificationUtil;
 import jakarta.inject.Inject;
 
@@ -49,6 +53,9 @@ public class AdminSessionsView extends VerticalLayout implements BeforeEnterObse
     @Inject
     AnalyticsService analyticsService;
 
+    @Inject
+    ExportService exportService;
+
     @Inject
     DateTimeFormatterUtil dateTimeFormatter;
 
@@ -172,9 +179,38 @@ public class AdminSessionsView extends VerticalLayout implements BeforeEnterObse
         final var refreshButton = new RefreshButton(e -> this.loadSessions());
 
         layout.add(refreshButton);
+        for (final var format : ExportWriter.Format.values()) {
+            layout.add(this.createExportLink("sessions", format));
+            layout.add(this.createExportLink("ai-interactions", format));
+        }
         return layout;
     }
 
+    /**
+     * Creates a download link that streams the export straight into the
+     * response, without loading the rows into the view.
+     */
+    private Anchor createExportLink(final String dataset, final ExportWriter.Format format) {
+        final DownloadHandler handler = event -> {
+            event.setFileName(dataset + "." + format.extension + ".gz");
+            event.setContentType("application/gzip");
+            try {
+                if ("sessions".equals(dataset)) {
+                    this.exportService.exportSessions(format, event.getOutputStream());
+                } else {
+                    this.exportService.exportAIInteractions(format, event.getOutputStream());
+                }
+            } catch (final Exception e) {
+                LOG.error("Error exporting {} as {}", dataset, format, e);
+                throw e;
+            }
+        };
+
+        final var link = new Anchor(handler, "Export " + dataset + " (" + format.name() + ")");
+        link.getElement().setAttribute("download", true);
+        return link;
+    }
+
     private void searchSessions() {
         final String searchTerm = this.searchField.getValue();
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
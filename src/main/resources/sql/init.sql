@@ -2,6 +2,9 @@
 
 BEGIN;
 
+-- Trigram matching for the admin search fields (ILIKE '%term%' and similarity ranking)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- --------------------------------------------------------
 
 --
@@ -66,6 +69,10 @@ CREATE TABLE users (
   tutor_avatar_emoji VARCHAR(10) NOT NULL DEFAULT '🤖'
 );
 
+-- Trigram indexes for substring search
+CREATE INDEX users_username_trgm_idx ON users USING gin (username gin_trgm_ops);
+CREATE INDEX users_email_trgm_idx ON users USING gin (email gin_trgm_ops);
+
 --
 -- Inserts for table `users`
 --
@@ -88,18 +95,26 @@ SELECT setval('users_id_seq', 4, true);
 CREATE TABLE lessons (
   id BIGSERIAL PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
-  parent_id BIGINT DEFAULT NULL
+  parent_id BIGINT DEFAULT NULL,
+  -- Materialized path of ids from the root, e.g. '/1/4/', maintained by LessonService
+  path VARCHAR(1024) DEFAULT NULL
 );
 
+-- Trigram index for substring search
+CREATE INDEX lessons_name_trgm_idx ON lessons USING gin (name gin_trgm_ops);
+
+-- Prefix index for subtree lookups (path LIKE '/1/4/%')
+CREATE INDEX lessons_path_idx ON lessons (path text_pattern_ops);
+
 -- --------------------------------------------------------
 
 -- Inserts for table `lessons`
 
-INSERT INTO lessons (id, name, parent_id) VALUES
-(1, 'Algebra', NULL),
-(2, 'Linear Equations', 1),
-(3, 'Quadratic Equations', 1),
-(4, 'Polynomials', 1);
+INSERT INTO lessons (id, name, parent_id, path) VALUES
+(1, 'Algebra', NULL, '/1/'),
+(2, 'Linear Equations', 1, '/1/2/'),
+(3, 'Quadratic Equations', 1, '/1/3/'),
+(4, 'Polynomials', 1, '/1/4/');
 
 -- Set sequence to 4 so next value is 5
 SELECT setval('lessons_id_seq', 4, true);
@@ -126,12 +141,19 @@ CREATE TABLE exercises (
   graspable_initial_expression TEXT,
   graspable_target_expression TEXT,
   graspable_difficulty VARCHAR(50),
-  graspable_hints TEXT
+  graspable_hints TEXT,
+  -- Denormalized comment counters: visible comments, flags on non-deleted comments, newest comment
+  comments_count INT NOT NULL DEFAULT 0,
+  open_flags_count INT NOT NULL DEFAULT 0,
+  last_comment_at TIMESTAMP DEFAULT NULL
 );
 
 -- Full-text search index for content
 CREATE INDEX exercises_content_fts ON exercises USING gin(to_tsvector('english', content));
 
+-- Trigram index for substring search on titles
+CREATE INDEX exercises_title_trgm_idx ON exercises USING gin (title gin_trgm_ops);
+
 -- --------------------------------------------------------
 
 -- Seed exercises for lessons (graspable-enabled where appropriate)
@@ -276,6 +298,9 @@ CREATE TABLE student_sessions (
 -- Performance indexes
 CREATE INDEX student_sessions_user_id_idx ON student_sessions (user_id);
 CREATE INDEX student_sessions_exercise_id_idx ON student_sessions (exercise_id);
+CREATE INDEX student_sessions_start_time_idx ON student_sessions (start_time);
+-- Completed sessions per exercise of one user (index-only scan)
+CREATE INDEX student_sessions_user_completed_idx ON student_sessions (user_id, exercise_id) WHERE completed;
 
 -- --------------------------------------------------------
 
@@ -297,6 +322,7 @@ CREATE TABLE ai_interactions (
   confidence_score DOUBLE PRECISION DEFAULT NULL,
   action_correct BOOLEAN DEFAULT NULL,
   conversation_context TEXT,
+  provider VARCHAR(50) DEFAULT NULL,
   timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -304,6 +330,116 @@ CREATE TABLE ai_interactions (
 CREATE INDEX ai_interactions_session_id_idx ON ai_interactions (session_id);
 CREATE INDEX ai_interactions_user_id_idx ON ai_interactions (user_id);
 CREATE INDEX ai_interactions_exercise_id_idx ON ai_interactions (exercise_id);
+CREATE INDEX ai_interactions_timestamp_idx ON ai_interactions (timestamp);
+
+-- --------------------------------------------------------
+
+--
+-- Structure for table `user_progress`
+-- (per-user aggregates of student_sessions, maintained on the write path)
+--
+
+CREATE TABLE user_progress (
+  user_id BIGINT PRIMARY KEY,
+  total_sessions BIGINT NOT NULL DEFAULT 0,
+  completed_sessions BIGINT NOT NULL DEFAULT 0,
+  hints_used BIGINT NOT NULL DEFAULT 0,
+  actions_count BIGINT NOT NULL DEFAULT 0,
+  correct_actions BIGINT NOT NULL DEFAULT 0,
+  last_activity TIMESTAMP DEFAULT NULL
+);
+
+-- Performance indexes
+CREATE INDEX user_progress_last_activity_idx ON user_progress (last_activity);
+
+-- --------------------------------------------------------
+
+--
+-- Structure for table `group_exercise_progress`
+-- (per-group and per-exercise aggregates of student_sessions, maintained on the write path)
+--
+
+CREATE TABLE group_exercise_progress (
+  group_id BIGINT NOT NULL,
+  exercise_id BIGINT NOT NULL,
+  total_sessions BIGINT NOT NULL DEFAULT 0,
+  completed_sessions BIGINT NOT NULL DEFAULT 0,
+  hints_used BIGINT NOT NULL DEFAULT 0,
+  actions_count BIGINT NOT NULL DEFAULT 0,
+  correct_actions BIGINT NOT NULL DEFAULT 0,
+  last_activity TIMESTAMP DEFAULT NULL,
+  PRIMARY KEY (group_id, exercise_id)
+);
+
+CREATE INDEX group_exercise_progress_exercise_id_idx ON group_exercise_progress (exercise_id);
+
+-- --------------------------------------------------------
+
+--
+-- Structure for tables `session_rollups` and `ai_interaction_rollups`
+-- (hourly and daily buckets, filled incrementally by the rollup job)
+--
+
+CREATE TABLE session_rollups (
+  id BIGSERIAL PRIMARY KEY,
+  granularity VARCHAR(10) NOT NULL,
+  bucket_start TIMESTAMP NOT NULL,
+  exercise_id BIGINT DEFAULT NULL,
+  lesson_id BIGINT DEFAULT NULL,
+  sessions_started BIGINT NOT NULL DEFAULT 0,
+  sessions_completed BIGINT NOT NULL DEFAULT 0,
+  hints_used BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT session_rollups_bucket_key UNIQUE NULLS NOT DISTINCT (granularity, bucket_start, exercise_id, lesson_id)
+);
+
+CREATE TABLE ai_interaction_rollups (
+  id BIGSERIAL PRIMARY KEY,
+  granularity VARCHAR(10) NOT NULL,
+  bucket_start TIMESTAMP NOT NULL,
+  exercise_id BIGINT DEFAULT NULL,
+  lesson_id BIGINT DEFAULT NULL,
+  provider VARCHAR(50) NOT NULL,
+  ai_calls BIGINT NOT NULL DEFAULT 0,
+  hints BIGINT NOT NULL DEFAULT 0,
+  answers BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT ai_interaction_rollups_bucket_key
+    UNIQUE NULLS NOT DISTINCT (granularity, bucket_start, exercise_id, lesson_id, provider)
+);
+
+-- Serialized per-exercise histograms (time-to-complete, actions, hints)
+CREATE TABLE exercise_stat_sketches (
+  exercise_id BIGINT NOT NULL,
+  metric VARCHAR(30) NOT NULL,
+  sketch BYTEA NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (exercise_id, metric)
+);
+
+-- Daily HyperLogLog sketches of distinct users, exercise_id NULL covers all exercises
+CREATE TABLE user_activity_sketches (
+  id BIGSERIAL PRIMARY KEY,
+  day DATE NOT NULL,
+  exercise_id BIGINT DEFAULT NULL,
+  sketch BYTEA NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT user_activity_sketches_day_key UNIQUE NULLS NOT DISTINCT (day, exercise_id)
+);
+
+-- Knowledge tracing snapshots, one mastery probability per student and lesson (skill)
+CREATE TABLE student_skill_mastery (
+  user_id BIGINT NOT NULL,
+  lesson_id BIGINT NOT NULL,
+  mastery DOUBLE PRECISION NOT NULL,
+  observations INTEGER NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (user_id, lesson_id)
+);
+
+-- Rows up to processed_until have been rolled up
+CREATE TABLE rollup_watermarks (
+  name VARCHAR(50) PRIMARY KEY,
+  processed_until TIMESTAMP NOT NULL
+);
 
 -- --------------------------------------------------------
 
@@ -346,6 +482,28 @@ ALTER TABLE ai_interactions
   ADD CONSTRAINT ai_interactions_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE SET NULL ON UPDATE CASCADE,
   ADD CONSTRAINT ai_interactions_exercise_id_fkey FOREIGN KEY (exercise_id) REFERENCES exercises (id) ON DELETE SET NULL ON UPDATE CASCADE;
 
+-- Constraints for table `exercise_stat_sketches`
+ALTER TABLE exercise_stat_sketches
+  ADD CONSTRAINT exercise_stat_sketches_exercise_id_fkey FOREIGN KEY (exercise_id) REFERENCES exercises (id) ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- Constraints for table `user_activity_sketches`
+ALTER TABLE user_activity_sketches
+  ADD CONSTRAINT user_activity_sketches_exercise_id_fkey FOREIGN KEY (exercise_id) REFERENCES exercises (id) ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- Constraints for table `student_skill_mastery`
+ALTER TABLE student_skill_mastery
+  ADD CONSTRAINT student_skill_mastery_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
+  ADD CONSTRAINT student_skill_mastery_lesson_id_fkey FOREIGN KEY (lesson_id) REFERENCES lessons (id) ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- Constraints for table `user_progress`
+ALTER TABLE user_progress
+  ADD CONSTRAINT user_progress_user_id_fkey FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- Constraints for table `group_exercise_progress`
+ALTER TABLE group_exercise_progress
+  ADD CONSTRAINT group_exercise_progress_group_id_fkey FOREIGN KEY (group_id) REFERENCES user_groups (id) ON DELETE CASCADE ON UPDATE CASCADE,
+  ADD CONSTRAINT group_exercise_progress_exercise_id_fkey FOREIGN KEY (exercise_id) REFERENCES exercises (id) ON DELETE CASCADE ON UPDATE CASCADE;
+
 -- --------------------------------------------------------
 
 --
@@ -58,6 +58,18 @@ class AuthResultDtoTest {
         assertFalse(result.isSuccess());
     }
 
+    @Test
+    @DisplayName("Should create too many attempts result")
+    void shouldCreateTooManyAttemptsResult() {
+        // When
+        final AuthResultDto result = AuthResultDto.tooManyAttempts();
+
+        // Then
+        assertEquals(AuthResultDto.Status.TOO_MANY_ATTEMPTS, result.getStatus());
+        assertEquals("Too many login attempts, please try again later", result.getMessage());
+        assertFalse(result.isSuccess());
+    }
+
     @Test
     @DisplayName("Should handle null details in backend unavailable")
     void shouldHandleNullDetailsInBackendUnavailable() {
@@ -111,7 +123,8 @@ class AuthResultDtoTest {
                 AuthResultDto.Status.SUCCESS,
                 AuthResultDto.Status.INVALID_CREDENTIALS,
                 AuthResultDto.Status.BACKEND_UNAVAILABLE,
-                AuthResultDto.Status.INVALID_INPUT
+                AuthResultDto.Status.INVALID_INPUT,
+                AuthResultDto.Status.TOO_MANY_ATTEMPTS
         };
 
         final AuthResultDto.Status[] actualValues = AuthResultDto.Status.values();
@@ -0,0 +1,64 @@
+package de.vptr.aimathtutor.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CatalogSnapshotDtoTest {
+
+    private static ExerciseViewDto exercise(final Long id, final Long lessonId) {
+        final var dto = new ExerciseViewDto();
+        dto.id = id;
+        dto.lessonId = lessonId;
+        dto.published = true;
+        return dto;
+    }
+
+    private static LessonViewDto lesson(final Long id) {
+        final var dto = new LessonViewDto();
+        dto.id = id;
+        dto.name = "Lesson " + id;
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Should group published exercises by lesson in display order")
+    void shouldGroupExercisesByLesson() {
+        final var snapshot = new CatalogSnapshotDto(3L, LocalDateTime.now(), List.of(lesson(2L), lesson(1L)),
+                List.of(exercise(30L, 1L), exercise(20L, null), exercise(10L, 1L), exercise(5L, 2L)));
+
+        assertEquals(3L, snapshot.generation);
+        assertEquals(List.of(30L, 10L), snapshot.getPublishedExercises(1L).stream().map(e -> e.id).toList());
+        assertEquals(List.of(5L), snapshot.getPublishedExercises(2L).stream().map(e -> e.id).toList());
+        assertTrue(snapshot.getPublishedExercises(99L).isEmpty());
+        assertTrue(snapshot.getPublishedExercises(null).isEmpty());
+        assertEquals(List.of(20L), snapshot.standaloneExercises.stream().map(e -> e.id).toList());
+        assertFalse(snapshot.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should be unmodifiable")
+    void shouldBeUnmodifiable() {
+        final var snapshot = new CatalogSnapshotDto(1L, LocalDateTime.now(), List.of(lesson(1L)),
+                List.of(exercise(10L, 1L)));
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.lessons.add(lesson(2L)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.publishedExercises.clear());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getPublishedExercises(1L).clear());
+    }
+
+    @Test
+    @DisplayName("Should be empty without lessons and standalone exercises")
+    void shouldBeEmptyWithoutContent() {
+        final var snapshot = new CatalogSnapshotDto(0L, LocalDateTime.now(), List.of(), List.of());
+
+        assertTrue(snapshot.isEmpty());
+    }
+}
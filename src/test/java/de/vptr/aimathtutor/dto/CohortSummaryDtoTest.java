@@ -0,0 +1,64 @@
+package de.vptr.aimathtutor.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CohortSummaryDtoTest {
+
+    @Test
+    @DisplayName("Should fold exercise rows into group totals")
+    void shouldFoldExerciseRowsIntoTotals() {
+        final LocalDateTime earlier = LocalDateTime.of(2025, 1, 10, 9, 0);
+        final LocalDateTime later = LocalDateTime.of(2025, 1, 15, 10, 30);
+        final var summary = new CohortSummaryDto(1L, "Class 7a", 12);
+
+        summary.addExercise(new CohortExerciseStatsDto(10L, "Fractions", 4, 2, 3, 20, 15, later));
+        summary.addExercise(new CohortExerciseStatsDto(11L, "Equations", 6, 6, 1, 30, 27, earlier));
+
+        assertEquals(12, summary.memberCount);
+        assertEquals(10, summary.totalSessions);
+        assertEquals(8, summary.completedSessions);
+        assertEquals(4, summary.hintsUsed);
+        assertEquals(50, summary.actionsCount);
+        assertEquals(42, summary.correctActions);
+        assertEquals(later, summary.lastActivity);
+        assertEquals("80.0%", summary.getCompletionRatePercentage());
+        assertEquals("84.0%", summary.getSuccessRatePercentage());
+        assertEquals("0.4", summary.getFormattedHintsPerSession());
+    }
+
+    @Test
+    @DisplayName("Should rank struggle hot-spots and skip rarely attempted exercises")
+    void shouldRankStruggleHotSpots() {
+        final var summary = new CohortSummaryDto(1L, "Class 7a", 3);
+        summary.addExercise(new CohortExerciseStatsDto(1L, "Easy", 10, 10, 0, 40, 40, null));
+        summary.addExercise(new CohortExerciseStatsDto(2L, "Hard", 10, 2, 25, 80, 30, null));
+        summary.addExercise(new CohortExerciseStatsDto(3L, "Medium", 10, 7, 5, 50, 35, null));
+        summary.addExercise(new CohortExerciseStatsDto(4L, "Rare", 1, 0, 3, 5, 0, null));
+
+        final List<CohortExerciseStatsDto> hotSpots = summary.getStruggleHotSpots(2);
+
+        assertEquals(2, hotSpots.size());
+        assertEquals("Hard", hotSpots.get(0).exerciseTitle);
+        assertEquals("Medium", hotSpots.get(1).exerciseTitle);
+        assertTrue(hotSpots.get(0).getStruggleScore() <= 1.0);
+    }
+
+    @Test
+    @DisplayName("Should handle groups without activity")
+    void shouldHandleGroupsWithoutActivity() {
+        final var summary = new CohortSummaryDto(2L, "Empty", 0);
+
+        assertEquals(0.0, summary.getCompletionRate());
+        assertEquals(0.0, summary.getSuccessRate());
+        assertEquals(0.0, summary.getHintsPerSession());
+        assertTrue(summary.getStruggleHotSpots(5).isEmpty());
+        assertEquals(0.0, new CohortExerciseStatsDto().getStruggleScore());
+    }
+}
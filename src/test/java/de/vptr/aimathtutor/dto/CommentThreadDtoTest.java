@@ -0,0 +1,51 @@
+package de.vptr.aimathtutor.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CommentThreadDtoTest {
+
+    @Test
+    @DisplayName("Should nest replies under their parents and keep the order")
+    void shouldNestRepliesUnderParents() {
+        final List<CommentThreadDto> threads = CommentThreadDto.assemble(List.of(
+                comment(2L, null),
+                comment(1L, null),
+                comment(10L, 1L),
+                comment(11L, 1L),
+                comment(20L, 10L)));
+
+        assertEquals(2, threads.size());
+        assertEquals(2L, threads.get(0).comment.id);
+        assertTrue(threads.get(0).replies.isEmpty());
+
+        final CommentThreadDto first = threads.get(1);
+        assertEquals(1L, first.comment.id);
+        assertEquals(2, first.replies.size());
+        assertEquals(10L, first.replies.get(0).comment.id);
+        assertEquals(11L, first.replies.get(1).comment.id);
+        assertEquals(20L, first.replies.get(0).replies.get(0).comment.id);
+        assertEquals(4, first.size());
+    }
+
+    @Test
+    @DisplayName("Should treat replies with unknown parents as roots")
+    void shouldTreatOrphansAsRoots() {
+        final List<CommentThreadDto> threads = CommentThreadDto.assemble(List.of(comment(5L, 99L)));
+
+        assertEquals(1, threads.size());
+        assertEquals(5L, threads.get(0).comment.id);
+    }
+
+    private static CommentViewDto comment(final Long id, final Long parentId) {
+        final var dto = new CommentViewDto();
+        dto.id = id;
+        dto.parentId = parentId;
+        return dto;
+    }
+}
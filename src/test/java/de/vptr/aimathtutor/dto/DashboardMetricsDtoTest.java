@@ -0,0 +1,50 @@
+package de.vptr.aimathtutor.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DashboardMetricsDtoTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    private final DashboardMetricsDto metrics = new DashboardMetricsDto(10, 4, 3, 5, 8, 2, 2, DAY,
+            DAY.atTime(8, 0));
+
+    @Test
+    @DisplayName("Should count started sessions of the same day")
+    void shouldCountStartedSessionsOfSameDay() {
+        final var updated = this.metrics.withSessionStarted(DAY.atTime(9, 30));
+
+        assertEquals(11, updated.totalSessions);
+        assertEquals(3, updated.todaySessions);
+        assertEquals(3, updated.activeStudents);
+        assertEquals(2, updated.activeStudentsToday);
+        assertEquals(DAY, updated.day);
+        assertEquals(10, this.metrics.totalSessions);
+    }
+
+    @Test
+    @DisplayName("Should restart today's counter on a new day")
+    void shouldRestartTodayCounterOnNewDay() {
+        final var updated = this.metrics.withSessionStarted(LocalDateTime.of(2025, 1, 16, 0, 5));
+
+        assertEquals(11, updated.totalSessions);
+        assertEquals(1, updated.todaySessions);
+        assertEquals(1, updated.activeStudentsToday);
+        assertEquals(DAY.plusDays(1), updated.day);
+    }
+
+    @Test
+    @DisplayName("Should count completed sessions")
+    void shouldCountCompletedSessions() {
+        final var updated = this.metrics.withSessionCompleted();
+
+        assertEquals(5, updated.completedSessions);
+        assertEquals(10, updated.totalSessions);
+    }
+}
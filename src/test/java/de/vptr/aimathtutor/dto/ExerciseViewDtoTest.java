@@ -95,4 +95,20 @@ class ExerciseViewDtoTest {
 
         assertFalse(dto.commentable);
     }
+
+    @Test
+    @DisplayName("Should copy DTO without sharing per-user fields")
+    void shouldCopyDto() {
+        final ExerciseViewDto original = new ExerciseViewDto(this.exerciseEntity);
+        final ExerciseViewDto copy = new ExerciseViewDto(original);
+        copy.userCompleted = true;
+        copy.userCompletionCount = 2;
+
+        assertEquals(original.id, copy.id);
+        assertEquals(original.title, copy.title);
+        assertEquals(original.lessonId, copy.lessonId);
+        assertEquals(original.username, copy.username);
+        assertNull(original.userCompleted);
+        assertNull(original.userCompletionCount);
+    }
 }
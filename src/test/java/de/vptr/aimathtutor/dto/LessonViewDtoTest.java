@@ -2,6 +2,9 @@ package de.vptr.aimathtutor.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -57,4 +60,22 @@ class LessonViewDtoTest {
         assertEquals("Parent Lesson", dto.name);
         assertNull(dto.parentId);
     }
+
+    @Test
+    @DisplayName("Should create DTO from bulk counts")
+    void shouldCreateDtoFromBulkCounts() {
+        final LessonViewDto dto = new LessonViewDto(this.parentEntity, List.of(2L, 3L), 4);
+
+        assertEquals(1L, dto.id);
+        assertTrue(dto.isRootLesson());
+        assertEquals(List.of(2L, 3L), dto.childrenIds);
+        assertEquals(2, dto.childrenCount);
+        assertEquals(4, dto.exercisesCount);
+
+        final LessonViewDto leaf = new LessonViewDto(this.lessonEntity, null, 0);
+        assertEquals(1L, leaf.parentId);
+        assertEquals("Parent Lesson", leaf.parentName);
+        assertEquals(0, leaf.childrenCount);
+        assertEquals(List.of(), leaf.childrenIds);
+    }
 }
@@ -0,0 +1,47 @@
+package de.vptr.aimathtutor.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StudentProgressSummaryDtoTest {
+
+    @Test
+    @DisplayName("Should derive rates from aggregated sums")
+    void shouldDeriveRatesFromAggregatedSums() {
+        final LocalDateTime lastActivity = LocalDateTime.of(2025, 1, 15, 10, 30);
+        final StudentProgressSummaryDto dto = new StudentProgressSummaryDto(
+                1L, "student1", 4L, 2L, 3L, 20L, 15L, lastActivity);
+
+        assertEquals(1L, dto.userId);
+        assertEquals("student1", dto.username);
+        assertEquals(4, dto.totalSessions);
+        assertEquals(2, dto.completedSessions);
+        assertEquals(4, dto.totalProblems);
+        assertEquals(2, dto.completedProblems);
+        assertEquals(3, dto.hintsUsed);
+        assertEquals(5.0, dto.averageActionsPerProblem);
+        assertEquals(0.75, dto.successRate);
+        assertEquals(lastActivity, dto.lastActivity);
+        assertEquals("50.0%", dto.getCompletionRatePercentage());
+    }
+
+    @Test
+    @DisplayName("Should handle users without sessions")
+    void shouldHandleUsersWithoutSessions() {
+        final StudentProgressSummaryDto dto = new StudentProgressSummaryDto(
+                2L, "student2", 0L, null, null, null, null, null);
+
+        assertEquals(0, dto.totalSessions);
+        assertEquals(0, dto.completedSessions);
+        assertEquals(0, dto.hintsUsed);
+        assertEquals(0.0, dto.averageActionsPerProblem);
+        assertEquals(0.0, dto.successRate);
+        assertNull(dto.lastActivity);
+        assertEquals("0%", dto.getCompletionRatePercentage());
+    }
+}
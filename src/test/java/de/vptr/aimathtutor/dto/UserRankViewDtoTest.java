@@ -69,4 +69,18 @@ class UserRankViewDtoTest {
         assertEquals(1L, dto.id);
         assertNull(dto.name);
     }
+
+    @Test
+    @DisplayName("Should copy DTO independently of the original")
+    void shouldCopyDtoIndependentlyOfOriginal() {
+        final UserRankViewDto original = new UserRankViewDto(this.rankEntity, 3L);
+        final UserRankViewDto copy = new UserRankViewDto(original);
+        copy.adminView = false;
+
+        assertEquals(1L, copy.id);
+        assertEquals("Admin", copy.name);
+        assertEquals(3L, copy.usersCount);
+        assertTrue(copy.lessonAdd);
+        assertTrue(original.adminView);
+    }
 }
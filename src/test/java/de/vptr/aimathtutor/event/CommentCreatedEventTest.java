@@ -39,6 +39,21 @@ class CommentCreatedEventTest {
         assertEquals(createdAt, event.getCreatedAt());
     }
 
+    @Test
+    @DisplayName("Should carry the parent comment of replies")
+    void testReplyEventConstruction() {
+        // When
+        final CommentCreatedEvent reply = new CommentCreatedEvent(
+                5L, 2L, 4L, 3L, "testuser", "Reply", LocalDateTime.now());
+        final CommentCreatedEvent topLevel = new CommentCreatedEvent(
+                6L, 2L, 3L, "testuser", "Comment", LocalDateTime.now());
+
+        // Then
+        assertEquals(4L, reply.getParentCommentId());
+        assertEquals(3L, reply.getUserId());
+        assertNull(topLevel.getParentCommentId());
+    }
+
     @Test
     @DisplayName("Should return correct comment ID")
     void testGetCommentId() {
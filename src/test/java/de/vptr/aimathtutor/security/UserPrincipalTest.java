@@ -0,0 +1,66 @@
+package de.vptr.aimathtutor.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.vptr.aimathtutor.entity.UserEntity;
+import de.vptr.aimathtutor.entity.UserRankEntity;
+
+class UserPrincipalTest {
+
+    @Test
+    @DisplayName("Should map rank flags to permissions")
+    void shouldMapRankFlagsToPermissions() {
+        final var rank = new UserRankEntity();
+        rank.id = 2L;
+        rank.adminView = true;
+        rank.exerciseEdit = true;
+        rank.userRankDelete = true;
+        rank.lessonAdd = false;
+
+        final var user = new UserEntity();
+        user.id = 5L;
+        user.username = "teacher";
+        user.rank = rank;
+
+        final UserPrincipal principal = UserPrincipal.of(user);
+        assertEquals(5L, principal.id);
+        assertEquals("teacher", principal.username);
+        assertEquals(2L, principal.rankId);
+        assertEquals(Set.of("admin:view", "exercise:edit", "user-rank:delete"), principal.permissions);
+        assertTrue(principal.hasPermission("exercise:edit"));
+        assertFalse(principal.hasPermission("lesson:add"));
+    }
+
+    @Test
+    @DisplayName("Should have no permissions without a rank")
+    void shouldHaveNoPermissionsWithoutRank() {
+        final var user = new UserEntity();
+        user.id = 1L;
+        user.username = "student";
+
+        final UserPrincipal principal = UserPrincipal.of(user);
+        assertNull(principal.rankId);
+        assertTrue(principal.permissions.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not change when the source set changes")
+    void shouldBeImmutable() {
+        final Set<String> permissions = new HashSet<>(Set.of("comment:add"));
+        final var principal = new UserPrincipal(1L, "student", 3L, permissions);
+        permissions.add("admin:view");
+
+        assertEquals(Set.of("comment:add"), principal.permissions);
+        assertThrows(UnsupportedOperationException.class, () -> principal.permissions.add("admin:view"));
+    }
+}
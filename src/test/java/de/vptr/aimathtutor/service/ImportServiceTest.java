@@ -0,0 +1,43 @@
+package de.vptr.aimathtutor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.vptr.aimathtutor.service.ImportService.LessonRef;
+
+class ImportServiceTest {
+
+    private static final LessonRef EXISTING = new LessonRef(42L, "/7/42/");
+
+    private static final LessonRef IMPORTED = new LessonRef(100L, "/100/");
+
+    @Test
+    @DisplayName("Should not fall back to an existing lesson for a rejected ref")
+    void shouldNotFallBackForRejectedRef() {
+        // The file declared lesson "42", but its row was rejected or its chunk failed
+        assertNull(ImportService.resolveParent("42", Map.of(), Map.of(), Set.of("42"), Map.of("42", EXISTING)));
+    }
+
+    @Test
+    @DisplayName("Should resolve undeclared numeric refs to existing lessons")
+    void shouldResolveUndeclaredNumericRefs() {
+        assertEquals(EXISTING,
+                ImportService.resolveParent("42", Map.of(), Map.of(), Set.of("1"), Map.of("42", EXISTING)));
+        assertNull(ImportService.resolveParent("43", Map.of(), Map.of(), Set.of(), Map.of("42", EXISTING)));
+    }
+
+    @Test
+    @DisplayName("Should prefer lessons imported from the file")
+    void shouldPreferImportedLessons() {
+        assertEquals(IMPORTED, ImportService.resolveParent("42", Map.of("42", IMPORTED), Map.of(), Set.of("42"),
+                Map.of("42", EXISTING)));
+        assertEquals(IMPORTED, ImportService.resolveParent("42", Map.of(), Map.of("42", IMPORTED), Set.of("42"),
+                Map.of("42", EXISTING)));
+    }
+}
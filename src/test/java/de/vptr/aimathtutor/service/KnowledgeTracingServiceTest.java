@@ -0,0 +1,52 @@
+package de.vptr.aimathtutor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KnowledgeTracingServiceTest {
+
+    @Test
+    @DisplayName("Should raise mastery after a correct step")
+    void shouldRaiseMasteryAfterCorrectStep() {
+        final double updated = KnowledgeTracingService.update(0.2, true, 0.2, 0.1, 0.1);
+
+        // posterior = 0.18 / (0.18 + 0.16), then learning transition
+        final double posterior = 0.18 / 0.34;
+        assertEquals(posterior + (1 - posterior) * 0.1, updated, 1e-9);
+        assertTrue(updated > 0.2);
+    }
+
+    @Test
+    @DisplayName("Should lower mastery after an incorrect step")
+    void shouldLowerMasteryAfterIncorrectStep() {
+        final double updated = KnowledgeTracingService.update(0.8, false, 0.2, 0.1, 0.0);
+
+        assertEquals(0.08 / (0.08 + 0.16), updated, 1e-9);
+        assertTrue(updated < 0.8);
+    }
+
+    @Test
+    @DisplayName("Should converge to mastery after repeated correct steps")
+    void shouldConvergeAfterRepeatedCorrectSteps() {
+        double mastery = KnowledgeTracingService.DEFAULT_PRIOR;
+        for (int i = 0; i < 10; i++) {
+            mastery = KnowledgeTracingService.update(mastery, true, 0.2, 0.1, KnowledgeTracingService.TRANSIT);
+        }
+
+        assertTrue(mastery > KnowledgeTracingService.MASTERED);
+    }
+
+    @Test
+    @DisplayName("Should make guessing less likely for harder exercises")
+    void shouldScaleGuessAndSlipWithDifficulty() {
+        final double[] beginner = KnowledgeTracingService.guessAndSlip("Beginner");
+        final double[] advanced = KnowledgeTracingService.guessAndSlip("advanced");
+
+        assertTrue(beginner[0] > advanced[0]);
+        assertTrue(beginner[1] < advanced[1]);
+        assertEquals(0.2, KnowledgeTracingService.guessAndSlip(null)[0]);
+    }
+}
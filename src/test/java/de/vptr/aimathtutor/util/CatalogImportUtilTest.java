@@ -0,0 +1,85 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.vptr.aimathtutor.dto.CatalogImportRowDto;
+import de.vptr.aimathtutor.dto.CatalogImportRowDto.Type;
+
+class CatalogImportUtilTest {
+
+    @Test
+    @DisplayName("Should canonicalize expressions")
+    void shouldCanonicalizeExpressions() {
+        assertEquals("2*x + 3 = 11", CatalogImportUtil.canonicalizeExpression("  2*x  +\t3=11 "));
+        assertEquals("3*(x - 2) = 9", CatalogImportUtil.canonicalizeExpression("3×( x − 2 ) = 9"));
+        assertEquals("x^2 - 4 = 0", CatalogImportUtil.canonicalizeExpression("x**2 - 4=0"));
+        assertEquals("x <= 5", CatalogImportUtil.canonicalizeExpression("x <= 5"));
+        assertNull(CatalogImportUtil.canonicalizeExpression(" "));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid expressions")
+    void shouldRejectInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> CatalogImportUtil.canonicalizeExpression("(x + 1"));
+        assertThrows(IllegalArgumentException.class, () -> CatalogImportUtil.canonicalizeExpression(")x("));
+        assertThrows(IllegalArgumentException.class, () -> CatalogImportUtil.canonicalizeExpression("x; DROP"));
+    }
+
+    @Test
+    @DisplayName("Should validate lesson and exercise rows")
+    void shouldValidateRows() throws IOException {
+        final var jsonl = "{\"type\":\"Lesson\",\"ref\":\"1\",\"title\":\" Algebra \"}\n"
+                + "{\"type\":\"exercise\",\"parent_ref\":\"1\",\"title\":\"Solve\",\"content\":\"Solve it\","
+                + "\"published\":\"yes\",\"graspable_enabled\":true,\"graspable_target_expression\":\"x=4\","
+                + "\"graspable_difficulty\":\"Beginner\"}\n"
+                + "{\"type\":\"exercise\",\"title\":\"No target\",\"content\":\"c\",\"graspable_enabled\":1}\n"
+                + "{\"type\":\"exercise\",\"title\":\"Bad flag\",\"content\":\"c\",\"published\":\"maybe\"}\n"
+                + "{\"type\":\"topic\",\"title\":\"t\"}\n";
+        try (var reader = ImportReader.create(ExportWriter.Format.JSONL, new StringReader(jsonl))) {
+            final CatalogImportRowDto lesson = CatalogImportUtil.validate(reader.next());
+            assertTrue(lesson.isValid());
+            assertEquals(Type.LESSON, lesson.type);
+            assertEquals("Algebra", lesson.title);
+
+            final CatalogImportRowDto exercise = CatalogImportUtil.validate(reader.next());
+            assertTrue(exercise.isValid());
+            assertEquals("1", exercise.parentRef);
+            assertTrue(exercise.published);
+            assertFalse(exercise.commentable);
+            assertEquals("x = 4", exercise.graspableTargetExpression);
+            assertEquals("beginner", exercise.graspableDifficulty);
+
+            final CatalogImportRowDto noTarget = CatalogImportUtil.validate(reader.next());
+            assertEquals(3, noTarget.line);
+            assertFalse(noTarget.isValid());
+
+            assertFalse(CatalogImportUtil.validate(reader.next()).isValid());
+            assertEquals("Unknown type 'topic'", CatalogImportUtil.validate(reader.next()).error);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the declared ref of rejected rows")
+    void shouldReportDeclaredRefOfRejectedRows() throws IOException {
+        final var jsonl = "{\"type\":\"lesson\",\"ref\":\" 42 \",\"title\":\"\"}\n"
+                + "{\"type\":\"lesson\",\"title\":\"No ref\"}\n"
+                + "not json\n";
+        try (var reader = ImportReader.create(ExportWriter.Format.JSONL, new StringReader(jsonl))) {
+            final ImportReader.Row rejected = reader.next();
+            assertFalse(CatalogImportUtil.validate(rejected).isValid());
+            assertEquals("42", CatalogImportUtil.declaredRef(rejected));
+            assertNull(CatalogImportUtil.declaredRef(reader.next()));
+            assertNull(CatalogImportUtil.declaredRef(reader.next()));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.vptr.aimathtutor.dto.CommentVerdictDto;
+import de.vptr.aimathtutor.dto.CommentVerdictDto.Verdict;
+
+class CommentModerationUtilTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, String> contents = new LinkedHashMap<>(Map.of(
+            1L, "How do I isolate x here?",
+            2L, "Buy cheap followers"));
+
+    @Test
+    @DisplayName("Should include every comment and its exercise in the prompt")
+    void shouldIncludeEveryCommentInPrompt() {
+        final String prompt = CommentModerationUtil.buildPrompt(this.contents, Map.of(1L, "Linear Equations"));
+
+        assertTrue(prompt.contains("[id=1, exercise=\"Linear Equations\"] How do I isolate x here?"));
+        assertTrue(prompt.contains("[id=2] Buy cheap followers"));
+        assertTrue(prompt.contains("\"verdicts\""));
+    }
+
+    @Test
+    @DisplayName("Should parse verdicts from a fenced JSON object")
+    void shouldParseVerdictsFromFencedObject() {
+        final String response = """
+                ```json
+                {"verdicts": [
+                    {"id": 1, "verdict": "OK", "confidence": 0.95},
+                    {"id": 2, "verdict": "off-topic", "confidence": 0.8}
+                ]}
+                ```""";
+
+        final Map<Long, CommentVerdictDto> verdicts = CommentModerationUtil.parseVerdicts(response, this.contents,
+                this.objectMapper);
+
+        assertEquals(2, verdicts.size());
+        assertEquals(Verdict.OK, verdicts.get(1L).verdict);
+        assertEquals(Verdict.OFF_TOPIC, verdicts.get(2L).verdict);
+        assertEquals(0.8, verdicts.get(2L).confidence);
+    }
+
+    @Test
+    @DisplayName("Should skip unknown ids, unknown verdicts and malformed answers")
+    void shouldSkipInvalidEntries() {
+        final String response = """
+                [{"id": 1, "verdict": "MAYBE"}, {"id": 99, "verdict": "TOXIC"}, {"verdict": "TOXIC"},
+                 {"id": 2, "verdict": "TOXIC", "confidence": 3}]""";
+
+        final Map<Long, CommentVerdictDto> verdicts = CommentModerationUtil.parseVerdicts(response, this.contents,
+                this.objectMapper);
+
+        assertEquals(1, verdicts.size());
+        assertEquals(Verdict.TOXIC, verdicts.get(2L).verdict);
+        assertEquals(1.0, verdicts.get(2L).confidence);
+        assertTrue(CommentModerationUtil.parseVerdicts("not json", this.contents, this.objectMapper).isEmpty());
+        assertTrue(CommentModerationUtil.parseVerdicts(null, this.contents, this.objectMapper).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should classify locally by keywords and links")
+    void shouldClassifyLocally() {
+        assertTrue(CommentModerationUtil.classifyLocally(1L, "Great hint, thanks!").isOk());
+        assertEquals(Verdict.TOXIC, CommentModerationUtil.classifyLocally(2L, "You idiot").verdict);
+        assertEquals(0.95, CommentModerationUtil.classifyLocally(3L, "Shut up, you stupid loser").confidence);
+        assertEquals(Verdict.OFF_TOPIC,
+                CommentModerationUtil.classifyLocally(4L, "Visit https://a.example and www.b.example").verdict);
+    }
+
+    @Test
+    @DisplayName("Should not flag abusive terms embedded in other words")
+    void shouldNotFlagEmbeddedTerms() {
+        assertTrue(CommentModerationUtil.classifyLocally(1L, "That is an oxymoron").isOk());
+        assertTrue(CommentModerationUtil.classifyLocally(2L, "What an idiotic typo in my answer").isOk());
+        assertTrue(CommentModerationUtil.classifyLocally(3L, "Calling it moronic is unfair").isOk());
+    }
+
+    @Test
+    @DisplayName("Should not flag students talking about themselves")
+    void shouldNotFlagSelfReferentialPhrases() {
+        assertTrue(CommentModerationUtil.classifyLocally(1L, "I feel so stupid, I missed the sign").isOk());
+        assertTrue(CommentModerationUtil.classifyLocally(2L, "I'm such an idiot, it was x = 2").isOk());
+        assertTrue(CommentModerationUtil.classifyLocally(3L, "This made me feel like a loser. Got it now").isOk());
+        assertEquals(Verdict.TOXIC, CommentModerationUtil.classifyLocally(4L, "I think you are stupid").verdict);
+        assertEquals(Verdict.TOXIC,
+                CommentModerationUtil.classifyLocally(5L, "I got it. Stupid people like you never will").verdict);
+    }
+}
@@ -0,0 +1,42 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExportWriterTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+    @Test
+    @DisplayName("Should write CSV header and quote special characters")
+    void shouldWriteCsvWithQuoting() throws IOException {
+        final var out = new StringWriter();
+        try (var writer = ExportWriter.create(ExportWriter.Format.CSV, out, "id", "text", "time", "done")) {
+            writer.writeRow(new Object[] { 1L, "x = 1, y = \"2\"", TIME, true });
+            writer.writeRow(new Object[] { 2L, null, null, false });
+        }
+
+        assertEquals("id,text,time,done\r\n"
+                + "1,\"x = 1, y = \"\"2\"\"\",2025-01-15T10:30,true\r\n"
+                + "2,,,false\r\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteJsonLines() throws IOException {
+        final var out = new StringWriter();
+        try (var writer = ExportWriter.create(ExportWriter.Format.JSONL, out, "id", "score", "text", "time")) {
+            writer.writeRow(new Object[] { 1L, 0.5, "line\nbreak", TIME });
+            writer.writeRow(new Object[] { 2, null, "b", null });
+        }
+
+        assertEquals("{\"id\":1,\"score\":0.5,\"text\":\"line\\nbreak\",\"time\":\"2025-01-15T10:30\"}\n"
+                + "{\"id\":2,\"score\":null,\"text\":\"b\",\"time\":null}\n", out.toString());
+    }
+}
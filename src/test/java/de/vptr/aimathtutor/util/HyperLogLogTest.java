@@ -0,0 +1,118 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Should count small sets exactly")
+    void shouldCountSmallSetsExactly() {
+        final var sketch = new HyperLogLog(14);
+        for (long id = 1; id <= 10; id++) {
+            sketch.add(id);
+            sketch.add(id);
+        }
+
+        assertEquals(10, sketch.estimate());
+        assertEquals(0, new HyperLogLog(14).estimate());
+    }
+
+    @Test
+    @DisplayName("Should estimate large sets within the expected error")
+    void shouldEstimateLargeSets() {
+        final var sketch = new HyperLogLog(14);
+        for (long id = 0; id < 100_000; id++) {
+            sketch.add(id);
+        }
+
+        assertTrue(Math.abs(sketch.estimate() - 100_000) < 100_000 * 0.03, "estimate " + sketch.estimate());
+    }
+
+    @Test
+    @DisplayName("Should merge overlapping sketches idempotently")
+    void shouldMergeOverlappingSketchesIdempotently() {
+        final var first = new HyperLogLog(14);
+        final var second = new HyperLogLog(14);
+        for (long id = 0; id < 5000; id++) {
+            first.add(id);
+            second.add(id + 2500);
+        }
+
+        first.merge(second);
+        final long merged = first.estimate();
+        first.merge(second);
+
+        assertEquals(merged, first.estimate());
+        assertTrue(Math.abs(merged - 7500) < 7500 * 0.03, "estimate " + merged);
+    }
+
+    @Test
+    @DisplayName("Should round-trip through bytes and reject mismatched precision")
+    void shouldRoundTripThroughBytes() {
+        final var sketch = new HyperLogLog(11);
+        for (long id = 0; id < 1000; id++) {
+            sketch.add(id);
+        }
+
+        final var restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(11, restored.getPrecision());
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new HyperLogLog(14)));
+    }
+
+    @Test
+    @DisplayName("Should stay sparse for small sets and turn dense when larger")
+    void shouldStaySparseForSmallSets() {
+        final var sketch = new HyperLogLog(11);
+        for (long id = 0; id < 40; id++) {
+            sketch.add(id);
+        }
+
+        assertTrue(sketch.isSparse());
+        final long estimate = sketch.estimate();
+        assertTrue(Math.abs(estimate - 40) <= 2, "estimate " + estimate);
+        assertTrue(sketch.toBytes().length < 200, "bytes " + sketch.toBytes().length);
+
+        final var restored = HyperLogLog.fromBytes(sketch.toBytes());
+        assertTrue(restored.isSparse());
+        assertEquals(estimate, restored.estimate());
+
+        for (long id = 40; id < 2000; id++) {
+            sketch.add(id);
+        }
+        assertFalse(sketch.isSparse());
+        assertEquals((1 << 11) + 1, sketch.toBytes().length);
+    }
+
+    @Test
+    @DisplayName("Should merge sparse and dense sketches to the same estimate")
+    void shouldMergeSparseAndDenseSketches() {
+        final var sparse = new HyperLogLog(11);
+        final var dense = new HyperLogLog(11);
+        final var reference = new HyperLogLog(11);
+        for (long id = 0; id < 30; id++) {
+            sparse.add(id);
+            reference.add(id);
+        }
+        for (long id = 10; id < 3000; id++) {
+            dense.add(id);
+            reference.add(id);
+        }
+
+        final var sparseIntoDense = dense.copy();
+        sparseIntoDense.merge(sparse);
+        final var denseIntoSparse = sparse.copy();
+        denseIntoSparse.merge(dense);
+
+        assertEquals(reference.estimate(), sparseIntoDense.estimate());
+        assertEquals(reference.estimate(), denseIntoSparse.estimate());
+        assertTrue(Math.abs(sparse.estimate() - 30) <= 2, "estimate " + sparse.estimate());
+    }
+}
@@ -0,0 +1,93 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ImportReaderTest {
+
+    @Test
+    @DisplayName("Should read quoted CSV fields spanning lines")
+    void shouldReadQuotedCsv() throws IOException {
+        final var csv = "id,text,done\r\n"
+                + "1,\"x = 1, y = \"\"2\"\"\",true\r\n"
+                + "2,\"line\nbreak\",\r\n"
+                + "3,a\r\n";
+        try (var reader = ImportReader.create(ExportWriter.Format.CSV, new StringReader(csv))) {
+            final var first = reader.next();
+            assertEquals(2, first.line);
+            assertEquals("x = 1, y = \"2\"", first.get("text"));
+            assertEquals("true", first.get("done"));
+
+            final var second = reader.next();
+            assertEquals(3, second.line);
+            assertEquals("line\nbreak", second.get("text"));
+            assertNull(second.get("done"));
+
+            final var third = reader.next();
+            assertEquals(5, third.line);
+            assertFalse(third.isValid());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report malformed JSON lines and continue")
+    void shouldReportMalformedJsonLines() throws IOException {
+        final var jsonl = "{\"id\":1,\"score\":0.5,\"text\":null}\n"
+                + "\n"
+                + "{\"id\":2,\n"
+                + "[1,2]\n"
+                + "{\"id\":3,\"done\":false}\n";
+        try (var reader = ImportReader.create(ExportWriter.Format.JSONL, new StringReader(jsonl))) {
+            final var first = reader.next();
+            assertTrue(first.isValid());
+            assertEquals("1", first.get("id"));
+            assertEquals("0.5", first.get("score"));
+            assertNull(first.get("text"));
+
+            final var malformed = reader.next();
+            assertEquals(3, malformed.line);
+            assertFalse(malformed.isValid());
+            assertFalse(reader.next().isValid());
+
+            final var last = reader.next();
+            assertEquals(5, last.line);
+            assertEquals("false", last.get("done"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should read back what the export writer wrote")
+    void shouldRoundTripExportedCsv() throws IOException {
+        final var out = new StringWriter();
+        try (var writer = ExportWriter.create(ExportWriter.Format.CSV, out, "id", "text")) {
+            writer.writeRow(new Object[] { 1L, "a,\"b\"\r\nc" });
+            writer.writeRow(new Object[] { 2L, null });
+        }
+
+        try (var reader = ImportReader.create(ExportWriter.Format.CSV, new StringReader(out.toString()))) {
+            assertEquals("a,\"b\"\r\nc", reader.next().get("text"));
+            assertNull(reader.next().get("text"));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect the format from the file name")
+    void shouldDetectFormat() {
+        assertEquals(ExportWriter.Format.CSV, ImportReader.formatOf("catalog.CSV"));
+        assertEquals(ExportWriter.Format.JSONL, ImportReader.formatOf("catalog.jsonl.gz"));
+        assertNull(ImportReader.formatOf("catalog.xlsx"));
+    }
+}
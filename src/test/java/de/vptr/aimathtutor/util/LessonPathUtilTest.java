@@ -0,0 +1,30 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LessonPathUtilTest {
+
+    @Test
+    @DisplayName("Should build paths of root and child lessons")
+    void shouldBuildChildPaths() {
+        assertEquals("/7/", LessonPathUtil.childPath(null, 7));
+        assertEquals("/7/", LessonPathUtil.childPath(LessonPathUtil.ROOT, 7));
+        assertEquals("/1/4/12/", LessonPathUtil.childPath("/1/4/", 12));
+    }
+
+    @Test
+    @DisplayName("Should match a lesson and its descendants only")
+    void shouldMatchSubtree() {
+        assertTrue(LessonPathUtil.isInSubtree("/1/4/", "/1/4/"));
+        assertTrue(LessonPathUtil.isInSubtree("/1/4/12/", "/1/4/"));
+        assertFalse(LessonPathUtil.isInSubtree("/1/", "/1/4/"));
+        // Lesson 41 is a sibling of lesson 4, not a descendant
+        assertFalse(LessonPathUtil.isInSubtree("/1/41/", "/1/4/"));
+        assertEquals("/1/4/%", LessonPathUtil.subtreePattern("/1/4/"));
+    }
+}
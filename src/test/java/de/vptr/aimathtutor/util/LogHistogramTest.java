@@ -0,0 +1,79 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LogHistogramTest {
+
+    @Test
+    @DisplayName("Should report exact percentiles for small values")
+    void shouldReportExactPercentilesForSmallValues() {
+        final var histogram = new LogHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10, histogram.getTotalCount());
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(9, histogram.valueAtPercentile(90));
+        assertEquals(10, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Should stay within relative error for large values")
+    void shouldStayWithinRelativeErrorForLargeValues() {
+        final var histogram = new LogHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i);
+        }
+
+        assertWithinError(50_000, histogram.valueAtPercentile(50));
+        assertWithinError(90_000, histogram.valueAtPercentile(90));
+        assertWithinError(99_000, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Should merge histograms like a single recording")
+    void shouldMergeHistograms() {
+        final var first = new LogHistogram();
+        final var second = new LogHistogram();
+        final var combined = new LogHistogram();
+        for (int i = 0; i < 1000; i++) {
+            first.record(i);
+            second.record(i * 7L);
+            combined.record(i);
+            combined.record(i * 7L);
+        }
+
+        first.merge(second);
+
+        assertEquals(combined.getTotalCount(), first.getTotalCount());
+        assertEquals(combined.valueAtPercentile(50), first.valueAtPercentile(50));
+        assertEquals(combined.valueAtPercentile(99), first.valueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Should round-trip through bytes")
+    void shouldRoundTripThroughBytes() {
+        final var histogram = new LogHistogram();
+        histogram.record(3);
+        histogram.record(1_000, 5);
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        final var restored = LogHistogram.fromBytes(histogram.toBytes());
+
+        assertEquals(histogram.getTotalCount(), restored.getTotalCount());
+        assertEquals(histogram.valueAtPercentile(50), restored.valueAtPercentile(50));
+        assertEquals(histogram.valueAtPercentile(100), restored.valueAtPercentile(100));
+        assertEquals(0, new LogHistogram().valueAtPercentile(50));
+    }
+
+    private static void assertWithinError(final long expected, final long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected * 0.02,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,43 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SearchPatternUtilTest {
+
+    @Test
+    @DisplayName("Should wrap plain terms in wildcards")
+    void shouldWrapPlainTerms() {
+        assertEquals("%algebra%", SearchPatternUtil.toContainsPattern("algebra"));
+    }
+
+    @Test
+    @DisplayName("Should escape LIKE wildcards and the escape character")
+    void shouldEscapeWildcards() {
+        assertEquals("%50\\%%", SearchPatternUtil.toContainsPattern("50%"));
+        assertEquals("%user\\_1%", SearchPatternUtil.toContainsPattern("user_1"));
+        assertEquals("%a\\\\b%", SearchPatternUtil.toContainsPattern("a\\b"));
+    }
+
+    @Test
+    @DisplayName("Should split headline snippets into plain and highlighted segments")
+    void shouldSplitHighlights() {
+        final String snippet = "solve " + SearchPatternUtil.HIGHLIGHT_START + "quadratic"
+                + SearchPatternUtil.HIGHLIGHT_END + " equations";
+
+        assertEquals(List.of("solve ", "quadratic", " equations"), SearchPatternUtil.splitHighlights(snippet));
+        assertEquals(List.of("no match"), SearchPatternUtil.splitHighlights("no match"));
+    }
+
+    @Test
+    @DisplayName("Should ignore unbalanced highlight markers")
+    void shouldIgnoreUnbalancedMarkers() {
+        final String snippet = SearchPatternUtil.HIGHLIGHT_END + "a" + SearchPatternUtil.HIGHLIGHT_START + "b";
+
+        assertEquals(List.of("a", "b"), SearchPatternUtil.splitHighlights(snippet));
+    }
+}
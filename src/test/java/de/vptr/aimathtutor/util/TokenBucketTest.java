@@ -0,0 +1,78 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Should allow one event per period for capacity one")
+    void shouldAllowOneEventPerPeriod() {
+        final var bucket = new TokenBucket(1, Duration.ofSeconds(5), 0, 0);
+
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(3 * SECOND));
+        assertFalse(bucket.tryConsume(5 * SECOND - 1));
+        assertTrue(bucket.tryConsume(5 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should allow bursts up to capacity and refill evenly")
+    void shouldAllowBurstsAndRefill() {
+        final var bucket = new TokenBucket(3, Duration.ofSeconds(3), 0, 0);
+
+        assertEquals(3, bucket.available(0));
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(0));
+        assertEquals(0, bucket.available(0));
+
+        assertEquals(1, bucket.available(SECOND));
+        assertTrue(bucket.tryConsume(SECOND));
+        assertFalse(bucket.tryConsume(SECOND));
+        assertFalse(bucket.isFull(SECOND));
+        assertTrue(bucket.isFull(4 * SECOND));
+        assertEquals(3, bucket.available(10 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should start with the tokens used before a restart spent")
+    void shouldSeedUsedTokens() {
+        final var bucket = new TokenBucket(10, Duration.ofSeconds(10), 9, 0);
+
+        assertEquals(1, bucket.available(0));
+        assertTrue(bucket.tryConsume(0));
+        assertFalse(bucket.tryConsume(0));
+
+        final var exhausted = new TokenBucket(2, Duration.ofSeconds(2), 50, 0);
+        assertFalse(exhausted.hasToken(0));
+        assertTrue(exhausted.hasToken(SECOND));
+    }
+
+    @Test
+    @DisplayName("Should work across nanoTime overflow")
+    void shouldWorkAcrossOverflow() {
+        final long start = Long.MAX_VALUE - SECOND;
+        final var bucket = new TokenBucket(1, Duration.ofSeconds(2), 0, start);
+
+        assertTrue(bucket.tryConsume(start));
+        assertFalse(bucket.tryConsume(start + SECOND));
+        assertTrue(bucket.tryConsume(start + 2 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Should reject empty buckets")
+    void shouldRejectZeroCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, Duration.ofSeconds(1), 0, 0));
+    }
+}
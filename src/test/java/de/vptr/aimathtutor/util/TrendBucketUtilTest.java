@@ -0,0 +1,52 @@
+package de.vptr.aimathtutor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TrendBucketUtilTest {
+
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Test
+    @DisplayName("Should truncate to the start of the hour and day")
+    void shouldTruncateToBucketStart() {
+        assertEquals(MIDNIGHT.withHour(10),
+                TrendBucketUtil.bucketStart(MIDNIGHT.withHour(10).withMinute(59).withSecond(59).withNano(999),
+                        ChronoUnit.HOURS));
+        assertEquals(MIDNIGHT.withHour(10), TrendBucketUtil.bucketStart(MIDNIGHT.withHour(10), ChronoUnit.HOURS));
+        assertEquals(MIDNIGHT, TrendBucketUtil.bucketStart(MIDNIGHT.withHour(23).withMinute(59), ChronoUnit.DAYS));
+        assertEquals(MIDNIGHT, TrendBucketUtil.bucketStart(MIDNIGHT, ChronoUnit.DAYS));
+    }
+
+    @Test
+    @DisplayName("Should include the bucket containing from and exclude the bucket starting at to")
+    void shouldCoverHalfOpenRange() {
+        final var hours = TrendBucketUtil.bucketStarts(MIDNIGHT.withHour(9).withMinute(30), MIDNIGHT.withHour(12),
+                ChronoUnit.HOURS);
+        assertEquals(List.of(MIDNIGHT.withHour(9), MIDNIGHT.withHour(10), MIDNIGHT.withHour(11)), hours);
+
+        final var days = TrendBucketUtil.bucketStarts(MIDNIGHT.minusDays(1), MIDNIGHT.plusDays(1).plusMinutes(1),
+                ChronoUnit.DAYS);
+        assertEquals(List.of(MIDNIGHT.minusDays(1), MIDNIGHT, MIDNIGHT.plusDays(1)), days);
+
+        assertTrue(TrendBucketUtil.bucketStarts(MIDNIGHT, MIDNIGHT, ChronoUnit.HOURS).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fill missing buckets and drop points outside of the range")
+    void shouldFillMissingBuckets() {
+        final List<LocalDateTime> points = List.of(MIDNIGHT.minusDays(1), MIDNIGHT.plusDays(1));
+        final var filled = TrendBucketUtil.fill(points, point -> point, start -> start.plusSeconds(1), MIDNIGHT,
+                MIDNIGHT.plusDays(3), ChronoUnit.DAYS);
+
+        assertEquals(List.of(MIDNIGHT.plusSeconds(1), MIDNIGHT.plusDays(1), MIDNIGHT.plusDays(2).plusSeconds(1)),
+                filled);
+    }
+}
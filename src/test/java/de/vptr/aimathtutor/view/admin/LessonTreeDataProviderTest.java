@@ -0,0 +1,76 @@
+package de.vptr.aimathtutor.view.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+
+import de.vptr.aimathtutor.dto.LessonViewDto;
+import de.vptr.aimathtutor.service.LessonService;
+
+@ExtendWith(MockitoExtension.class)
+class LessonTreeDataProviderTest {
+
+    @Mock
+    private LessonService lessonService;
+
+    private AdminLessonsView.LessonTreeDataProvider dataProvider;
+
+    @BeforeEach
+    void setUp() {
+        this.dataProvider = new AdminLessonsView.LessonTreeDataProvider(this.lessonService);
+    }
+
+    @Test
+    @DisplayName("Should count root lessons with one query")
+    void shouldCountRootLessons() {
+        when(this.lessonService.countChildren(null)).thenReturn(3L);
+
+        assertEquals(3, this.dataProvider.getChildCount(new HierarchicalQuery<>(null, null)));
+    }
+
+    @Test
+    @DisplayName("Should take child counts from the loaded lesson")
+    void shouldTakeChildCountsFromLesson() {
+        final LessonViewDto parent = lesson(1L, 2);
+
+        assertEquals(2, this.dataProvider.getChildCount(new HierarchicalQuery<>(null, parent)));
+        assertTrue(this.dataProvider.hasChildren(parent));
+        assertFalse(this.dataProvider.hasChildren(lesson(2L, 0)));
+        verifyNoInteractions(this.lessonService);
+    }
+
+    @Test
+    @DisplayName("Should load one page of children of the expanded lesson")
+    void shouldLoadPageOfChildren() {
+        final LessonViewDto parent = lesson(1L, 30);
+        final List<LessonViewDto> children = List.of(lesson(5L, 0), lesson(4L, 1));
+        when(this.lessonService.findChildren(1L, 20, 10)).thenReturn(children);
+
+        final var query = new HierarchicalQuery<LessonViewDto, Void>(20, 10, List.of(), null, null, parent);
+
+        assertEquals(children, this.dataProvider.fetchChildrenFromBackEnd(query).toList());
+        verify(this.lessonService).findChildren(1L, 20, 10);
+    }
+
+    private static LessonViewDto lesson(final Long id, final int childrenCount) {
+        final var lesson = new LessonViewDto();
+        lesson.id = id;
+        lesson.name = "Lesson " + id;
+        lesson.childrenCount = childrenCount;
+        return lesson;
+    }
+}